@@ -21,6 +21,20 @@ public interface Middleware extends Handler<RoutingContext> {
 
     String REQUEST_URI_MODIFIERS = String.format("%s-request-uri-modifiers", MODIFIERS_PREFIX);
     String REQUEST_HEADERS_MODIFIERS = String.format("%s-request-headers-modifiers", MODIFIERS_PREFIX);
+    String REQUEST_COOKIES = String.format("%s-request-cookies", MODIFIERS_PREFIX);
+
+    /**
+     * The cookies of the current request are parsed only once and shared by all
+     * middlewares. Modifications are applied to the outgoing request in the
+     * ProxyMiddleware, just before it is sent to the backend.
+     * 
+     * @param ctx
+     *            current request context
+     * @return the cookies of the current request
+     */
+    default RequestCookies requestCookies(RoutingContext ctx) {
+        return RequestCookies.of(ctx);
+    }
 
     /**
      * Vertx does not allow to change the path of a request in a common handler.
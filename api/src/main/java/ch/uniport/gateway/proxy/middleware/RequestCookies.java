@@ -0,0 +1,209 @@
+package ch.uniport.gateway.proxy.middleware;
+
+import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The cookies of a request, parsed once from its {@code Cookie} headers and
+ * shared by all middlewares handling the request.
+ * <p>
+ * Middlewares modify the cookies to be sent to the backend service in place.
+ * The headers of the incoming request are left untouched, the modified cookies
+ * are serialized once, just before the request is sent to the backend service
+ * (see {@link #writeTo(MultiMap)}). The cookies as sent by the user agent stay
+ * available by {@link #received(String)}.
+ * <p>
+ * Cookies are parsed leniently, so that cookies violating RFC 6265 (e.g.
+ * "app-platform=iOS App Store") are retained. The order of the cookies and
+ * their distribution over several {@code Cookie} headers is preserved.
+ * <p>
+ * The cookies must not be modified, replace them instead.
+ */
+public final class RequestCookies implements Iterable<Cookie> {
+
+    // https://github.com/vert-x3/vertx-web/issues/1716
+    private static final String COOKIE_DELIMITER = "; "; // RFC 6265 4.2.1
+
+    private final List<Entry> received;
+    // the header added cookies go to
+    private final int lastHeader;
+
+    // copy of the received cookies, created on the first modification
+    private List<Entry> cookies;
+
+    private RequestCookies(List<Entry> received, int lastHeader) {
+        this.received = received;
+        this.lastHeader = lastHeader;
+    }
+
+    /**
+     * @return the cookies of the current request, parsed on the first call
+     */
+    public static RequestCookies of(RoutingContext ctx) {
+        RequestCookies cookies = ctx.get(Middleware.REQUEST_COOKIES);
+        if (cookies == null) {
+            cookies = parse(ctx.request().headers().getAll(HttpHeaders.COOKIE));
+            ctx.put(Middleware.REQUEST_COOKIES, cookies);
+        }
+        return cookies;
+    }
+
+    public static RequestCookies parse(List<String> cookieHeaders) {
+        Objects.requireNonNull(cookieHeaders, "cookieHeaders must not be null");
+
+        final List<Entry> received = new ArrayList<>();
+        for (int header = 0; header < cookieHeaders.size(); header++) {
+            final String cookieHeader = cookieHeaders.get(header);
+            for (io.netty.handler.codec.http.cookie.Cookie cookie : ServerCookieDecoder.LAX.decodeAll(cookieHeader)) {
+                received.add(new Entry(Cookie.cookie(cookie.name(), cookie.value()), cookie.wrap(), header));
+            }
+        }
+        return new RequestCookies(Collections.unmodifiableList(received), Math.max(0, cookieHeaders.size() - 1));
+    }
+
+    /**
+     * @return the first cookie with the given name as sent by the user agent,
+     *         regardless of any modification, or null if there is none
+     */
+    public Cookie received(String name) {
+        return find(received, name);
+    }
+
+    /**
+     * @return the first cookie with the given name to be sent to the backend
+     *         service, or null if there is none
+     */
+    public Cookie get(String name) {
+        return find(current(), name);
+    }
+
+    /**
+     * Iterates over the cookies to be sent to the backend service.
+     */
+    @Override
+    public Iterator<Cookie> iterator() {
+        final Iterator<Entry> entries = current().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Cookie next() {
+                return entries.next().cookie;
+            }
+        };
+    }
+
+    public int size() {
+        return current().size();
+    }
+
+    /**
+     * Appends a cookie to the last {@code Cookie} header.
+     */
+    public RequestCookies add(Cookie cookie) {
+        Objects.requireNonNull(cookie, "cookie must not be null");
+        modifiable().add(new Entry(cookie, false, lastHeader));
+        return this;
+    }
+
+    /**
+     * Removes all cookies with the given name.
+     *
+     * @return true, if any cookie was removed
+     */
+    public boolean remove(String name) {
+        return removeIf(cookie -> cookie.getName().equals(name));
+    }
+
+    /**
+     * @return true, if any cookie was removed
+     */
+    public boolean removeIf(Predicate<Cookie> filter) {
+        if (current().stream().noneMatch(entry -> filter.test(entry.cookie))) {
+            // keep the cookies unmodified, so that the headers are forwarded as is
+            return false;
+        }
+        return modifiable().removeIf(entry -> filter.test(entry.cookie));
+    }
+
+    public void clear() {
+        if (!current().isEmpty()) {
+            modifiable().clear();
+        }
+    }
+
+    public boolean isModified() {
+        return cookies != null;
+    }
+
+    /**
+     * Replaces the {@code Cookie} headers by the cookies to be sent to the backend
+     * service. Empty headers are omitted. Nothing is done, if the cookies were not
+     * modified.
+     */
+    public void writeTo(MultiMap headers) {
+        if (!isModified()) {
+            return;
+        }
+        final StringBuilder[] encoded = new StringBuilder[lastHeader + 1];
+        for (Entry entry : cookies) {
+            if (encoded[entry.header] == null) {
+                encoded[entry.header] = new StringBuilder();
+            } else {
+                encoded[entry.header].append(COOKIE_DELIMITER);
+            }
+            entry.encodeTo(encoded[entry.header]);
+        }
+
+        headers.remove(HttpHeaders.COOKIE);
+        for (StringBuilder header : encoded) {
+            if (header != null) {
+                headers.add(HttpHeaders.COOKIE, header.toString());
+            }
+        }
+    }
+
+    private List<Entry> current() {
+        return cookies != null ? cookies : received;
+    }
+
+    private List<Entry> modifiable() {
+        if (cookies == null) {
+            cookies = new ArrayList<>(received);
+        }
+        return cookies;
+    }
+
+    private static Cookie find(List<Entry> entries, String name) {
+        for (Entry entry : entries) {
+            if (entry.cookie.getName().equals(name)) {
+                return entry.cookie;
+            }
+        }
+        return null;
+    }
+
+    private record Entry(Cookie cookie, boolean wrap, int header) {
+
+        void encodeTo(StringBuilder builder) {
+            builder.append(cookie.getName()).append('=');
+            if (wrap) {
+                builder.append('"').append(cookie.getValue()).append('"');
+            } else {
+                builder.append(cookie.getValue());
+            }
+        }
+    }
+}
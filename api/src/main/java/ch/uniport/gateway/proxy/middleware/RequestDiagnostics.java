@@ -0,0 +1,49 @@
+package ch.uniport.gateway.proxy.middleware;
+
+import io.vertx.ext.web.RoutingContext;
+import org.slf4j.Logger;
+
+/**
+ * Diagnostic logging of the request handled by a middleware.
+ * <p>
+ * Every middleware logs the request it handles on DEBUG. Passing
+ * {@code ctx.request().absoluteURI()} as a log argument builds the URI before
+ * the level is checked, on every request and for every middleware. The methods
+ * of this class check the level first and only evaluate the request if the
+ * message is logged, so they do not allocate when DEBUG is disabled.
+ */
+public final class RequestDiagnostics {
+
+    private static final String HANDLING_FORMAT = "{}: Handling '{}'";
+
+    private RequestDiagnostics() {
+    }
+
+    /**
+     * Logs {@code "<name>: Handling '<absolute URI>'"} on DEBUG.
+     */
+    public static void handling(Logger logger, String name, RoutingContext ctx) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(HANDLING_FORMAT, name, ctx.request().absoluteURI());
+        }
+    }
+
+    /**
+     * Logs on DEBUG with the absolute URI of the request as the only argument.
+     */
+    public static void debug(Logger logger, String format, RoutingContext ctx) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(format, ctx.request().absoluteURI());
+        }
+    }
+
+    /**
+     * Logs on DEBUG with the arguments {@code arg} and the absolute URI of the
+     * request.
+     */
+    public static void debug(Logger logger, String format, Object arg, RoutingContext ctx) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(format, arg, ctx.request().absoluteURI());
+        }
+    }
+}
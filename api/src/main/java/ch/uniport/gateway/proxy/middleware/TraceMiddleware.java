@@ -1,25 +1,67 @@
 package ch.uniport.gateway.proxy.middleware;
 
 import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
 import io.vertx.ext.web.RoutingContext;
+import java.util.Objects;
 
 /**
  * Manages trace creation and termination per middleware
+ * <p>
+ * Subclasses log the request they handle with {@link RequestDiagnostics}, so
+ * that the request is only evaluated if DEBUG is enabled.
+ * <p>
+ * Depending on the {@link TracingMode}, a span is created per middleware, only
+ * for sampled requests, or the middleware is only recorded as an event on the
+ * span of the request. Without a span of its own, a middleware gets the span
+ * of the request in {@link #handleWithTraceSpan(RoutingContext, Span)}.
  */
 public class TraceMiddleware implements Middleware {
 
+    public static final String MIDDLEWARE_EVENT = "middleware";
+    public static final AttributeKey<String> MIDDLEWARE_CLASS = AttributeKey.stringKey("middleware.class");
+
     private final Tracer tracer;
+    private final TracingMode mode;
+    // built once, events are added for every request
+    private final Attributes eventAttributes;
 
     public TraceMiddleware() {
-        this.tracer = GlobalOpenTelemetry.getTracer(TraceMiddleware.class.getName());
+        this(GlobalOpenTelemetry.getTracer(TraceMiddleware.class.getName()), TracingMode.configured());
+    }
+
+    protected TraceMiddleware(Tracer tracer, TracingMode mode) {
+        this.tracer = Objects.requireNonNull(tracer, "tracer must not be null");
+        this.mode = Objects.requireNonNull(mode, "mode must not be null");
+        this.eventAttributes = Attributes.of(MIDDLEWARE_CLASS, getClass().getName());
     }
 
     @Override
     public void handle(RoutingContext ctx) {
+        switch (mode) {
+            case SAMPLED -> {
+                final Span requestSpan = Span.current();
+                if (requestSpan.getSpanContext().isSampled()) {
+                    handleWithOwnSpan(ctx);
+                } else {
+                    handleWithTraceSpan(ctx, requestSpan);
+                }
+            }
+            case ROUTE -> handleWithRequestSpan(ctx);
+            default -> handleWithOwnSpan(ctx);
+        }
+    }
+
+    protected void handleWithTraceSpan(RoutingContext ctx, Span span) {
+        ctx.next();
+    }
+
+    private void handleWithOwnSpan(RoutingContext ctx) {
         final String spanName = getClass().getName();
         final Span span = tracer.spanBuilder(spanName).startSpan();
         final TraceRoutingContext traceCtx = new TraceRoutingContext(ctx, span);
@@ -34,8 +76,19 @@ public class TraceMiddleware implements Middleware {
         }
     }
 
-    protected void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        ctx.next();
+    private void handleWithRequestSpan(RoutingContext ctx) {
+        final Span requestSpan = Span.current();
+        final boolean recording = requestSpan.isRecording();
+        if (recording) {
+            requestSpan.addEvent(MIDDLEWARE_EVENT, eventAttributes);
+        }
+        try {
+            handleWithTraceSpan(ctx, requestSpan);
+        } catch (Throwable t) {
+            if (recording) {
+                requestSpan.recordException(t, eventAttributes);
+            }
+            throw t;
+        }
     }
-
 }
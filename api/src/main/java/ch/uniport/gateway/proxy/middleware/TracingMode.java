@@ -0,0 +1,60 @@
+package ch.uniport.gateway.proxy.middleware;
+
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * How the middlewares of a request are traced, configured by the environment
+ * variable or system property {@code UNIPORT_GATEWAY_TRACING_MODE}.
+ */
+public enum TracingMode {
+
+    /**
+     * A span per middleware for every request (default).
+     */
+    ALL,
+
+    /**
+     * A span per middleware, but only for requests whose span is sampled.
+     * Unsampled requests are handled without creating spans. Fits parent based
+     * samplers, which drop the spans of unsampled requests anyway.
+     */
+    SAMPLED,
+
+    /**
+     * No span per middleware. Each middleware adds the event
+     * {@value TraceMiddleware#MIDDLEWARE_EVENT} to the span of the request,
+     * if it is recorded. The time between two events is the time spent in a
+     * middleware.
+     */
+    ROUTE;
+
+    public static final String TRACING_MODE_KEY = "UNIPORT_GATEWAY_TRACING_MODE";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TracingMode.class);
+
+    private static final TracingMode CONFIGURED = fromValue(
+        System.getenv().getOrDefault(TRACING_MODE_KEY, System.getProperty(TRACING_MODE_KEY)));
+
+    /**
+     * @return the tracing mode of the gateway
+     */
+    public static TracingMode configured() {
+        return CONFIGURED;
+    }
+
+    static TracingMode fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        try {
+            final TracingMode mode = valueOf(value.trim().toUpperCase(Locale.ROOT));
+            LOGGER.info("Tracing middlewares in mode '{}'", mode);
+            return mode;
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Unknown tracing mode '{}', using '{}'", value, ALL);
+            return ALL;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.joran.JoranConfigurator;
 import ch.qos.logback.core.joran.spi.JoranException;
 import ch.uniport.gateway.core.GatewayVerticle;
+import ch.uniport.gateway.core.admin.AdminServer;
 import com.hazelcast.config.Config;
 import com.hazelcast.kubernetes.KubernetesProperties;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -118,6 +119,7 @@ public class GatewayLauncher extends Launcher {
     public void afterStartingVertx(Vertx vertx) {
         logger.info("After starting Vertx");
         bindJVMMetrics();
+        Runtime.getAdminPort().ifPresent(port -> AdminServer.start(vertx, Runtime.getAdminHost(), port));
     }
 
     @Override
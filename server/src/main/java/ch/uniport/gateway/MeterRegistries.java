@@ -0,0 +1,27 @@
+package ch.uniport.gateway;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.vertx.micrometer.backends.BackendRegistries;
+
+/**
+ * Lets meters be registered and recorded into unconditionally, whether
+ * metrics are enabled or not.
+ */
+public final class MeterRegistries {
+
+    // a composite without registries hands out meters which record nothing
+    private static final MeterRegistry NOOP = new CompositeMeterRegistry();
+
+    private MeterRegistries() {
+    }
+
+    /**
+     * @return the default registry, or a registry discarding all meters if
+     *         metrics are disabled
+     */
+    public static MeterRegistry getDefault() {
+        final MeterRegistry registry = BackendRegistries.getDefaultNow();
+        return registry != null ? registry : NOOP;
+    }
+}
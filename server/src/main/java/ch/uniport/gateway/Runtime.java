@@ -14,6 +14,8 @@ public final class Runtime {
 
     public static final String CLUSTERED_KEY = "UNIPORT_GATEWAY_CLUSTERED";
 
+    public static final String SHARED_CONFIGURATION_KEY = "UNIPORT_GATEWAY_SHARED_CONFIGURATION";
+
     private static final String INSTANCE_NAME_PROPERTY = "UNIPORT_GATEWAY_INSTANCE_NAME";
     public static final String DEFAULT_INSTANCE_NAME = "unknown";
 
@@ -23,6 +25,12 @@ public final class Runtime {
     public static final String LOGGING_CONFIG_PROPERTY = "UNIPORT_GATEWAY_LOGGING_CONFIG";
     public static final String STRUCTURAL_LOGGING_ENABLED_PROPERTY = "UNIPORT_GATEWAY_STRUCTURAL_LOGGING_ENABLED";
 
+    public static final String ADMIN_PORT_KEY = "UNIPORT_GATEWAY_ADMIN_PORT";
+    public static final String ADMIN_HOST_KEY = "UNIPORT_GATEWAY_ADMIN_HOST";
+    public static final String DEFAULT_ADMIN_HOST = "127.0.0.1";
+
+    public static final String COMPACT_SESSION_FORMAT_KEY = "UNIPORT_GATEWAY_COMPACT_SESSION_FORMAT";
+
     private static final String DEFAULT_LOGGING_CONFIG_FILE_PATH = "/etc/uniport-gateway";
     private static final String DEFAULT_STRUCTURED_LOGGING_CONFIG_FILE_NAME = "logback.xml";
     private static final String DEFAULT_UNSTRUCTURED_LOGGING_CONFIG_FILE_NAME = "logback-unstructured.xml";
@@ -89,6 +97,54 @@ public final class Runtime {
         return false;
     }
 
+    /**
+     * Shared configuration mode can be activated by setting the environment
+     * variable or system property 'UNIPORT_GATEWAY_SHARED_CONFIGURATION'. In this
+     * mode, the dynamic configuration is watched by a single configuration
+     * watcher for all verticle instances.
+     *
+     * @return true if shared configuration mode is activated
+     */
+    public static boolean isSharedConfiguration() {
+        final boolean envValue = toBoolean(System.getenv(SHARED_CONFIGURATION_KEY));
+        final boolean propValue = toBoolean(System.getProperty(SHARED_CONFIGURATION_KEY));
+        if (envValue || propValue) {
+            LOGGER.info("Running with shared configuration");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The admin endpoints are bound to the host set by the environment variable
+     * or system property 'UNIPORT_GATEWAY_ADMIN_HOST'. They are only reachable
+     * from the local host by default, as they require no authentication.
+     *
+     * @return the host the admin endpoints are bound to
+     */
+    public static String getAdminHost() {
+        return System.getenv().getOrDefault(ADMIN_HOST_KEY, System.getProperty(ADMIN_HOST_KEY, DEFAULT_ADMIN_HOST));
+    }
+
+    /**
+     * Writing session data in the compact format can be activated by setting the
+     * environment variable or system property
+     * 'UNIPORT_GATEWAY_COMPACT_SESSION_FORMAT'. Previous releases cannot read
+     * this format, so it must only be activated once all instances of a cluster
+     * run a release that reads it.
+     *
+     * @return true if session data is written in the compact format
+     */
+    public static boolean isCompactSessionFormat() {
+        final boolean envValue = toBoolean(System.getenv(COMPACT_SESSION_FORMAT_KEY));
+        final boolean propValue = toBoolean(System.getProperty(COMPACT_SESSION_FORMAT_KEY));
+        if (envValue || propValue) {
+            LOGGER.info("Writing session data in the compact format");
+            return true;
+        }
+        return false;
+    }
+
     public static String getInstanceName() {
         return System.getenv().getOrDefault(INSTANCE_NAME_PROPERTY, System.getProperty(INSTANCE_NAME_PROPERTY, DEFAULT_INSTANCE_NAME));
     }
@@ -97,6 +153,26 @@ public final class Runtime {
         return System.getenv().getOrDefault(EXTENSIONS_PATH_PROPERTY, System.getProperty(EXTENSIONS_PATH_PROPERTY, DEFAULT_EXTENSIONS_PATH));
     }
 
+    /**
+     * The admin endpoints are served on the port set by the environment variable
+     * or system property 'UNIPORT_GATEWAY_ADMIN_PORT'. They are disabled by
+     * default.
+     *
+     * @return the port of the admin endpoints, if enabled
+     */
+    public static Optional<Integer> getAdminPort() {
+        final String port = System.getenv().getOrDefault(ADMIN_PORT_KEY, System.getProperty(ADMIN_PORT_KEY));
+        if (port == null || port.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Integer.parseInt(port.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid admin port '{}', admin endpoints are disabled", port);
+            return Optional.empty();
+        }
+    }
+
     /**
      * This logs the error message and shuts the irrecoverably Gateway down.
      * 
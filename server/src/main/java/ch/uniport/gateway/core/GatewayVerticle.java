@@ -12,7 +12,10 @@ import ch.uniport.gateway.core.config.model.TlsModel;
 import ch.uniport.gateway.core.entrypoint.Entrypoint;
 import ch.uniport.gateway.proxy.config.model.MiddlewareModel;
 import ch.uniport.gateway.proxy.config.watcher.ConfigurationWatcher;
+import ch.uniport.gateway.proxy.listener.Listener;
 import ch.uniport.gateway.proxy.listener.RouterSwitchListener;
+import ch.uniport.gateway.proxy.listener.SharedConfigurationPublisher;
+import ch.uniport.gateway.proxy.listener.SharedConfigurationSubscriber;
 import ch.uniport.gateway.proxy.provider.aggregator.ProviderAggregator;
 import ch.uniport.gateway.proxy.router.PublicProtoHostPort;
 import ch.uniport.gateway.proxy.router.RouterFactory;
@@ -25,8 +28,10 @@ import io.vertx.core.Promise;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.Counter;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -41,6 +46,7 @@ public class GatewayVerticle extends AbstractVerticle {
     private static final Logger LOGGER = LoggerFactory.getLogger(GatewayVerticle.class);
 
     private static final String CONFIGURATION_ADDRESS = "configuration-announce-address";
+    private static final String SHARED_CONFIGURATION_WATCHER_COUNTER = "shared-configuration-watcher-counter";
 
     /**
      * Default maximum length of all headers for HTTP/1.x in bytes = {@code 10240},
@@ -126,9 +132,14 @@ public class GatewayVerticle extends AbstractVerticle {
     }
 
     private Future<CompositeFuture> runServer(StaticModel config, JsonObject env) {
+        if (Runtime.isSharedConfiguration()) {
+            return runServerWithSharedConfiguration(config, env);
+        }
+
         final Function<ConfigurationWatcher, List<Future<HttpServer>>> deployEntrypoints = w -> config.getEntrypoints()
             .stream()
-            .map(ep -> createEntrypoint(ep, env, w)
+            .map(ep -> createEntrypoint(ep, env, w::addListener)
+                .compose(entrypoint -> vertx.deployVerticle(w).map(id -> entrypoint))
                 .compose(entrypoint -> entrypoint.listen()))
             .toList();
 
@@ -137,6 +148,50 @@ public class GatewayVerticle extends AbstractVerticle {
             .mapEmpty();
     }
 
+    /**
+     * Only the first verticle instance deploys a configuration watcher (and with
+     * it the providers). It hands every dynamic configuration to all instances
+     * via the event bus.
+     */
+    private Future<CompositeFuture> runServerWithSharedConfiguration(StaticModel config, JsonObject env) {
+        final SharedConfigurationSubscriber subscriber = new SharedConfigurationSubscriber(vertx,
+            SharedConfigurationPublisher.DEFAULT_ADDRESS);
+        final List<Future<Entrypoint>> entrypoints = config.getEntrypoints()
+            .stream()
+            .map(ep -> createEntrypoint(ep, env, subscriber::addListener))
+            .toList();
+
+        return deploySharedConfigurationWatcher(config.getEntrypoints(), config.getProviders(), env)
+            .compose(v -> subscriber.subscribe())
+            .compose(v -> Future.join(entrypoints.stream()
+                .map(ep -> ep.compose(entrypoint -> entrypoint.listen()))
+                .toList()))
+            .mapEmpty();
+    }
+
+    private Future<Void> deploySharedConfigurationWatcher(
+        List<EntrypointModel> entrypoints,
+        List<ProviderModel> providers, JsonObject env
+    ) {
+        return vertx.sharedData().getLocalCounter(SHARED_CONFIGURATION_WATCHER_COUNTER)
+            .compose(Counter::getAndIncrement)
+            .compose(instance -> {
+                if (instance > 0) {
+                    LOGGER.debug("Shared configuration watcher is deployed by another instance");
+                    return Future.succeededFuture();
+                }
+
+                LOGGER.info("Deploying shared configuration watcher");
+                return deployConfigurationWatcher(entrypoints, providers, env)
+                    .compose(watcher -> {
+                        watcher.addListener(new SharedConfigurationPublisher(vertx,
+                            SharedConfigurationPublisher.DEFAULT_ADDRESS));
+                        return vertx.deployVerticle(watcher);
+                    })
+                    .mapEmpty();
+            });
+    }
+
     private Future<ConfigurationWatcher> deployConfigurationWatcher(
         List<EntrypointModel> entrypoints,
         List<ProviderModel> providers, JsonObject env
@@ -155,7 +210,7 @@ public class GatewayVerticle extends AbstractVerticle {
 
     private Future<Entrypoint> createEntrypoint(
         EntrypointModel entrypoint, JsonObject env,
-        ConfigurationWatcher watcher
+        Consumer<Listener> listenerRegistration
     ) {
         final String epName = entrypoint.getName();
         final int epPort = entrypoint.getPort();
@@ -178,10 +233,9 @@ public class GatewayVerticle extends AbstractVerticle {
         // affecting the top level router
         final GatewayRouterInternal glueRouter = GatewayRouterInternal.router(vertx, "glue");
         ep.router().mountSubRouter("/", glueRouter);
-        watcher.addListener(new RouterSwitchListener(glueRouter, routerFactory));
+        listenerRegistration.accept(new RouterSwitchListener(glueRouter, routerFactory));
 
-        return vertx.deployVerticle(watcher)
-            .map(id -> ep);
+        return Future.succeededFuture(ep);
     }
 
     private void shutdownOnStartupFailure(Throwable throwable) {
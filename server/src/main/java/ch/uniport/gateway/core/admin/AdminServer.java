@@ -0,0 +1,120 @@
+package ch.uniport.gateway.core.admin;
+
+import ch.uniport.gateway.proxy.middleware.MiddlewareFactory;
+import ch.uniport.gateway.proxy.middleware.MiddlewareFactoryLoader;
+import ch.uniport.gateway.proxy.router.MiddlewareProfiler;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP server for operating the gateway, separate from the entrypoints. The
+ * endpoints require no authentication, the server is therefore bound to the
+ * loopback interface by default.
+ * <p>
+ * {@code GET /admin/middlewares?top=10&sortBy=mean} lists the most expensive
+ * middlewares of all router chains, as measured by the
+ * {@link MiddlewareProfiler}. {@code sortBy} is one of {@code mean},
+ * {@code total} or {@code allocation}.
+ * <p>
+ * {@code POST /admin/extensions/reload} discovers the middleware factories of
+ * the extensions directory again. Configurations applied afterwards may use
+ * the middlewares of new extensions. As it loads new classes, it is only
+ * accepted from the local host, even if the server is bound to another
+ * interface.
+ */
+public final class AdminServer {
+
+    public static final String MIDDLEWARES_PATH = "/admin/middlewares";
+    public static final String RELOAD_EXTENSIONS_PATH = "/admin/extensions/reload";
+
+    static final int DEFAULT_TOP = 10;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdminServer.class);
+
+    private AdminServer() {
+    }
+
+    public static Future<HttpServer> start(Vertx vertx, String host, int port) {
+        final MiddlewareProfiler profiler = MiddlewareProfiler.instance();
+        profiler.enableAllocationTracking();
+
+        final Router router = Router.router(vertx);
+        router.get(MIDDLEWARES_PATH).handler(ctx -> topMiddlewares(ctx, profiler));
+        router.post(RELOAD_EXTENSIONS_PATH).handler(AdminServer::reloadExtensions);
+
+        return vertx.createHttpServer()
+            .requestHandler(router)
+            .listen(port, host)
+            .onSuccess(server -> LOGGER.info("Admin endpoints listening on '{}:{}'", host, server.actualPort()))
+            .onFailure(err -> LOGGER.error("Failed to start admin endpoints on '{}:{}'", host, port, err));
+    }
+
+    static void topMiddlewares(RoutingContext ctx, MiddlewareProfiler profiler) {
+        final int top;
+        try {
+            top = ctx.queryParam("top").stream().findFirst().map(Integer::parseInt).orElse(DEFAULT_TOP);
+        } catch (NumberFormatException e) {
+            ctx.response().setStatusCode(400).end("top must be a number");
+            return;
+        }
+        final String sortBy = ctx.queryParam("sortBy").stream().findFirst().orElse(MiddlewareProfiler.SORT_BY_MEAN);
+        if (top < 1) {
+            ctx.response().setStatusCode(400).end("top must be positive");
+            return;
+        }
+
+        try {
+            final String body = profiler.top(top, sortBy).encodePrettily();
+            ctx.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .end(body);
+        } catch (IllegalArgumentException e) {
+            ctx.response().setStatusCode(400).end(e.getMessage());
+        }
+    }
+
+    static void reloadExtensions(RoutingContext ctx) {
+        if (!isLocal(ctx.request().remoteAddress())) {
+            LOGGER.warn("Rejected reload of middleware factories from '{}'", ctx.request().remoteAddress());
+            ctx.response().setStatusCode(403).end("extensions can only be reloaded from the local host");
+            return;
+        }
+        // scans the extensions directory and loads classes, keep it off the event loop
+        ctx.vertx().executeBlocking(() -> {
+            final MiddlewareFactoryLoader loader = MiddlewareFactoryLoader.getInstance();
+            loader.reload();
+            return loader.listFactories().stream()
+                .map(MiddlewareFactory::provides)
+                .toList();
+        }).onSuccess(types -> {
+            LOGGER.info("Reloaded middleware factories: {}", types);
+            ctx.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .end(new JsonArray(types).encode());
+        }).onFailure(err -> {
+            LOGGER.error("Failed to reload middleware factories", err);
+            ctx.fail(err);
+        });
+    }
+
+    static boolean isLocal(SocketAddress address) {
+        if (address == null || address.hostAddress() == null) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(address.hostAddress()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
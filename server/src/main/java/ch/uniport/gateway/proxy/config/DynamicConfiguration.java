@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.config;
 
+import ch.uniport.gateway.proxy.config.model.AbstractRouterModel;
 import ch.uniport.gateway.proxy.config.model.AbstractServiceModel;
 import ch.uniport.gateway.proxy.middleware.MiddlewareFactory;
 import ch.uniport.gateway.proxy.middleware.MiddlewareFactoryLoader;
@@ -48,6 +49,7 @@ public class DynamicConfiguration {
     public static final String ROUTER_SERVICE = "service";
     public static final String ROUTER_RULE = "rule";
     public static final String ROUTER_PRIORITY = "priority";
+    public static final String ROUTER_TIMEOUT_MS = "timeoutMs";
     // middlewares
     public static final String MIDDLEWARES = "middlewares";
     public static final String MIDDLEWARE_NAME = "name";
@@ -68,6 +70,102 @@ public class DynamicConfiguration {
     public static final String SERVICE_SERVER_HTTPS_OPTIONS_TRUST_ALL = "trustAll";
     public static final String SERVICE_SERVER_HTTPS_OPTIONS_TRUST_STORE_PATH = "trustStorePath";
     public static final String SERVICE_SERVER_HTTPS_OPTIONS_TRUST_STORE_PASSWORD = "trustStorePassword";
+    public static final String SERVICE_SERVER_WEIGHT = "weight";
+    public static final String SERVICE_LOAD_BALANCER = "loadBalancer";
+    public static final String SERVICE_LOAD_BALANCER_STRATEGY = "strategy";
+    public static final String SERVICE_LOAD_BALANCER_STRATEGY_ROUND_ROBIN = "ROUND_ROBIN";
+    public static final String SERVICE_LOAD_BALANCER_STRATEGY_WEIGHTED_ROUND_ROBIN = "WEIGHTED_ROUND_ROBIN";
+    public static final String SERVICE_LOAD_BALANCER_STRATEGY_LEAST_REQUESTS = "LEAST_REQUESTS";
+    public static final String SERVICE_LOAD_BALANCER_STRATEGY_POWER_OF_TWO_CHOICES = "POWER_OF_TWO_CHOICES";
+    public static final List<String> SERVICE_LOAD_BALANCER_STRATEGIES = List.of(
+        SERVICE_LOAD_BALANCER_STRATEGY_ROUND_ROBIN,
+        SERVICE_LOAD_BALANCER_STRATEGY_WEIGHTED_ROUND_ROBIN,
+        SERVICE_LOAD_BALANCER_STRATEGY_LEAST_REQUESTS,
+        SERVICE_LOAD_BALANCER_STRATEGY_POWER_OF_TWO_CHOICES);
+    public static final String SERVICE_CONNECTION_POOL = "connectionPool";
+    public static final String SERVICE_CONNECTION_POOL_MAX_SIZE = "maxSize";
+    public static final String SERVICE_CONNECTION_POOL_HTTP2_MAX_SIZE = "http2MaxSize";
+    public static final String SERVICE_CONNECTION_POOL_HTTP2_MULTIPLEXING_LIMIT = "http2MultiplexingLimit";
+    public static final String SERVICE_CONNECTION_POOL_MAX_WAIT_QUEUE_SIZE = "maxWaitQueueSize";
+    public static final String SERVICE_CONNECTION_POOL_KEEP_ALIVE = "keepAlive";
+    public static final String SERVICE_CONNECTION_POOL_KEEP_ALIVE_TIMEOUT_SECONDS = "keepAliveTimeoutSeconds";
+    public static final String SERVICE_CONNECTION_POOL_IDLE_TIMEOUT_SECONDS = "idleTimeoutSeconds";
+    public static final String SERVICE_CONNECTION_POOL_PIPELINING = "pipelining";
+    public static final String SERVICE_CONNECTION_POOL_PIPELINING_LIMIT = "pipeliningLimit";
+    public static final String SERVICE_CONNECTION_POOL_WARM_UP_CONNECTIONS = "warmUpConnections";
+    public static final String SERVICE_TRANSPORT = "transport";
+    public static final String SERVICE_TRANSPORT_PROTOCOL_VERSION = "protocolVersion";
+    public static final String SERVICE_TRANSPORT_PROTOCOL_VERSION_HTTP_1_1 = "HTTP_1_1";
+    public static final String SERVICE_TRANSPORT_PROTOCOL_VERSION_HTTP_2 = "HTTP_2";
+    public static final List<String> SERVICE_TRANSPORT_PROTOCOL_VERSIONS = List.of(
+        SERVICE_TRANSPORT_PROTOCOL_VERSION_HTTP_1_1,
+        SERVICE_TRANSPORT_PROTOCOL_VERSION_HTTP_2);
+    public static final String SERVICE_TRANSPORT_HTTP2_CLEAR_TEXT_UPGRADE = "http2ClearTextUpgrade";
+    public static final String SERVICE_TRANSPORT_CONNECT_TIMEOUT_MS = "connectTimeoutMs";
+    public static final String SERVICE_TRANSPORT_TCP_NO_DELAY = "tcpNoDelay";
+    public static final String SERVICE_TRANSPORT_TCP_KEEP_ALIVE = "tcpKeepAlive";
+    public static final String SERVICE_TRANSPORT_TCP_FAST_OPEN = "tcpFastOpen";
+    public static final String SERVICE_TRANSPORT_TCP_QUICK_ACK = "tcpQuickAck";
+    public static final String SERVICE_HEALTH_CHECK = "healthCheck";
+    public static final String SERVICE_HEALTH_CHECK_ACTIVE = "active";
+    public static final String SERVICE_HEALTH_CHECK_ACTIVE_ENABLED = "enabled";
+    public static final String SERVICE_HEALTH_CHECK_ACTIVE_PATH = "path";
+    public static final String SERVICE_HEALTH_CHECK_ACTIVE_INTERVAL_MS = "intervalMs";
+    public static final String SERVICE_HEALTH_CHECK_ACTIVE_TIMEOUT_MS = "timeoutMs";
+    public static final String SERVICE_HEALTH_CHECK_ACTIVE_EXPECTED_STATUS = "expectedStatus";
+    public static final String SERVICE_HEALTH_CHECK_ACTIVE_UNHEALTHY_THRESHOLD = "unhealthyThreshold";
+    public static final String SERVICE_HEALTH_CHECK_ACTIVE_HEALTHY_THRESHOLD = "healthyThreshold";
+    public static final String SERVICE_HEALTH_CHECK_PASSIVE = "passive";
+    public static final String SERVICE_HEALTH_CHECK_PASSIVE_ENABLED = "enabled";
+    public static final String SERVICE_HEALTH_CHECK_PASSIVE_CONSECUTIVE_FAILURES = "consecutiveFailures";
+    public static final String SERVICE_HEALTH_CHECK_PASSIVE_LATENCY_THRESHOLD_MS = "latencyThresholdMs";
+    public static final String SERVICE_HEALTH_CHECK_PASSIVE_BASE_EJECTION_MS = "baseEjectionMs";
+    public static final String SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_MS = "maxEjectionMs";
+    public static final String SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_PERCENT = "maxEjectionPercent";
+    public static final String SERVICE_CACHE = "cache";
+    public static final String SERVICE_CACHE_ENABLED = "enabled";
+    public static final String SERVICE_CACHE_MAX_SIZE_BYTES = "maxSizeBytes";
+    public static final String SERVICE_CACHE_MAX_ENTRIES = "maxEntries";
+    public static final String SERVICE_CACHE_MAX_ENTRY_SIZE_BYTES = "maxEntrySizeBytes";
+    public static final String SERVICE_CACHE_OFF_HEAP = "offHeap";
+    public static final String SERVICE_TIMEOUT = "timeout";
+    public static final String SERVICE_TIMEOUT_FIRST_BYTE_MS = "firstByteMs";
+    public static final String SERVICE_TIMEOUT_TOTAL_MS = "totalMs";
+    public static final String SERVICE_TIMEOUT_DEADLINE_HEADER = "deadlineHeader";
+    public static final String SERVICE_CIRCUIT_BREAKER = "circuitBreaker";
+    public static final String SERVICE_CIRCUIT_BREAKER_ENABLED = "enabled";
+    public static final String SERVICE_CIRCUIT_BREAKER_WINDOW_SIZE = "windowSize";
+    public static final String SERVICE_CIRCUIT_BREAKER_MINIMUM_CALLS = "minimumCalls";
+    public static final String SERVICE_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT = "failureRatePercent";
+    public static final String SERVICE_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS = "slowCallDurationMs";
+    public static final String SERVICE_CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT = "slowCallRatePercent";
+    public static final String SERVICE_CIRCUIT_BREAKER_OPEN_DURATION_MS = "openDurationMs";
+    public static final String SERVICE_CIRCUIT_BREAKER_HALF_OPEN_CALLS = "halfOpenCalls";
+    public static final String SERVICE_CIRCUIT_BREAKER_STATUS_CODE = "statusCode";
+    public static final String SERVICE_CIRCUIT_BREAKER_BODY = "body";
+    public static final String SERVICE_BULKHEAD = "bulkhead";
+    public static final String SERVICE_BULKHEAD_ENABLED = "enabled";
+    public static final String SERVICE_BULKHEAD_MAX_CONCURRENT_REQUESTS = "maxConcurrentRequests";
+    public static final String SERVICE_BULKHEAD_STATUS_CODE = "statusCode";
+    public static final String SERVICE_RETRY = "retry";
+    public static final String SERVICE_RETRY_ENABLED = "enabled";
+    public static final String SERVICE_RETRY_MAX_RETRIES = "maxRetries";
+    public static final String SERVICE_RETRY_METHODS = "methods";
+    // idempotent methods, RFC 9110 section 9.2.2
+    public static final List<String> SERVICE_RETRY_IDEMPOTENT_METHODS = List.of(
+        "GET",
+        "HEAD",
+        "OPTIONS",
+        "TRACE",
+        "PUT",
+        "DELETE");
+    public static final String SERVICE_RETRY_STATUS_CODES = "statusCodes";
+    public static final String SERVICE_RETRY_BUDGET_PERCENT = "budgetPercent";
+    public static final String SERVICE_RETRY_MIN_RETRIES_PER_SECOND = "minRetriesPerSecond";
+    public static final String SERVICE_RETRY_HEDGE = "hedge";
+    public static final String SERVICE_RETRY_HEDGE_ENABLED = "enabled";
+    public static final String SERVICE_RETRY_HEDGE_PERCENTILE = "percentile";
+    public static final String SERVICE_RETRY_HEDGE_MIN_DELAY_MS = "minDelayMs";
     public static final String SERVICE_VERBOSE = "verbose";
 
     // A word consisting solely of underscores, digits, and alphabetics from the
@@ -77,6 +175,8 @@ public class DynamicConfiguration {
     public static final Pattern ENV_VARIABLE_PATTERN = Pattern.compile("^\\$\\{[a-zA-Z_]+[a-zA-Z0-9_]*\\}$");
 
     private static Validator validator;
+    // the factories the validator was built for, it is rebuilt after the factories are reloaded
+    private static List<MiddlewareFactory> validatorFactories;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DynamicConfiguration.class);
 
@@ -99,6 +199,9 @@ public class DynamicConfiguration {
             .requiredProperty(ROUTER_RULE, Schemas.stringSchema()
                 .with(Keywords.minLength(1)))
             .optionalProperty(ROUTER_PRIORITY, Schemas.intSchema())
+            .optionalProperty(ROUTER_TIMEOUT_MS, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                .defaultValue(AbstractRouterModel.DEFAULT_ROUTER_TIMEOUT_MS))
             .allowAdditionalProperties(false);
         return routerSchema;
     }
@@ -151,7 +254,205 @@ public class DynamicConfiguration {
                             .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1)),
                         Schemas.stringSchema()
                             .with(Keywords.pattern(ENV_VARIABLE_PATTERN))))
+                    .optionalProperty(SERVICE_SERVER_WEIGHT, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_SERVER_WEIGHT))
                     .allowAdditionalProperties(false)))
+            .optionalProperty(SERVICE_LOAD_BALANCER, Schemas.objectSchema()
+                .optionalProperty(SERVICE_LOAD_BALANCER_STRATEGY,
+                    Schemas.enumSchema(SERVICE_LOAD_BALANCER_STRATEGIES.toArray())
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_LOAD_BALANCER_STRATEGY))
+                .allowAdditionalProperties(false))
+            .optionalProperty(SERVICE_CONNECTION_POOL, Schemas.objectSchema()
+                .optionalProperty(SERVICE_CONNECTION_POOL_MAX_SIZE, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_MAX_SIZE))
+                .optionalProperty(SERVICE_CONNECTION_POOL_HTTP2_MAX_SIZE, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_HTTP2_MAX_SIZE))
+                .optionalProperty(SERVICE_CONNECTION_POOL_HTTP2_MULTIPLEXING_LIMIT, Schemas.intSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_HTTP2_MULTIPLEXING_LIMIT))
+                .optionalProperty(SERVICE_CONNECTION_POOL_MAX_WAIT_QUEUE_SIZE, Schemas.intSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_MAX_WAIT_QUEUE_SIZE))
+                .optionalProperty(SERVICE_CONNECTION_POOL_KEEP_ALIVE, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_KEEP_ALIVE))
+                .optionalProperty(SERVICE_CONNECTION_POOL_KEEP_ALIVE_TIMEOUT_SECONDS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_KEEP_ALIVE_TIMEOUT_SECONDS))
+                .optionalProperty(SERVICE_CONNECTION_POOL_IDLE_TIMEOUT_SECONDS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_IDLE_TIMEOUT_SECONDS))
+                .optionalProperty(SERVICE_CONNECTION_POOL_PIPELINING, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_PIPELINING))
+                .optionalProperty(SERVICE_CONNECTION_POOL_PIPELINING_LIMIT, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_PIPELINING_LIMIT))
+                .optionalProperty(SERVICE_CONNECTION_POOL_WARM_UP_CONNECTIONS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_WARM_UP_CONNECTIONS))
+                .allowAdditionalProperties(false))
+            .optionalProperty(SERVICE_TRANSPORT, Schemas.objectSchema()
+                .optionalProperty(SERVICE_TRANSPORT_PROTOCOL_VERSION,
+                    Schemas.enumSchema(SERVICE_TRANSPORT_PROTOCOL_VERSIONS.toArray())
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_TRANSPORT_PROTOCOL_VERSION))
+                .optionalProperty(SERVICE_TRANSPORT_HTTP2_CLEAR_TEXT_UPGRADE, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_TRANSPORT_HTTP2_CLEAR_TEXT_UPGRADE))
+                .optionalProperty(SERVICE_TRANSPORT_CONNECT_TIMEOUT_MS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_TRANSPORT_CONNECT_TIMEOUT_MS))
+                .optionalProperty(SERVICE_TRANSPORT_TCP_NO_DELAY, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_TRANSPORT_TCP_NO_DELAY))
+                .optionalProperty(SERVICE_TRANSPORT_TCP_KEEP_ALIVE, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_TRANSPORT_TCP_KEEP_ALIVE))
+                .optionalProperty(SERVICE_TRANSPORT_TCP_FAST_OPEN, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_TRANSPORT_TCP_FAST_OPEN))
+                .optionalProperty(SERVICE_TRANSPORT_TCP_QUICK_ACK, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_TRANSPORT_TCP_QUICK_ACK))
+                .allowAdditionalProperties(false))
+            .optionalProperty(SERVICE_HEALTH_CHECK, Schemas.objectSchema()
+                .optionalProperty(SERVICE_HEALTH_CHECK_ACTIVE, Schemas.objectSchema()
+                    .optionalProperty(SERVICE_HEALTH_CHECK_ACTIVE_ENABLED, Schemas.booleanSchema()
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_ENABLED))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_ACTIVE_PATH, Schemas.stringSchema()
+                        .with(Keywords.minLength(1))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_PATH))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_ACTIVE_INTERVAL_MS, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_INTERVAL_MS))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_ACTIVE_TIMEOUT_MS, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_TIMEOUT_MS))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_ACTIVE_EXPECTED_STATUS, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(100))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_EXPECTED_STATUS))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_ACTIVE_UNHEALTHY_THRESHOLD, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_UNHEALTHY_THRESHOLD))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_ACTIVE_HEALTHY_THRESHOLD, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_HEALTHY_THRESHOLD))
+                    .allowAdditionalProperties(false))
+                .optionalProperty(SERVICE_HEALTH_CHECK_PASSIVE, Schemas.objectSchema()
+                    .optionalProperty(SERVICE_HEALTH_CHECK_PASSIVE_ENABLED, Schemas.booleanSchema()
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_ENABLED))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_PASSIVE_CONSECUTIVE_FAILURES, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_CONSECUTIVE_FAILURES))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_PASSIVE_LATENCY_THRESHOLD_MS, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_LATENCY_THRESHOLD_MS))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_PASSIVE_BASE_EJECTION_MS, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_BASE_EJECTION_MS))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_MS, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_MS))
+                    .optionalProperty(SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_PERCENT, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.maximum(100))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_PERCENT))
+                    .allowAdditionalProperties(false))
+                .allowAdditionalProperties(false))
+            .optionalProperty(SERVICE_CACHE, Schemas.objectSchema()
+                .optionalProperty(SERVICE_CACHE_ENABLED, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CACHE_ENABLED))
+                .optionalProperty(SERVICE_CACHE_MAX_SIZE_BYTES, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CACHE_MAX_SIZE_BYTES))
+                .optionalProperty(SERVICE_CACHE_MAX_ENTRIES, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CACHE_MAX_ENTRIES))
+                .optionalProperty(SERVICE_CACHE_MAX_ENTRY_SIZE_BYTES, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CACHE_MAX_ENTRY_SIZE_BYTES))
+                .optionalProperty(SERVICE_CACHE_OFF_HEAP, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CACHE_OFF_HEAP))
+                .allowAdditionalProperties(false))
+            .optionalProperty(SERVICE_TIMEOUT, Schemas.objectSchema()
+                .optionalProperty(SERVICE_TIMEOUT_FIRST_BYTE_MS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_TIMEOUT_FIRST_BYTE_MS))
+                .optionalProperty(SERVICE_TIMEOUT_TOTAL_MS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_TIMEOUT_TOTAL_MS))
+                .optionalProperty(SERVICE_TIMEOUT_DEADLINE_HEADER, Schemas.stringSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_TIMEOUT_DEADLINE_HEADER))
+                .allowAdditionalProperties(false))
+            .optionalProperty(SERVICE_CIRCUIT_BREAKER, Schemas.objectSchema()
+                .optionalProperty(SERVICE_CIRCUIT_BREAKER_ENABLED, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_ENABLED))
+                .optionalProperty(SERVICE_CIRCUIT_BREAKER_WINDOW_SIZE, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_WINDOW_SIZE))
+                .optionalProperty(SERVICE_CIRCUIT_BREAKER_MINIMUM_CALLS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_MINIMUM_CALLS))
+                .optionalProperty(SERVICE_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.maximum(100))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT))
+                .optionalProperty(SERVICE_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS))
+                .optionalProperty(SERVICE_CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.maximum(100))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT))
+                .optionalProperty(SERVICE_CIRCUIT_BREAKER_OPEN_DURATION_MS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_OPEN_DURATION_MS))
+                .optionalProperty(SERVICE_CIRCUIT_BREAKER_HALF_OPEN_CALLS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_HALF_OPEN_CALLS))
+                .optionalProperty(SERVICE_CIRCUIT_BREAKER_STATUS_CODE, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(100))
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.maximum(599))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_STATUS_CODE))
+                .optionalProperty(SERVICE_CIRCUIT_BREAKER_BODY, Schemas.stringSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_BODY))
+                .allowAdditionalProperties(false))
+            .optionalProperty(SERVICE_BULKHEAD, Schemas.objectSchema()
+                .optionalProperty(SERVICE_BULKHEAD_ENABLED, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_BULKHEAD_ENABLED))
+                .optionalProperty(SERVICE_BULKHEAD_MAX_CONCURRENT_REQUESTS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_BULKHEAD_MAX_CONCURRENT_REQUESTS))
+                .optionalProperty(SERVICE_BULKHEAD_STATUS_CODE, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(100))
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.maximum(599))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_BULKHEAD_STATUS_CODE))
+                .allowAdditionalProperties(false))
+            .optionalProperty(SERVICE_RETRY, Schemas.objectSchema()
+                .optionalProperty(SERVICE_RETRY_ENABLED, Schemas.booleanSchema()
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_RETRY_ENABLED))
+                .optionalProperty(SERVICE_RETRY_MAX_RETRIES, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_RETRY_MAX_RETRIES))
+                .optionalProperty(SERVICE_RETRY_METHODS, Schemas.arraySchema()
+                    .items(Schemas.enumSchema(SERVICE_RETRY_IDEMPOTENT_METHODS.toArray())))
+                .optionalProperty(SERVICE_RETRY_STATUS_CODES, Schemas.arraySchema()
+                    .items(Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(100))
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.maximum(599))))
+                .optionalProperty(SERVICE_RETRY_BUDGET_PERCENT, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.maximum(100))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_RETRY_BUDGET_PERCENT))
+                .optionalProperty(SERVICE_RETRY_MIN_RETRIES_PER_SECOND, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                    .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_RETRY_MIN_RETRIES_PER_SECOND))
+                .optionalProperty(SERVICE_RETRY_HEDGE, Schemas.objectSchema()
+                    .optionalProperty(SERVICE_RETRY_HEDGE_ENABLED, Schemas.booleanSchema()
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_RETRY_HEDGE_ENABLED))
+                    .optionalProperty(SERVICE_RETRY_HEDGE_PERCENTILE, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.maximum(99))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_RETRY_HEDGE_PERCENTILE))
+                    .optionalProperty(SERVICE_RETRY_HEDGE_MIN_DELAY_MS, Schemas.intSchema()
+                        .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                        .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_RETRY_HEDGE_MIN_DELAY_MS))
+                    .allowAdditionalProperties(false))
+                .allowAdditionalProperties(false))
             .optionalProperty(SERVICE_VERBOSE, Schemas.booleanSchema()
                 .defaultValue(AbstractServiceModel.DEFAULT_SERVICE_VERBOSE))
             .allowAdditionalProperties(false);
@@ -383,8 +684,10 @@ public class DynamicConfiguration {
         Vertx vertx, JsonObject json, boolean requireCompleteConfig,
         boolean omitInvalidRouters
     ) {
-        if (validator == null) {
+        final List<MiddlewareFactory> factories = MiddlewareFactoryLoader.getInstance().listFactories();
+        if (validator == null || validatorFactories != factories) {
             validator = buildValidator();
+            validatorFactories = factories;
         }
 
         final OutputUnit result;
@@ -1,6 +1,7 @@
 package ch.uniport.gateway.proxy.config.label;
 
 import ch.uniport.gateway.proxy.config.DynamicConfiguration;
+import ch.uniport.gateway.proxy.middleware.MiddlewareFactoryLoader;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import java.util.ArrayList;
@@ -150,7 +151,7 @@ public class Parser {
                     child = children.getJsonObject(0);
                 }
                 decodeToJson(child, path.subList(1, path.size()), value);
-            } else if (DynamicConfiguration.MIDDLEWARE_TYPES.contains(key)) {
+            } else if (MiddlewareFactoryLoader.getInstance().getFactory(key).isPresent()) {
                 final JsonObject child;
                 if (root.containsKey(DynamicConfiguration.MIDDLEWARE_OPTIONS)) {
                     child = root.getJsonObject(DynamicConfiguration.MIDDLEWARE_OPTIONS);
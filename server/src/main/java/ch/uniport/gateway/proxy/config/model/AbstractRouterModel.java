@@ -13,6 +13,9 @@ import org.immutables.value.Value.Immutable;
 @JsonDeserialize(builder = RouterModel.Builder.class)
 public abstract class AbstractRouterModel implements Comparable<AbstractRouterModel> {
 
+    // defaults
+    public static final int DEFAULT_ROUTER_TIMEOUT_MS = 0;
+
     @JsonProperty(DynamicConfiguration.ROUTER_NAME)
     public abstract String getName();
 
@@ -34,6 +37,16 @@ public abstract class AbstractRouterModel implements Comparable<AbstractRouterMo
     @JsonProperty(DynamicConfiguration.ROUTER_SERVICE)
     public abstract String getService();
 
+    /**
+     * Time in milliseconds a request may take from entering the router until
+     * its response is sent, including the middlewares. 0 disables the timeout.
+     */
+    @Default
+    @JsonProperty(DynamicConfiguration.ROUTER_TIMEOUT_MS)
+    public int getTimeoutMs() {
+        return DEFAULT_ROUTER_TIMEOUT_MS;
+    }
+
     /**
      * To avoid path overlap, routes are sorted, by default, in descending order
      * using rules length. The priority is directly equal to the length of the
@@ -3,9 +3,12 @@ package ch.uniport.gateway.proxy.config.model;
 import ch.uniport.gateway.proxy.config.DynamicConfiguration;
 import ch.uniport.gateway.proxy.middleware.MiddlewareOptionsModel;
 import ch.uniport.gateway.proxy.middleware.ModelStyle;
+import ch.uniport.gateway.proxy.service.loadBalancer.LoadBalancingStrategy;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.google.common.base.Preconditions;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.immutables.value.Value.Check;
@@ -26,6 +29,66 @@ public abstract class AbstractServiceModel {
     public static final boolean DEFAULT_SERVICE_SERVER_HTTPS_OPTIONS_TRUST_ALL = true;
     public static final String DEFAULT_SERVICE_SERVER_HTTPS_OPTIONS_TRUST_STORE_PATH = null;
     public static final String DEFAULT_SERVICE_SERVER_HTTPS_OPTIONS_TRUST_STORE_PASSWORD = null;
+    public static final int DEFAULT_SERVICE_SERVER_WEIGHT = 1;
+    public static final LoadBalancingStrategy DEFAULT_SERVICE_LOAD_BALANCER_STRATEGY = LoadBalancingStrategy.ROUND_ROBIN;
+    public static final int DEFAULT_SERVICE_CONNECTION_POOL_MAX_SIZE = HttpClientOptions.DEFAULT_MAX_POOL_SIZE;
+    public static final int DEFAULT_SERVICE_CONNECTION_POOL_HTTP2_MAX_SIZE = HttpClientOptions.DEFAULT_HTTP2_MAX_POOL_SIZE;
+    public static final int DEFAULT_SERVICE_CONNECTION_POOL_HTTP2_MULTIPLEXING_LIMIT = HttpClientOptions.DEFAULT_HTTP2_MULTIPLEXING_LIMIT;
+    public static final int DEFAULT_SERVICE_CONNECTION_POOL_MAX_WAIT_QUEUE_SIZE = HttpClientOptions.DEFAULT_MAX_WAIT_QUEUE_SIZE;
+    public static final boolean DEFAULT_SERVICE_CONNECTION_POOL_KEEP_ALIVE = HttpClientOptions.DEFAULT_KEEP_ALIVE;
+    public static final int DEFAULT_SERVICE_CONNECTION_POOL_KEEP_ALIVE_TIMEOUT_SECONDS = HttpClientOptions.DEFAULT_KEEP_ALIVE_TIMEOUT;
+    public static final int DEFAULT_SERVICE_CONNECTION_POOL_IDLE_TIMEOUT_SECONDS = HttpClientOptions.DEFAULT_IDLE_TIMEOUT;
+    public static final boolean DEFAULT_SERVICE_CONNECTION_POOL_PIPELINING = HttpClientOptions.DEFAULT_PIPELINING;
+    public static final int DEFAULT_SERVICE_CONNECTION_POOL_PIPELINING_LIMIT = HttpClientOptions.DEFAULT_PIPELINING_LIMIT;
+    public static final int DEFAULT_SERVICE_CONNECTION_POOL_WARM_UP_CONNECTIONS = 0;
+    public static final HttpVersion DEFAULT_SERVICE_TRANSPORT_PROTOCOL_VERSION = HttpVersion.HTTP_1_1;
+    public static final boolean DEFAULT_SERVICE_TRANSPORT_HTTP2_CLEAR_TEXT_UPGRADE = HttpClientOptions.DEFAULT_HTTP2_CLEAR_TEXT_UPGRADE;
+    public static final int DEFAULT_SERVICE_TRANSPORT_CONNECT_TIMEOUT_MS = HttpClientOptions.DEFAULT_CONNECT_TIMEOUT;
+    public static final boolean DEFAULT_SERVICE_TRANSPORT_TCP_NO_DELAY = HttpClientOptions.DEFAULT_TCP_NO_DELAY;
+    public static final boolean DEFAULT_SERVICE_TRANSPORT_TCP_KEEP_ALIVE = HttpClientOptions.DEFAULT_TCP_KEEP_ALIVE;
+    public static final boolean DEFAULT_SERVICE_TRANSPORT_TCP_FAST_OPEN = HttpClientOptions.DEFAULT_TCP_FAST_OPEN;
+    public static final boolean DEFAULT_SERVICE_TRANSPORT_TCP_QUICK_ACK = HttpClientOptions.DEFAULT_TCP_QUICKACK;
+    public static final boolean DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_ENABLED = false;
+    public static final String DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_PATH = "/";
+    public static final int DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_INTERVAL_MS = 10_000;
+    public static final int DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_TIMEOUT_MS = 2_000;
+    public static final int DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_EXPECTED_STATUS = 200;
+    public static final int DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_UNHEALTHY_THRESHOLD = 2;
+    public static final int DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_HEALTHY_THRESHOLD = 1;
+    public static final boolean DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_ENABLED = false;
+    public static final int DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_CONSECUTIVE_FAILURES = 5;
+    public static final int DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_LATENCY_THRESHOLD_MS = 0;
+    public static final int DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_BASE_EJECTION_MS = 30_000;
+    public static final int DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_MS = 300_000;
+    public static final int DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_PERCENT = 50;
+    public static final boolean DEFAULT_SERVICE_CACHE_ENABLED = false;
+    public static final int DEFAULT_SERVICE_CACHE_MAX_SIZE_BYTES = 16 * 1024 * 1024;
+    public static final int DEFAULT_SERVICE_CACHE_MAX_ENTRIES = 10_000;
+    public static final int DEFAULT_SERVICE_CACHE_MAX_ENTRY_SIZE_BYTES = 1024 * 1024;
+    public static final boolean DEFAULT_SERVICE_CACHE_OFF_HEAP = false;
+    public static final int DEFAULT_SERVICE_TIMEOUT_FIRST_BYTE_MS = 0;
+    public static final int DEFAULT_SERVICE_TIMEOUT_TOTAL_MS = 0;
+    public static final String DEFAULT_SERVICE_TIMEOUT_DEADLINE_HEADER = "X-Request-Timeout-Ms";
+    public static final boolean DEFAULT_SERVICE_CIRCUIT_BREAKER_ENABLED = false;
+    public static final int DEFAULT_SERVICE_CIRCUIT_BREAKER_WINDOW_SIZE = 100;
+    public static final int DEFAULT_SERVICE_CIRCUIT_BREAKER_MINIMUM_CALLS = 20;
+    public static final int DEFAULT_SERVICE_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT = 50;
+    public static final int DEFAULT_SERVICE_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS = 0;
+    public static final int DEFAULT_SERVICE_CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT = 100;
+    public static final int DEFAULT_SERVICE_CIRCUIT_BREAKER_OPEN_DURATION_MS = 30_000;
+    public static final int DEFAULT_SERVICE_CIRCUIT_BREAKER_HALF_OPEN_CALLS = 5;
+    public static final int DEFAULT_SERVICE_CIRCUIT_BREAKER_STATUS_CODE = 503;
+    public static final String DEFAULT_SERVICE_CIRCUIT_BREAKER_BODY = "";
+    public static final boolean DEFAULT_SERVICE_BULKHEAD_ENABLED = false;
+    public static final int DEFAULT_SERVICE_BULKHEAD_MAX_CONCURRENT_REQUESTS = 100;
+    public static final int DEFAULT_SERVICE_BULKHEAD_STATUS_CODE = 503;
+    public static final boolean DEFAULT_SERVICE_RETRY_ENABLED = false;
+    public static final int DEFAULT_SERVICE_RETRY_MAX_RETRIES = 1;
+    public static final int DEFAULT_SERVICE_RETRY_BUDGET_PERCENT = 20;
+    public static final int DEFAULT_SERVICE_RETRY_MIN_RETRIES_PER_SECOND = 10;
+    public static final boolean DEFAULT_SERVICE_RETRY_HEDGE_ENABLED = false;
+    public static final int DEFAULT_SERVICE_RETRY_HEDGE_PERCENTILE = 95;
+    public static final int DEFAULT_SERVICE_RETRY_HEDGE_MIN_DELAY_MS = 10;
     public static final boolean DEFAULT_SERVICE_VERBOSE = false;
 
     @Check
@@ -39,6 +102,69 @@ public abstract class AbstractServiceModel {
     @JsonProperty(DynamicConfiguration.SERVICE_SERVERS)
     public abstract List<ServerOptions> getServers();
 
+    @Default
+    @JsonProperty(DynamicConfiguration.SERVICE_LOAD_BALANCER)
+    public LoadBalancerOptions getLoadBalancer() {
+        logDefault(LOGGER, DynamicConfiguration.SERVICE_LOAD_BALANCER, DEFAULT_SERVICE_LOAD_BALANCER_STRATEGY);
+        return LoadBalancerOptions.builder().build();
+    }
+
+    @Default
+    @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL)
+    public ConnectionPoolOptions getConnectionPool() {
+        logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL);
+        return ConnectionPoolOptions.builder().build();
+    }
+
+    @Default
+    @JsonProperty(DynamicConfiguration.SERVICE_TRANSPORT)
+    public TransportOptions getTransport() {
+        logDefault(LOGGER, DynamicConfiguration.SERVICE_TRANSPORT);
+        return TransportOptions.builder().build();
+    }
+
+    @Default
+    @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK)
+    public HealthCheckOptions getHealthCheck() {
+        logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK);
+        return HealthCheckOptions.builder().build();
+    }
+
+    @Default
+    @JsonProperty(DynamicConfiguration.SERVICE_CACHE)
+    public ResponseCacheOptions getCache() {
+        logDefault(LOGGER, DynamicConfiguration.SERVICE_CACHE);
+        return ResponseCacheOptions.builder().build();
+    }
+
+    @Default
+    @JsonProperty(DynamicConfiguration.SERVICE_TIMEOUT)
+    public TimeoutOptions getTimeout() {
+        logDefault(LOGGER, DynamicConfiguration.SERVICE_TIMEOUT);
+        return TimeoutOptions.builder().build();
+    }
+
+    @Default
+    @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER)
+    public CircuitBreakerOptions getCircuitBreaker() {
+        logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER);
+        return CircuitBreakerOptions.builder().build();
+    }
+
+    @Default
+    @JsonProperty(DynamicConfiguration.SERVICE_BULKHEAD)
+    public BulkheadOptions getBulkhead() {
+        logDefault(LOGGER, DynamicConfiguration.SERVICE_BULKHEAD);
+        return BulkheadOptions.builder().build();
+    }
+
+    @Default
+    @JsonProperty(DynamicConfiguration.SERVICE_RETRY)
+    public RetryOptions getRetry() {
+        logDefault(LOGGER, DynamicConfiguration.SERVICE_RETRY);
+        return RetryOptions.builder().build();
+    }
+
     @Default
     @JsonProperty(DynamicConfiguration.SERVICE_VERBOSE)
     public boolean isVerbose() {
@@ -51,6 +177,11 @@ public abstract class AbstractServiceModel {
     @JsonDeserialize(builder = ServerOptions.Builder.class)
     public abstract static class AbstractServerOptions implements MiddlewareOptionsModel {
 
+        @Check
+        protected void validate() {
+            Preconditions.checkState(getWeight() >= 1, "'getWeight' must be at least 1");
+        }
+
         @Default
         @JsonProperty(DynamicConfiguration.SERVICE_SERVER_PROTOCOL)
         public String getProtocol() {
@@ -69,6 +200,627 @@ public abstract class AbstractServiceModel {
             logDefault(LOGGER, DynamicConfiguration.SERVICE_SERVER_HTTPS_OPTIONS);
             return HTTPsOptions.builder().build();
         }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_SERVER_WEIGHT)
+        public int getWeight() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_SERVER_WEIGHT, DEFAULT_SERVICE_SERVER_WEIGHT);
+            return DEFAULT_SERVICE_SERVER_WEIGHT;
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = LoadBalancerOptions.Builder.class)
+    public abstract static class AbstractLoadBalancerOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_LOAD_BALANCER_STRATEGY)
+        public LoadBalancingStrategy getStrategy() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_LOAD_BALANCER_STRATEGY,
+                DEFAULT_SERVICE_LOAD_BALANCER_STRATEGY);
+            return DEFAULT_SERVICE_LOAD_BALANCER_STRATEGY;
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = ConnectionPoolOptions.Builder.class)
+    public abstract static class AbstractConnectionPoolOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL_MAX_SIZE)
+        public int getMaxSize() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL_MAX_SIZE,
+                DEFAULT_SERVICE_CONNECTION_POOL_MAX_SIZE);
+            return DEFAULT_SERVICE_CONNECTION_POOL_MAX_SIZE;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL_HTTP2_MAX_SIZE)
+        public int getHttp2MaxSize() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL_HTTP2_MAX_SIZE,
+                DEFAULT_SERVICE_CONNECTION_POOL_HTTP2_MAX_SIZE);
+            return DEFAULT_SERVICE_CONNECTION_POOL_HTTP2_MAX_SIZE;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL_HTTP2_MULTIPLEXING_LIMIT)
+        public int getHttp2MultiplexingLimit() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL_HTTP2_MULTIPLEXING_LIMIT,
+                DEFAULT_SERVICE_CONNECTION_POOL_HTTP2_MULTIPLEXING_LIMIT);
+            return DEFAULT_SERVICE_CONNECTION_POOL_HTTP2_MULTIPLEXING_LIMIT;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL_MAX_WAIT_QUEUE_SIZE)
+        public int getMaxWaitQueueSize() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL_MAX_WAIT_QUEUE_SIZE,
+                DEFAULT_SERVICE_CONNECTION_POOL_MAX_WAIT_QUEUE_SIZE);
+            return DEFAULT_SERVICE_CONNECTION_POOL_MAX_WAIT_QUEUE_SIZE;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL_KEEP_ALIVE)
+        public boolean isKeepAlive() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL_KEEP_ALIVE,
+                DEFAULT_SERVICE_CONNECTION_POOL_KEEP_ALIVE);
+            return DEFAULT_SERVICE_CONNECTION_POOL_KEEP_ALIVE;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL_KEEP_ALIVE_TIMEOUT_SECONDS)
+        public int getKeepAliveTimeoutSeconds() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL_KEEP_ALIVE_TIMEOUT_SECONDS,
+                DEFAULT_SERVICE_CONNECTION_POOL_KEEP_ALIVE_TIMEOUT_SECONDS);
+            return DEFAULT_SERVICE_CONNECTION_POOL_KEEP_ALIVE_TIMEOUT_SECONDS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL_IDLE_TIMEOUT_SECONDS)
+        public int getIdleTimeoutSeconds() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL_IDLE_TIMEOUT_SECONDS,
+                DEFAULT_SERVICE_CONNECTION_POOL_IDLE_TIMEOUT_SECONDS);
+            return DEFAULT_SERVICE_CONNECTION_POOL_IDLE_TIMEOUT_SECONDS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL_PIPELINING)
+        public boolean isPipelining() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL_PIPELINING,
+                DEFAULT_SERVICE_CONNECTION_POOL_PIPELINING);
+            return DEFAULT_SERVICE_CONNECTION_POOL_PIPELINING;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL_PIPELINING_LIMIT)
+        public int getPipeliningLimit() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL_PIPELINING_LIMIT,
+                DEFAULT_SERVICE_CONNECTION_POOL_PIPELINING_LIMIT);
+            return DEFAULT_SERVICE_CONNECTION_POOL_PIPELINING_LIMIT;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CONNECTION_POOL_WARM_UP_CONNECTIONS)
+        public int getWarmUpConnections() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CONNECTION_POOL_WARM_UP_CONNECTIONS,
+                DEFAULT_SERVICE_CONNECTION_POOL_WARM_UP_CONNECTIONS);
+            return DEFAULT_SERVICE_CONNECTION_POOL_WARM_UP_CONNECTIONS;
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = TransportOptions.Builder.class)
+    public abstract static class AbstractTransportOptions implements MiddlewareOptionsModel {
+
+        @Check
+        protected void validate() {
+            Preconditions.checkState(getProtocolVersion() != HttpVersion.HTTP_1_0,
+                "'getProtocolVersion' must be HTTP_1_1 or HTTP_2");
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_TRANSPORT_PROTOCOL_VERSION)
+        public HttpVersion getProtocolVersion() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_TRANSPORT_PROTOCOL_VERSION,
+                DEFAULT_SERVICE_TRANSPORT_PROTOCOL_VERSION);
+            return DEFAULT_SERVICE_TRANSPORT_PROTOCOL_VERSION;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_TRANSPORT_HTTP2_CLEAR_TEXT_UPGRADE)
+        public boolean isHttp2ClearTextUpgrade() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_TRANSPORT_HTTP2_CLEAR_TEXT_UPGRADE,
+                DEFAULT_SERVICE_TRANSPORT_HTTP2_CLEAR_TEXT_UPGRADE);
+            return DEFAULT_SERVICE_TRANSPORT_HTTP2_CLEAR_TEXT_UPGRADE;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_TRANSPORT_CONNECT_TIMEOUT_MS)
+        public int getConnectTimeoutMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_TRANSPORT_CONNECT_TIMEOUT_MS,
+                DEFAULT_SERVICE_TRANSPORT_CONNECT_TIMEOUT_MS);
+            return DEFAULT_SERVICE_TRANSPORT_CONNECT_TIMEOUT_MS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_TRANSPORT_TCP_NO_DELAY)
+        public boolean isTcpNoDelay() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_TRANSPORT_TCP_NO_DELAY,
+                DEFAULT_SERVICE_TRANSPORT_TCP_NO_DELAY);
+            return DEFAULT_SERVICE_TRANSPORT_TCP_NO_DELAY;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_TRANSPORT_TCP_KEEP_ALIVE)
+        public boolean isTcpKeepAlive() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_TRANSPORT_TCP_KEEP_ALIVE,
+                DEFAULT_SERVICE_TRANSPORT_TCP_KEEP_ALIVE);
+            return DEFAULT_SERVICE_TRANSPORT_TCP_KEEP_ALIVE;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_TRANSPORT_TCP_FAST_OPEN)
+        public boolean isTcpFastOpen() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_TRANSPORT_TCP_FAST_OPEN,
+                DEFAULT_SERVICE_TRANSPORT_TCP_FAST_OPEN);
+            return DEFAULT_SERVICE_TRANSPORT_TCP_FAST_OPEN;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_TRANSPORT_TCP_QUICK_ACK)
+        public boolean isTcpQuickAck() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_TRANSPORT_TCP_QUICK_ACK,
+                DEFAULT_SERVICE_TRANSPORT_TCP_QUICK_ACK);
+            return DEFAULT_SERVICE_TRANSPORT_TCP_QUICK_ACK;
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = HealthCheckOptions.Builder.class)
+    public abstract static class AbstractHealthCheckOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE)
+        public ActiveHealthCheckOptions getActive() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE);
+            return ActiveHealthCheckOptions.builder().build();
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE)
+        public PassiveHealthCheckOptions getPassive() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE);
+            return PassiveHealthCheckOptions.builder().build();
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = ActiveHealthCheckOptions.Builder.class)
+    public abstract static class AbstractActiveHealthCheckOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_ENABLED)
+        public boolean isEnabled() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_ENABLED,
+                DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_ENABLED);
+            return DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_ENABLED;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_PATH)
+        public String getPath() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_PATH,
+                DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_PATH);
+            return DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_PATH;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_INTERVAL_MS)
+        public int getIntervalMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_INTERVAL_MS,
+                DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_INTERVAL_MS);
+            return DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_INTERVAL_MS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_TIMEOUT_MS)
+        public int getTimeoutMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_TIMEOUT_MS,
+                DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_TIMEOUT_MS);
+            return DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_TIMEOUT_MS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_EXPECTED_STATUS)
+        public int getExpectedStatus() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_EXPECTED_STATUS,
+                DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_EXPECTED_STATUS);
+            return DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_EXPECTED_STATUS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_UNHEALTHY_THRESHOLD)
+        public int getUnhealthyThreshold() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_UNHEALTHY_THRESHOLD,
+                DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_UNHEALTHY_THRESHOLD);
+            return DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_UNHEALTHY_THRESHOLD;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_HEALTHY_THRESHOLD)
+        public int getHealthyThreshold() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_HEALTHY_THRESHOLD,
+                DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_HEALTHY_THRESHOLD);
+            return DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_HEALTHY_THRESHOLD;
+        }
+
+        @Check
+        protected void validate() {
+            Preconditions.checkState(getPath().startsWith("/"), "'getPath' must start with '/'");
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = PassiveHealthCheckOptions.Builder.class)
+    public abstract static class AbstractPassiveHealthCheckOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_ENABLED)
+        public boolean isEnabled() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_ENABLED,
+                DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_ENABLED);
+            return DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_ENABLED;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_CONSECUTIVE_FAILURES)
+        public int getConsecutiveFailures() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_CONSECUTIVE_FAILURES,
+                DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_CONSECUTIVE_FAILURES);
+            return DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_CONSECUTIVE_FAILURES;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_LATENCY_THRESHOLD_MS)
+        public int getLatencyThresholdMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_LATENCY_THRESHOLD_MS,
+                DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_LATENCY_THRESHOLD_MS);
+            return DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_LATENCY_THRESHOLD_MS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_BASE_EJECTION_MS)
+        public int getBaseEjectionMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_BASE_EJECTION_MS,
+                DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_BASE_EJECTION_MS);
+            return DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_BASE_EJECTION_MS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_MS)
+        public int getMaxEjectionMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_MS,
+                DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_MS);
+            return DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_MS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_PERCENT)
+        public int getMaxEjectionPercent() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_PERCENT,
+                DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_PERCENT);
+            return DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_MAX_EJECTION_PERCENT;
+        }
+
+        @Check
+        protected void validate() {
+            Preconditions.checkState(getMaxEjectionMs() >= getBaseEjectionMs(),
+                "'getMaxEjectionMs' must not be smaller than 'getBaseEjectionMs'");
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = ResponseCacheOptions.Builder.class)
+    public abstract static class AbstractResponseCacheOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CACHE_ENABLED)
+        public boolean isEnabled() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CACHE_ENABLED,
+                DEFAULT_SERVICE_CACHE_ENABLED);
+            return DEFAULT_SERVICE_CACHE_ENABLED;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CACHE_MAX_SIZE_BYTES)
+        public int getMaxSizeBytes() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CACHE_MAX_SIZE_BYTES,
+                DEFAULT_SERVICE_CACHE_MAX_SIZE_BYTES);
+            return DEFAULT_SERVICE_CACHE_MAX_SIZE_BYTES;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CACHE_MAX_ENTRIES)
+        public int getMaxEntries() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CACHE_MAX_ENTRIES,
+                DEFAULT_SERVICE_CACHE_MAX_ENTRIES);
+            return DEFAULT_SERVICE_CACHE_MAX_ENTRIES;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CACHE_MAX_ENTRY_SIZE_BYTES)
+        public int getMaxEntrySizeBytes() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CACHE_MAX_ENTRY_SIZE_BYTES,
+                DEFAULT_SERVICE_CACHE_MAX_ENTRY_SIZE_BYTES);
+            return DEFAULT_SERVICE_CACHE_MAX_ENTRY_SIZE_BYTES;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CACHE_OFF_HEAP)
+        public boolean isOffHeap() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CACHE_OFF_HEAP,
+                DEFAULT_SERVICE_CACHE_OFF_HEAP);
+            return DEFAULT_SERVICE_CACHE_OFF_HEAP;
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = TimeoutOptions.Builder.class)
+    public abstract static class AbstractTimeoutOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_TIMEOUT_FIRST_BYTE_MS)
+        public int getFirstByteMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_TIMEOUT_FIRST_BYTE_MS,
+                DEFAULT_SERVICE_TIMEOUT_FIRST_BYTE_MS);
+            return DEFAULT_SERVICE_TIMEOUT_FIRST_BYTE_MS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_TIMEOUT_TOTAL_MS)
+        public int getTotalMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_TIMEOUT_TOTAL_MS,
+                DEFAULT_SERVICE_TIMEOUT_TOTAL_MS);
+            return DEFAULT_SERVICE_TIMEOUT_TOTAL_MS;
+        }
+
+        /**
+         * An empty header disables the propagation of deadlines.
+         */
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_TIMEOUT_DEADLINE_HEADER)
+        public String getDeadlineHeader() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_TIMEOUT_DEADLINE_HEADER,
+                DEFAULT_SERVICE_TIMEOUT_DEADLINE_HEADER);
+            return DEFAULT_SERVICE_TIMEOUT_DEADLINE_HEADER;
+        }
+
+        @Check
+        protected void validate() {
+            Preconditions.checkState(getFirstByteMs() >= 0, "'getFirstByteMs' must not be negative");
+            Preconditions.checkState(getTotalMs() >= 0, "'getTotalMs' must not be negative");
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = CircuitBreakerOptions.Builder.class)
+    public abstract static class AbstractCircuitBreakerOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_ENABLED)
+        public boolean isEnabled() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_ENABLED,
+                DEFAULT_SERVICE_CIRCUIT_BREAKER_ENABLED);
+            return DEFAULT_SERVICE_CIRCUIT_BREAKER_ENABLED;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_WINDOW_SIZE)
+        public int getWindowSize() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_WINDOW_SIZE,
+                DEFAULT_SERVICE_CIRCUIT_BREAKER_WINDOW_SIZE);
+            return DEFAULT_SERVICE_CIRCUIT_BREAKER_WINDOW_SIZE;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_MINIMUM_CALLS)
+        public int getMinimumCalls() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_MINIMUM_CALLS,
+                DEFAULT_SERVICE_CIRCUIT_BREAKER_MINIMUM_CALLS);
+            return DEFAULT_SERVICE_CIRCUIT_BREAKER_MINIMUM_CALLS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT)
+        public int getFailureRatePercent() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT,
+                DEFAULT_SERVICE_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT);
+            return DEFAULT_SERVICE_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS)
+        public int getSlowCallDurationMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS,
+                DEFAULT_SERVICE_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS);
+            return DEFAULT_SERVICE_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT)
+        public int getSlowCallRatePercent() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT,
+                DEFAULT_SERVICE_CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT);
+            return DEFAULT_SERVICE_CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_OPEN_DURATION_MS)
+        public int getOpenDurationMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_OPEN_DURATION_MS,
+                DEFAULT_SERVICE_CIRCUIT_BREAKER_OPEN_DURATION_MS);
+            return DEFAULT_SERVICE_CIRCUIT_BREAKER_OPEN_DURATION_MS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_HALF_OPEN_CALLS)
+        public int getHalfOpenCalls() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_HALF_OPEN_CALLS,
+                DEFAULT_SERVICE_CIRCUIT_BREAKER_HALF_OPEN_CALLS);
+            return DEFAULT_SERVICE_CIRCUIT_BREAKER_HALF_OPEN_CALLS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_STATUS_CODE)
+        public int getStatusCode() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_STATUS_CODE,
+                DEFAULT_SERVICE_CIRCUIT_BREAKER_STATUS_CODE);
+            return DEFAULT_SERVICE_CIRCUIT_BREAKER_STATUS_CODE;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_BODY)
+        public String getBody() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_BODY,
+                DEFAULT_SERVICE_CIRCUIT_BREAKER_BODY);
+            return DEFAULT_SERVICE_CIRCUIT_BREAKER_BODY;
+        }
+
+        @Check
+        protected void validate() {
+            Preconditions.checkState(getMinimumCalls() <= getWindowSize(),
+                "'getMinimumCalls' must not be greater than 'getWindowSize'");
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = BulkheadOptions.Builder.class)
+    public abstract static class AbstractBulkheadOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_BULKHEAD_ENABLED)
+        public boolean isEnabled() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_BULKHEAD_ENABLED,
+                DEFAULT_SERVICE_BULKHEAD_ENABLED);
+            return DEFAULT_SERVICE_BULKHEAD_ENABLED;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_BULKHEAD_MAX_CONCURRENT_REQUESTS)
+        public int getMaxConcurrentRequests() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_BULKHEAD_MAX_CONCURRENT_REQUESTS,
+                DEFAULT_SERVICE_BULKHEAD_MAX_CONCURRENT_REQUESTS);
+            return DEFAULT_SERVICE_BULKHEAD_MAX_CONCURRENT_REQUESTS;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_BULKHEAD_STATUS_CODE)
+        public int getStatusCode() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_BULKHEAD_STATUS_CODE,
+                DEFAULT_SERVICE_BULKHEAD_STATUS_CODE);
+            return DEFAULT_SERVICE_BULKHEAD_STATUS_CODE;
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = RetryOptions.Builder.class)
+    public abstract static class AbstractRetryOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_RETRY_ENABLED)
+        public boolean isEnabled() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_RETRY_ENABLED,
+                DEFAULT_SERVICE_RETRY_ENABLED);
+            return DEFAULT_SERVICE_RETRY_ENABLED;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_RETRY_MAX_RETRIES)
+        public int getMaxRetries() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_RETRY_MAX_RETRIES,
+                DEFAULT_SERVICE_RETRY_MAX_RETRIES);
+            return DEFAULT_SERVICE_RETRY_MAX_RETRIES;
+        }
+
+        /**
+         * Empty for all idempotent methods.
+         */
+        @JsonProperty(DynamicConfiguration.SERVICE_RETRY_METHODS)
+        public abstract List<String> getMethods();
+
+        @JsonProperty(DynamicConfiguration.SERVICE_RETRY_STATUS_CODES)
+        public abstract List<Integer> getStatusCodes();
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_RETRY_BUDGET_PERCENT)
+        public int getBudgetPercent() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_RETRY_BUDGET_PERCENT,
+                DEFAULT_SERVICE_RETRY_BUDGET_PERCENT);
+            return DEFAULT_SERVICE_RETRY_BUDGET_PERCENT;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_RETRY_MIN_RETRIES_PER_SECOND)
+        public int getMinRetriesPerSecond() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_RETRY_MIN_RETRIES_PER_SECOND,
+                DEFAULT_SERVICE_RETRY_MIN_RETRIES_PER_SECOND);
+            return DEFAULT_SERVICE_RETRY_MIN_RETRIES_PER_SECOND;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_RETRY_HEDGE)
+        public HedgeOptions getHedge() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_RETRY_HEDGE);
+            return HedgeOptions.builder().build();
+        }
+
+        @Check
+        protected void validate() {
+            for (String method : getMethods()) {
+                Preconditions.checkState(DynamicConfiguration.SERVICE_RETRY_IDEMPOTENT_METHODS.contains(method),
+                    "'getMethods' must only contain idempotent methods");
+            }
+        }
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = HedgeOptions.Builder.class)
+    public abstract static class AbstractHedgeOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_RETRY_HEDGE_ENABLED)
+        public boolean isEnabled() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_RETRY_HEDGE_ENABLED,
+                DEFAULT_SERVICE_RETRY_HEDGE_ENABLED);
+            return DEFAULT_SERVICE_RETRY_HEDGE_ENABLED;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_RETRY_HEDGE_PERCENTILE)
+        public int getPercentile() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_RETRY_HEDGE_PERCENTILE,
+                DEFAULT_SERVICE_RETRY_HEDGE_PERCENTILE);
+            return DEFAULT_SERVICE_RETRY_HEDGE_PERCENTILE;
+        }
+
+        @Default
+        @JsonProperty(DynamicConfiguration.SERVICE_RETRY_HEDGE_MIN_DELAY_MS)
+        public int getMinDelayMs() {
+            logDefault(LOGGER, DynamicConfiguration.SERVICE_RETRY_HEDGE_MIN_DELAY_MS,
+                DEFAULT_SERVICE_RETRY_HEDGE_MIN_DELAY_MS);
+            return DEFAULT_SERVICE_RETRY_HEDGE_MIN_DELAY_MS;
+        }
     }
 
     @Immutable
@@ -114,4 +866,8 @@ public abstract class AbstractServiceModel {
     private void logDefault(Logger logger, String key, Object defaultValue) {
         logger.debug("'{}' not configured. Using default value: '{}'", key, defaultValue);
     }
+
+    private void logDefault(Logger logger, String key) {
+        logger.debug("'{}' not configured. Using default value", key);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package ch.uniport.gateway.proxy.listener;
+
+import ch.uniport.gateway.proxy.config.model.DynamicModel;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands every dynamic configuration it receives from a single
+ * {@code ConfigurationWatcher} to all verticle instances of this Vert.x
+ * instance. The {@link DynamicModel} is immutable, so the very same snapshot is
+ * passed to every instance without copying. Instances subscribe with a
+ * {@link SharedConfigurationSubscriber}.
+ */
+public class SharedConfigurationPublisher implements Listener {
+
+    public static final String DEFAULT_ADDRESS = "shared-configuration-address";
+
+    static final String GENERATION_HEADER = "generation";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedConfigurationPublisher.class);
+
+    private static final String NAME = "SharedConfigurationPublisher";
+
+    private final EventBus eventBus;
+    private final String address;
+    private final AtomicReference<Snapshot> latest = new AtomicReference<>();
+
+    public SharedConfigurationPublisher(Vertx vertx, String address) {
+        this.eventBus = vertx.eventBus();
+        this.address = address;
+
+        registerCodec(eventBus);
+        // instances subscribing after a configuration has been published ask for it
+        eventBus.<Void>localConsumer(currentAddress(address), message -> {
+            final Snapshot snapshot = latest.get();
+            if (snapshot == null) {
+                message.reply(null);
+                return;
+            }
+            message.reply(snapshot.model(), deliveryOptions(snapshot));
+        });
+    }
+
+    static String currentAddress(String address) {
+        return address + ".current";
+    }
+
+    @Override
+    public void listen(DynamicModel model) {
+        final Snapshot snapshot = latest.updateAndGet(prev -> new Snapshot(prev == null ? 1 : prev.generation() + 1, model));
+        LOGGER.debug("Publishing shared configuration generation '{}'", snapshot.generation());
+        eventBus.publish(address, snapshot.model(), deliveryOptions(snapshot));
+    }
+
+    @Override
+    public String toString() {
+        return NAME;
+    }
+
+    private static DeliveryOptions deliveryOptions(Snapshot snapshot) {
+        return new DeliveryOptions()
+            .setLocalOnly(true)
+            .setCodecName(DynamicModelCodec.NAME)
+            .addHeader(GENERATION_HEADER, String.valueOf(snapshot.generation()));
+    }
+
+    private static void registerCodec(EventBus eventBus) {
+        try {
+            eventBus.registerCodec(new DynamicModelCodec());
+        } catch (IllegalStateException e) {
+            // already registered by another publisher on the same event bus
+        }
+    }
+
+    private record Snapshot(long generation, DynamicModel model) {
+    }
+
+    /**
+     * Passes the model by reference. Only local delivery is supported.
+     */
+    private static final class DynamicModelCodec implements MessageCodec<DynamicModel, DynamicModel> {
+
+        static final String NAME = "dynamic-model-local";
+
+        @Override
+        public void encodeToWire(Buffer buffer, DynamicModel model) {
+            throw new UnsupportedOperationException("dynamic model is only delivered locally");
+        }
+
+        @Override
+        public DynamicModel decodeFromWire(int pos, Buffer buffer) {
+            throw new UnsupportedOperationException("dynamic model is only delivered locally");
+        }
+
+        @Override
+        public DynamicModel transform(DynamicModel model) {
+            // immutable
+            return model;
+        }
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public byte systemCodecID() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ch.uniport.gateway.proxy.listener;
+
+import ch.uniport.gateway.proxy.config.model.DynamicModel;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Receives the dynamic configurations published by a
+ * {@link SharedConfigurationPublisher} and passes them to its listeners. The
+ * listeners are called on the context {@link #subscribe()} was called on, i.e.
+ * on the event loop of the subscribing verticle instance.
+ */
+public class SharedConfigurationSubscriber {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedConfigurationSubscriber.class);
+
+    private final EventBus eventBus;
+    private final String address;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private long generation;
+
+    public SharedConfigurationSubscriber(Vertx vertx, String address) {
+        this.eventBus = vertx.eventBus();
+        this.address = address;
+    }
+
+    public void addListener(Listener listener) {
+        LOGGER.debug("Adding listener '{}'", listener);
+        listeners.add(listener);
+    }
+
+    /**
+     * Subscribes to new configurations and fetches the current one, in case it
+     * has been published already.
+     */
+    public Future<Void> subscribe() {
+        eventBus.<DynamicModel>localConsumer(address, this::onConfiguration);
+
+        return eventBus.<DynamicModel>request(SharedConfigurationPublisher.currentAddress(address), null)
+            .onSuccess(this::onConfiguration)
+            .<Void>mapEmpty()
+            .recover(err -> {
+                if (err instanceof ReplyException e && e.failureType() == ReplyFailure.NO_HANDLERS) {
+                    // the publisher is not yet deployed, the first configuration will be published
+                    return Future.succeededFuture();
+                }
+                return Future.failedFuture(err);
+            });
+    }
+
+    private void onConfiguration(Message<DynamicModel> message) {
+        final DynamicModel model = message.body();
+        if (model == null) {
+            return;
+        }
+
+        final long nextGeneration = Long.parseLong(message.headers().get(SharedConfigurationPublisher.GENERATION_HEADER));
+        if (nextGeneration <= generation) {
+            LOGGER.debug("Skipping already received shared configuration generation '{}'", nextGeneration);
+            return;
+        }
+        generation = nextGeneration;
+
+        LOGGER.debug("Informing listeners about shared configuration generation '{}'", generation);
+        for (Listener listener : listeners) {
+            listener.listen(model);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ch.uniport.gateway.proxy.middleware;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * SHA-256 digests, e.g. to key caches by a token without keeping the token.
+ */
+public final class HashUtil {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private HashUtil() {
+    }
+
+    public static byte[] sha256(byte[] value) {
+        return SHA_256.get().digest(value);
+    }
+
+    /**
+     * @return the URL safe Base64 encoded SHA-256 digest of the UTF-8 encoded
+     *         {@code value}, without padding
+     */
+    public static String sha256(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
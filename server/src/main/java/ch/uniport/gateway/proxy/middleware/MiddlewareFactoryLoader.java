@@ -6,7 +6,9 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import org.slf4j.Logger;
@@ -16,6 +18,9 @@ import org.slf4j.LoggerFactory;
  * Service interface for providing middlewares. Implementations must add an
  * entry with the fully qualified class name into
  * META-INF/services/ch.uniport.gateway.proxy.middleware.MiddlewareFactory
+ * <p>
+ * The factories are discovered once and shared by all verticle instances, so
+ * they must not keep state bound to a single Vert.x instance or verticle.
  */
 public final class MiddlewareFactoryLoader {
 
@@ -32,7 +37,8 @@ public final class MiddlewareFactoryLoader {
     // synchronize on a private lock instead of the (globally reachable) singleton instance
     private final Object lock = new Object();
 
-    private URLClassLoader classLoader;
+    // replaced as a whole on reload, so readers never see a partially built registry
+    private volatile Registry registry;
 
     private MiddlewareFactoryLoader() {
         // prevent reflection-based instantiation
@@ -40,33 +46,49 @@ public final class MiddlewareFactoryLoader {
             throw new IllegalStateException("Singleton already initialized.");
         }
 
-        // a globally unique class loader is required (caveat: blocks dynamic extensions
-        // reloading)
-        final List<URL> urls = getJarURLs();
-        final ClassLoader parent = MiddlewareFactory.class.getClassLoader();
-        classLoader = new URLClassLoader(urls.toArray(new URL[urls.size()]), parent);
+        registry = loadRegistry();
     }
 
     public Optional<MiddlewareFactory> getFactory(String middlewareName) {
         logger.debug("Middleware factory for '{}'", middlewareName);
-        return listFactories().stream()
-            .filter(instance -> instance.provides().equals(middlewareName))
-            .findFirst();
+        return Optional.ofNullable(registry.factoriesByType().get(middlewareName));
     }
 
     public List<MiddlewareFactory> listFactories() {
-        synchronized (lock) {
-            final ServiceLoader<MiddlewareFactory> loader = ServiceLoader.load(MiddlewareFactory.class, classLoader);
+        return registry.factories();
+    }
 
-            logger.debug("Discovered middleware factories:");
-            for (MiddlewareFactory factory : loader) {
-                logger.debug(factory.provides());
-            }
+    /**
+     * Discovers the middleware factories of the core and of the extensions
+     * directory again, e.g. after extensions have been added. Middlewares
+     * created before keep the factories and classes they were created with.
+     * The previous class loader is not closed, as the classes of existing
+     * middlewares may still be loaded lazily from it.
+     */
+    public void reload() {
+        synchronized (lock) {
+            registry = loadRegistry();
+        }
+    }
 
-            return loader.stream()
-                .map(ServiceLoader.Provider::get)
-                .toList();
+    private static Registry loadRegistry() {
+        // a globally unique class loader is required, it is only replaced on reload
+        final List<URL> urls = getJarURLs();
+        final ClassLoader parent = MiddlewareFactory.class.getClassLoader();
+        final URLClassLoader classLoader = new URLClassLoader(urls.toArray(new URL[urls.size()]), parent);
+
+        final List<MiddlewareFactory> factories = ServiceLoader.load(MiddlewareFactory.class, classLoader).stream()
+            .map(ServiceLoader.Provider::get)
+            .toList();
+
+        final Map<String, MiddlewareFactory> factoriesByType = new HashMap<>();
+        logger.debug("Discovered middleware factories:");
+        for (MiddlewareFactory factory : factories) {
+            logger.debug(factory.provides());
+            // the first factory of a type wins, as with a linear search
+            factoriesByType.putIfAbsent(factory.provides(), factory);
         }
+        return new Registry(factories, Map.copyOf(factoriesByType));
     }
 
     private static List<URL> getJarURLs() {
@@ -96,4 +118,7 @@ public final class MiddlewareFactoryLoader {
         }
         return jarUrls;
     }
+
+    private record Registry(List<MiddlewareFactory> factories, Map<String, MiddlewareFactory> factoriesByType) {
+    }
 }
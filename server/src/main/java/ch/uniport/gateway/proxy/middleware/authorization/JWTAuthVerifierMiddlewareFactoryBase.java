@@ -6,6 +6,7 @@ import ch.uniport.gateway.proxy.middleware.MiddlewareOptionsModel;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.customClaimsChecker.JWTAuthAdditionalClaimsOptions;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.customIssuerChecker.JWTAuthMultipleIssuersOptions;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.publickeysReconciler.JWTAuthPublicKeysReconcilerHandler;
+import ch.uniport.gateway.proxy.middleware.authorization.shared.verifiedTokenCache.VerifiedTokenCache;
 import com.jayway.jsonpath.internal.path.PathCompiler;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
@@ -51,6 +52,10 @@ public abstract class JWTAuthVerifierMiddlewareFactoryBase implements Middleware
     public static final String PUBLIC_KEYS_RECONCILIATION = "publicKeysReconciliation";
     public static final String RECONCILIATION_ENABLED = "enabled";
     public static final String RECONCILIATION_INTERVAL_MS = "intervalMs";
+    public static final String TOKEN_CACHE = "tokenCache";
+    public static final String TOKEN_CACHE_ENABLED = "enabled";
+    public static final String TOKEN_CACHE_MAX_ENTRIES = "maxEntries";
+    public static final String TOKEN_CACHE_MAX_TTL_MS = "maxTtlMs";
 
     public static final List<String> OPERATORS = List.of(
         CLAIM_OPERATOR_CONTAINS,
@@ -88,6 +93,17 @@ public abstract class JWTAuthVerifierMiddlewareFactoryBase implements Middleware
                 .defaultValue(WithAuthHandlerMiddlewareOptionsBase.DEFAULT_RECONCILIATION_INTERVAL_MS))
             .allowAdditionalProperties(false);
 
+        final ObjectSchemaBuilder tokenCacheSchema = Schemas.objectSchema()
+            .optionalProperty(TOKEN_CACHE_ENABLED, Schemas.booleanSchema()
+                .defaultValue(WithAuthHandlerMiddlewareOptionsBase.DEFAULT_TOKEN_CACHE_ENABLED))
+            .optionalProperty(TOKEN_CACHE_MAX_ENTRIES, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                .defaultValue(WithAuthHandlerMiddlewareOptionsBase.DEFAULT_TOKEN_CACHE_MAX_ENTRIES))
+            .optionalProperty(TOKEN_CACHE_MAX_TTL_MS, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                .defaultValue(WithAuthHandlerMiddlewareOptionsBase.DEFAULT_TOKEN_CACHE_MAX_TTL_MS))
+            .allowAdditionalProperties(false);
+
         return Schemas.objectSchema()
             .requiredProperty(AUDIENCE, Schemas.arraySchema()
                 .items(Schemas.stringSchema()
@@ -100,6 +116,7 @@ public abstract class JWTAuthVerifierMiddlewareFactoryBase implements Middleware
                     .with(Keywords.minLength(1))))
             .optionalProperty(CLAIMS, claimsSchema)
             .optionalProperty(PUBLIC_KEYS_RECONCILIATION, reconciliationSchema)
+            .optionalProperty(TOKEN_CACHE, tokenCacheSchema)
             .allowAdditionalProperties(false);
     }
 
@@ -234,13 +251,24 @@ public abstract class JWTAuthVerifierMiddlewareFactoryBase implements Middleware
         final ReconciliationOptions publicKeysReconciliation = options.getReconciliation();
         final boolean publicKeysReconciliationEnabled = publicKeysReconciliation.isEnabled();
         final long publicKeysReconciliationIntervalMs = publicKeysReconciliation.getIntervalMs();
+
+        final TokenCacheOptions tokenCacheOptions = options.getTokenCache();
+        final VerifiedTokenCache tokenCache;
+        if (tokenCacheOptions.isEnabled()) {
+            tokenCache = VerifiedTokenCache.create(name, tokenCacheOptions.getMaxEntries(),
+                tokenCacheOptions.getMaxTtlMs());
+            LOGGER.debug("With token cache of '{}' entries", tokenCacheOptions.getMaxEntries());
+        } else {
+            tokenCache = null;
+        }
+
         return JWTAuthPublicKeysReconcilerHandler.fetchPublicKeys(vertx, publicKeySources)
             .map(authOpts -> {
                 final JWTAuthOptions jwtAuthOptions = new JWTAuthOptions(authOpts).setJWTOptions(jwtOptions);
 
                 final JWTAuthPublicKeysReconcilerHandler reconciler = JWTAuthPublicKeysReconcilerHandler.create(
                     vertx, jwtAuthOptions, additionalIssuersOptions, additionalClaimsOptions, publicKeySources,
-                    publicKeysReconciliationEnabled, publicKeysReconciliationIntervalMs);
+                    publicKeysReconciliationEnabled, publicKeysReconciliationIntervalMs, tokenCache);
 
                 return create(vertx, name, reconciler, config);
             });
@@ -19,6 +19,9 @@ public abstract class WithAuthHandlerMiddlewareOptionsBase implements Middleware
     public static final boolean DEFAULT_RECONCILIATION_ENABLED_VALUE = true;
     public static final long DEFAULT_RECONCILIATION_INTERVAL_MS = 60_000;
     public static final String DEFAULT_PUBLIC_KEY_ALGORITHM = "RS256";
+    public static final boolean DEFAULT_TOKEN_CACHE_ENABLED = true;
+    public static final int DEFAULT_TOKEN_CACHE_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_TOKEN_CACHE_MAX_TTL_MS = 300_000;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CSRFMiddlewareOptions.class);
 
@@ -50,6 +53,13 @@ public abstract class WithAuthHandlerMiddlewareOptionsBase implements Middleware
         return ReconciliationOptions.builder().build();
     }
 
+    @Default
+    @JsonProperty(JWTAuthVerifierMiddlewareFactoryBase.TOKEN_CACHE)
+    public TokenCacheOptions getTokenCache() {
+        logDefault(LOGGER, JWTAuthVerifierMiddlewareFactoryBase.TOKEN_CACHE);
+        return TokenCacheOptions.builder().build();
+    }
+
     @Immutable
     @ModelStyle
     @JsonDeserialize(builder = PublicKeyOptions.Builder.class)
@@ -102,4 +112,39 @@ public abstract class WithAuthHandlerMiddlewareOptionsBase implements Middleware
             return DEFAULT_RECONCILIATION_INTERVAL_MS;
         }
     }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = TokenCacheOptions.Builder.class)
+    public abstract static class AbstractTokenCacheOptions implements MiddlewareOptionsModel {
+
+        @Check
+        protected void validate() {
+            Preconditions.checkState(getMaxEntries() > 0, "'getMaxEntries' must be greater than 0");
+            Preconditions.checkState(getMaxTtlMs() > 0, "'getMaxTtlMs' must be greater than 0");
+        }
+
+        @Default
+        @JsonProperty(JWTAuthVerifierMiddlewareFactoryBase.TOKEN_CACHE_ENABLED)
+        public boolean isEnabled() {
+            logDefault(LOGGER, JWTAuthVerifierMiddlewareFactoryBase.TOKEN_CACHE_ENABLED, DEFAULT_TOKEN_CACHE_ENABLED);
+            return DEFAULT_TOKEN_CACHE_ENABLED;
+        }
+
+        @Default
+        @JsonProperty(JWTAuthVerifierMiddlewareFactoryBase.TOKEN_CACHE_MAX_ENTRIES)
+        public int getMaxEntries() {
+            logDefault(LOGGER, JWTAuthVerifierMiddlewareFactoryBase.TOKEN_CACHE_MAX_ENTRIES,
+                DEFAULT_TOKEN_CACHE_MAX_ENTRIES);
+            return DEFAULT_TOKEN_CACHE_MAX_ENTRIES;
+        }
+
+        @Default
+        @JsonProperty(JWTAuthVerifierMiddlewareFactoryBase.TOKEN_CACHE_MAX_TTL_MS)
+        public long getMaxTtlMs() {
+            logDefault(LOGGER, JWTAuthVerifierMiddlewareFactoryBase.TOKEN_CACHE_MAX_TTL_MS,
+                DEFAULT_TOKEN_CACHE_MAX_TTL_MS);
+            return DEFAULT_TOKEN_CACHE_MAX_TTL_MS;
+        }
+    }
 }
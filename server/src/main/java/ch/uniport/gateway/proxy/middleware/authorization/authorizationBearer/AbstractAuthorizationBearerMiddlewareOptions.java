@@ -4,13 +4,34 @@ import ch.uniport.gateway.proxy.middleware.MiddlewareOptionsModel;
 import ch.uniport.gateway.proxy.middleware.ModelStyle;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.google.common.base.Preconditions;
+import org.immutables.value.Value.Check;
+import org.immutables.value.Value.Default;
 import org.immutables.value.Value.Immutable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @Immutable
 @ModelStyle
 @JsonDeserialize(builder = AuthorizationBearerMiddlewareOptions.Builder.class)
 public abstract class AbstractAuthorizationBearerMiddlewareOptions implements MiddlewareOptionsModel {
 
+    public static final int DEFAULT_PROACTIVE_REFRESH_SECONDS = 0;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthorizationBearerMiddlewareOptions.class);
+
+    @Check
+    protected void validate() {
+        Preconditions.checkState(getProactiveRefreshSeconds() >= 0, "'getProactiveRefreshSeconds' must not be negative");
+    }
+
     @JsonProperty(AuthorizationBearerMiddlewareFactory.SESSION_SCOPE)
     public abstract String getSessionScope();
+
+    @Default
+    @JsonProperty(AuthorizationBearerMiddlewareFactory.PROACTIVE_REFRESH_SECONDS)
+    public int getProactiveRefreshSeconds() {
+        logDefault(LOGGER, AuthorizationBearerMiddlewareFactory.PROACTIVE_REFRESH_SECONDS, DEFAULT_PROACTIVE_REFRESH_SECONDS);
+        return DEFAULT_PROACTIVE_REFRESH_SECONDS;
+    }
 }
@@ -26,18 +26,24 @@ public class AuthorizationBearerMiddleware extends TraceMiddleware {
 
     private final Vertx vertx;
     private final String sessionScope;
+    private final int proactiveRefreshSeconds;
 
     public AuthorizationBearerMiddleware(Vertx vertx, String name, String sessionScope) {
+        this(vertx, name, sessionScope, AbstractAuthorizationBearerMiddlewareOptions.DEFAULT_PROACTIVE_REFRESH_SECONDS);
+    }
+
+    public AuthorizationBearerMiddleware(Vertx vertx, String name, String sessionScope, int proactiveRefreshSeconds) {
         Objects.requireNonNull(name, "name must not be null");
         Objects.requireNonNull(sessionScope, "sessionScope must not be null");
 
         this.vertx = vertx;
         this.sessionScope = sessionScope;
+        this.proactiveRefreshSeconds = proactiveRefreshSeconds;
     }
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        SessionScopeAuthTokenLoader.load(vertx, ctx.session(), sessionScope)
+        SessionScopeAuthTokenLoader.load(vertx, ctx, sessionScope, proactiveRefreshSeconds)
             .onSuccess(token -> {
                 setAuthorizationBearer(ctx.request(), token);
                 ctx.addHeadersEndHandler(v -> removeAuthorizationHeader(ctx.response()));
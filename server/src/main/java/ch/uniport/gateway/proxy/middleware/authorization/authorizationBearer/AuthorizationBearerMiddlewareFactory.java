@@ -21,6 +21,7 @@ public class AuthorizationBearerMiddlewareFactory implements MiddlewareFactory {
     // schema
     public static final String TYPE = "authorizationBearer";
     public static final String SESSION_SCOPE = "sessionScope";
+    public static final String PROACTIVE_REFRESH_SECONDS = "proactiveRefreshSeconds";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AuthorizationBearerMiddlewareFactory.class);
 
@@ -34,6 +35,9 @@ public class AuthorizationBearerMiddlewareFactory implements MiddlewareFactory {
         return Schemas.objectSchema()
             .requiredProperty(SESSION_SCOPE, Schemas.stringSchema()
                 .with(Keywords.minLength(1)))
+            .optionalProperty(PROACTIVE_REFRESH_SECONDS, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                .defaultValue(AbstractAuthorizationBearerMiddlewareOptions.DEFAULT_PROACTIVE_REFRESH_SECONDS))
             .allowAdditionalProperties(false);
     }
 
@@ -53,7 +57,7 @@ public class AuthorizationBearerMiddlewareFactory implements MiddlewareFactory {
 
         LOGGER.debug("Created '{}#{}' middleware successfully", TYPE, name);
         return Future.succeededFuture(
-            new AuthorizationBearerMiddleware(vertx, name, options.getSessionScope()));
+            new AuthorizationBearerMiddleware(vertx, name, options.getSessionScope(), options.getProactiveRefreshSeconds()));
     }
 
 }
@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.authorization.bearerOnly;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.http.HttpHeaders;
@@ -47,7 +48,7 @@ public class BearerOnlyMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         final String authorization = ctx.request().headers().get(HttpHeaders.AUTHORIZATION);
         if (authorization != null) {
@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.authorization.checkJwt;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.tokenLoader.JWTAuthTokenLoadHandler;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.tokenLoader.TokenSource;
@@ -41,7 +42,7 @@ public class CheckJWTMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         ctx.put(JWTAuthTokenLoadHandler.TOKEN_SOURCE_KEY, TokenSource.SESSION_SCOPE);
         ctx.put(JWTAuthTokenLoadHandler.SESSION_SCOPE_KEY, sessionScope);
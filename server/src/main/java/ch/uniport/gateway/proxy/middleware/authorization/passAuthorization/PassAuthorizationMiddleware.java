@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.authorization.passAuthorization;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.tokenLoader.SessionScopeAuthTokenLoader;
 import io.opentelemetry.api.trace.Span;
@@ -44,7 +45,7 @@ public class PassAuthorizationMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         SessionScopeAuthTokenLoader.load(vertx, ctx.session(), sessionScope)
             .onSuccess(token -> {
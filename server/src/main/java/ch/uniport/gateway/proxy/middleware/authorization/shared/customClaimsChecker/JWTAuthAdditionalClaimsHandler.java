@@ -1,6 +1,7 @@
 package ch.uniport.gateway.proxy.middleware.authorization.shared.customClaimsChecker;
 
 import ch.uniport.gateway.proxy.middleware.authorization.shared.publickeysReconciler.JWTAuthPublicKeysReconcilerHandler;
+import ch.uniport.gateway.proxy.middleware.authorization.shared.verifiedTokenCache.VerifiedTokenCache;
 import io.vertx.core.Vertx;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.handler.AuthenticationHandler;
@@ -27,6 +28,18 @@ public interface JWTAuthAdditionalClaimsHandler extends AuthenticationHandler {
         JWTAuth authProvider, JWTAuthAdditionalClaimsOptions options,
         JWTAuthPublicKeysReconcilerHandler reconciler
     ) {
-        return new JWTAuthAdditionalClaimsHandlerImpl(vertx, authProvider, options, reconciler);
+        return create(vertx, authProvider, options, reconciler, null);
+    }
+
+    /**
+     * @param tokenCache
+     *            cache of tokens that passed all checks, may be null
+     */
+    static JWTAuthHandler create(
+        Vertx vertx,
+        JWTAuth authProvider, JWTAuthAdditionalClaimsOptions options,
+        JWTAuthPublicKeysReconcilerHandler reconciler, VerifiedTokenCache tokenCache
+    ) {
+        return new JWTAuthAdditionalClaimsHandlerImpl(vertx, authProvider, options, reconciler, tokenCache);
     }
 }
@@ -0,0 +1,326 @@
+package ch.uniport.gateway.proxy.middleware.authorization.shared.customClaimsChecker;
+
+import com.jayway.jsonpath.JsonPath;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link JWTClaim} compiled once at middleware creation.
+ * <p>
+ * Definite paths consisting of property names and array indices, in dot or
+ * bracket notation (e.g. {@code $['resource_access']['app']['roles']}), are
+ * evaluated directly on the decoded payload. Any other path (e.g. with filters
+ * or wildcards) is evaluated by JsonPath on the encoded payload.
+ * <p>
+ * The claim value is converted to JSON types once, so that comparisons are
+ * typed and need no serialization per request. A string no longer equals a
+ * number or boolean with the same representation, as it did before claims
+ * were compiled. Such a mismatch is logged once per claim.
+ */
+final class JWTClaimEvaluator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JWTClaimEvaluator.class);
+
+    private final JWTClaim claim;
+    private final List<Object> segments;
+    private final JsonPath jsonPath;
+    private final Object value;
+    private volatile boolean typeMismatchLogged;
+
+    private JWTClaimEvaluator(JWTClaim claim, List<Object> segments, JsonPath jsonPath) {
+        this.claim = claim;
+        this.segments = segments;
+        this.jsonPath = jsonPath;
+        this.value = toJson(claim.value);
+    }
+
+    static JWTClaimEvaluator compile(JWTClaim claim) {
+        final List<Object> segments = parseDefinitePath(claim.path);
+        if (segments != null) {
+            return new JWTClaimEvaluator(claim, segments, null);
+        }
+        return new JWTClaimEvaluator(claim, null, JsonPath.compile(claim.path));
+    }
+
+    JWTClaim claim() {
+        return claim;
+    }
+
+    /**
+     * @return the value at the path of the claim
+     * @throws IllegalStateException
+     *             if the path does not exist in the payload
+     */
+    Object read(JsonObject payload) {
+        if (segments == null) {
+            return toJson(jsonPath.read(payload.encode()));
+        }
+        Object current = payload;
+        for (Object segment : segments) {
+            if (segment instanceof String && current instanceof JsonObject
+                && ((JsonObject) current).containsKey((String) segment)) {
+                current = ((JsonObject) current).getValue((String) segment);
+            } else if (segment instanceof Integer && current instanceof JsonArray
+                && (Integer) segment < ((JsonArray) current).size()) {
+                current = ((JsonArray) current).getValue((Integer) segment);
+            } else {
+                throw new IllegalStateException(String.format("Missing property in path '%s'", claim.path));
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @param payloadValue
+     *            the value returned by {@link #read(JsonObject)}
+     * @return true, if the payload value complies with the claim
+     */
+    boolean matches(Object payloadValue) {
+        if (payloadValue == null) {
+            return false;
+        }
+        switch (claim.operator) {
+            case EQUALS:
+                return equalsValue(payloadValue, value);
+            case CONTAINS:
+                return contains(payloadValue);
+            case EQUALS_SUBSTRING_WHITESPACE:
+                return jsonEquals(splitWhitespace(payloadValue), value);
+            case CONTAINS_SUBSTRING_WHITESPACE:
+                return contains(splitWhitespace(payloadValue));
+            default:
+                throw new IllegalStateException(
+                    String.format("No support for the following operator: %s", claim.operator));
+        }
+    }
+
+    private boolean contains(Object payloadValue) {
+        // By definition, contains can only work with an array as claim value.
+        if (!(value instanceof JsonArray)) {
+            throw new IllegalStateException(
+                String.format("Claim value of operator %s must be an array", claim.operator));
+        }
+        final JsonArray claimArray = (JsonArray) value;
+        if (payloadValue instanceof JsonArray) {
+            // At least one entry in the payload array must be contained in the claim
+            // array
+            for (Object payloadItem : (JsonArray) payloadValue) {
+                if (containsItem(claimArray, payloadItem)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return containsItem(claimArray, payloadValue);
+    }
+
+    private boolean containsItem(JsonArray claimArray, Object payloadItem) {
+        for (Object claimItem : claimArray) {
+            if (equalsValue(payloadItem, claimItem)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean equalsValue(Object payloadValue, Object claimValue) {
+        if (jsonEquals(payloadValue, claimValue)) {
+            return true;
+        }
+        if (!typeMismatchLogged && differsInTypeOnly(payloadValue, claimValue)) {
+            typeMismatchLogged = true;
+            LOGGER.warn("Value '{}' at path '{}' does not match claim value '{}' of another type. "
+                + "Claims compare typed values, configure the claim value with the type of the token value",
+                payloadValue, claim.path, claimValue);
+        }
+        return false;
+    }
+
+    /**
+     * @return true, if one value is a string and the other a number or boolean
+     *         with the same representation
+     */
+    static boolean differsInTypeOnly(Object a, Object b) {
+        final boolean stringA = a instanceof String;
+        final boolean stringB = b instanceof String;
+        if (stringA == stringB || !isScalar(a) || !isScalar(b)) {
+            return false;
+        }
+        return a.toString().equals(b.toString());
+    }
+
+    private static boolean isScalar(Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean;
+    }
+
+    private static JsonArray splitWhitespace(Object payloadValue) {
+        final JsonArray array = new JsonArray();
+        for (String item : payloadValue.toString().split(" ")) {
+            array.add(item);
+        }
+        return array;
+    }
+
+    /**
+     * Compares JSON values by type and value. Numbers are equal if they have the
+     * same numeric value, regardless of their Java type.
+     */
+    static boolean jsonEquals(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        if (a instanceof Number && b instanceof Number) {
+            return toBigDecimal((Number) a).compareTo(toBigDecimal((Number) b)) == 0;
+        }
+        if (a instanceof JsonObject && b instanceof JsonObject) {
+            final JsonObject objectA = (JsonObject) a;
+            final JsonObject objectB = (JsonObject) b;
+            if (objectA.size() != objectB.size()) {
+                return false;
+            }
+            for (String key : objectA.fieldNames()) {
+                if (!objectB.containsKey(key) || !jsonEquals(objectA.getValue(key), objectB.getValue(key))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a instanceof JsonArray && b instanceof JsonArray) {
+            final JsonArray arrayA = (JsonArray) a;
+            final JsonArray arrayB = (JsonArray) b;
+            if (arrayA.size() != arrayB.size()) {
+                return false;
+            }
+            for (int i = 0; i < arrayA.size(); i++) {
+                if (!jsonEquals(arrayA.getValue(i), arrayB.getValue(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return a.equals(b);
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        }
+        if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    /**
+     * Converts maps and lists (e.g. as returned by JsonPath or given in the
+     * configuration) to {@link JsonObject} and {@link JsonArray}. Values of other
+     * JSON libraries are converted by their JSON representation.
+     */
+    static Object toJson(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof JsonObject) {
+            return toJson(((JsonObject) value).getMap());
+        }
+        if (value instanceof JsonArray) {
+            return toJson(((JsonArray) value).getList());
+        }
+        if (value instanceof Map) {
+            final JsonObject object = new JsonObject();
+            ((Map<?, ?>) value).forEach((k, v) -> object.put(String.valueOf(k), toJson(v)));
+            return object;
+        }
+        if (value instanceof List) {
+            final JsonArray array = new JsonArray();
+            ((List<?>) value).forEach(v -> array.add(toJson(v)));
+            return array;
+        }
+        return toJson(Json.decodeValue(value.toString()));
+    }
+
+    /**
+     * @return the property names and array indices of a definite path, or null if
+     *         the path uses any other JsonPath feature
+     */
+    static List<Object> parseDefinitePath(String path) {
+        if (path == null || !path.startsWith("$")) {
+            return null;
+        }
+        final List<Object> segments = new ArrayList<>();
+        int i = 1;
+        while (i < path.length()) {
+            final char c = path.charAt(i);
+            if (c == '.') {
+                final int start = ++i;
+                while (i < path.length() && isPropertyChar(path.charAt(i))) {
+                    i++;
+                }
+                if (i == start) {
+                    // deep scan or trailing dot
+                    return null;
+                }
+                segments.add(path.substring(start, i));
+            } else if (c == '[') {
+                final int end = parseBracket(path, i + 1, segments);
+                if (end < 0) {
+                    return null;
+                }
+                i = end;
+            } else {
+                return null;
+            }
+        }
+        return segments;
+    }
+
+    private static boolean isPropertyChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+    }
+
+    /**
+     * @return the index after the closing bracket, or -1 if the content is not a
+     *         single quoted property name or a non-negative index
+     */
+    private static int parseBracket(String path, int i, List<Object> segments) {
+        if (i >= path.length()) {
+            return -1;
+        }
+        final char quote = path.charAt(i);
+        if (quote == '\'' || quote == '"') {
+            final StringBuilder name = new StringBuilder();
+            i++;
+            while (i < path.length() && path.charAt(i) != quote) {
+                if (path.charAt(i) == '\\' && i + 1 < path.length()) {
+                    i++;
+                }
+                name.append(path.charAt(i++));
+            }
+            if (i + 1 >= path.length() || path.charAt(i + 1) != ']') {
+                return -1;
+            }
+            segments.add(name.toString());
+            return i + 2;
+        }
+        final int start = i;
+        while (i < path.length() && Character.isDigit(path.charAt(i))) {
+            i++;
+        }
+        if (i == start || i >= path.length() || path.charAt(i) != ']' || i - start > 9) {
+            return -1;
+        }
+        segments.add(Integer.parseInt(path.substring(start, i)));
+        return i + 1;
+    }
+}
@@ -4,6 +4,7 @@ import ch.uniport.gateway.proxy.middleware.authorization.JWKAccessibleAuthHandle
 import ch.uniport.gateway.proxy.middleware.authorization.PublicKeyOptions;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.customClaimsChecker.JWTAuthAdditionalClaimsOptions;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.customIssuerChecker.JWTAuthMultipleIssuersOptions;
+import ch.uniport.gateway.proxy.middleware.authorization.shared.verifiedTokenCache.VerifiedTokenCache;
 import io.netty.handler.codec.http.HttpScheme;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
@@ -50,6 +51,32 @@ public interface JWTAuthPublicKeysReconcilerHandler extends JWKAccessibleAuthHan
         List<PublicKeyOptions> publicKeys,
         boolean reconciliationEnabled,
         long reconciliationIntervalMs
+    ) {
+        return create(
+            vertx,
+            jwtAuthOptions,
+            additionalIssuersOptions,
+            additionalClaimsOptions,
+            publicKeys,
+            reconciliationEnabled,
+            reconciliationIntervalMs,
+            null);
+    }
+
+    /**
+     * @param tokenCache
+     *            cache of tokens that passed all checks, invalidated whenever the
+     *            fetched public keys change. May be null.
+     */
+    static JWTAuthPublicKeysReconcilerHandler create(
+        Vertx vertx,
+        JWTAuthOptions jwtAuthOptions,
+        JWTAuthMultipleIssuersOptions additionalIssuersOptions,
+        JWTAuthAdditionalClaimsOptions additionalClaimsOptions,
+        List<PublicKeyOptions> publicKeys,
+        boolean reconciliationEnabled,
+        long reconciliationIntervalMs,
+        VerifiedTokenCache tokenCache
     ) {
         return new JWTAuthPublicKeysReconcilerHandlerImpl(
             vertx,
@@ -58,7 +85,8 @@ public interface JWTAuthPublicKeysReconcilerHandler extends JWKAccessibleAuthHan
             additionalClaimsOptions,
             publicKeys,
             reconciliationEnabled,
-            reconciliationIntervalMs);
+            reconciliationIntervalMs,
+            tokenCache);
     }
 
     Future<AuthenticationHandler> getOrRefreshPublicKeys();
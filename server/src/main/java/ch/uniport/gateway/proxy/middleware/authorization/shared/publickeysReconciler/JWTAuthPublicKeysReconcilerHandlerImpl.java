@@ -1,13 +1,16 @@
 package ch.uniport.gateway.proxy.middleware.authorization.shared.publickeysReconciler;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.authorization.PublicKeyOptions;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.customClaimsChecker.JWTAuthAdditionalClaimsHandler;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.customClaimsChecker.JWTAuthAdditionalClaimsOptions;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.customIssuerChecker.JWTAuthMultipleIssuersOptions;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.customIssuerChecker.JWTAuthMultipleIssuersProvider;
+import ch.uniport.gateway.proxy.middleware.authorization.shared.verifiedTokenCache.VerifiedTokenCache;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.JWTOptions;
 import io.vertx.ext.auth.jwt.JWTAuth;
@@ -36,6 +39,7 @@ public class JWTAuthPublicKeysReconcilerHandlerImpl implements JWTAuthPublicKeys
     private final JWTOptions jwtOptions;
     private final JWTAuthMultipleIssuersOptions additionalIssuersOptions;
     private final JWTAuthAdditionalClaimsOptions additionalClaimsOptions;
+    private final VerifiedTokenCache tokenCache;
 
     private JWTAuthOptions jwtAuthOptions;
     private AuthenticationHandler authHandler;
@@ -50,12 +54,27 @@ public class JWTAuthPublicKeysReconcilerHandlerImpl implements JWTAuthPublicKeys
         List<PublicKeyOptions> publicKeySources,
         boolean reconciliationEnabled,
         long reconciliationIntervalMs
+    ) {
+        this(vertx, jwtAuthOptions, additionalIssuersOptions, additionalClaimsOptions, publicKeySources,
+            reconciliationEnabled, reconciliationIntervalMs, null);
+    }
+
+    public JWTAuthPublicKeysReconcilerHandlerImpl(
+        Vertx vertx,
+        JWTAuthOptions jwtAuthOptions,
+        JWTAuthMultipleIssuersOptions additionalIssuersOptions,
+        JWTAuthAdditionalClaimsOptions additionalClaimsOptions,
+        List<PublicKeyOptions> publicKeySources,
+        boolean reconciliationEnabled,
+        long reconciliationIntervalMs,
+        VerifiedTokenCache tokenCache
     ) {
         this.vertx = vertx;
         this.jwtAuthOptions = jwtAuthOptions;
         this.jwtOptions = jwtAuthOptions.getJWTOptions();
         this.additionalIssuersOptions = additionalIssuersOptions;
         this.additionalClaimsOptions = additionalClaimsOptions;
+        this.tokenCache = tokenCache;
 
         this.publicKeySources = publicKeySources;
         this.reconciliationEnabled = reconciliationEnabled;
@@ -69,7 +88,7 @@ public class JWTAuthPublicKeysReconcilerHandlerImpl implements JWTAuthPublicKeys
 
     @Override
     public void handle(RoutingContext ctx) {
-        LOGGER.debug("Handling '{}'", ctx.request().absoluteURI());
+        RequestDiagnostics.debug(LOGGER, "Handling '{}'", ctx);
 
         LOGGER.debug("Handling auth request");
         this.authHandler.handle(ctx);
@@ -82,7 +101,7 @@ public class JWTAuthPublicKeysReconcilerHandlerImpl implements JWTAuthPublicKeys
         final JWTAuth authProvider = JWTAuthMultipleIssuersProvider.create(vertx, authOptions,
             this.additionalIssuersOptions);
         final AuthenticationHandler authHandler = JWTAuthAdditionalClaimsHandler.create(vertx, authProvider,
-            additionalClaimsOptions, this);
+            additionalClaimsOptions, this, tokenCache);
 
         return authHandler;
     }
@@ -122,6 +141,11 @@ public class JWTAuthPublicKeysReconcilerHandlerImpl implements JWTAuthPublicKeys
         return JWTAuthPublicKeysReconcilerHandler.fetchPublicKeys(this.vertx, this.publicKeySources)
             .onFailure(err -> LOGGER.warn(String.format("Failed to refresh public keys '%s'", err.getMessage())))
             .map(authOptions -> {
+                if (tokenCache != null && !publicKeysOf(authOptions).equals(publicKeysOf(this.jwtAuthOptions))) {
+                    // tokens signed with a removed key must not be accepted anymore
+                    LOGGER.debug("Public keys changed, invalidating verified tokens");
+                    tokenCache.invalidateAll();
+                }
                 this.jwtAuthOptions = authOptions;
                 this.authHandler = createAuthHandlerWithFreshPublicKeys(authOptions);
                 LOGGER.debug("Refreshed public keys");
@@ -134,6 +158,14 @@ public class JWTAuthPublicKeysReconcilerHandlerImpl implements JWTAuthPublicKeys
         return this.jwtAuthOptions.getJwks();
     }
 
+    private static JsonObject publicKeysOf(JWTAuthOptions authOptions) {
+        final JsonArray pubSecKeys = new JsonArray();
+        authOptions.getPubSecKeys().forEach(pubSecKey -> pubSecKeys.add(pubSecKey.toJson()));
+        return new JsonObject()
+            .put("jwks", new JsonArray(authOptions.getJwks()))
+            .put("pubSecKeys", pubSecKeys);
+    }
+
     protected JWTAuthOptions getJWTAuthOptions() {
         return this.jwtAuthOptions;
     }
@@ -2,13 +2,17 @@ package ch.uniport.gateway.proxy.middleware.authorization.shared.tokenLoader;
 
 import ch.uniport.gateway.proxy.middleware.oauth2.AuthenticationUserContext;
 import ch.uniport.gateway.proxy.middleware.oauth2.OAuth2MiddlewareFactory;
+import ch.uniport.gateway.proxy.middleware.session.SessionMiddleware;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.oauth2.OAuth2Auth;
+import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.SessionStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,6 +23,9 @@ public final class SessionScopeAuthTokenLoader {
 
     public static final int EXPIRATION_LEEWAY_SECONDS = 5;
 
+    // a concurrent request of the same session may write it in between
+    private static final int MAX_PERSIST_ATTEMPTS = 3;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(SessionScopeAuthTokenLoader.class);
 
     private SessionScopeAuthTokenLoader() {
@@ -30,6 +37,30 @@ public final class SessionScopeAuthTokenLoader {
     }
 
     public static Future<String> load(Vertx vertx, Session session, String sessionScope) {
+        return load(vertx, session, null, sessionScope, 0);
+    }
+
+    /**
+     * Loads the token of a session scope. Expired tokens are refreshed, whereby
+     * concurrent refreshes of the same token are coalesced.
+     *
+     * @param proactiveRefreshSeconds
+     *            if greater than {@link #EXPIRATION_LEEWAY_SECONDS}, tokens
+     *            expiring within this many seconds are refreshed in the background,
+     *            while the current token is still provided. A refresh completing
+     *            after the response was sent is put to the session store, as
+     *            the session was already written. 0 disables proactive
+     *            refreshing, as does a missing session store.
+     */
+    public static Future<String> load(
+        Vertx vertx, RoutingContext ctx, String sessionScope, int proactiveRefreshSeconds
+    ) {
+        return load(vertx, ctx.session(), ctx, sessionScope, proactiveRefreshSeconds);
+    }
+
+    private static Future<String> load(
+        Vertx vertx, Session session, RoutingContext ctx, String sessionScope, int proactiveRefreshSeconds
+    ) {
         AuthenticationUserContext authContext = null;
         final boolean idTokenRequested = sessionScope.equals(OAuth2MiddlewareFactory.SESSION_SCOPE_ID);
 
@@ -50,20 +81,88 @@ public final class SessionScopeAuthTokenLoader {
             return Future.failedFuture(errMsg);
         }
 
-        return refreshUser(vertx, authContext, session, sessionScope)
+        return refreshUser(vertx, authContext, session, ctx, sessionScope, proactiveRefreshSeconds)
             .map(ac -> loadAuthToken(ac, idTokenRequested));
     }
 
-    private static Future<AuthenticationUserContext> refreshUser(Vertx vertx, AuthenticationUserContext authContext, Session session, String sessionScope) {
+    private static Future<AuthenticationUserContext> refreshUser(
+        Vertx vertx, AuthenticationUserContext authContext, Session session, RoutingContext ctx, String sessionScope,
+        int proactiveRefreshSeconds
+    ) {
         final User user = authContext.getUser();
         if (!user.expired(EXPIRATION_LEEWAY_SECONDS)) {
+            final SessionStore sessionStore = ctx == null ? null
+                : ctx.get(SessionMiddleware.SESSION_MIDDLEWARE_SESSION_STORE_KEY);
+            if (sessionStore != null && proactiveRefreshSeconds > EXPIRATION_LEEWAY_SECONDS
+                && user.expired(proactiveRefreshSeconds)) {
+                return refreshUserInBackground(vertx, authContext, ctx, sessionStore, sessionScope);
+            }
             LOGGER.debug("Use existing access token");
             return Future.succeededFuture(authContext);
         }
 
-        LOGGER.info("Refreshing access token");
-        final OAuth2Auth authProvider = authContext.getAuthenticationProvider(vertx);
-        return authProvider.refresh(user)
+        return refreshUser(vertx, authContext, session, sessionScope);
+    }
+
+    private static Future<AuthenticationUserContext> refreshUserInBackground(
+        Vertx vertx, AuthenticationUserContext authContext, RoutingContext ctx, SessionStore sessionStore,
+        String sessionScope
+    ) {
+        final Session session = ctx.session();
+        final Future<AuthenticationUserContext> refreshed = refreshUser(vertx, authContext, session, sessionScope);
+        if (refreshed.succeeded()) {
+            // an earlier refresh of the same token already completed
+            return refreshed;
+        }
+        final Promise<Void> ended = Promise.promise();
+        ctx.addEndHandler(ar -> ended.tryComplete());
+        refreshed
+            .compose(refreshedAuthContext -> {
+                if (!ctx.response().headWritten()) {
+                    // the session is written with the response
+                    return Future.succeededFuture();
+                }
+                // the rotated refresh token would get lost otherwise
+                return ended.future()
+                    .compose(v -> persist(sessionStore, session.id(), sessionScope, refreshedAuthContext, 1));
+            })
+            .onFailure(err -> LOGGER.warn("Failed to refresh access token in background: '{}'", err.getMessage()));
+        LOGGER.debug("Use existing access token while refreshing in background");
+        return Future.succeededFuture(authContext);
+    }
+
+    private static Future<Void> persist(
+        SessionStore sessionStore, String sessionId, String sessionScope, AuthenticationUserContext authContext,
+        int attempt
+    ) {
+        return sessionStore.get(sessionId).compose(stored -> {
+            if (stored == null) {
+                LOGGER.debug("Session of refreshed token expired or was destroyed");
+                return Future.succeededFuture();
+            }
+            authContext.toSessionAtScope(stored, sessionScope);
+            return sessionStore.put(stored).recover(err -> {
+                if (attempt >= MAX_PERSIST_ATTEMPTS) {
+                    return Future.failedFuture(err);
+                }
+                LOGGER.debug("Retrying to persist refreshed token: '{}'", err.getMessage());
+                return persist(sessionStore, sessionId, sessionScope, authContext, attempt + 1);
+            });
+        });
+    }
+
+    private static Future<AuthenticationUserContext> refreshUser(
+        Vertx vertx, AuthenticationUserContext authContext, Session session, String sessionScope
+    ) {
+        final OAuth2Auth authProvider;
+        try {
+            authProvider = authContext.getAuthenticationProvider(vertx);
+        } catch (IllegalStateException e) {
+            // e.g. the session references a provider removed by a configuration reload
+            return Future.failedFuture(e);
+        }
+        final String fallbackKey = String.format("%s.%s", session.id(), sessionScope);
+        return SingleFlightTokenRefresher.refresh(vertx, authProvider, authContext.getUser(), fallbackKey)
             .map(u -> AuthenticationUserContext.of(authProvider, u).toSessionAtScope(session, sessionScope));
     }
 
@@ -0,0 +1,144 @@
+package ch.uniport.gateway.proxy.middleware.authorization.shared.tokenLoader;
+
+import ch.uniport.gateway.proxy.middleware.HashUtil;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.AsyncMap;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.impl.UserConverter;
+import io.vertx.ext.auth.oauth2.OAuth2Auth;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces concurrent refreshes of the same token, so that only one refresh
+ * request per token is sent to the identity provider. Requests arriving while
+ * a refresh is in flight wait for its result.
+ * <p>
+ * Refreshes are identified by the hash of their refresh token. A completed
+ * refresh is retained for {@link #RESULT_RETENTION_MS}, so that requests that
+ * still carry the previous token adopt the refreshed one instead of presenting
+ * an already rotated refresh token.
+ * <p>
+ * In a clustered setup a refresh additionally holds a cluster-wide lock and
+ * publishes its result in a cluster-wide map, so that instances serving the
+ * same session do not refresh concurrently.
+ */
+final class SingleFlightTokenRefresher {
+
+    static final long RESULT_RETENTION_MS = 30_000;
+    static final long CLUSTER_LOCK_TIMEOUT_MS = 10_000;
+
+    private static final String CLUSTER_NAME_PREFIX = "uniport.gateway.token-refresh";
+    private static final String REFRESH_TOKEN_PRINCIPAL = "refresh_token";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SingleFlightTokenRefresher.class);
+
+    // refreshes in flight or completed within the retention
+    private static final ConcurrentMap<String, Future<User>> REFRESHES = new ConcurrentHashMap<>();
+
+    private SingleFlightTokenRefresher() {
+    }
+
+    /**
+     * @param fallbackKey
+     *            identifies the refresh if the user has no refresh token
+     * @return the refreshed user, completed on the context of the caller
+     */
+    static Future<User> refresh(Vertx vertx, OAuth2Auth authProvider, User user, String fallbackKey) {
+        final String key = key(user, fallbackKey);
+        final Context context = vertx.getOrCreateContext();
+
+        final Promise<User> promise = Promise.promise();
+        final Future<User> candidate = promise.future();
+        final Future<User> refresh = REFRESHES.compute(key,
+            (k, existing) -> existing == null || isStale(existing) ? candidate : existing);
+
+        if (refresh == candidate) {
+            LOGGER.info("Refreshing access token");
+            start(vertx, authProvider, user, key).onComplete(ar -> {
+                if (ar.succeeded()) {
+                    vertx.setTimer(RESULT_RETENTION_MS, timerId -> REFRESHES.remove(key, candidate));
+                } else {
+                    REFRESHES.remove(key, candidate);
+                }
+                promise.handle(ar);
+            });
+        } else if (!refresh.isComplete()) {
+            LOGGER.debug("Waiting for access token refresh in flight");
+        } else {
+            LOGGER.debug("Adopting recently refreshed access token");
+        }
+        return onContext(context, refresh);
+    }
+
+    static int size() {
+        return REFRESHES.size();
+    }
+
+    private static Future<User> start(Vertx vertx, OAuth2Auth authProvider, User user, String key) {
+        if (!vertx.isClustered()) {
+            return authProvider.refresh(user);
+        }
+        return vertx.sharedData().getLockWithTimeout(CLUSTER_NAME_PREFIX + "." + key, CLUSTER_LOCK_TIMEOUT_MS)
+            .compose(lock -> refreshClustered(vertx, authProvider, user, key)
+                .onComplete(ar -> lock.release()));
+    }
+
+    private static Future<User> refreshClustered(Vertx vertx, OAuth2Auth authProvider, User user, String key) {
+        return vertx.sharedData().<String, JsonObject>getAsyncMap(CLUSTER_NAME_PREFIX)
+            .compose(results -> results.get(key)
+                .compose(encoded -> {
+                    if (encoded != null) {
+                        final User refreshed = UserConverter.decode(encoded);
+                        if (!refreshed.expired(SessionScopeAuthTokenLoader.EXPIRATION_LEEWAY_SECONDS)) {
+                            LOGGER.debug("Adopting access token refreshed by another instance");
+                            return Future.succeededFuture(refreshed);
+                        }
+                    }
+                    return authProvider.refresh(user)
+                        .compose(refreshed -> publish(results, key, refreshed));
+                }));
+    }
+
+    private static Future<User> publish(AsyncMap<String, JsonObject> results, String key, User refreshed) {
+        return results.put(key, UserConverter.encode(refreshed), RESULT_RETENTION_MS)
+            .transform(ar -> {
+                if (ar.failed()) {
+                    // the refresh itself succeeded, other instances will refresh again
+                    LOGGER.warn("Failed to publish refreshed access token: '{}'", ar.cause().getMessage());
+                }
+                return Future.succeededFuture(refreshed);
+            });
+    }
+
+    private static boolean isStale(Future<User> refresh) {
+        return refresh.failed()
+            || refresh.succeeded() && refresh.result().expired(SessionScopeAuthTokenLoader.EXPIRATION_LEEWAY_SECONDS);
+    }
+
+    private static Future<User> onContext(Context context, Future<User> refresh) {
+        final Promise<User> promise = Promise.promise();
+        refresh.onComplete(ar -> {
+            if (Vertx.currentContext() == context) {
+                promise.handle(ar);
+            } else {
+                context.runOnContext(v -> promise.handle(ar));
+            }
+        });
+        return promise.future();
+    }
+
+    private static String key(User user, String fallbackKey) {
+        final String refreshToken = user.principal().getString(REFRESH_TOKEN_PRINCIPAL);
+        if (refreshToken == null) {
+            return fallbackKey;
+        }
+        return HashUtil.sha256(refreshToken);
+    }
+}
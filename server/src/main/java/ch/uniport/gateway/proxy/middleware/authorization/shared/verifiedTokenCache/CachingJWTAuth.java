@@ -0,0 +1,53 @@
+package ch.uniport.gateway.proxy.middleware.authorization.shared.verifiedTokenCache;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.JWTOptions;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.authentication.Credentials;
+import io.vertx.ext.auth.authentication.TokenCredentials;
+import io.vertx.ext.auth.jwt.JWTAuth;
+
+/**
+ * Answers the authentication of a token from a {@link VerifiedTokenCache}, so
+ * that the signature is only verified for unknown tokens. Tokens are not
+ * stored here, as the claims of a token are checked after its authentication.
+ */
+final class CachingJWTAuth implements JWTAuth {
+
+    private final JWTAuth delegate;
+    private final VerifiedTokenCache cache;
+
+    CachingJWTAuth(JWTAuth delegate, VerifiedTokenCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Future<User> authenticate(Credentials credentials) {
+        if (credentials instanceof TokenCredentials) {
+            final User cached = cache.get(((TokenCredentials) credentials).getToken());
+            if (cached != null) {
+                return Future.succeededFuture(cached);
+            }
+        }
+        return delegate.authenticate(credentials);
+    }
+
+    @Override
+    public void authenticate(Credentials credentials, Handler<AsyncResult<User>> resultHandler) {
+        authenticate(credentials).onComplete(resultHandler);
+    }
+
+    @Override
+    public void authenticate(JsonObject credentials, Handler<AsyncResult<User>> resultHandler) {
+        authenticate(new TokenCredentials(credentials), resultHandler);
+    }
+
+    @Override
+    public String generateToken(JsonObject claims, JWTOptions options) {
+        return delegate.generateToken(claims, options);
+    }
+}
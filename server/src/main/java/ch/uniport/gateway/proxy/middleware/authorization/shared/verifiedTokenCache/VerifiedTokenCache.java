@@ -0,0 +1,163 @@
+package ch.uniport.gateway.proxy.middleware.authorization.shared.verifiedTokenCache;
+
+import ch.uniport.gateway.MeterRegistries;
+import ch.uniport.gateway.proxy.middleware.HashUtil;
+import io.micrometer.core.instrument.Counter;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.jwt.JWTAuth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of tokens that passed the signature, issuer, audience and
+ * claim checks of a middleware. Presenting the same token again skips these
+ * checks until the entry expires.
+ * <p>
+ * Entries are keyed by the SHA-256 hash of the token, so that no raw token is
+ * retained. An entry lives for at most {@code maxTtlMs}, but never beyond the
+ * {@code exp} claim of its token. The least recently used entries are evicted
+ * first.
+ * <p>
+ * The cache has to be invalidated whenever the public keys change, tokens
+ * signed with a removed key must not be accepted anymore.
+ * <p>
+ * The following metric is provided per middleware:
+ * <ul>
+ * <li>{@code uniport.gateway.middleware.token.cache.requests}: counter with
+ * the tag {@code result} being {@code hit} or {@code miss}</li>
+ * </ul>
+ */
+public final class VerifiedTokenCache {
+
+    static final String METRIC_NAME = "uniport.gateway.middleware.token.cache.requests";
+
+    // marks a user served from the cache, removed again by isCached
+    private static final String CACHED_ATTRIBUTE = "uniport.jwtauth.cached";
+    private static final String ACCESS_TOKEN_PRINCIPAL = "access_token";
+    private static final String ACCESS_TOKEN_ATTRIBUTE = "accessToken";
+    private static final String EXPIRATION_CLAIM = "exp";
+
+    private final int maxEntries;
+    private final long maxTtlMs;
+    private final LongSupplier clock;
+
+    // guarded by this
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    VerifiedTokenCache(String middleware, int maxEntries, long maxTtlMs, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.maxTtlMs = maxTtlMs;
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > VerifiedTokenCache.this.maxEntries;
+            }
+        };
+        // counters are shared with the cache of a recreated middleware of the same name
+        this.hits = registerLookups(middleware, "hit");
+        this.misses = registerLookups(middleware, "miss");
+    }
+
+    public static VerifiedTokenCache create(String middleware, int maxEntries, long maxTtlMs) {
+        return new VerifiedTokenCache(middleware, maxEntries, maxTtlMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @return true, if the user was served from the cache. The checks applied
+     *         before the token was stored can be skipped then.
+     */
+    public static boolean isCached(User user) {
+        return user.attributes().remove(CACHED_ATTRIBUTE) != null;
+    }
+
+    /**
+     * @return an auth provider answering from this cache before delegating to
+     *         the given provider
+     */
+    public JWTAuth wrap(JWTAuth authProvider) {
+        return new CachingJWTAuth(authProvider, this);
+    }
+
+    /**
+     * @return a copy of the user authenticated by the given token, or null if the
+     *         token is unknown or its entry expired
+     */
+    public User get(String token) {
+        if (token == null) {
+            return null;
+        }
+        final String key = HashUtil.sha256(token);
+        final long now = clock.getAsLong();
+        final Entry entry;
+        synchronized (this) {
+            final Entry candidate = entries.get(key);
+            if (candidate != null && candidate.expiresAtMs <= now) {
+                entries.remove(key);
+                entry = null;
+            } else {
+                entry = candidate;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        // users are mutable and must not be shared between requests
+        final User user = User.create(entry.principal.copy(), entry.attributes.copy());
+        user.attributes().put(CACHED_ATTRIBUTE, true);
+        return user;
+    }
+
+    /**
+     * Stores a user, whose token passed all checks.
+     */
+    public void put(User user) {
+        final String token = user.principal().getString(ACCESS_TOKEN_PRINCIPAL);
+        if (token == null) {
+            return;
+        }
+        final long now = clock.getAsLong();
+        long expiresAtMs = now + maxTtlMs;
+        final JsonObject payload = user.attributes().getJsonObject(ACCESS_TOKEN_ATTRIBUTE);
+        if (payload != null && payload.getValue(EXPIRATION_CLAIM) instanceof Number) {
+            expiresAtMs = Math.min(expiresAtMs, payload.getLong(EXPIRATION_CLAIM) * 1000);
+        }
+        if (expiresAtMs <= now) {
+            return;
+        }
+        final Entry entry = new Entry(user.principal().copy(), user.attributes().copy(), expiresAtMs);
+        final String key = HashUtil.sha256(token);
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Removes all entries, e.g. after the public keys changed.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static Counter registerLookups(String middleware, String result) {
+        return Counter.builder(METRIC_NAME)
+            .description("Tokens looked up in the cache of verified tokens")
+            .tags("middleware", middleware, "result", result)
+            .register(MeterRegistries.getDefault());
+    }
+
+    private record Entry(JsonObject principal, JsonObject attributes, long expiresAtMs) {
+    }
+}
@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.bodyHandler;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.Vertx;
@@ -28,7 +29,7 @@ public class BodyHandlerMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
         bodyHandler.handle(ctx);
     }
 }
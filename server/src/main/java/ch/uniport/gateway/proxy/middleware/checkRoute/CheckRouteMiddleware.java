@@ -1,6 +1,7 @@
 package ch.uniport.gateway.proxy.middleware.checkRoute;
 
 import ch.uniport.gateway.proxy.middleware.HttpResponder;
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.opentelemetry.api.trace.Span;
@@ -31,7 +32,7 @@ public class CheckRouteMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         if (isCheckRoute(ctx)) {
             LOGGER.info("done for URL '{}' with status code '{}'", ctx.request().absoluteURI(),
@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.claimToHeader;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
@@ -46,7 +47,7 @@ public class ClaimToHeaderMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         LOGGER.debug("Adding claim '{}' to header '{}'", claimPath, headerName);
         ctx.request().headers().remove(headerName);
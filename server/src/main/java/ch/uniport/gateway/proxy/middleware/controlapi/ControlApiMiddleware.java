@@ -2,6 +2,7 @@ package ch.uniport.gateway.proxy.middleware.controlapi;
 
 import static ch.uniport.gateway.proxy.middleware.sessionBag.SessionBagMiddleware.SESSION_BAG_COOKIES;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import ch.uniport.gateway.proxy.middleware.oauth2.AuthenticationUserContext;
 import ch.uniport.gateway.proxy.middleware.sessionBag.CookieBag;
@@ -74,7 +75,7 @@ public class ControlApiMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         if ((action.equals(ControlApiAction.SESSION_TERMINATE) || action.equals(ControlApiAction.SESSION_RESET))
             && ctx.session() == null) {
@@ -88,7 +89,7 @@ public class ControlApiMiddleware extends TraceMiddleware {
     }
 
     private void handleControlCookies(RoutingContext ctx, MultiMap headers) {
-        LOGGER.debug("{}: Handling response of '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.debug(LOGGER, "{}: Handling response of '{}'", name, ctx);
 
         final List<Cookie> cookiesToSet = headers.getAll(HttpHeaders.SET_COOKIE).stream()
             .map(s -> ClientCookieDecoder.STRICT.decode(s))
@@ -5,6 +5,7 @@ import ch.uniport.gateway.proxy.middleware.MiddlewareFactory;
 import ch.uniport.gateway.proxy.middleware.MiddlewareOptionsModel;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.client.WebClient;
@@ -12,6 +13,8 @@ import io.vertx.json.schema.common.dsl.Keywords;
 import io.vertx.json.schema.common.dsl.ObjectSchemaBuilder;
 import io.vertx.json.schema.common.dsl.Schemas;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,8 +36,8 @@ public class ControlApiMiddlewareFactory implements MiddlewareFactory {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ControlApiMiddlewareFactory.class);
 
-    // reusable instance
-    private WebClient webClient;
+    // reusable instance per Vert.x instance, as the factory is shared, removed when the Vert.x instance closes
+    private final Map<Vertx, WebClient> webClients = new ConcurrentHashMap<>();
 
     @Override
     public String provides() {
@@ -64,13 +67,25 @@ public class ControlApiMiddlewareFactory implements MiddlewareFactory {
     public Future<Middleware> create(Vertx vertx, String name, Router router, MiddlewareOptionsModel config) {
         final ControlApiMiddlewareOptions options = castOptions(config, modelType());
 
-        if (webClient == null) {
-            webClient = WebClient.create(vertx);
-        }
+        final WebClient webClient = webClients.computeIfAbsent(vertx, this::createWebClient);
 
         LOGGER.debug("Created '{}#{}' middleware successfully", TYPE, name);
         return Future.succeededFuture(
             new ControlApiMiddleware(vertx, name, options.getAction(), options.getSessionResetURL(), webClient));
     }
 
+    private WebClient createWebClient(Vertx vertx) {
+        final WebClient webClient = WebClient.create(vertx);
+        if (vertx instanceof VertxInternal) {
+            ((VertxInternal) vertx).addCloseHook(completionHandler -> {
+                webClients.remove(vertx);
+                webClient.close();
+                completionHandler.handle(Future.succeededFuture());
+            });
+        } else {
+            LOGGER.warn("Failed to register web client closer");
+        }
+        return webClient;
+    }
+
 }
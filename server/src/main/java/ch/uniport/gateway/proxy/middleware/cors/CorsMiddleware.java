@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.cors;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.MultiMap;
@@ -77,7 +78,7 @@ public class CorsMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         // Deduplicate CORS headers that may be set by both the CorsHandler and a
         // proxied backend service. The headersEndHandler runs just before the
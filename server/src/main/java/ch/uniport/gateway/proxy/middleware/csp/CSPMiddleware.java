@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.csp;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import ch.uniport.gateway.proxy.middleware.csp.compositeCSP.CSPMergeStrategy;
 import ch.uniport.gateway.proxy.middleware.csp.compositeCSP.CompositeCSPHandler;
@@ -36,7 +37,7 @@ public class CSPMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
         ctx.addHeadersEndHandler(v -> this.cspHandler.handleResponse(ctx));
         this.cspHandler.handle(ctx);
     }
@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.csp;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.opentelemetry.api.trace.Span;
@@ -33,7 +34,7 @@ public class CSPViolationReportingServerMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(final RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         if (!ctx.request().method().equals(HttpMethod.POST)) {
             LOGGER.info("Ignoring non-conformant request to the CSP violation reporting server.");
@@ -0,0 +1,109 @@
+package ch.uniport.gateway.proxy.middleware.csp.compositeCSP;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed CSP policy: the values of every directive, in the order they first
+ * appeared. The header value is rendered once on creation. Immutable.
+ */
+final class CSPPolicy {
+
+    static final CSPPolicy EMPTY = new CSPPolicy(Map.of());
+
+    private static final Pattern DIRECTIVE_SEPARATOR = Pattern.compile(";");
+    private static final Pattern VALUE_SEPARATOR = Pattern.compile("\\s+");
+
+    private final Map<String, Set<String>> directives;
+    private final String value;
+
+    private CSPPolicy(Map<String, Set<String>> directives) {
+        this.directives = directives;
+        this.value = render(directives);
+    }
+
+    /**
+     * Directive names are case insensitive and converted to lower case. If a
+     * directive appears multiple times, the last one wins.
+     */
+    static CSPPolicy parse(String policyString) {
+        if (policyString == null || policyString.isBlank()) {
+            return EMPTY;
+        }
+
+        final Map<String, Set<String>> directives = new LinkedHashMap<>();
+        for (String part : DIRECTIVE_SEPARATOR.split(policyString)) {
+            final String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            final String[] directiveParts = VALUE_SEPARATOR.split(trimmed);
+            final Set<String> values = new LinkedHashSet<>();
+            for (int i = 1; i < directiveParts.length; i++) {
+                values.add(directiveParts[i]);
+            }
+            directives.put(directiveParts[0].toLowerCase(Locale.ROOT), Collections.unmodifiableSet(values));
+        }
+        return new CSPPolicy(Collections.unmodifiableMap(directives));
+    }
+
+    /**
+     * @return the policy with the directives and values of both policies
+     */
+    CSPPolicy union(CSPPolicy other) {
+        if (other.directives.isEmpty()) {
+            return this;
+        }
+        if (directives.isEmpty()) {
+            return other;
+        }
+
+        final Map<String, Set<String>> united = new LinkedHashMap<>(directives);
+        other.directives.forEach((directive, values) -> {
+            final Set<String> current = united.get(directive);
+            if (current == null) {
+                united.put(directive, values);
+            } else if (!current.containsAll(values)) {
+                final Set<String> unitedValues = new LinkedHashSet<>(current);
+                unitedValues.addAll(values);
+                united.put(directive, Collections.unmodifiableSet(unitedValues));
+            }
+        });
+        return new CSPPolicy(Collections.unmodifiableMap(united));
+    }
+
+    boolean isEmpty() {
+        return directives.isEmpty();
+    }
+
+    /**
+     * @return the header value
+     */
+    String value() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    private static String render(Map<String, Set<String>> directives) {
+        final StringBuilder buffer = new StringBuilder();
+        directives.forEach((directive, values) -> {
+            if (buffer.length() > 0) {
+                buffer.append("; ");
+            }
+            buffer.append(directive);
+            for (String value : values) {
+                buffer.append(' ').append(value);
+            }
+        });
+        return buffer.toString();
+    }
+}
@@ -1,18 +1,14 @@
 package ch.uniport.gateway.proxy.middleware.csp.compositeCSP;
 
-import com.google.common.collect.Sets;
+import io.vertx.core.MultiMap;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.CSPHandler;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +24,7 @@ import org.slf4j.LoggerFactory;
  * The following changes were made:
  * - no default directive
  * - handleResponse added
+ * - merged policies are memoized, see {@link CSPPolicy}
  */
 public class CompositeCSPHandlerImpl implements CompositeCSPHandler {
 
@@ -36,6 +33,9 @@ public class CompositeCSPHandlerImpl implements CompositeCSPHandler {
     private static final String CSP_PREVIOUS_POLICY_KEY = "CSP_POLICY";
     private static final String CSP_PREVIOUS_RESPONSE_POLICY_KEY = "RESPONSE_CSP_POLICY";
 
+    // per cache of a middleware, bounds the memory if the policies change constantly
+    static final int MAX_CACHED_POLICIES = 1024;
+
     private static final List<String> MUST_BE_QUOTED = Arrays.asList(
         "none",
         "self",
@@ -50,6 +50,9 @@ public class CompositeCSPHandlerImpl implements CompositeCSPHandler {
 
     private final CSPMergeStrategy mergeStrategy;
 
+    private final Map<String, CSPPolicy> parsedPolicies = new ConcurrentHashMap<>();
+    private final Map<MergeKey, String> mergedPolicies = new ConcurrentHashMap<>();
+
     /**
      * Modified constructor to configure the merging strategy of multiple CSP
      * policies
@@ -142,7 +145,7 @@ public class CompositeCSPHandlerImpl implements CompositeCSPHandler {
     public void handle(RoutingContext ctx) {
         final String currentPolicy = getPolicyString();
         final String previousPolicy = ctx.get(CSP_PREVIOUS_POLICY_KEY);
-        final String effectiveCSPPolicy = unitePolicies(Arrays.asList(previousPolicy, currentPolicy));
+        final String effectiveCSPPolicy = mergePolicies(previousPolicy, currentPolicy, CSPMergeStrategy.UNION);
 
         if (effectiveCSPPolicy.length() != 0) {
             ctx.put(CSP_PREVIOUS_POLICY_KEY, effectiveCSPPolicy);
@@ -163,10 +166,7 @@ public class CompositeCSPHandlerImpl implements CompositeCSPHandler {
         final String internalCSPPolicy = mergeStrategy == CSPMergeStrategy.EXTERNAL ? ""
             : ctx.get(CSP_PREVIOUS_POLICY_KEY);
         final String externalCSPPolicy = mergeStrategy == CSPMergeStrategy.INTERNAL ? ""
-            : unitePolicies(Stream.concat(
-                ctx.response().headers().getAll(CSP_HEADER_NAME).stream(),
-                ctx.response().headers().getAll(CSP_REPORT_ONLY_HEADER_NAME).stream())
-                .toList());
+            : uniteHeaders(ctx.response().headers());
 
         ctx.response().headers().remove(CSP_HEADER_NAME);
         ctx.response().headers().remove(CSP_REPORT_ONLY_HEADER_NAME);
@@ -181,79 +181,67 @@ public class CompositeCSPHandlerImpl implements CompositeCSPHandler {
         setPolicy(ctx.response(), effectiveCSPPolicy);
     }
 
+    private String uniteHeaders(MultiMap headers) {
+        String united = "";
+        for (String policy : headers.getAll(CSP_HEADER_NAME)) {
+            united = mergePolicies(united, policy, CSPMergeStrategy.UNION);
+        }
+        for (String policy : headers.getAll(CSP_REPORT_ONLY_HEADER_NAME)) {
+            united = mergePolicies(united, policy, CSPMergeStrategy.UNION);
+        }
+        return united;
+    }
+
+    /**
+     * The policies of the backends and of the middlewares rarely change, so the
+     * merged policy is memoized. Parsing and rendering only happens for new
+     * combinations.
+     */
     private String mergePolicies(String internal, String external, CSPMergeStrategy strategy) {
-        LOGGER.debug("Merging CSP policies with strategy '{}'", strategy.toString());
+        LOGGER.debug("Merging CSP policies with strategy '{}'", strategy);
+        final String internalPolicy = internal == null ? "" : internal;
+        final String externalPolicy = external == null ? "" : external;
         switch (strategy) {
             case UNION:
-                return unitePolicies(Arrays.asList(internal, external));
+                return unitePolicies(internalPolicy, externalPolicy);
             case INTERNAL:
-                return internal;
+                return internalPolicy;
             case EXTERNAL:
-                return external;
+                return externalPolicy;
             default:
                 throw new IllegalStateException(
                     String.format("No support for the following merging strategy: %s", strategy));
         }
     }
 
-    private String unitePolicies(List<String> policies) {
-        if (policies == null || policies.size() == 0) {
-            return "";
+    private String unitePolicies(String internal, String external) {
+        final MergeKey key = new MergeKey(internal, external, CSPMergeStrategy.UNION);
+        String united = mergedPolicies.get(key);
+        if (united == null) {
+            united = parse(internal).union(parse(external)).value();
+            cache(mergedPolicies, key, united);
         }
-
-        final Map<String, Set<String>> finalPolicies = extractCspDirectives(policies.get(0));
-        for (int i = 1; i < policies.size(); i++) {
-            final Map<String, Set<String>> policy = extractCspDirectives(policies.get(i));
-
-            policy.forEach((directive, values) -> {
-                if (finalPolicies.containsKey(directive)) {
-                    final Set<String> currentValues = finalPolicies.get(directive);
-                    finalPolicies.put(directive, Sets.union(currentValues, values));
-                } else {
-                    finalPolicies.put(directive, values);
-                }
-            });
-        }
-
-        final StringBuilder mergedPolicyString = new StringBuilder();
-
-        finalPolicies.forEach((directive, values) -> {
-            if (mergedPolicyString.length() > 0) {
-                mergedPolicyString.append("; ");
-            }
-
-            final Optional<String> mergedValuesOptional = values.stream()
-                .reduce((resultValue, newDirectiveValue) -> resultValue + " " + newDirectiveValue);
-            if (mergedValuesOptional.isPresent()) {
-                final String mergedValues = mergedValuesOptional.get();
-                mergedPolicyString.append(directive)
-                    .append(' ')
-                    .append(mergedValues);
-            }
-        });
-
-        return mergedPolicyString.toString();
+        return united;
     }
 
-    // Modified code to support multiple chained CSP Middlewares
-    private Map<String, Set<String>> extractCspDirectives(String policyString) {
-        final Map<String, Set<String>> directives = new HashMap<>();
-
-        if (policyString == null || policyString.isEmpty()) {
-            return directives;
+    private CSPPolicy parse(String policyString) {
+        CSPPolicy parsed = parsedPolicies.get(policyString);
+        if (parsed == null) {
+            parsed = CSPPolicy.parse(policyString);
+            cache(parsedPolicies, policyString, parsed);
         }
+        return parsed;
+    }
 
-        final String[] policyParts = policyString.split(";");
-        for (String part : policyParts) {
-            final String[] directiveParts = part.trim().split("\\s+");
-            if (directiveParts.length > 0) {
-                final String directive = directiveParts[0].toLowerCase();
-                final String[] values = Arrays.copyOfRange(directiveParts, 1, directiveParts.length);
-                directives.put(directive, new HashSet<>(Arrays.asList(values)));
-            }
+    /**
+     * Starts over once the cache is full, e.g. if a backend sends a new nonce
+     * with every response.
+     */
+    private static <K, V> void cache(Map<K, V> cache, K key, V value) {
+        if (cache.size() >= MAX_CACHED_POLICIES) {
+            cache.clear();
         }
-
-        return directives;
+        cache.put(key, value);
     }
 
     private void setPolicy(HttpServerResponse response, String policyString) {
@@ -271,4 +259,7 @@ public class CompositeCSPHandlerImpl implements CompositeCSPHandler {
             response.putHeader(CSP_HEADER_NAME, policyString);
         }
     }
+
+    private record MergeKey(String internal, String external, CSPMergeStrategy strategy) {
+    }
 }
@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.customResponse;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.MultiMap;
@@ -36,7 +37,7 @@ public class CustomResponseMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         for (Map.Entry<String, String> header : this.headers.entries()) {
             LOGGER.debug("Setting response header '{}:{}'", header.getKey(), header.getValue());
@@ -2,6 +2,7 @@ package ch.uniport.gateway.proxy.middleware.debug;
 
 import static ch.uniport.gateway.proxy.middleware.oauth2.OAuth2AuthMiddleware.SINGLE_SIGN_ON_SID;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import ch.uniport.gateway.proxy.middleware.oauth2.AuthenticationUserContext;
 import ch.uniport.gateway.proxy.middleware.sessionBag.SessionBagMiddleware;
@@ -47,7 +48,7 @@ public class ShowSessionContentMiddleware extends TraceMiddleware {
             return;
         }
 
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
         ctx.end(getHtml(ctx.session()));
     }
 
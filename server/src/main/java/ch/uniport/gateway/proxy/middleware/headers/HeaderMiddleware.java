@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.headers;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.MultiMap;
@@ -36,7 +37,7 @@ public class HeaderMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         modifyHeaders(ctx.request().headers(), requestHeaderModifiers, "request");
         ctx.addHeadersEndHandler(v -> modifyHeaders(ctx.response().headers(), responseHeaderModifiers, "response"));
@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.languageCookie;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.http.Cookie;
@@ -30,9 +31,9 @@ public class LanguageCookieMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
-        final Cookie cookie = ctx.request().getCookie(languageCookieName);
+        final Cookie cookie = requestCookies(ctx).received(languageCookieName);
         if (cookie != null) {
             LOGGER.debug("Extracted '{}' cookie with following available iso-code: '{}'", languageCookieName,
                 cookie.getValue());
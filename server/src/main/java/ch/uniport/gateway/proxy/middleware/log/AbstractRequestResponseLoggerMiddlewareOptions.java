@@ -20,6 +20,8 @@ public abstract class AbstractRequestResponseLoggerMiddlewareOptions implements
     public static final JsonArray DEFAULT_CONTENT_TYPES_TO_LOG = JsonArray.of();
     public static final boolean DEFAULT_LOGGING_REQUEST_ENABLED = true;
     public static final boolean DEFAULT_LOGGING_RESPONSE_ENABLED = true;
+    public static final boolean DEFAULT_ACCESS_LOG_ENABLED = false;
+    public static final String DEFAULT_ACCESS_LOG_FORMAT = AccessLogFormat.DEFAULT_FORMAT;
     private static final Logger LOGGER = LoggerFactory.getLogger(RequestResponseLoggerMiddlewareOptions.class);
 
     @Nullable
@@ -44,4 +46,31 @@ public abstract class AbstractRequestResponseLoggerMiddlewareOptions implements
             DEFAULT_LOGGING_RESPONSE_ENABLED);
         return DEFAULT_LOGGING_RESPONSE_ENABLED;
     }
+
+    @Default
+    @JsonProperty(RequestResponseLoggerMiddlewareFactory.ACCESS_LOG)
+    public AccessLogOptions getAccessLog() {
+        logDefault(LOGGER, RequestResponseLoggerMiddlewareFactory.ACCESS_LOG);
+        return AccessLogOptions.builder().build();
+    }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = AccessLogOptions.Builder.class)
+    public abstract static class AbstractAccessLogOptions implements MiddlewareOptionsModel {
+
+        @Default
+        @JsonProperty(RequestResponseLoggerMiddlewareFactory.ACCESS_LOG_ENABLED)
+        public boolean isEnabled() {
+            logDefault(LOGGER, RequestResponseLoggerMiddlewareFactory.ACCESS_LOG_ENABLED, DEFAULT_ACCESS_LOG_ENABLED);
+            return DEFAULT_ACCESS_LOG_ENABLED;
+        }
+
+        @Default
+        @JsonProperty(RequestResponseLoggerMiddlewareFactory.ACCESS_LOG_FORMAT)
+        public String getFormat() {
+            logDefault(LOGGER, RequestResponseLoggerMiddlewareFactory.ACCESS_LOG_FORMAT, DEFAULT_ACCESS_LOG_FORMAT);
+            return DEFAULT_ACCESS_LOG_FORMAT;
+        }
+    }
 }
@@ -0,0 +1,147 @@
+package ch.uniport.gateway.proxy.middleware.log;
+
+import ch.uniport.gateway.MeterRegistries;
+import io.micrometer.core.instrument.Counter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the access log off the event loop.
+ * <p>
+ * The event loops only capture the fields of a request into an
+ * {@link AccessLogEntry} and hand it to a lock-free ring buffer. A single
+ * writer thread drains the buffer in batches, formats the entries into a
+ * reused buffer and writes them to the logger of this class. When the writer
+ * falls behind and the buffer is full, entries are dropped rather than
+ * slowing down requests. While the buffer stays empty, the writer backs off
+ * exponentially from {@link #MIN_IDLE_PARK_NANOS} to
+ * {@link #MAX_IDLE_PARK_NANOS}, so an idle gateway does not wake it up
+ * a thousand times per second.
+ * <p>
+ * The writer is shared by all {@code requestResponseLogger} middlewares of the
+ * JVM. Entries still buffered are written on shutdown.
+ * <p>
+ * The following metric is provided:
+ * <ul>
+ * <li>{@code uniport.gateway.access-log.dropped}: counter of the entries
+ * dropped because the buffer was full</li>
+ * </ul>
+ */
+public final class AccessLog {
+
+    static final String DROPPED_METRIC_NAME = "uniport.gateway.access-log.dropped";
+    static final int BUFFER_CAPACITY = 16 * 1024;
+    static final int BATCH_SIZE = 256;
+
+    static final long MIN_IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final String WRITER_THREAD_NAME = "uniport-access-log-writer";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccessLog.class);
+
+    // initialized on first use, the writer thread is only started if the access log is used
+    private static final class Holder {
+        private static final AccessLog INSTANCE = start(new AccessLog(BUFFER_CAPACITY, LOGGER));
+    }
+
+    private final AccessLogRingBuffer<AccessLogEntry> buffer;
+    private final Logger logger;
+    // guarded by this
+    private final StringBuilder line = new StringBuilder(256);
+
+    private final Counter dropped;
+
+    AccessLog(int capacity, Logger logger) {
+        this.buffer = new AccessLogRingBuffer<>(capacity);
+        this.logger = logger;
+        this.dropped = Counter.builder(DROPPED_METRIC_NAME)
+            .description("Access log entries dropped because the writer fell behind")
+            .register(MeterRegistries.getDefault());
+    }
+
+    public static AccessLog instance() {
+        return Holder.INSTANCE;
+    }
+
+    private static AccessLog start(AccessLog accessLog) {
+        final Thread writer = new Thread(accessLog::run, WRITER_THREAD_NAME);
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(accessLog::drain, WRITER_THREAD_NAME + "-shutdown"));
+        return accessLog;
+    }
+
+    /**
+     * Avoids capturing entries which would not be written.
+     */
+    public boolean isEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    /**
+     * Hands an entry to the writer, never blocks.
+     */
+    void log(AccessLogEntry entry) {
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes up to {@link #BATCH_SIZE} entries. Synchronized, as the buffer
+     * has a single consumer and the shutdown hook may drain it concurrently.
+     *
+     * @return the number of written entries
+     */
+    synchronized int writeBatch() {
+        int written = 0;
+        AccessLogEntry entry;
+        while (written < BATCH_SIZE && (entry = buffer.poll()) != null) {
+            write(entry);
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * @return the time to park after parking {@code parkNanos} without finding
+     *         an entry
+     */
+    static long nextIdleParkNanos(long parkNanos) {
+        return Math.min(MAX_IDLE_PARK_NANOS, Math.max(MIN_IDLE_PARK_NANOS, parkNanos * 2));
+    }
+
+    private void run() {
+        long parkNanos = MIN_IDLE_PARK_NANOS;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (writeBatch() > 0) {
+                    parkNanos = MIN_IDLE_PARK_NANOS;
+                    continue;
+                }
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = nextIdleParkNanos(parkNanos);
+            } catch (RuntimeException e) {
+                // the writer must survive failing appenders
+                LOGGER.warn("Failed to write access log", e);
+            }
+        }
+    }
+
+    private void drain() {
+        while (writeBatch() > 0) {
+            // until empty
+        }
+    }
+
+    private void write(AccessLogEntry entry) {
+        line.setLength(0);
+        entry.format().appendTo(line, entry);
+        // the line is the message, the entry the structured fields. The message is
+        // formatted by logback before the event leaves this thread, even for async appenders
+        logger.info("{}", line, entry);
+    }
+}
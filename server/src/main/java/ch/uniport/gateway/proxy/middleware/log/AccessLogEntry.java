@@ -0,0 +1,65 @@
+package ch.uniport.gateway.proxy.middleware.log;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import net.logstash.logback.argument.StructuredArgument;
+
+/**
+ * The fields of a request captured on the event loop, formatted by the access
+ * log writer.
+ * <p>
+ * As a {@link StructuredArgument}, the fields are written as the object
+ * {@code access} directly into the JSON of a structured logging configuration.
+ */
+record AccessLogEntry(
+    AccessLogFormat format,
+    String middleware,
+    String method,
+    String uri,
+    String version,
+    int status,
+    long bytes,
+    long durationMs,
+    String remoteAddress,
+    String referrer,
+    String userAgent,
+    String userId,
+    String sessionId,
+    String traceId
+) implements StructuredArgument {
+
+    static final String JSON_FIELD = "access";
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeObjectFieldStart(JSON_FIELD);
+        writeField(generator, AccessLogFormat.Field.MIDDLEWARE, middleware);
+        writeField(generator, AccessLogFormat.Field.METHOD, method);
+        writeField(generator, AccessLogFormat.Field.URI, uri);
+        writeField(generator, AccessLogFormat.Field.VERSION, version);
+        generator.writeNumberField(AccessLogFormat.Field.STATUS.key(), status);
+        generator.writeNumberField(AccessLogFormat.Field.BYTES.key(), bytes);
+        generator.writeNumberField(AccessLogFormat.Field.DURATION_MS.key(), durationMs);
+        writeField(generator, AccessLogFormat.Field.REMOTE_ADDRESS, remoteAddress);
+        writeField(generator, AccessLogFormat.Field.REFERRER, referrer);
+        writeField(generator, AccessLogFormat.Field.USER_AGENT, userAgent);
+        writeField(generator, AccessLogFormat.Field.USER_ID, userId);
+        writeField(generator, AccessLogFormat.Field.SESSION_ID, sessionId);
+        writeField(generator, AccessLogFormat.Field.TRACE_ID, traceId);
+        generator.writeEndObject();
+    }
+
+    private static void writeField(JsonGenerator generator, AccessLogFormat.Field field, String value)
+        throws IOException {
+        if (value != null) {
+            generator.writeStringField(field.key(), value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder line = new StringBuilder();
+        format.appendTo(line, this);
+        return line.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package ch.uniport.gateway.proxy.middleware.log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Template of an access log line, parsed once when the middleware is created.
+ * <p>
+ * Fields are referenced by their name in curly braces, e.g.
+ * {@code "{method} {uri}" {status}}, everything else is copied literally.
+ * Missing values are written as {@code -}.
+ */
+public final class AccessLogFormat {
+
+    public static final String DEFAULT_FORMAT = "\"{method} {uri} {version}\" {status} {bytes} \"{referrer}\" \"{userAgent}\" {durationMs}ms {remoteAddress}";
+
+    private static final String MISSING_VALUE = "-";
+
+    /**
+     * The fields available in the template.
+     */
+    enum Field {
+        METHOD("method"),
+        URI("uri"),
+        VERSION("version"),
+        STATUS("status"),
+        BYTES("bytes"),
+        DURATION_MS("durationMs"),
+        REMOTE_ADDRESS("remoteAddress"),
+        REFERRER("referrer"),
+        USER_AGENT("userAgent"),
+        USER_ID("userId"),
+        SESSION_ID("sessionId"),
+        TRACE_ID("traceId"),
+        MIDDLEWARE("middleware");
+
+        private final String key;
+
+        Field(String key) {
+            this.key = key;
+        }
+
+        String key() {
+            return key;
+        }
+
+        static Field of(String key) {
+            for (Field field : values()) {
+                if (field.key.equals(key)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException(String.format("unknown access log field '%s', expected one of %s",
+                key, Arrays.stream(values()).map(Field::key).toList()));
+        }
+    }
+
+    // a segment is either a literal String or a Field
+    private final Object[] segments;
+
+    private AccessLogFormat(List<Object> segments) {
+        this.segments = segments.toArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             if the template references an unknown field or a brace is not
+     *             closed
+     */
+    public static AccessLogFormat parse(String template) {
+        Objects.requireNonNull(template, "template must not be null");
+        final List<Object> segments = new ArrayList<>();
+        int pos = 0;
+        while (pos < template.length()) {
+            final int open = template.indexOf('{', pos);
+            if (open < 0) {
+                segments.add(template.substring(pos));
+                break;
+            }
+            final int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException(
+                    String.format("unclosed access log field at position %d in '%s'", open, template));
+            }
+            if (open > pos) {
+                segments.add(template.substring(pos, open));
+            }
+            segments.add(Field.of(template.substring(open + 1, close)));
+            pos = close + 1;
+        }
+        return new AccessLogFormat(segments);
+    }
+
+    /**
+     * Appends the line of an entry without allocating intermediate Strings.
+     */
+    void appendTo(StringBuilder line, AccessLogEntry entry) {
+        for (Object segment : segments) {
+            if (segment instanceof Field field) {
+                appendField(line, field, entry);
+            } else {
+                line.append((String) segment);
+            }
+        }
+    }
+
+    private static void appendField(StringBuilder line, Field field, AccessLogEntry entry) {
+        switch (field) {
+            case METHOD -> appendValue(line, entry.method());
+            case URI -> appendValue(line, entry.uri());
+            case VERSION -> appendValue(line, entry.version());
+            case STATUS -> line.append(entry.status());
+            case BYTES -> line.append(entry.bytes());
+            case DURATION_MS -> line.append(entry.durationMs());
+            case REMOTE_ADDRESS -> appendValue(line, entry.remoteAddress());
+            case REFERRER -> appendValue(line, entry.referrer());
+            case USER_AGENT -> appendValue(line, entry.userAgent());
+            case USER_ID -> appendValue(line, entry.userId());
+            case SESSION_ID -> appendValue(line, entry.sessionId());
+            case TRACE_ID -> appendValue(line, entry.traceId());
+            case MIDDLEWARE -> appendValue(line, entry.middleware());
+            default -> throw new IllegalStateException("unhandled access log field " + field);
+        }
+    }
+
+    private static void appendValue(StringBuilder line, String value) {
+        line.append(value == null ? MISSING_VALUE : value);
+    }
+}
@@ -0,0 +1,79 @@
+package ch.uniport.gateway.proxy.middleware.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free ring buffer with many producers (the event loops) and a
+ * single consumer (the access log writer).
+ * <p>
+ * Producers claim a sequence with a CAS and publish their element into the
+ * slot of the sequence. The consumer clears a slot before it advances the
+ * head, so a producer never overwrites an element that was not consumed yet.
+ * A full buffer rejects new elements instead of blocking the event loop.
+ */
+final class AccessLogRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+
+    // next sequence to claim by a producer
+    private final AtomicLong tail = new AtomicLong();
+    // next sequence to consume, only written by the consumer
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity
+     *            rounded up to the next power of two
+     */
+    AccessLogRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    boolean offer(E element) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() >= capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.set((int) (sequence & mask), element);
+        return true;
+    }
+
+    /**
+     * Must only be called by the consumer.
+     *
+     * @return the next element, or null if the buffer is empty or the next
+     *         element is not published yet
+     */
+    E poll() {
+        final long sequence = head.get();
+        final int index = (int) (sequence & mask);
+        final E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(sequence + 1);
+        return element;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+}
@@ -1,5 +1,7 @@
 package ch.uniport.gateway.proxy.middleware.log;
 
+import ch.uniport.gateway.proxy.middleware.HashUtil;
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.MultiMap;
@@ -10,11 +12,15 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.SocketAddress;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.Session;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +28,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Log every request and/or response and adds the requestId and the sessionId to
  * the contextual data.
+ * <p>
+ * With an access log format, a single line per request is written
+ * asynchronously by the {@link AccessLog} instead, see there.
  */
 public class RequestResponseLoggerMiddleware extends TraceMiddleware {
 
@@ -31,6 +40,11 @@ public class RequestResponseLoggerMiddleware extends TraceMiddleware {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RequestResponseLoggerMiddleware.class);
 
+    private static final String ID_TOKEN = "id_token";
+    private static final String ACCESS_TOKEN = "access_token";
+    private static final String PREFERRED_USERNAME = "preferred_username";
+    static final int MAX_CACHED_USER_IDS = 10_000;
+
     private final String name;
 
     private final Pattern uriPatternForIgnoringRequests;
@@ -41,16 +55,39 @@ public class RequestResponseLoggerMiddleware extends TraceMiddleware {
 
     private final boolean isLoggingResponseEnabled;
 
+    private final AccessLogFormat accessLogFormat;
+
+    // by session id, the user id decoded from the token of the session, guarded by itself
+    private final Map<String, CachedUserId> userIds = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedUserId> eldest) {
+            return size() > MAX_CACHED_USER_IDS;
+        }
+    };
+
     public RequestResponseLoggerMiddleware(
         String name,
         String uriPatternForIgnoringRequests,
         List<String> contentTypesToLog,
         boolean isLoggingRequestEnabled,
         boolean isLoggingResponseEnabled
+    ) {
+        this(name, uriPatternForIgnoringRequests, contentTypesToLog, isLoggingRequestEnabled,
+            isLoggingResponseEnabled, null);
+    }
+
+    public RequestResponseLoggerMiddleware(
+        String name,
+        String uriPatternForIgnoringRequests,
+        List<String> contentTypesToLog,
+        boolean isLoggingRequestEnabled,
+        boolean isLoggingResponseEnabled,
+        AccessLogFormat accessLogFormat
     ) {
         Objects.requireNonNull(name, "name must not be null");
         Objects.requireNonNull(contentTypesToLog, "contentTypesToLog must not be null");
         // uriPatternForIgnoringRequests is allowed to be null
+        // accessLogFormat is allowed to be null
 
         this.name = name;
         this.uriPatternForIgnoringRequests = uriPatternForIgnoringRequests == null ? null
@@ -58,6 +95,7 @@ public class RequestResponseLoggerMiddleware extends TraceMiddleware {
         this.contentTypesToLog = contentTypesToLog.stream().toList();
         this.isLoggingRequestEnabled = isLoggingRequestEnabled;
         this.isLoggingResponseEnabled = isLoggingResponseEnabled;
+        this.accessLogFormat = accessLogFormat;
     }
 
     @Override
@@ -67,10 +105,21 @@ public class RequestResponseLoggerMiddleware extends TraceMiddleware {
             return;
         }
 
-        final long start = System.currentTimeMillis();
-        ContextualDataAdapter.put(CONTEXTUAL_DATA_USER_ID, getUserId(ctx.user()));
+        final String userId = getUserId(ctx);
+        ContextualDataAdapter.put(CONTEXTUAL_DATA_USER_ID, userId);
+
+        if (accessLogFormat != null) {
+            final AccessLog accessLog = AccessLog.instance();
+            if (accessLog.isEnabled()) {
+                final long startNanos = System.nanoTime();
+                ctx.addBodyEndHandler(v -> accessLog.log(accessLogEntry(ctx, span, userId, startNanos)));
+            }
+            ctx.next();
+            return;
+        }
 
-        LOGGER.debug("{} for '{}'", name, ctx.request().absoluteURI());
+        final long start = System.currentTimeMillis();
+        RequestDiagnostics.debug(LOGGER, "{} for '{}'", name, ctx);
 
         if (isLoggingRequestEnabled) {
             if (LOGGER.isTraceEnabled()) {
@@ -161,6 +210,28 @@ public class RequestResponseLoggerMiddleware extends TraceMiddleware {
         LOGGER.trace("{} outgoing Response '{}' \nHeaders '{}'", name, infoLog, headerLog);
     }
 
+    private AccessLogEntry accessLogEntry(RoutingContext ctx, Span span, String userId, long startNanos) {
+        final HttpServerRequest request = ctx.request();
+        final HttpServerResponse response = ctx.response();
+        final MultiMap headers = request.headers();
+        final String traceId = span.getSpanContext().isValid() ? span.getSpanContext().getTraceId() : null;
+        return new AccessLogEntry(
+            accessLogFormat,
+            name,
+            request.method().name(),
+            request.uri(),
+            request.version() == null ? null : request.version().alpnName(),
+            response.getStatusCode(),
+            response.bytesWritten(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+            getClientAddress(request.remoteAddress()),
+            headers.contains("referrer") ? headers.get("referrer") : headers.get("referer"),
+            headers.get("user-agent"),
+            userId,
+            SessionAdapter.displaySessionId(ctx.session()),
+            traceId);
+    }
+
     private String generateHttpResponseLogMessage(RoutingContext routingContext, long start) {
         final long timestamp = System.currentTimeMillis();
         final HttpServerResponse response = routingContext.response();
@@ -228,7 +299,13 @@ public class RequestResponseLoggerMiddleware extends TraceMiddleware {
         return headerBuilder.toString();
     }
 
-    private String getUserId(User u) {
+    /**
+     * The user id is cached per session, as long as the session holds the same
+     * token, instead of decoding the token on every request. Only the hash of
+     * the token is kept to tell whether it changed.
+     */
+    private String getUserId(RoutingContext ctx) {
+        final User u = ctx.user();
         if (u == null) {
             return EMPTY_USER_ID;
         }
@@ -237,21 +314,35 @@ public class RequestResponseLoggerMiddleware extends TraceMiddleware {
             return EMPTY_USER_ID;
         }
 
-        String userId = EMPTY_USER_ID;
-        if (principal.containsKey("id_token")) {
-            final JsonObject idToken = decodeJWT(principal.getString("id_token"));
-            if (idToken.containsKey("preferred_username")) {
-                userId = idToken.getString("preferred_username");
-            }
-        } else if (principal.containsKey("access_token")) {
-            final JsonObject accessToken = decodeJWT(principal.getString("access_token"));
-            if (accessToken.containsKey("preferred_username")) {
-                userId = accessToken.getString("preferred_username");
+        final String token = principal.containsKey(ID_TOKEN) ? principal.getString(ID_TOKEN)
+            : principal.getString(ACCESS_TOKEN);
+        if (token == null) {
+            return EMPTY_USER_ID;
+        }
+
+        final Session session = ctx.session();
+        if (session == null) {
+            return decodeUserId(token);
+        }
+        final String tokenHash = HashUtil.sha256(token);
+        synchronized (userIds) {
+            final CachedUserId cached = userIds.get(session.id());
+            if (cached != null && cached.tokenHash.equals(tokenHash)) {
+                return cached.userId;
             }
         }
+        final String userId = decodeUserId(token);
+        synchronized (userIds) {
+            userIds.put(session.id(), new CachedUserId(tokenHash, userId));
+        }
         return userId;
     }
 
+    private String decodeUserId(String token) {
+        final JsonObject payload = decodeJWT(token);
+        return payload.containsKey(PREFERRED_USERNAME) ? payload.getString(PREFERRED_USERNAME) : EMPTY_USER_ID;
+    }
+
     protected JsonObject decodeJWT(String jwt) {
         try {
             final String[] chunks = jwt.split("\\.");
@@ -264,4 +355,7 @@ public class RequestResponseLoggerMiddleware extends TraceMiddleware {
             throw e;
         }
     }
+
+    private record CachedUserId(String tokenHash, String userId) {
+    }
 }
@@ -24,6 +24,9 @@ public class RequestResponseLoggerMiddlewareFactory implements MiddlewareFactory
     public static final String CONTENT_TYPES = "contentTypes";
     public static final String LOGGING_REQUEST_ENABLED = "loggingRequestEnabled";
     public static final String LOGGING_RESPONSE_ENABLED = "loggingResponseEnabled";
+    public static final String ACCESS_LOG = "accessLog";
+    public static final String ACCESS_LOG_ENABLED = "enabled";
+    public static final String ACCESS_LOG_FORMAT = "format";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RequestResponseLoggerMiddlewareFactory.class);
 
@@ -44,11 +47,26 @@ public class RequestResponseLoggerMiddlewareFactory implements MiddlewareFactory
                 .defaultValue(AbstractRequestResponseLoggerMiddlewareOptions.DEFAULT_LOGGING_REQUEST_ENABLED))
             .optionalProperty(LOGGING_RESPONSE_ENABLED, Schemas.booleanSchema()
                 .defaultValue(AbstractRequestResponseLoggerMiddlewareOptions.DEFAULT_LOGGING_RESPONSE_ENABLED))
+            .optionalProperty(ACCESS_LOG, Schemas.objectSchema()
+                .optionalProperty(ACCESS_LOG_ENABLED, Schemas.booleanSchema()
+                    .defaultValue(AbstractRequestResponseLoggerMiddlewareOptions.DEFAULT_ACCESS_LOG_ENABLED))
+                .optionalProperty(ACCESS_LOG_FORMAT, Schemas.stringSchema()
+                    .with(Keywords.minLength(1))
+                    .defaultValue(AbstractRequestResponseLoggerMiddlewareOptions.DEFAULT_ACCESS_LOG_FORMAT))
+                .allowAdditionalProperties(false))
             .allowAdditionalProperties(false);
     }
 
     @Override
     public Future<Void> validate(JsonObject options) {
+        final JsonObject accessLog = options.getJsonObject(ACCESS_LOG);
+        if (accessLog != null && accessLog.containsKey(ACCESS_LOG_FORMAT)) {
+            try {
+                AccessLogFormat.parse(accessLog.getString(ACCESS_LOG_FORMAT));
+            } catch (IllegalArgumentException e) {
+                return Future.failedFuture(e);
+            }
+        }
         return Future.succeededFuture();
     }
 
@@ -60,10 +78,13 @@ public class RequestResponseLoggerMiddlewareFactory implements MiddlewareFactory
     @Override
     public Future<Middleware> create(Vertx vertx, String name, Router router, MiddlewareOptionsModel config) {
         final RequestResponseLoggerMiddlewareOptions options = castOptions(config, modelType());
+        final AccessLogFormat accessLogFormat = options.getAccessLog().isEnabled()
+            ? AccessLogFormat.parse(options.getAccessLog().getFormat())
+            : null;
         LOGGER.debug("Created '{}#{}' middleware successfully", TYPE, name);
         return Future.succeededFuture(
             new RequestResponseLoggerMiddleware(name, options.getFilterRegex(), options.getContentTypes(),
-                options.isRequestEnabled(), options.isResponseEnabled()));
+                options.isRequestEnabled(), options.isResponseEnabled(), accessLogFormat));
     }
 
 }
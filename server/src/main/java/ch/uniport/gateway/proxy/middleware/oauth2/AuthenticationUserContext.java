@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.oauth2;
 
+import ch.uniport.gateway.proxy.middleware.session.SessionDataFormat;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
@@ -128,6 +129,31 @@ public class AuthenticationUserContext implements ClusterSerializable {
 
     @Override
     public void writeToBuffer(Buffer buffer) {
+        if (!SessionDataFormat.isEnabled()) {
+            writeLegacyToBuffer(buffer);
+            return;
+        }
+        SessionDataFormat.writeVersion(buffer);
+        authenticationProvider.writeTo(buffer);
+        SessionDataFormat.writeJsonObject(buffer, UserConverter.encode(user));
+        SessionDataFormat.writeString(buffer, sessionScope);
+    }
+
+    @Override
+    public int readFromBuffer(int pos, Buffer buffer) {
+        if (SessionDataFormat.isLegacy(pos, buffer)) {
+            return readLegacyFromBuffer(pos, buffer);
+        }
+        final SessionDataFormat.Reader reader = SessionDataFormat.reader(pos, buffer);
+        authenticationProvider = new OAuth2ApiWrapper();
+        authenticationProvider.readFrom(reader);
+        user = UserConverter.decode(reader.readJsonObject());
+        sessionScope = reader.readString();
+        return reader.position();
+    }
+
+    // readable by previous releases, which embedded the provider config
+    private void writeLegacyToBuffer(Buffer buffer) {
         final JsonObject json = new JsonObject();
         json.put(FIELD_AUTHENTICATION_PROVIDER, authenticationProvider.toJson());
         json.put(FIELD_USER, UserConverter.encode(user));
@@ -136,8 +162,8 @@ public class AuthenticationUserContext implements ClusterSerializable {
         json.writeToBuffer(buffer);
     }
 
-    @Override
-    public int readFromBuffer(int pos, Buffer buffer) {
+    // written by previous releases, which embedded the provider config
+    private int readLegacyFromBuffer(int pos, Buffer buffer) {
         final JsonObject json = new JsonObject();
         final int read = json.readFromBuffer(pos, buffer);
 
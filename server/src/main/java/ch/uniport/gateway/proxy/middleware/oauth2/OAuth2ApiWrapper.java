@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.oauth2;
 
+import ch.uniport.gateway.proxy.middleware.session.SessionDataFormat;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
@@ -21,11 +22,14 @@ import java.util.Objects;
  * so this does not come out of the box.
  * 
  * Hence, we create a wrapper around {@link OAuth2AuthProviderImpl} to make it {@link ClusterSerializable} and 
- * only serialize the important {@link OAuth2Options} config.
+ * only serialize a reference to its {@link OAuth2Options} config in the {@link OAuth2ProviderRegistry}.
+ * Wrappers serialized by previous releases contain the config itself, they are still accepted.
  * </pre>
  */
 public class OAuth2ApiWrapper implements ClusterSerializable {
 
+    private String reference;
+    // only set if read from the legacy format or if the provider is not registered
     private OAuth2Options config;
     private OAuth2Auth delegate;
 
@@ -41,10 +45,9 @@ public class OAuth2ApiWrapper implements ClusterSerializable {
     OAuth2ApiWrapper(OAuth2Auth delegate) {
         Objects.requireNonNull(delegate);
         this.delegate = delegate;
+        this.reference = OAuth2ProviderRegistry.register(delegate);
 
-        if (delegate instanceof OAuth2AuthProviderImpl) {
-            this.config = ((OAuth2AuthProviderImpl) delegate).getConfig();
-        } else {
+        if (reference == null) {
             // this is required for testing
             this.config = new OAuth2Options();
         }
@@ -52,26 +55,66 @@ public class OAuth2ApiWrapper implements ClusterSerializable {
 
     OAuth2Auth getDelegate(Vertx vertx) {
         if (this.delegate == null) {
-            // in case we got synchronized between instances, we need to create the delegate
-            this.delegate = OAuth2Auth.create(vertx, config);
+            // in case we got synchronized between instances, we need to resolve the delegate
+            if (reference != null) {
+                this.delegate = OAuth2ProviderRegistry.provider(vertx, reference);
+            } else {
+                this.delegate = OAuth2Auth.create(vertx, config);
+            }
         }
         return delegate;
     }
 
     public JsonObject toJson() {
-        return config.toJson();
+        if (config != null) {
+            return config.toJson();
+        }
+        final OAuth2Options registered = OAuth2ProviderRegistry.config(reference);
+        return registered != null ? registered.toJson() : new JsonObject();
     }
 
     @Override
     public void writeToBuffer(Buffer buffer) {
-        config.toJson().writeToBuffer(buffer);
+        if (!SessionDataFormat.isEnabled()) {
+            // readable by previous releases
+            toJson().writeToBuffer(buffer);
+            return;
+        }
+        SessionDataFormat.writeVersion(buffer);
+        writeTo(buffer);
     }
 
     @Override
     public int readFromBuffer(int pos, Buffer buffer) {
+        if (SessionDataFormat.isLegacy(pos, buffer)) {
+            return readLegacyFromBuffer(pos, buffer);
+        }
+        final SessionDataFormat.Reader reader = SessionDataFormat.reader(pos, buffer);
+        readFrom(reader);
+        return reader.position();
+    }
+
+    /**
+     * Writes the wrapper without version, as part of an enclosing encoding.
+     */
+    void writeTo(Buffer buffer) {
+        SessionDataFormat.writeString(buffer, reference);
+        if (reference == null) {
+            SessionDataFormat.writeJsonObject(buffer, config.toJson());
+        }
+    }
+
+    void readFrom(SessionDataFormat.Reader reader) {
+        this.reference = reader.readString();
+        if (reference == null) {
+            this.config = new OAuth2Options(reader.readJsonObject());
+        }
+    }
+
+    private int readLegacyFromBuffer(int pos, Buffer buffer) {
         final JsonObject json = new JsonObject();
         final int read = json.readFromBuffer(pos, buffer);
         this.config = new OAuth2Options(json);
         return read;
     }
-}
\ No newline at end of file
+}
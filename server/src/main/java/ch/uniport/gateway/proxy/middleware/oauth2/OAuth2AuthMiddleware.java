@@ -3,6 +3,7 @@ package ch.uniport.gateway.proxy.middleware.oauth2;
 import static ch.uniport.gateway.proxy.middleware.openTelemetry.OpenTelemetryMiddleware.CONTEXTUAL_DATA_SESSION_ID;
 
 import ch.uniport.gateway.proxy.middleware.HttpResponder;
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import ch.uniport.gateway.proxy.middleware.log.SessionAdapter;
 import ch.uniport.gateway.proxy.middleware.oauth2.relyingParty.StateWithUri;
@@ -229,7 +230,7 @@ public class OAuth2AuthMiddleware extends TraceMiddleware {
      */
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         final User user = ctx.user();
         final User userForScope = setUserForScope(this.sessionScope, ctx);
@@ -271,6 +271,9 @@ public class OAuth2MiddlewareFactory implements MiddlewareFactory {
                 }
             }
 
+            // sessions only reference their provider, so that every instance has to know it
+            OAuth2ProviderRegistry.register(authProvider);
+
             for (Route callback : callbacks) {
                 OAuth2AuthMiddleware.registerCallbackHandlers(vertx, callback, sessionScope, authProvider);
             }
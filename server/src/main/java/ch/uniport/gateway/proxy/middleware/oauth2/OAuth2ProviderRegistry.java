@@ -0,0 +1,109 @@
+package ch.uniport.gateway.proxy.middleware.oauth2;
+
+import ch.uniport.gateway.proxy.middleware.HashUtil;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.auth.oauth2.OAuth2Auth;
+import io.vertx.ext.auth.oauth2.OAuth2Options;
+import io.vertx.ext.auth.oauth2.impl.OAuth2AuthProviderImpl;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The configs of the OAuth2 providers known to this instance, so that sessions
+ * only need to carry a reference to their provider instead of its config.
+ * <p>
+ * A provider is referenced by the hash of its client id, site and token path.
+ * Every instance of a cluster runs the same configuration and registers its
+ * providers on middleware creation, hence a reference written by one instance
+ * resolves on all others. Re-registering a provider, e.g. after a
+ * configuration reload, replaces its config.
+ * <p>
+ * A config is kept as long as one of the providers it was registered with is
+ * in use, e.g. by its middleware or by a session of this instance. The configs
+ * of providers that were garbage collected, e.g. after their middleware was
+ * removed by a configuration reload, are pruned on the next registration.
+ * <p>
+ * The providers created from the registered configs are shared per Vert.x
+ * instance by all sessions referencing them.
+ */
+final class OAuth2ProviderRegistry {
+
+    private static final String PROVIDERS_MAP_NAME = "uniport.gateway.oauth2.providers";
+
+    private static final ConcurrentMap<String, OAuth2Options> CONFIGS = new ConcurrentHashMap<>();
+    // the reference of every registered provider, guarded by itself
+    private static final Map<OAuth2Auth, String> REGISTERED = new WeakHashMap<>();
+
+    private OAuth2ProviderRegistry() {
+    }
+
+    /**
+     * @return the reference of the provider, or null if its config is unknown
+     *         (e.g. for providers not created by {@link OAuth2Auth#create})
+     */
+    static String register(OAuth2Auth provider) {
+        if (!(provider instanceof OAuth2AuthProviderImpl)) {
+            return null;
+        }
+        final OAuth2Options config = ((OAuth2AuthProviderImpl) provider).getConfig();
+        final String reference = reference(config);
+        synchronized (REGISTERED) {
+            REGISTERED.put(provider, reference);
+            CONFIGS.put(reference, config);
+            CONFIGS.keySet().retainAll(new HashSet<>(REGISTERED.values()));
+        }
+        return reference;
+    }
+
+    /**
+     * @return the config of the referenced provider, or null if it is not
+     *         registered on this instance
+     */
+    static OAuth2Options config(String reference) {
+        return CONFIGS.get(reference);
+    }
+
+    /**
+     * @throws IllegalStateException
+     *             if the referenced provider is not registered on this instance
+     */
+    static OAuth2Auth provider(Vertx vertx, String reference) {
+        final OAuth2Options config = config(reference);
+        if (config == null) {
+            throw new IllegalStateException(
+                String.format("OAuth2 provider '%s' is not registered on this instance", reference));
+        }
+        final LocalMap<String, SharedProvider> providers = vertx.sharedData().getLocalMap(PROVIDERS_MAP_NAME);
+        final SharedProvider previous = providers.get(reference);
+        final SharedProvider shared = providers.compute(reference,
+            (k, existing) -> existing != null && existing.config == config
+                ? existing
+                : new SharedProvider(config, OAuth2Auth.create(vertx, config)));
+        if (shared != previous) {
+            // providers of pruned configs are not referenced by new sessions anymore
+            for (String registered : providers.keySet()) {
+                if (!CONFIGS.containsKey(registered)) {
+                    providers.remove(registered);
+                }
+            }
+        }
+        return shared.provider;
+    }
+
+    static String reference(OAuth2Options config) {
+        final String identity = String.join("\n",
+            String.valueOf(config.getClientId()),
+            String.valueOf(config.getSite()),
+            String.valueOf(config.getTokenPath()));
+        return HashUtil.sha256(identity);
+    }
+
+    // local maps only accept shareable values, the provider is used read-only
+    private record SharedProvider(OAuth2Options config, OAuth2Auth provider) implements Shareable {
+    }
+}
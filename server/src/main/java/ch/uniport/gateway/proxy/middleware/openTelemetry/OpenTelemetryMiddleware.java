@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.openTelemetry;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import ch.uniport.gateway.proxy.middleware.log.ContextualDataAdapter;
 import ch.uniport.gateway.proxy.middleware.log.SessionAdapter;
@@ -38,7 +39,7 @@ public class OpenTelemetryMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         final String openTelemetryTraceId = getOpenTelemetryTraceId();
 
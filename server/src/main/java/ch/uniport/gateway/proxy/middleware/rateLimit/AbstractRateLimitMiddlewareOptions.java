@@ -0,0 +1,110 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import ch.uniport.gateway.proxy.middleware.MiddlewareOptionsModel;
+import ch.uniport.gateway.proxy.middleware.ModelStyle;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.google.common.base.Preconditions;
+import javax.annotation.Nullable;
+import org.immutables.value.Value.Check;
+import org.immutables.value.Value.Default;
+import org.immutables.value.Value.Immutable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Immutable
+@ModelStyle
+@JsonDeserialize(builder = RateLimitMiddlewareOptions.Builder.class)
+public abstract class AbstractRateLimitMiddlewareOptions implements MiddlewareOptionsModel {
+
+    // defaults
+    public static final RateLimitAlgorithm DEFAULT_ALGORITHM = RateLimitAlgorithm.TOKEN_BUCKET;
+    public static final long DEFAULT_PERIOD_MS = 1_000;
+    public static final int DEFAULT_BURST = 0;
+    public static final RateLimitKey DEFAULT_KEY = RateLimitKey.CLIENT_IP;
+    public static final int DEFAULT_STATUS_CODE = 429;
+    public static final int DEFAULT_MAX_KEYS = 100_000;
+    public static final int DEFAULT_CLUSTER_LEASE_SIZE = 0;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitMiddlewareOptions.class);
+
+    @Check
+    protected void validate() {
+        Preconditions.checkState(getLimit() > 0, "'getLimit' must be greater than 0");
+        Preconditions.checkState(getPeriodMs() > 0, "'getPeriodMs' must be greater than 0");
+        Preconditions.checkState(getBurst() >= 0, "'getBurst' must not be negative");
+        Preconditions.checkState(getMaxKeys() > 0, "'getMaxKeys' must be greater than 0");
+        Preconditions.checkState(getClusterLeaseSize() >= 0, "'getClusterLeaseSize' must not be negative");
+        if (getKey() == RateLimitKey.CLAIM || getKey() == RateLimitKey.HEADER) {
+            Preconditions.checkState(getKeyName() != null && !getKeyName().isBlank(),
+                "'getKeyName' must be set for key '%s'", getKey());
+        }
+    }
+
+    @Default
+    @JsonProperty(RateLimitMiddlewareFactory.ALGORITHM)
+    public RateLimitAlgorithm getAlgorithm() {
+        logDefault(LOGGER, RateLimitMiddlewareFactory.ALGORITHM, DEFAULT_ALGORITHM);
+        return DEFAULT_ALGORITHM;
+    }
+
+    @JsonProperty(RateLimitMiddlewareFactory.LIMIT)
+    public abstract int getLimit();
+
+    @Default
+    @JsonProperty(RateLimitMiddlewareFactory.PERIOD_MS)
+    public long getPeriodMs() {
+        logDefault(LOGGER, RateLimitMiddlewareFactory.PERIOD_MS, DEFAULT_PERIOD_MS);
+        return DEFAULT_PERIOD_MS;
+    }
+
+    /**
+     * The capacity of the token buckets, {@code 0} uses the limit.
+     */
+    @Default
+    @JsonProperty(RateLimitMiddlewareFactory.BURST)
+    public int getBurst() {
+        logDefault(LOGGER, RateLimitMiddlewareFactory.BURST, DEFAULT_BURST);
+        return DEFAULT_BURST;
+    }
+
+    @Default
+    @JsonProperty(RateLimitMiddlewareFactory.KEY)
+    public RateLimitKey getKey() {
+        logDefault(LOGGER, RateLimitMiddlewareFactory.KEY, DEFAULT_KEY);
+        return DEFAULT_KEY;
+    }
+
+    /**
+     * The claim path in JsonPath syntax for the key {@code CLAIM}, the header
+     * name for the key {@code HEADER}.
+     */
+    @Nullable
+    @JsonProperty(RateLimitMiddlewareFactory.KEY_NAME)
+    public abstract String getKeyName();
+
+    @Default
+    @JsonProperty(RateLimitMiddlewareFactory.STATUS_CODE)
+    public int getStatusCode() {
+        logDefault(LOGGER, RateLimitMiddlewareFactory.STATUS_CODE, DEFAULT_STATUS_CODE);
+        return DEFAULT_STATUS_CODE;
+    }
+
+    @Default
+    @JsonProperty(RateLimitMiddlewareFactory.MAX_KEYS)
+    public int getMaxKeys() {
+        logDefault(LOGGER, RateLimitMiddlewareFactory.MAX_KEYS, DEFAULT_MAX_KEYS);
+        return DEFAULT_MAX_KEYS;
+    }
+
+    /**
+     * The tokens leased from the cluster at once, {@code 0} leases a tenth of
+     * the limit.
+     */
+    @Default
+    @JsonProperty(RateLimitMiddlewareFactory.CLUSTER_LEASE_SIZE)
+    public int getClusterLeaseSize() {
+        logDefault(LOGGER, RateLimitMiddlewareFactory.CLUSTER_LEASE_SIZE, DEFAULT_CLUSTER_LEASE_SIZE);
+        return DEFAULT_CLUSTER_LEASE_SIZE;
+    }
+}
@@ -0,0 +1,165 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.AsyncMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands out tokens leased from the cluster, so that the limit holds across
+ * all instances without a remote call per request.
+ * <p>
+ * The cluster counts the leased tokens per key and fixed window in a
+ * clustered map, and grants a lease while the sliding window estimate of the
+ * leased tokens is below the limit. Leases are taken in batches of
+ * {@code leaseSize} tokens, and are valid until the end of the window they
+ * were taken in. A refused lease is not asked for again until enough tokens
+ * could have been released for a new batch.
+ */
+final class ClusterLeases extends KeyedLimiter<ClusterLeases.Pool> {
+
+    static final String MAP_NAME_PREFIX = "uniport.gateway.rate-limit.";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterLeases.class);
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final char SEPARATOR = '@';
+
+    private final Supplier<Future<AsyncMap<String, Integer>>> asyncMap;
+    private final String mapName;
+    private final int limit;
+    private final int leaseSize;
+    private final long refusedMs;
+    // at most one lease per key is in flight on this instance
+    private final ConcurrentMap<String, Future<Void>> leasing = new ConcurrentHashMap<>();
+
+    ClusterLeases(Vertx vertx, String middleware, int limit, long periodMs, int leaseSize, int maxKeys) {
+        this(() -> vertx.sharedData().getAsyncMap(MAP_NAME_PREFIX + middleware), middleware,
+            limit, periodMs, leaseSize, maxKeys, System::currentTimeMillis);
+    }
+
+    ClusterLeases(
+        Supplier<Future<AsyncMap<String, Integer>>> asyncMap, String middleware,
+        int limit, long periodMs, int leaseSize, int maxKeys, LongSupplier clock
+    ) {
+        super(periodMs, maxKeys, clock);
+        if (limit < 1 || leaseSize < 1) {
+            throw new IllegalArgumentException("limit and leaseSize must be at least 1");
+        }
+        this.asyncMap = asyncMap;
+        this.mapName = MAP_NAME_PREFIX + middleware;
+        this.limit = limit;
+        this.leaseSize = Math.min(leaseSize, limit);
+        this.refusedMs = Math.max(1, periodMs * this.leaseSize / limit);
+    }
+
+    @Override
+    public Future<Integer> acquire(String key, String fallbackKey, int tokens) {
+        final long nowMs = clock.getAsLong();
+        final String trackedKey = track(key, fallbackKey, nowMs);
+        final AtomicReference<Pool> pool = state(trackedKey, nowMs);
+        final int taken = take(pool, tokens, nowMs);
+        if (taken > 0 || pool.get().refusedUntil > nowMs) {
+            return Future.succeededFuture(taken);
+        }
+
+        final Promise<Void> promise = Promise.promise();
+        final Future<Void> pending = leasing.putIfAbsent(trackedKey, promise.future());
+        if (pending != null) {
+            return pending.map(v -> take(pool, tokens, clock.getAsLong()));
+        }
+        lease(trackedKey, pool).onComplete(ar -> {
+            leasing.remove(trackedKey);
+            promise.handle(ar);
+        });
+        return promise.future().map(v -> take(pool, tokens, clock.getAsLong()));
+    }
+
+    @Override
+    protected int take(AtomicReference<Pool> state, int tokens, long nowMs) {
+        final long window = nowMs / periodMs;
+        while (true) {
+            final Pool current = state.get();
+            if (current.window != window || current.tokens < 1) {
+                return 0;
+            }
+            final int taken = Math.min(tokens, current.tokens);
+            if (state.compareAndSet(current, new Pool(window, current.tokens - taken, current.refusedUntil))) {
+                return taken;
+            }
+        }
+    }
+
+    @Override
+    protected Pool initial(long nowMs) {
+        return new Pool(Long.MIN_VALUE, 0, 0);
+    }
+
+    @Override
+    protected boolean isIdle(Pool state, long nowMs) {
+        return state.window < nowMs / periodMs && state.refusedUntil <= nowMs;
+    }
+
+    private Future<Void> lease(String key, AtomicReference<Pool> pool) {
+        final long nowMs = clock.getAsLong();
+        final long window = nowMs / periodMs;
+        final double previousWeight = 1 - (double) (nowMs % periodMs) / periodMs;
+        return asyncMap.get()
+            .compose(map -> map.get(key + SEPARATOR + (window - 1))
+                .compose(previous -> reserve(map, key + SEPARATOR + window,
+                    (int) Math.ceil(valueOf(previous) * previousWeight), 1)))
+            .map(granted -> {
+                LOGGER.debug("Leased '{}' tokens for key '{}' of '{}'", granted, key, mapName);
+                fill(pool, window, granted, nowMs);
+                return null;
+            });
+    }
+
+    private Future<Integer> reserve(AsyncMap<String, Integer> map, String entry, int previous, int attempt) {
+        return map.get(entry).compose(current -> {
+            final int granted = Math.min(leaseSize, limit - previous - valueOf(current));
+            if (granted < 1) {
+                return Future.succeededFuture(0);
+            }
+            // the counts of a window are needed until the end of the next window
+            final Future<Boolean> reserved = current == null
+                ? map.putIfAbsent(entry, granted, 2 * periodMs).map(existing -> existing == null)
+                : map.replaceIfPresent(entry, current, current + granted);
+            return reserved.compose(success -> {
+                if (success) {
+                    return Future.succeededFuture(granted);
+                }
+                if (attempt >= MAX_ATTEMPTS) {
+                    return Future.failedFuture(
+                        String.format("lease of '%s' contended after '%d' attempts", entry, attempt));
+                }
+                return reserve(map, entry, previous, attempt + 1);
+            });
+        });
+    }
+
+    private void fill(AtomicReference<Pool> pool, long window, int granted, long nowMs) {
+        final long refusedUntil = granted < 1 ? nowMs + refusedMs : 0;
+        while (true) {
+            final Pool current = pool.get();
+            final int tokens = current.window == window ? current.tokens + granted : granted;
+            if (pool.compareAndSet(current, new Pool(window, tokens, refusedUntil))) {
+                return;
+            }
+        }
+    }
+
+    private static int valueOf(Integer count) {
+        return count == null ? 0 : count;
+    }
+
+    record Pool(long window, int tokens, long refusedUntil) {
+    }
+}
@@ -0,0 +1,109 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import io.vertx.core.Future;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the state of a {@link RateLimiter} per key, without locks: the state
+ * of a key is immutable and replaced with compare-and-set.
+ * <p>
+ * At most {@code maxKeys} keys are tracked. When a new key arrives at the
+ * limit, the idle keys are evicted, at most once per period. If none is idle,
+ * the client is limited by its fallback key instead, so that a client sending
+ * ever new keys only exhausts its own limit. The fallback keys may take up
+ * another {@code maxKeys} states, beyond that new fallback keys share a single
+ * state until keys become idle.
+ */
+abstract class KeyedLimiter<S> implements RateLimiter {
+
+    static final String OVERFLOW_KEY = "";
+
+    protected final long periodMs;
+    protected final LongSupplier clock;
+
+    private final int maxKeys;
+    private final ConcurrentMap<String, AtomicReference<S>> states = new ConcurrentHashMap<>();
+    private final AtomicLong evictedAt = new AtomicLong(Long.MIN_VALUE);
+
+    protected KeyedLimiter(long periodMs, int maxKeys, LongSupplier clock) {
+        if (periodMs < 1) {
+            throw new IllegalArgumentException("periodMs must be at least 1");
+        }
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys must be at least 1");
+        }
+        this.periodMs = periodMs;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    @Override
+    public Future<Integer> acquire(String key, String fallbackKey, int tokens) {
+        return Future.succeededFuture(acquire(key, fallbackKey, tokens, clock.getAsLong()));
+    }
+
+    int acquire(String key, String fallbackKey, int tokens, long nowMs) {
+        return take(state(track(key, fallbackKey, nowMs), nowMs), tokens, nowMs);
+    }
+
+    int size() {
+        return states.size();
+    }
+
+    /**
+     * @return the taken tokens, between {@code 0} and {@code tokens}
+     */
+    protected abstract int take(AtomicReference<S> state, int tokens, long nowMs);
+
+    protected abstract S initial(long nowMs);
+
+    /**
+     * @return whether forgetting the state does not change the outcome of
+     *         future requests
+     */
+    protected abstract boolean isIdle(S state, long nowMs);
+
+    /**
+     * @return the key the client is limited by, {@code key} unless too many
+     *         keys are tracked already
+     */
+    protected String track(String key, String fallbackKey, long nowMs) {
+        if (states.containsKey(key)) {
+            return key;
+        }
+        if (states.size() >= maxKeys) {
+            evictIdle(nowMs);
+        }
+        if (states.size() < maxKeys) {
+            return key;
+        }
+        if (states.containsKey(fallbackKey) || states.size() < 2 * maxKeys) {
+            return fallbackKey;
+        }
+        return OVERFLOW_KEY;
+    }
+
+    /**
+     * @return the state of a key returned by
+     *         {@link #track(String, String, long)}
+     */
+    protected AtomicReference<S> state(String trackedKey, long nowMs) {
+        final AtomicReference<S> state = states.get(trackedKey);
+        if (state != null) {
+            return state;
+        }
+        return states.computeIfAbsent(trackedKey, k -> new AtomicReference<>(initial(nowMs)));
+    }
+
+    private void evictIdle(long nowMs) {
+        final long last = evictedAt.get();
+        if (last != Long.MIN_VALUE && nowMs - last < periodMs || !evictedAt.compareAndSet(last, nowMs)) {
+            return;
+        }
+        states.values().removeIf(state -> isIdle(state.get(), nowMs));
+    }
+}
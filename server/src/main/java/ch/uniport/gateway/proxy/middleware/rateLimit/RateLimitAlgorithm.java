@@ -0,0 +1,19 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+public enum RateLimitAlgorithm {
+
+    TOKEN_BUCKET(RateLimitMiddlewareFactory.ALGORITHM_TOKEN_BUCKET),
+
+    SLIDING_WINDOW(RateLimitMiddlewareFactory.ALGORITHM_SLIDING_WINDOW);
+
+    private final String name;
+
+    RateLimitAlgorithm(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
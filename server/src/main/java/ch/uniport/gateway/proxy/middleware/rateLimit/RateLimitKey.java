@@ -0,0 +1,23 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+public enum RateLimitKey {
+
+    CLIENT_IP(RateLimitMiddlewareFactory.KEY_CLIENT_IP),
+
+    SESSION_ID(RateLimitMiddlewareFactory.KEY_SESSION_ID),
+
+    CLAIM(RateLimitMiddlewareFactory.KEY_CLAIM),
+
+    HEADER(RateLimitMiddlewareFactory.KEY_HEADER);
+
+    private final String name;
+
+    RateLimitKey(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
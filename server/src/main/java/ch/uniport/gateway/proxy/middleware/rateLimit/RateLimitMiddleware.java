@@ -0,0 +1,211 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import ch.uniport.gateway.MeterRegistries;
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
+import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.opentelemetry.api.trace.Span;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.RoutingContext;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Middleware limiting the requests per client, identified by its IP address,
+ * its session, a claim of its JWT or a header.
+ * <p>
+ * The limiter is shared by all instances of the middleware on a Vert.x
+ * instance. Every instance runs on a single event loop and leases a small
+ * batch of tokens per key from the limiter, so that the event loops rarely
+ * compete for the same key. Clients without a value for the key are limited by
+ * their IP address, as are clients with a new key while the limiter tracks too
+ * many keys already.
+ */
+public class RateLimitMiddleware extends TraceMiddleware {
+
+    public static final String METRIC_NAME = "uniport.gateway.middleware.rate-limit.rejected";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitMiddleware.class);
+
+    private static final CharSequence RETRY_AFTER = HttpHeaders.createOptimized("retry-after");
+    // every key type has its own prefix, so that client controlled values never equal the key of another type
+    private static final String CLIENT_IP_PREFIX = "ip:";
+    private static final String SESSION_ID_PREFIX = "session:";
+    private static final String CLAIM_PREFIX = "claim:";
+    private static final String HEADER_PREFIX = "header:";
+    private static final String UNKNOWN_CLIENT_IP = "unknown";
+    private static final String BEARER = "Bearer ";
+    // share of the limit leased by an event loop at once
+    private static final int LEASE_DIVISOR = 100;
+
+    private final String name;
+    private final RateLimiter limiter;
+    private final RateLimitKey key;
+    private final String headerName;
+    private final JsonPath claimPath;
+    private final int statusCode;
+    private final int leaseSize;
+    private final long leaseTtlMs;
+    private final String retryAfterSeconds;
+    private final Counter rejected;
+
+    // only accessed from the event loop of this instance
+    private final Map<String, Lease> leases;
+
+    RateLimitMiddleware(
+        String name, RateLimiter limiter, RateLimitKey key, String keyName,
+        int limit, long periodMs, int statusCode, int maxKeys
+    ) {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(limiter, "limiter must not be null");
+        Objects.requireNonNull(key, "key must not be null");
+
+        this.name = name;
+        this.limiter = limiter;
+        this.key = key;
+        this.headerName = key == RateLimitKey.HEADER ? keyName : null;
+        this.claimPath = key == RateLimitKey.CLAIM ? JsonPath.compile(keyName) : null;
+        this.statusCode = statusCode;
+        this.leaseSize = Math.max(1, limit / LEASE_DIVISOR);
+        // leased tokens expire once the limiter could have produced them again
+        this.leaseTtlMs = Math.max(1, periodMs * leaseSize / limit);
+        this.retryAfterSeconds = Long.toString(Math.max(1, (long) Math.ceil(periodMs / 1000.0 / limit)));
+        this.rejected = registerMetric(name);
+        this.leases = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Lease> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    @Override
+    public void handleWithTraceSpan(RoutingContext ctx, Span span) {
+        RequestDiagnostics.handling(LOGGER, name, ctx);
+
+        final String clientIpKey = CLIENT_IP_PREFIX + clientIp(ctx);
+        final String clientKey = keyOf(ctx, clientIpKey);
+        final Lease lease = leases.get(clientKey);
+        if (lease != null && lease.tryTake(nowMs())) {
+            ctx.next();
+            return;
+        }
+
+        final Future<Integer> granted = limiter.acquire(clientKey, clientIpKey, leaseSize);
+        final Context context = Vertx.currentContext();
+        if (granted.isComplete() || context == null) {
+            granted.onComplete(ar -> admit(ctx, clientKey, granted));
+            return;
+        }
+        // leases from the cluster complete on the event loop that asked first
+        granted.onComplete(ar -> context.runOnContext(v -> admit(ctx, clientKey, granted)));
+    }
+
+    private void admit(RoutingContext ctx, String clientKey, Future<Integer> granted) {
+        if (granted.failed()) {
+            LOGGER.warn("Admitting request without rate limit of '{}': {}", name, granted.cause().getMessage());
+            ctx.next();
+            return;
+        }
+        final int tokens = granted.result();
+        if (tokens < 1) {
+            reject(ctx, clientKey);
+            return;
+        }
+        if (tokens > 1) {
+            leases.put(clientKey, new Lease(tokens - 1, nowMs() + leaseTtlMs));
+        }
+        ctx.next();
+    }
+
+    private void reject(RoutingContext ctx, String clientKey) {
+        LOGGER.debug("Rejecting request of '{}' exceeding the rate limit of '{}'", clientKey, name);
+        rejected.increment();
+        ctx.response()
+            .setStatusCode(statusCode)
+            .putHeader(RETRY_AFTER, retryAfterSeconds)
+            .end();
+    }
+
+    private String keyOf(RoutingContext ctx, String clientIpKey) {
+        return switch (key) {
+            case CLIENT_IP -> clientIpKey;
+            case SESSION_ID -> prefixed(SESSION_ID_PREFIX, ctx.session() == null ? null : ctx.session().id(),
+                clientIpKey);
+            case CLAIM -> prefixed(CLAIM_PREFIX, claim(ctx), clientIpKey);
+            case HEADER -> prefixed(HEADER_PREFIX, ctx.request().getHeader(headerName), clientIpKey);
+        };
+    }
+
+    private static String prefixed(String prefix, String value, String clientIpKey) {
+        return value == null || value.isEmpty() ? clientIpKey : prefix + value;
+    }
+
+    private String claim(RoutingContext ctx) {
+        // the payload is not verified, the middleware belongs after the ones verifying the token
+        final String authorization = ctx.request().getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            return null;
+        }
+        try {
+            final String[] pieces = authorization.substring(BEARER.length()).split("\\.");
+            final String payload = new String(Base64.getUrlDecoder().decode(pieces[1]), StandardCharsets.UTF_8);
+            final Object value = claimPath.read(payload);
+            return value == null ? null : value.toString();
+        } catch (PathNotFoundException e) {
+            LOGGER.debug(e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.debug("Failed to read claim of authorization header: '{}'", e.getMessage());
+        }
+        return null;
+    }
+
+    private static String clientIp(RoutingContext ctx) {
+        final SocketAddress address = ctx.request().remoteAddress();
+        return address == null || address.host() == null ? UNKNOWN_CLIENT_IP : address.host();
+    }
+
+    private static long nowMs() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    private static Counter registerMetric(String middleware) {
+        return Counter.builder(METRIC_NAME)
+            .description("Requests rejected for exceeding the rate limit")
+            .tags("middleware", middleware)
+            .register(MeterRegistries.getDefault());
+    }
+
+    /**
+     * Tokens leased by the event loop of this instance.
+     */
+    private static final class Lease {
+
+        private int tokens;
+        private final long expiresAt;
+
+        Lease(int tokens, long expiresAt) {
+            this.tokens = tokens;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean tryTake(long nowMs) {
+            if (tokens < 1 || nowMs >= expiresAt) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import ch.uniport.gateway.proxy.middleware.Middleware;
+import ch.uniport.gateway.proxy.middleware.MiddlewareFactory;
+import ch.uniport.gateway.proxy.middleware.MiddlewareOptionsModel;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.json.schema.common.dsl.Keywords;
+import io.vertx.json.schema.common.dsl.ObjectSchemaBuilder;
+import io.vertx.json.schema.common.dsl.Schemas;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory for {@link RateLimitMiddleware}.
+ */
+public class RateLimitMiddlewareFactory implements MiddlewareFactory {
+
+    // schema
+    public static final String TYPE = "rateLimit";
+    public static final String ALGORITHM = "algorithm";
+    public static final String ALGORITHM_TOKEN_BUCKET = "TOKEN_BUCKET";
+    public static final String ALGORITHM_SLIDING_WINDOW = "SLIDING_WINDOW";
+    public static final String LIMIT = "limit";
+    public static final String PERIOD_MS = "periodMs";
+    public static final String BURST = "burst";
+    public static final String KEY = "key";
+    public static final String KEY_CLIENT_IP = "CLIENT_IP";
+    public static final String KEY_SESSION_ID = "SESSION_ID";
+    public static final String KEY_CLAIM = "CLAIM";
+    public static final String KEY_HEADER = "HEADER";
+    public static final String KEY_NAME = "keyName";
+    public static final String STATUS_CODE = "statusCode";
+    public static final String MAX_KEYS = "maxKeys";
+    public static final String CLUSTER_LEASE_SIZE = "clusterLeaseSize";
+
+    public static final List<String> ALGORITHMS = List.of(
+        ALGORITHM_TOKEN_BUCKET,
+        ALGORITHM_SLIDING_WINDOW);
+
+    public static final List<String> KEYS = List.of(
+        KEY_CLIENT_IP,
+        KEY_SESSION_ID,
+        KEY_CLAIM,
+        KEY_HEADER);
+
+    private static final int HTTP_STATUS_CODE_MIN = 100;
+    private static final int HTTP_STATUS_CODE_MAX = 599;
+    // share of the limit leased from the cluster at once by default
+    private static final int CLUSTER_LEASE_DIVISOR = 10;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitMiddlewareFactory.class);
+
+    @Override
+    public String provides() {
+        return TYPE;
+    }
+
+    @Override
+    public ObjectSchemaBuilder optionsSchema() {
+        return Schemas.objectSchema()
+            .optionalProperty(ALGORITHM, Schemas.enumSchema(ALGORITHMS.toArray())
+                .defaultValue(AbstractRateLimitMiddlewareOptions.DEFAULT_ALGORITHM))
+            .requiredProperty(LIMIT, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1)))
+            .optionalProperty(PERIOD_MS, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                .defaultValue(AbstractRateLimitMiddlewareOptions.DEFAULT_PERIOD_MS))
+            .optionalProperty(BURST, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                .defaultValue(AbstractRateLimitMiddlewareOptions.DEFAULT_BURST))
+            .optionalProperty(KEY, Schemas.enumSchema(KEYS.toArray())
+                .defaultValue(AbstractRateLimitMiddlewareOptions.DEFAULT_KEY))
+            .optionalProperty(KEY_NAME, Schemas.stringSchema()
+                .with(Keywords.minLength(1)))
+            .optionalProperty(STATUS_CODE, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(HTTP_STATUS_CODE_MIN))
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.maximum(HTTP_STATUS_CODE_MAX))
+                .defaultValue(AbstractRateLimitMiddlewareOptions.DEFAULT_STATUS_CODE))
+            .optionalProperty(MAX_KEYS, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                .defaultValue(AbstractRateLimitMiddlewareOptions.DEFAULT_MAX_KEYS))
+            .optionalProperty(CLUSTER_LEASE_SIZE, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                .defaultValue(AbstractRateLimitMiddlewareOptions.DEFAULT_CLUSTER_LEASE_SIZE))
+            .allowAdditionalProperties(false);
+    }
+
+    @Override
+    public Future<Void> validate(JsonObject options) {
+        final String key = options.getString(KEY);
+        final String keyName = options.getString(KEY_NAME);
+        if ((KEY_CLAIM.equals(key) || KEY_HEADER.equals(key)) && (keyName == null || keyName.isBlank())) {
+            return Future.failedFuture(String.format("'%s' is required for key '%s'", KEY_NAME, key));
+        }
+        return Future.succeededFuture();
+    }
+
+    @Override
+    public Class<RateLimitMiddlewareOptions> modelType() {
+        return RateLimitMiddlewareOptions.class;
+    }
+
+    @Override
+    public Future<Middleware> create(Vertx vertx, String name, Router router, MiddlewareOptionsModel config) {
+        final RateLimitMiddlewareOptions options = castOptions(config, modelType());
+        final int limit = options.getLimit();
+        final int clusterLeaseSize = options.getClusterLeaseSize() > 0
+            ? options.getClusterLeaseSize()
+            : Math.max(1, limit / CLUSTER_LEASE_DIVISOR);
+        final RateLimiter limiter = RateLimiters.get(vertx, name, new RateLimiters.Settings(
+            options.getAlgorithm(),
+            limit,
+            options.getPeriodMs(),
+            options.getBurst() > 0 ? options.getBurst() : limit,
+            clusterLeaseSize,
+            options.getMaxKeys()));
+
+        LOGGER.debug("Created '{}#{}' middleware successfully", TYPE, name);
+        return Future.succeededFuture(
+            new RateLimitMiddleware(name, limiter, options.getKey(), options.getKeyName(),
+                limit, options.getPeriodMs(), options.getStatusCode(), options.getMaxKeys()));
+    }
+}
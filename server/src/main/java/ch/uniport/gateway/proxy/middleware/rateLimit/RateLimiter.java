@@ -0,0 +1,20 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import io.vertx.core.Future;
+
+/**
+ * Hands out the tokens of the {@code rateLimit} middlewares, a request is
+ * admitted for every token.
+ */
+interface RateLimiter {
+
+    /**
+     * @param key
+     *            of the client
+     * @param fallbackKey
+     *            limiting the client instead of {@code key}, if too many keys
+     *            are tracked already, i.e. its IP address
+     * @return the granted tokens, between {@code 0} and {@code tokens}
+     */
+    Future<Integer> acquire(String key, String fallbackKey, int tokens);
+}
@@ -0,0 +1,55 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+/**
+ * The limiters of the {@code rateLimit} middlewares, shared per Vert.x instance
+ * and middleware name.
+ * <p>
+ * Sharing the limiters applies the limit to all verticle instances together,
+ * and keeps the counted requests across configuration reloads, until the
+ * settings of a middleware change.
+ */
+final class RateLimiters {
+
+    private static final String LIMITERS_MAP_NAME = "uniport.gateway.rate-limit.limiters";
+
+    private RateLimiters() {
+    }
+
+    /**
+     * @return the limiter of the middleware, created if it does not exist yet
+     *         or if its settings changed
+     */
+    static RateLimiter get(Vertx vertx, String middleware, Settings settings) {
+        final LocalMap<String, SharedLimiter> limiters = vertx.sharedData().getLocalMap(LIMITERS_MAP_NAME);
+        return limiters.compute(middleware, (k, existing) -> {
+            if (existing != null && existing.settings.equals(settings)) {
+                return existing;
+            }
+            return new SharedLimiter(settings, create(vertx, middleware, settings));
+        }).limiter;
+    }
+
+    private static RateLimiter create(Vertx vertx, String middleware, Settings settings) {
+        if (vertx.isClustered()) {
+            return new ClusterLeases(vertx, middleware, settings.limit, settings.periodMs,
+                settings.clusterLeaseSize, settings.maxKeys);
+        }
+        return switch (settings.algorithm) {
+            case TOKEN_BUCKET -> new TokenBuckets(settings.limit, settings.periodMs, settings.burst, settings.maxKeys);
+            case SLIDING_WINDOW -> new SlidingWindows(settings.limit, settings.periodMs, settings.maxKeys);
+        };
+    }
+
+    record Settings(
+        RateLimitAlgorithm algorithm, int limit, long periodMs, int burst, int clusterLeaseSize, int maxKeys
+    ) {
+    }
+
+    // local maps only accept shareable values, the limiters are thread-safe
+    private record SharedLimiter(Settings settings, RateLimiter limiter) implements Shareable {
+    }
+}
@@ -0,0 +1,66 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding windows per key, admitting {@code limit} requests per period.
+ * <p>
+ * The requests of the sliding window are estimated from the requests of the
+ * current and the previous fixed window, the latter weighted by its share of
+ * the sliding window.
+ */
+final class SlidingWindows extends KeyedLimiter<SlidingWindows.Window> {
+
+    private final int limit;
+
+    SlidingWindows(int limit, long periodMs, int maxKeys) {
+        this(limit, periodMs, maxKeys, System::currentTimeMillis);
+    }
+
+    SlidingWindows(int limit, long periodMs, int maxKeys, LongSupplier clock) {
+        super(periodMs, maxKeys, clock);
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        this.limit = limit;
+    }
+
+    @Override
+    protected int take(AtomicReference<Window> state, int tokens, long nowMs) {
+        final long index = nowMs / periodMs;
+        final double previousWeight = 1 - (double) (nowMs % periodMs) / periodMs;
+        while (true) {
+            final Window current = state.get();
+            final Window window = current.roll(index);
+            final double used = window.previous * previousWeight + window.current;
+            final int taken = (int) Math.min(tokens, Math.floor(limit - used));
+            if (taken < 1) {
+                return 0;
+            }
+            if (state.compareAndSet(current, new Window(window.index, window.previous, window.current + taken))) {
+                return taken;
+            }
+        }
+    }
+
+    @Override
+    protected Window initial(long nowMs) {
+        return new Window(nowMs / periodMs, 0, 0);
+    }
+
+    @Override
+    protected boolean isIdle(Window state, long nowMs) {
+        return state.index < nowMs / periodMs - 1;
+    }
+
+    record Window(long index, int previous, int current) {
+
+        Window roll(long to) {
+            if (to <= index) {
+                return this;
+            }
+            return new Window(to, to == index + 1 ? current : 0, 0);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per key, holding up to {@code burst} tokens and refilled with
+ * {@code limit} tokens per period.
+ */
+final class TokenBuckets extends KeyedLimiter<TokenBuckets.Bucket> {
+
+    private final double capacity;
+    private final double tokensPerMs;
+
+    TokenBuckets(int limit, long periodMs, int burst, int maxKeys) {
+        this(limit, periodMs, burst, maxKeys, () -> System.nanoTime() / 1_000_000);
+    }
+
+    TokenBuckets(int limit, long periodMs, int burst, int maxKeys, LongSupplier clock) {
+        super(periodMs, maxKeys, clock);
+        if (limit < 1 || burst < 1) {
+            throw new IllegalArgumentException("limit and burst must be at least 1");
+        }
+        this.capacity = burst;
+        this.tokensPerMs = (double) limit / periodMs;
+    }
+
+    @Override
+    protected int take(AtomicReference<Bucket> state, int tokens, long nowMs) {
+        while (true) {
+            final Bucket current = state.get();
+            final double available = available(current, nowMs);
+            final int taken = (int) Math.min(tokens, Math.floor(available));
+            if (taken < 1) {
+                return 0;
+            }
+            if (state.compareAndSet(current, new Bucket(available - taken, Math.max(nowMs, current.refilledAt)))) {
+                return taken;
+            }
+        }
+    }
+
+    @Override
+    protected Bucket initial(long nowMs) {
+        return new Bucket(capacity, nowMs);
+    }
+
+    @Override
+    protected boolean isIdle(Bucket state, long nowMs) {
+        return available(state, nowMs) >= capacity;
+    }
+
+    private double available(Bucket bucket, long nowMs) {
+        // the clock of another thread may lag behind
+        final long elapsedMs = Math.max(0, nowMs - bucket.refilledAt);
+        return Math.min(capacity, bucket.tokens + elapsedMs * tokensPerMs);
+    }
+
+    record Bucket(double tokens, long refilledAt) {
+    }
+}
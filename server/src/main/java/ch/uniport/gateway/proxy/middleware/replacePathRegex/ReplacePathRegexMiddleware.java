@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.replacePathRegex;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.Handler;
@@ -32,7 +33,7 @@ public class ReplacePathRegexMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         final Handler<StringBuilder> reqUriModifier = uri -> {
             uri.replace(0, uri.length(), apply(uri.toString()));
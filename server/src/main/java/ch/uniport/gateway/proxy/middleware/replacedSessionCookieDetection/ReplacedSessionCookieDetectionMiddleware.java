@@ -1,6 +1,7 @@
 package ch.uniport.gateway.proxy.middleware.replacedSessionCookieDetection;
 
 import ch.uniport.gateway.proxy.middleware.HttpResponder;
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import ch.uniport.gateway.proxy.middleware.responseSessionCookie.ResponseSessionCookieRemovalMiddleware;
 import ch.uniport.gateway.proxy.middleware.session.SessionMiddleware;
@@ -57,7 +58,7 @@ public class ReplacedSessionCookieDetectionMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         if (requestComingFromLoggedOutUser(ctx)) {
             ctx.response().removeCookie(detectionCookieName);
@@ -231,9 +232,7 @@ public class ReplacedSessionCookieDetectionMiddleware extends TraceMiddleware {
      * @return
      */
     private Optional<Cookie> getCookieFromHeader(RoutingContext ctx, String cookieName) {
-        return ctx.request().cookies().stream()
-            .filter(c -> c.getName().equals(cookieName))
-            .findFirst();
+        return Optional.ofNullable(requestCookies(ctx).received(cookieName));
     }
 
     private void setDetectionCookieTo(HttpServerResponse response, Optional<DetectionCookieValue> cookieValue) {
@@ -1,5 +1,6 @@
 package ch.uniport.gateway.proxy.middleware.responseSessionCookie;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.http.Cookie;
@@ -50,7 +51,7 @@ public class ResponseSessionCookieRemovalMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         // endHandler execution order: headersEndHandler -> bodyEndHandler -> endHandler
         ctx.addHeadersEndHandler(v -> removeSessionCookie(ctx));
@@ -4,8 +4,10 @@ import ch.uniport.gateway.proxy.middleware.MiddlewareOptionsModel;
 import ch.uniport.gateway.proxy.middleware.ModelStyle;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.google.common.base.Preconditions;
 import io.vertx.core.http.CookieSameSite;
 import javax.annotation.Nullable;
+import org.immutables.value.Value.Check;
 import org.immutables.value.Value.Default;
 import org.immutables.value.Value.Immutable;
 import org.slf4j.Logger;
@@ -45,6 +47,12 @@ public abstract class AbstractSessionMiddlewareOptions implements MiddlewareOpti
 
     // session store
     public static final int DEFAULT_CLUSTERED_SESSION_STORE_RETRY_TIMEOUT_MILLISECONDS = 5 * 1000;
+    public static final int DEFAULT_SESSION_IDLE_TIMEOUT_RESET_INTERVAL_IN_SECONDS = 60;
+
+    // near cache
+    public static final boolean DEFAULT_NEAR_CACHE_ENABLED = false;
+    public static final int DEFAULT_NEAR_CACHE_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_NEAR_CACHE_MAX_TTL_MS = 30_000;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SessionMiddlewareOptions.class);
 
@@ -118,6 +126,21 @@ public abstract class AbstractSessionMiddlewareOptions implements MiddlewareOpti
         return DEFAULT_CLUSTERED_SESSION_STORE_RETRY_TIMEOUT_MILLISECONDS;
     }
 
+    @Default
+    @JsonProperty(SessionMiddlewareFactory.SESSION_IDLE_TIMEOUT_RESET_INTERVAL_IN_SECONDS)
+    public int getIdleTimeoutResetIntervalSeconds() {
+        logDefault(LOGGER, SessionMiddlewareFactory.SESSION_IDLE_TIMEOUT_RESET_INTERVAL_IN_SECONDS,
+            DEFAULT_SESSION_IDLE_TIMEOUT_RESET_INTERVAL_IN_SECONDS);
+        return DEFAULT_SESSION_IDLE_TIMEOUT_RESET_INTERVAL_IN_SECONDS;
+    }
+
+    @Default
+    @JsonProperty(SessionMiddlewareFactory.NEAR_CACHE)
+    public SessionNearCacheOptions getNearCache() {
+        logDefault(LOGGER, SessionMiddlewareFactory.NEAR_CACHE);
+        return SessionNearCacheOptions.builder().build();
+    }
+
     @Immutable
     @ModelStyle
     @JsonDeserialize(builder = SessionCookieOptions.Builder.class)
@@ -182,4 +205,37 @@ public abstract class AbstractSessionMiddlewareOptions implements MiddlewareOpti
             return DEFAULT_SESSION_LIFETIME_COOKIE_SAME_SITE;
         }
     }
+
+    @Immutable
+    @ModelStyle
+    @JsonDeserialize(builder = SessionNearCacheOptions.Builder.class)
+    public abstract static class AbstractSessionNearCacheOptions implements MiddlewareOptionsModel {
+
+        @Check
+        protected void validate() {
+            Preconditions.checkState(getMaxEntries() > 0, "'getMaxEntries' must be greater than 0");
+            Preconditions.checkState(getMaxTtlMs() > 0, "'getMaxTtlMs' must be greater than 0");
+        }
+
+        @Default
+        @JsonProperty(SessionMiddlewareFactory.NEAR_CACHE_ENABLED)
+        public boolean isEnabled() {
+            logDefault(LOGGER, SessionMiddlewareFactory.NEAR_CACHE_ENABLED, DEFAULT_NEAR_CACHE_ENABLED);
+            return DEFAULT_NEAR_CACHE_ENABLED;
+        }
+
+        @Default
+        @JsonProperty(SessionMiddlewareFactory.NEAR_CACHE_MAX_ENTRIES)
+        public int getMaxEntries() {
+            logDefault(LOGGER, SessionMiddlewareFactory.NEAR_CACHE_MAX_ENTRIES, DEFAULT_NEAR_CACHE_MAX_ENTRIES);
+            return DEFAULT_NEAR_CACHE_MAX_ENTRIES;
+        }
+
+        @Default
+        @JsonProperty(SessionMiddlewareFactory.NEAR_CACHE_MAX_TTL_MS)
+        public long getMaxTtlMs() {
+            logDefault(LOGGER, SessionMiddlewareFactory.NEAR_CACHE_MAX_TTL_MS, DEFAULT_NEAR_CACHE_MAX_TTL_MS);
+            return DEFAULT_NEAR_CACHE_MAX_TTL_MS;
+        }
+    }
 }
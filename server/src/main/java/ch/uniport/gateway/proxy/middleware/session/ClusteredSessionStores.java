@@ -0,0 +1,74 @@
+package ch.uniport.gateway.proxy.middleware.session;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.web.sstore.ClusteredSessionStore;
+import io.vertx.ext.web.sstore.SessionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The clustered session stores of the {@code session} middlewares, shared per
+ * Vert.x instance and middleware name.
+ * <p>
+ * Sharing the stores keeps their near cache across configuration reloads and
+ * verticle instances, and releases their timers and event bus consumers once,
+ * when the settings of a middleware change.
+ */
+final class ClusteredSessionStores {
+
+    private static final String STORES_MAP_NAME = "uniport.gateway.session.stores";
+
+    /**
+     * Middlewares created with the previous settings may still be used by
+     * requests in flight on the previous router. A replaced store is closed
+     * after this delay.
+     */
+    private static final long REPLACED_STORE_CLOSE_DELAY_MS = 60_000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusteredSessionStores.class);
+
+    private ClusteredSessionStores() {
+    }
+
+    /**
+     * @return the store of the middleware, created if it does not exist yet or
+     *         if its settings changed
+     */
+    static SessionStore get(Vertx vertx, String middleware, Settings settings) {
+        final LocalMap<String, SharedStore> stores = vertx.sharedData().getLocalMap(STORES_MAP_NAME);
+        final SharedStore[] replaced = new SharedStore[1];
+        final SharedStore shared = stores.compute(middleware, (k, existing) -> {
+            if (existing != null && existing.settings.equals(settings)) {
+                return existing;
+            }
+            replaced[0] = existing;
+            return new SharedStore(settings, create(vertx, middleware, settings));
+        });
+        if (replaced[0] != null) {
+            final SessionStore retired = replaced[0].store;
+            LOGGER.debug("Closing replaced session store of '{}' in {} ms", middleware, REPLACED_STORE_CLOSE_DELAY_MS);
+            vertx.setTimer(REPLACED_STORE_CLOSE_DELAY_MS, id -> retired.close());
+        }
+        return shared.store;
+    }
+
+    private static SessionStore create(Vertx vertx, String middleware, Settings settings) {
+        SessionStore store = ClusteredSessionStore.create(vertx, settings.retryTimeoutMs);
+        if (settings.nearCache.isEnabled()) {
+            store = NearCacheSessionStore.create(vertx, middleware, store,
+                settings.nearCache.getMaxEntries(), settings.nearCache.getMaxTtlMs());
+        }
+        return DirtyTrackingSessionStore.create(vertx, middleware, store, settings.idleTimeoutResetIntervalMs);
+    }
+
+    record Settings(
+        long retryTimeoutMs, long idleTimeoutResetIntervalMs, SessionNearCacheOptions nearCache
+    ) {
+    }
+
+    // local maps only accept shareable values, the stores are thread-safe
+    private record SharedStore(Settings settings, SessionStore store) implements Shareable {
+    }
+}
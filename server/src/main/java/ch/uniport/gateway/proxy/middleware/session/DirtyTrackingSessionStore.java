@@ -0,0 +1,290 @@
+package ch.uniport.gateway.proxy.middleware.session;
+
+import ch.uniport.gateway.MeterRegistries;
+import ch.uniport.gateway.proxy.middleware.HashUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.ClusterSerializable;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.SessionStore;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Skips writing sessions, whose data did not change since they were loaded
+ * from the store.
+ * <p>
+ * The hash of every field of the session data is taken when a session is
+ * loaded and compared when the session is put back at the end of the request.
+ * Fields, whose value is neither {@link ClusterSerializable} nor a basic type,
+ * cannot be hashed and mark the session as changed.
+ * <p>
+ * Writing an unchanged session only resets its idle timeout, which the store
+ * only knows by the last access of the stored session. Unchanged sessions are
+ * therefore only written, if they were last written at least
+ * {@code idleTimeoutResetIntervalMs} ago. A session expires up to this interval
+ * earlier than its idle timeout.
+ * <p>
+ * The following metrics are provided per middleware:
+ * <ul>
+ * <li>{@code uniport.gateway.session.store.writes}: counter of the sessions put
+ * back at the end of a request, with the tag {@code result} being
+ * {@code written} or {@code skipped}</li>
+ * <li>{@code uniport.gateway.session.store.write.size}: distribution of the
+ * size of the session data per write in bytes</li>
+ * </ul>
+ */
+final class DirtyTrackingSessionStore implements SessionStore {
+
+    static final String WRITES_METRIC_NAME = "uniport.gateway.session.store.writes";
+    static final String WRITE_SIZE_METRIC_NAME = "uniport.gateway.session.store.write.size";
+
+    // loaded sessions not put back within this time (e.g. failed requests) are forgotten
+    static final long SNAPSHOT_RETENTION_MS = 60_000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirtyTrackingSessionStore.class);
+
+    private final SessionStore delegate;
+    private final long idleTimeoutResetIntervalMs;
+    private final LongSupplier clock;
+
+    // by session id, a concurrent request of the same session is written unconditionally
+    private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final long purgeTimerId;
+    private final Vertx vertx;
+
+    private final Counter written;
+    private final Counter skipped;
+    private final DistributionSummary writeSize;
+
+    DirtyTrackingSessionStore(
+        Vertx vertx, String middleware, SessionStore delegate, long idleTimeoutResetIntervalMs, LongSupplier clock
+    ) {
+        this.vertx = Objects.requireNonNull(vertx, "vertx must not be null");
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.idleTimeoutResetIntervalMs = idleTimeoutResetIntervalMs;
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        this.purgeTimerId = vertx.setPeriodic(SNAPSHOT_RETENTION_MS, timerId -> purgeSnapshots());
+        this.written = registerWrites(middleware, "written");
+        this.skipped = registerWrites(middleware, "skipped");
+        this.writeSize = DistributionSummary.builder(WRITE_SIZE_METRIC_NAME)
+            .description("Size of the session data written to the session store")
+            .baseUnit("bytes")
+            .tags("middleware", middleware)
+            .register(MeterRegistries.getDefault());
+    }
+
+    static DirtyTrackingSessionStore create(
+        Vertx vertx, String middleware, SessionStore delegate, long idleTimeoutResetIntervalMs
+    ) {
+        return new DirtyTrackingSessionStore(vertx, middleware, delegate, idleTimeoutResetIntervalMs,
+            System::currentTimeMillis);
+    }
+
+    @Override
+    public SessionStore init(Vertx vertx, JsonObject options) {
+        delegate.init(vertx, options);
+        return this;
+    }
+
+    @Override
+    public long retryTimeout() {
+        return delegate.retryTimeout();
+    }
+
+    @Override
+    public Session createSession(long timeout) {
+        return delegate.createSession(timeout);
+    }
+
+    @Override
+    public Session createSession(long timeout, int length) {
+        return delegate.createSession(timeout, length);
+    }
+
+    @Override
+    public Future<Session> get(String cookieValue) {
+        return delegate.get(cookieValue)
+            .onSuccess(session -> {
+                if (session != null) {
+                    snapshots.put(session.id(), snapshot(session));
+                }
+            });
+    }
+
+    @Override
+    public void get(String cookieValue, Handler<AsyncResult<Session>> resultHandler) {
+        get(cookieValue).onComplete(resultHandler);
+    }
+
+    @Override
+    public Future<Void> delete(String id) {
+        snapshots.remove(id);
+        return delegate.delete(id);
+    }
+
+    @Override
+    public void delete(String id, Handler<AsyncResult<Void>> resultHandler) {
+        delete(id).onComplete(resultHandler);
+    }
+
+    @Override
+    public Future<Void> put(Session session) {
+        final Snapshot loaded = snapshots.remove(session.id());
+        final Snapshot current = snapshot(session);
+        if (loaded != null && loaded.sameData(current)) {
+            if (session.lastAccessed() - loaded.lastAccessed < idleTimeoutResetIntervalMs) {
+                LOGGER.debug("Skipped writing unchanged session");
+                skipped.increment();
+                return Future.succeededFuture();
+            }
+            LOGGER.debug("Writing unchanged session to reset its idle timeout");
+        } else if (loaded != null && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Writing session with changed fields '{}'", loaded.changedFields(current));
+        }
+        written.increment();
+        writeSize.record(current.size);
+        return delegate.put(session);
+    }
+
+    @Override
+    public void put(Session session, Handler<AsyncResult<Void>> resultHandler) {
+        put(session).onComplete(resultHandler);
+    }
+
+    @Override
+    public Future<Void> clear() {
+        snapshots.clear();
+        return delegate.clear();
+    }
+
+    @Override
+    public void clear(Handler<AsyncResult<Void>> resultHandler) {
+        clear().onComplete(resultHandler);
+    }
+
+    @Override
+    public Future<Integer> size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void size(Handler<AsyncResult<Integer>> resultHandler) {
+        size().onComplete(resultHandler);
+    }
+
+    @Override
+    public void close() {
+        vertx.cancelTimer(purgeTimerId);
+        snapshots.clear();
+        delegate.close();
+    }
+
+    int snapshotCount() {
+        return snapshots.size();
+    }
+
+    void purgeSnapshots() {
+        final long expired = clock.getAsLong() - SNAPSHOT_RETENTION_MS;
+        snapshots.values().removeIf(snapshot -> snapshot.takenAtMs < expired);
+    }
+
+    private Snapshot snapshot(Session session) {
+        final Map<String, byte[]> hashes = new HashMap<>();
+        long size = 0;
+        boolean hashable = true;
+        for (Map.Entry<String, Object> field : session.data().entrySet()) {
+            final byte[] encoded = encode(field.getValue());
+            if (encoded == null) {
+                hashable = false;
+                continue;
+            }
+            size += encoded.length;
+            hashes.put(field.getKey(), HashUtil.sha256(encoded));
+        }
+        return new Snapshot(hashable ? hashes : null, size, session.lastAccessed(), clock.getAsLong());
+    }
+
+    /**
+     * @return the encoding of a session data value as written to the store, or
+     *         null if it has none
+     */
+    private static byte[] encode(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (value instanceof ClusterSerializable) {
+            final Buffer buffer = Buffer.buffer();
+            ((ClusterSerializable) value).writeToBuffer(buffer);
+            return buffer.getBytes();
+        }
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        if (value instanceof String || value instanceof Number || value instanceof Boolean
+            || value instanceof Character) {
+            // the type is part of the value
+            return (value.getClass().getSimpleName() + ":" + value).getBytes(StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    private static Counter registerWrites(String middleware, String result) {
+        return Counter.builder(WRITES_METRIC_NAME)
+            .description("Sessions put back into the session store at the end of a request")
+            .tags("middleware", middleware, "result", result)
+            .register(MeterRegistries.getDefault());
+    }
+
+    /**
+     * @param hashes
+     *            the hash per field, null if any field cannot be hashed
+     */
+    private record Snapshot(Map<String, byte[]> hashes, long size, long lastAccessed, long takenAtMs) {
+
+        boolean sameData(Snapshot other) {
+            if (hashes == null || other.hashes == null || hashes.size() != other.hashes.size()) {
+                return false;
+            }
+            for (Map.Entry<String, byte[]> field : hashes.entrySet()) {
+                if (!Arrays.equals(field.getValue(), other.hashes.get(field.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String changedFields(Snapshot other) {
+            if (hashes == null || other.hashes == null) {
+                return "unknown";
+            }
+            final TreeSet<String> changed = new TreeSet<>();
+            for (String field : hashes.keySet()) {
+                if (!Arrays.equals(hashes.get(field), other.hashes.get(field))) {
+                    changed.add(field);
+                }
+            }
+            for (String field : other.hashes.keySet()) {
+                if (!hashes.containsKey(field)) {
+                    changed.add(field);
+                }
+            }
+            return String.join(", ", changed);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package ch.uniport.gateway.proxy.middleware.session;
+
+import ch.uniport.gateway.MeterRegistries;
+import io.micrometer.core.instrument.Counter;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.prng.VertxContextPRNG;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.SessionStore;
+import io.vertx.ext.web.sstore.impl.SharedDataSessionImpl;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the sessions of the clustered session store in a local near cache, so
+ * that loading a session does not need a round trip to the cluster.
+ * <p>
+ * Entries are stamped with the version of their session. Every write and
+ * deletion of a session is announced to the other instances on the event bus,
+ * which evict their entry unless it has a higher version. A session loaded
+ * from the cluster while an invalidation arrived is not cached.
+ * <p>
+ * Consistency:
+ * <ul>
+ * <li>An instance reads its own writes, the near cache is updated after the
+ * write to the cluster succeeded.</li>
+ * <li>With sticky load balancing all requests of a session are served by the
+ * same instance, hence reads are always current.</li>
+ * <li>Otherwise an instance may read a session written by another instance
+ * stale until the invalidation is delivered, at most for {@code maxTtlMs}, as
+ * event bus messages may be lost. Writing a stale session is rejected by the
+ * version check of the clustered store and evicts the entry.</li>
+ * </ul>
+ * <p>
+ * Entries are evicted after {@code maxTtlMs}, when their session is idle
+ * expired and least recently used first when there are more than
+ * {@code maxEntries}.
+ * <p>
+ * The following metric is provided per middleware:
+ * <ul>
+ * <li>{@code uniport.gateway.session.store.near-cache.requests}: counter with
+ * the tag {@code result} being {@code hit} or {@code miss}</li>
+ * </ul>
+ */
+final class NearCacheSessionStore implements SessionStore {
+
+    static final String METRIC_NAME = "uniport.gateway.session.store.near-cache.requests";
+    static final String INVALIDATION_ADDRESS_PREFIX = "uniport.gateway.session.invalidate.";
+
+    private static final String FIELD_INSTANCE = "instance";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_VERSION = "version";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NearCacheSessionStore.class);
+
+    private final Vertx vertx;
+    private final SessionStore delegate;
+    private final String address;
+    private final int maxEntries;
+    private final long maxTtlMs;
+    private final LongSupplier clock;
+    // to ignore the own invalidations
+    private final String instance = UUID.randomUUID().toString();
+
+    // guarded by this
+    private final LinkedHashMap<String, Entry> entries;
+    // guarded by this, incremented per invalidation
+    private long epoch;
+    // guarded by this, the epoch of the last invalidation per session
+    private final LinkedHashMap<String, Long> invalidatedAt;
+    // guarded by this
+    private long clearedAt;
+
+    private final MessageConsumer<JsonObject> invalidations;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    NearCacheSessionStore(
+        Vertx vertx, String middleware, SessionStore delegate, int maxEntries, long maxTtlMs, LongSupplier clock
+    ) {
+        this.vertx = Objects.requireNonNull(vertx, "vertx must not be null");
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.address = INVALIDATION_ADDRESS_PREFIX + middleware;
+        this.maxEntries = maxEntries;
+        this.maxTtlMs = maxTtlMs;
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > NearCacheSessionStore.this.maxEntries;
+            }
+        };
+        this.invalidatedAt = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > NearCacheSessionStore.this.maxEntries;
+            }
+        };
+        this.invalidations = vertx.eventBus().consumer(address, this::onInvalidation);
+        this.hits = registerLookups(middleware, "hit");
+        this.misses = registerLookups(middleware, "miss");
+    }
+
+    static NearCacheSessionStore create(
+        Vertx vertx, String middleware, SessionStore delegate, int maxEntries, long maxTtlMs
+    ) {
+        return new NearCacheSessionStore(vertx, middleware, delegate, maxEntries, maxTtlMs, System::currentTimeMillis);
+    }
+
+    @Override
+    public SessionStore init(Vertx vertx, JsonObject options) {
+        delegate.init(vertx, options);
+        return this;
+    }
+
+    @Override
+    public long retryTimeout() {
+        return delegate.retryTimeout();
+    }
+
+    @Override
+    public Session createSession(long timeout) {
+        return delegate.createSession(timeout);
+    }
+
+    @Override
+    public Session createSession(long timeout, int length) {
+        return delegate.createSession(timeout, length);
+    }
+
+    @Override
+    public Future<Session> get(String cookieValue) {
+        final Entry entry;
+        final long loadEpoch;
+        synchronized (this) {
+            entry = lookup(cookieValue);
+            loadEpoch = epoch;
+        }
+        if (entry != null) {
+            hits.increment();
+            return Future.succeededFuture(entry.decode(vertx));
+        }
+        misses.increment();
+        return delegate.get(cookieValue)
+            .onSuccess(session -> {
+                if (session != null) {
+                    cache(session, loadEpoch);
+                }
+            });
+    }
+
+    @Override
+    public void get(String cookieValue, Handler<AsyncResult<Session>> resultHandler) {
+        get(cookieValue).onComplete(resultHandler);
+    }
+
+    @Override
+    public Future<Void> delete(String id) {
+        evict(id, Integer.MAX_VALUE);
+        return delegate.delete(id)
+            .onComplete(ar -> publish(id, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public void delete(String id, Handler<AsyncResult<Void>> resultHandler) {
+        delete(id).onComplete(resultHandler);
+    }
+
+    @Override
+    public Future<Void> put(Session session) {
+        final long writeEpoch;
+        synchronized (this) {
+            writeEpoch = epoch;
+        }
+        return delegate.put(session)
+            .onSuccess(v -> {
+                cache(session, writeEpoch);
+                publish(session.id(), session.version());
+            })
+            .onFailure(err -> {
+                // e.g. the session was written by another instance in the meantime
+                evict(session.id(), Integer.MAX_VALUE);
+            });
+    }
+
+    @Override
+    public void put(Session session, Handler<AsyncResult<Void>> resultHandler) {
+        put(session).onComplete(resultHandler);
+    }
+
+    @Override
+    public Future<Void> clear() {
+        synchronized (this) {
+            entries.clear();
+            clearedAt = ++epoch;
+        }
+        return delegate.clear();
+    }
+
+    @Override
+    public void clear(Handler<AsyncResult<Void>> resultHandler) {
+        clear().onComplete(resultHandler);
+    }
+
+    @Override
+    public Future<Integer> size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void size(Handler<AsyncResult<Integer>> resultHandler) {
+        size().onComplete(resultHandler);
+    }
+
+    @Override
+    public void close() {
+        invalidations.unregister();
+        synchronized (this) {
+            entries.clear();
+        }
+        delegate.close();
+    }
+
+    synchronized int cachedCount() {
+        return entries.size();
+    }
+
+    /**
+     * Evicts the entry of a session, unless it has a higher version.
+     */
+    void evict(String id, int version) {
+        synchronized (this) {
+            final Entry entry = entries.get(id);
+            if (entry == null || entry.version <= version) {
+                entries.remove(id);
+            }
+            // loads in flight may have read the previous version
+            invalidatedAt.put(id, ++epoch);
+        }
+    }
+
+    private Entry lookup(String id) {
+        final Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        final long now = clock.getAsLong();
+        if (entry.cachedAtMs + maxTtlMs <= now || entry.lastAccessed + entry.timeout <= now) {
+            entries.remove(id);
+            return null;
+        }
+        return entry;
+    }
+
+    private void cache(Session session, long loadEpoch) {
+        if (!(session instanceof SharedDataSessionImpl)) {
+            return;
+        }
+        final Buffer encoded = Buffer.buffer();
+        ((SharedDataSessionImpl) session).writeToBuffer(encoded);
+        final Entry entry = new Entry(encoded, session.version(), session.lastAccessed(), session.timeout(),
+            clock.getAsLong());
+        synchronized (this) {
+            final Long invalidated = invalidatedAt.get(session.id());
+            if (clearedAt > loadEpoch || invalidated != null && invalidated > loadEpoch) {
+                LOGGER.debug("Not caching session invalidated while loading");
+                return;
+            }
+            entries.put(session.id(), entry);
+        }
+    }
+
+    private void publish(String id, int version) {
+        vertx.eventBus().publish(address, new JsonObject()
+            .put(FIELD_INSTANCE, instance)
+            .put(FIELD_ID, id)
+            .put(FIELD_VERSION, version));
+    }
+
+    private void onInvalidation(Message<JsonObject> message) {
+        final JsonObject body = message.body();
+        if (instance.equals(body.getString(FIELD_INSTANCE))) {
+            return;
+        }
+        evict(body.getString(FIELD_ID), body.getInteger(FIELD_VERSION, Integer.MAX_VALUE));
+    }
+
+    private static Counter registerLookups(String middleware, String result) {
+        return Counter.builder(METRIC_NAME)
+            .description("Sessions looked up in the near cache of the session store")
+            .tags("middleware", middleware, "result", result)
+            .register(MeterRegistries.getDefault());
+    }
+
+    /**
+     * The encoded session, sessions are mutable and must not be shared between
+     * requests.
+     */
+    private record Entry(Buffer encoded, int version, long lastAccessed, long timeout, long cachedAtMs) {
+
+        Session decode(Vertx vertx) {
+            final SharedDataSessionImpl session = new SharedDataSessionImpl(VertxContextPRNG.current(vertx));
+            session.readFromBuffer(0, encoded);
+            return session;
+        }
+    }
+}
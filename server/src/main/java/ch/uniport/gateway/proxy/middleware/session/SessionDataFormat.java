@@ -0,0 +1,265 @@
+package ch.uniport.gateway.proxy.middleware.session;
+
+import ch.uniport.gateway.Runtime;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the session data types that are
+ * {@link io.vertx.core.shareddata.ClusterSerializable}.
+ * <p>
+ * An encoding starts with a negative version marker. Previous releases wrote
+ * JSON text prefixed by its non-negative length (see
+ * {@link JsonObject#writeToBuffer(Buffer)}), so readers detect such legacy
+ * encodings by {@link #isLegacy(int, Buffer)} and keep accepting sessions
+ * written before an upgrade.
+ * <p>
+ * Previous releases cannot read this format. It is therefore only written if
+ * enabled by {@link Runtime#isCompactSessionFormat()}, once all instances of a
+ * cluster were upgraded. Otherwise the legacy format is written.
+ * <p>
+ * Lengths and integers are written as variable-length integers, strings as
+ * UTF-8 and JSON values as tagged binary values.
+ */
+public final class SessionDataFormat {
+
+    public static final int VERSION_1 = -1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_FALSE = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_INTEGER = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_STRING = 5;
+    private static final byte TAG_OBJECT = 6;
+    private static final byte TAG_ARRAY = 7;
+    // any other value (e.g. Instant, byte[] or BigDecimal) as its JSON text
+    private static final byte TAG_JSON = 8;
+
+    private static volatile boolean enabled = Runtime.isCompactSessionFormat();
+
+    private SessionDataFormat() {
+    }
+
+    /**
+     * @return true, if session data is written in this format, otherwise it is
+     *         written in the legacy format
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        SessionDataFormat.enabled = enabled;
+    }
+
+    /**
+     * @return true, if the encoding at the given position was written in the
+     *         legacy JSON format
+     */
+    public static boolean isLegacy(int pos, Buffer buffer) {
+        return buffer.getInt(pos) >= 0;
+    }
+
+    public static void writeVersion(Buffer buffer) {
+        buffer.appendInt(VERSION_1);
+    }
+
+    /**
+     * @throws IllegalStateException
+     *             if the encoding at the given position has an unknown version
+     */
+    public static Reader reader(int pos, Buffer buffer) {
+        final int version = buffer.getInt(pos);
+        if (version != VERSION_1) {
+            throw new IllegalStateException(String.format("Unknown session data format version '%d'", version));
+        }
+        return new Reader(buffer, pos + Integer.BYTES);
+    }
+
+    /**
+     * Writes a non-negative number in 7 bit groups, so that small numbers take a
+     * single byte.
+     */
+    public static void writeVarLong(Buffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.appendByte((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.appendByte((byte) value);
+    }
+
+    /**
+     * Writes a number zig-zag encoded, so that small negative numbers stay
+     * small.
+     */
+    public static void writeSignedVarLong(Buffer buffer, long value) {
+        writeVarLong(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    public static void writeString(Buffer buffer, String value) {
+        if (value == null) {
+            writeVarLong(buffer, 0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(buffer, bytes.length + 1L);
+        buffer.appendBytes(bytes);
+    }
+
+    public static void writeJsonObject(Buffer buffer, JsonObject json) {
+        writeJson(buffer, json);
+    }
+
+    private static void writeJson(Buffer buffer, Object value) {
+        if (value == null) {
+            buffer.appendByte(TAG_NULL);
+        } else if (value instanceof Boolean) {
+            buffer.appendByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+            || value instanceof Byte) {
+            buffer.appendByte(TAG_INTEGER);
+            writeSignedVarLong(buffer, ((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            buffer.appendByte(TAG_DOUBLE);
+            buffer.appendDouble(((Number) value).doubleValue());
+        } else if (value instanceof String) {
+            buffer.appendByte(TAG_STRING);
+            writeString(buffer, (String) value);
+        } else if (value instanceof JsonObject || value instanceof Map) {
+            final Map<?, ?> map = value instanceof JsonObject ? ((JsonObject) value).getMap() : (Map<?, ?>) value;
+            buffer.appendByte(TAG_OBJECT);
+            writeVarLong(buffer, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(buffer, String.valueOf(entry.getKey()));
+                writeJson(buffer, entry.getValue());
+            }
+        } else if (value instanceof JsonArray || value instanceof List) {
+            final List<?> list = value instanceof JsonArray ? ((JsonArray) value).getList() : (List<?>) value;
+            buffer.appendByte(TAG_ARRAY);
+            writeVarLong(buffer, list.size());
+            for (Object item : list) {
+                writeJson(buffer, item);
+            }
+        } else {
+            buffer.appendByte(TAG_JSON);
+            writeString(buffer, Json.encode(value));
+        }
+    }
+
+    /**
+     * Reads an encoding sequentially and tracks the position.
+     */
+    public static final class Reader {
+
+        private final Buffer buffer;
+        private int pos;
+
+        private Reader(Buffer buffer, int pos) {
+            this.buffer = buffer;
+            this.pos = pos;
+        }
+
+        /**
+         * @return the position after the last value read
+         */
+        public int position() {
+            return pos;
+        }
+
+        public byte readByte() {
+            return buffer.getByte(pos++);
+        }
+
+        public long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (shift > 63) {
+                    throw new IllegalStateException("Malformed variable-length integer");
+                }
+                b = buffer.getByte(pos++);
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        public long readSignedVarLong() {
+            final long zigZag = readVarLong();
+            return (zigZag >>> 1) ^ -(zigZag & 1);
+        }
+
+        public int readVarInt() {
+            return Math.toIntExact(readVarLong());
+        }
+
+        public String readString() {
+            final int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            final String value = buffer.getString(pos, pos + length - 1, StandardCharsets.UTF_8.name());
+            pos += length - 1;
+            return value;
+        }
+
+        public JsonObject readJsonObject() {
+            final Object value = readJson();
+            if (value != null && !(value instanceof JsonObject)) {
+                throw new IllegalStateException("Expected a JSON object");
+            }
+            return (JsonObject) value;
+        }
+
+        private Object readJson() {
+            final byte tag = readByte();
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_INTEGER:
+                    final long number = readSignedVarLong();
+                    // as parsed from JSON text
+                    if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                        return (int) number;
+                    }
+                    return number;
+                case TAG_DOUBLE:
+                    final double d = buffer.getDouble(pos);
+                    pos += Double.BYTES;
+                    return d;
+                case TAG_STRING:
+                    return readString();
+                case TAG_OBJECT:
+                    final int fields = readVarInt();
+                    final JsonObject object = new JsonObject();
+                    for (int i = 0; i < fields; i++) {
+                        final String key = readString();
+                        object.put(key, readJson());
+                    }
+                    return object;
+                case TAG_ARRAY:
+                    final int items = readVarInt();
+                    final JsonArray array = new JsonArray();
+                    for (int i = 0; i < items; i++) {
+                        array.add(readJson());
+                    }
+                    return array;
+                case TAG_JSON:
+                    return Json.decodeValue(readString());
+                default:
+                    throw new IllegalStateException(String.format("Unknown JSON value tag '%d'", tag));
+            }
+        }
+    }
+}
@@ -2,23 +2,17 @@ package ch.uniport.gateway.proxy.middleware.session;
 
 import static io.vertx.ext.web.handler.impl.SessionHandlerImpl.SESSION_FLUSHED_KEY;
 
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
-import io.netty.handler.codec.http.cookie.ClientCookieEncoder;
-import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.Handler;
-import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.Cookie;
-import io.vertx.core.http.HttpHeaders;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.SessionHandler;
-import io.vertx.ext.web.sstore.ClusteredSessionStore;
 import io.vertx.ext.web.sstore.LocalSessionStore;
 import io.vertx.ext.web.sstore.SessionStore;
-import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,7 +28,6 @@ public class SessionMiddleware extends TraceMiddleware {
     private static final Logger LOGGER = LoggerFactory.getLogger(SessionMiddleware.class);
 
     private static final long MINUTE_MS = 60_000L;
-    private static final String COOKIE_DELIMITER = "; "; // RFC 6265 4.2.1
 
     private final String name;
 
@@ -113,6 +106,50 @@ public class SessionMiddleware extends TraceMiddleware {
         LifetimeCookieOptions lifetimeCookie,
         // session store
         int clusteredSessionStoreRetryTimeoutMilliSeconds
+    ) {
+        this(vertx, name, sessionIdMinLength, sessionIdleTimeoutInMinutes, uriWithoutSessionIdleTimeoutReset, nagHttps,
+            sessionCookie, withLifetimeHeader, lifetimeHeaderName, withLifetimeCookie, lifetimeCookie,
+            clusteredSessionStoreRetryTimeoutMilliSeconds,
+            AbstractSessionMiddlewareOptions.DEFAULT_SESSION_IDLE_TIMEOUT_RESET_INTERVAL_IN_SECONDS,
+            SessionNearCacheOptions.builder().build());
+    }
+
+    /**
+     * @param idleTimeoutResetIntervalInSeconds
+     *            minimal interval, in
+     *            seconds, between writes
+     *            of an unchanged session
+     *            to the clustered store.
+     *            Capped at half of the
+     *            idle timeout.
+     * @param nearCache
+     *            options of the near
+     *            cache of the clustered
+     *            store
+     * @see #SessionMiddleware(Vertx, String, int, int, String, boolean,
+     *      SessionCookieOptions, boolean, String, boolean,
+     *      LifetimeCookieOptions, int)
+     */
+    public SessionMiddleware(
+        Vertx vertx,
+        String name,
+        // session
+        int sessionIdMinLength,
+        int sessionIdleTimeoutInMinutes,
+        String uriWithoutSessionIdleTimeoutReset,
+        boolean nagHttps,
+        // session cookie
+        SessionCookieOptions sessionCookie,
+        // lifetime
+        boolean withLifetimeHeader,
+        String lifetimeHeaderName,
+
+        boolean withLifetimeCookie,
+        LifetimeCookieOptions lifetimeCookie,
+        // session store
+        int clusteredSessionStoreRetryTimeoutMilliSeconds,
+        int idleTimeoutResetIntervalInSeconds,
+        SessionNearCacheOptions nearCache
     ) {
         Objects.requireNonNull(vertx, "vertx must not be null");
         Objects.requireNonNull(name, "name must not be null");
@@ -122,6 +159,7 @@ public class SessionMiddleware extends TraceMiddleware {
         Objects.requireNonNull(lifetimeCookie.getName(), "lifetimeCookieName must not be null");
         Objects.requireNonNull(lifetimeCookie.getPath(), "lifetimeCookiePath must not be null");
         Objects.requireNonNull(lifetimeCookie.getSameSite(), "lifetimeCookieSameSite must not be null");
+        Objects.requireNonNull(nearCache, "nearCache must not be null");
         // uriWithoutSessionIdleTimeoutReset is allowed to be null
 
         this.name = name;
@@ -138,7 +176,11 @@ public class SessionMiddleware extends TraceMiddleware {
 
         if (vertx.isClustered()) {
             LOGGER.info("Running clustered session store");
-            sessionStore = ClusteredSessionStore.create(vertx, clusteredSessionStoreRetryTimeoutMilliSeconds);
+            // an unchanged session is written to reset its idle timeout only, the interval must leave time for that
+            final long idleTimeoutResetIntervalMs = Math.min(idleTimeoutResetIntervalInSeconds * 1000L,
+                this.sessionIdleTimeoutMs / 2);
+            sessionStore = ClusteredSessionStores.get(vertx, name, new ClusteredSessionStores.Settings(
+                clusteredSessionStoreRetryTimeoutMilliSeconds, idleTimeoutResetIntervalMs, nearCache));
         } else {
             LOGGER.info("Running local session store");
             sessionStore = LocalSessionStore.create(vertx);
@@ -156,10 +198,10 @@ public class SessionMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         registerHandlerForRespondingWithSessionLifetime(ctx);
-        registerHandlerToRemoveSessionCookieFromRequestBeforeProxying(ctx);
+        removeSessionCookieFromRequestBeforeProxying(ctx);
         checkForSessionTimeoutReset(ctx);
         setSessionIdleTimeoutOnRoutingContext(ctx);
         setSessionStoreOnRoutingContext(ctx);
@@ -198,62 +240,24 @@ public class SessionMiddleware extends TraceMiddleware {
         }
     }
 
-    private void registerHandlerToRemoveSessionCookieFromRequestBeforeProxying(RoutingContext ctx) {
-        this.addRequestHeadersModifier(ctx, headers -> removeSessionCookieFromRequestBeforeProxying(headers));
-        LOGGER.debug("{}: Added removeSessionCookieFromRequestBeforeProxying as request header modifier", name);
-    }
-
     /**
-     * Request headers is a multi map i.e. the same key can appear multiple times or
-     * formulated differently, each key may have multiple values.
-     * To safely filter the session cookie from the request header, this fact has to
-     * be respected.
+     * The session cookie is removed from the cookies sent to the backend service.
+     * The incoming request keeps it, so that the session can be loaded.
      * 
-     * To start, all "cookie" headers are read.
-     * Each cookie header may contain multiple cookies separated by a semicolon,
-     * that have to be parsed.
-     * Then, each cookie header is filtered for the session cookie and omitted, if
-     * found.
-     * Finally, the cookie header is assembled back together.
-     * 
-     * It is important to note, that the overall structure of the cookie headers
-     * i.e.
-     * how many cookie headers and what cookie are in what cookie header IS
-     * PRESERVED.
+     * The cookies are serialized just before proxying, thereby the overall
+     * structure of the cookie headers i.e. how many cookie headers and what cookie
+     * are in what cookie header IS PRESERVED.
      * See: https://inventage-all.atlassian.net/browse/PORTAL-2349
      * 
-     * @param headers
-     *            of a request
+     * @param ctx
+     *            current routing context
      */
-    private void removeSessionCookieFromRequestBeforeProxying(MultiMap headers) {
-        // improve this, once this issue is resolved:
-        // https://github.com/eclipse-vertx/vertx-http-proxy/issues/100
-        final List<String> filteredCookieHeaders = headers
-            .getAll(HttpHeaders.COOKIE)
-            .stream()
-            .map(cookieHeader -> decodeCookieHeader(cookieHeader).stream()
-                .filter(cookie -> cookie != null)
-                .filter(cookie -> !cookie.name().equals(sessionCookieName))
-                .map(cookie -> encodeCookie(cookie))
-                .toList())
-            .map(cookies -> String.join(COOKIE_DELIMITER, cookies))
-            .filter(cookieHeader -> !cookieHeader.isEmpty())
-            .toList();
-
-        headers.remove(HttpHeaders.COOKIE);
-        for (String cookieHeader : filteredCookieHeaders) {
-            headers.add(HttpHeaders.COOKIE, cookieHeader);
+    private void removeSessionCookieFromRequestBeforeProxying(RoutingContext ctx) {
+        if (requestCookies(ctx).remove(sessionCookieName)) {
+            LOGGER.debug("{}: Removed session cookie from request to be proxied", name);
         }
     }
 
-    private Set<io.netty.handler.codec.http.cookie.Cookie> decodeCookieHeader(String header) {
-        return ServerCookieDecoder.LAX.decode(header);
-    }
-
-    private String encodeCookie(io.netty.handler.codec.http.cookie.Cookie cookie) {
-        return ClientCookieEncoder.LAX.encode(cookie);
-    }
-
     /**
      * Check if the session timeout reset should be skipped.
      *
@@ -38,6 +38,11 @@ public class SessionMiddlewareFactory implements MiddlewareFactory {
 
     // session store
     public static final String CLUSTERED_SESSION_STORE_RETRY_TIMEOUT_MS = "clusteredSessionStoreRetryTimeoutInMilliseconds";
+    public static final String SESSION_IDLE_TIMEOUT_RESET_INTERVAL_IN_SECONDS = "idleTimeoutResetIntervalInSeconds";
+    public static final String NEAR_CACHE = "nearCache";
+    public static final String NEAR_CACHE_ENABLED = "enabled";
+    public static final String NEAR_CACHE_MAX_ENTRIES = "maxEntries";
+    public static final String NEAR_CACHE_MAX_TTL_MS = "maxTtlMs";
 
     private static final String[] COOKIE_SAME_SITE_POLICIES = new String[] {
         "NONE",
@@ -90,6 +95,20 @@ public class SessionMiddlewareFactory implements MiddlewareFactory {
                 .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
                 .defaultValue(
                     AbstractSessionMiddlewareOptions.DEFAULT_CLUSTERED_SESSION_STORE_RETRY_TIMEOUT_MILLISECONDS))
+            .optionalProperty(SESSION_IDLE_TIMEOUT_RESET_INTERVAL_IN_SECONDS, Schemas.intSchema()
+                .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(0))
+                .defaultValue(
+                    AbstractSessionMiddlewareOptions.DEFAULT_SESSION_IDLE_TIMEOUT_RESET_INTERVAL_IN_SECONDS))
+            .optionalProperty(NEAR_CACHE, Schemas.objectSchema()
+                .optionalProperty(NEAR_CACHE_ENABLED, Schemas.booleanSchema()
+                    .defaultValue(AbstractSessionMiddlewareOptions.DEFAULT_NEAR_CACHE_ENABLED))
+                .optionalProperty(NEAR_CACHE_MAX_ENTRIES, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractSessionMiddlewareOptions.DEFAULT_NEAR_CACHE_MAX_ENTRIES))
+                .optionalProperty(NEAR_CACHE_MAX_TTL_MS, Schemas.intSchema()
+                    .with(io.vertx.json.schema.draft7.dsl.Keywords.minimum(1))
+                    .defaultValue(AbstractSessionMiddlewareOptions.DEFAULT_NEAR_CACHE_MAX_TTL_MS))
+                .allowAdditionalProperties(false))
             .allowAdditionalProperties(false);
     }
 
@@ -130,6 +149,8 @@ public class SessionMiddlewareFactory implements MiddlewareFactory {
                 options.useLifetimeCookie(),
                 options.getLifetimeCookie(),
                 // session store
-                options.getClusteredSessionStoreRetryTimeoutMs()));
+                options.getClusteredSessionStoreRetryTimeoutMs(),
+                options.getIdleTimeoutResetIntervalSeconds(),
+                options.getNearCache()));
     }
 }
@@ -1,17 +1,33 @@
 package ch.uniport.gateway.proxy.middleware.sessionBag;
 
+import ch.uniport.gateway.proxy.middleware.session.SessionDataFormat;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.Cookie;
 import io.vertx.core.http.CookieSameSite;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.shareddata.ClusterSerializable;
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
+ * The cookies stored in a session bag.
+ * <p>
+ * Cookies are identified by their name, domain and path. They are indexed by
+ * name and by a trie of their path segments, so that looking up the cookies for
+ * a request path does not depend on the number of stored cookies. Cookies must
+ * not be modified while they are in the bag.
  */
-public class CookieBag extends HashSet<Cookie> implements ClusterSerializable {
+public class CookieBag extends AbstractSet<Cookie> implements ClusterSerializable {
 
     private static final String NAME = "name";
     private static final String VALUE = "value";
@@ -22,6 +38,16 @@ public class CookieBag extends HashSet<Cookie> implements ClusterSerializable {
     private static final String HTTP_ONLY = "httpOnly";
     private static final String SAME_SITE = "sameSite";
 
+    private static final int FLAG_SECURE = 1;
+    private static final int FLAG_HTTP_ONLY = 1 << 1;
+    // the ordinal of the same site attribute plus one, zero if it is not set
+    private static final int FLAG_SAME_SITE_SHIFT = 2;
+
+    // in insertion order of the names
+    private final Map<String, List<Cookie>> cookiesByName = new LinkedHashMap<>();
+    private final PathNode cookiesByPath = new PathNode();
+    private int size;
+
     /**
      */
     public CookieBag() {
@@ -29,12 +55,386 @@ public class CookieBag extends HashSet<Cookie> implements ClusterSerializable {
         // ClusterSerializable
     }
 
+    public CookieBag(Collection<Cookie> cookies) {
+        addAll(cookies);
+    }
+
+    /**
+     * @return the given cookies as cookie bag, without copying them if they are
+     *         one already. Sessions may contain other sets of cookies.
+     */
+    public static CookieBag of(Collection<Cookie> cookies) {
+        if (cookies == null) {
+            return new CookieBag();
+        }
+        return cookies instanceof CookieBag ? (CookieBag) cookies : new CookieBag(cookies);
+    }
+
+    /**
+     * @return the cookies whose path matches the request path, longer paths
+     *         first
+     * @see #pathMatches(String, String)
+     */
+    public List<Cookie> matching(String uriPath) {
+        final String requestPath = requestPath(uriPath);
+        final List<Cookie> matching = new ArrayList<>();
+
+        PathNode node = cookiesByPath;
+        node.addCookiesTo(matching);
+        int start = 1;
+        while (start <= requestPath.length()) {
+            final int slash = requestPath.indexOf('/', start);
+            final int end = slash < 0 ? requestPath.length() : slash;
+            node = node.child(requestPath.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            node.addCookiesTo(matching);
+            start = end + 1;
+        }
+        Collections.reverse(matching);
+        return matching;
+    }
+
+    /**
+     * @return the cookie with the given name and path, or null if there is none
+     */
+    public Cookie get(String name, String path) {
+        final List<Cookie> cookies = cookiesByName.get(name);
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (Objects.equals(cookie.getPath(), path)) {
+                return cookie;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true, if there is a cookie with the given name whose path is a
+     *         prefix of the given path
+     */
+    public boolean hasCookieWithPathPrefix(String name, String path) {
+        final List<Cookie> cookies = cookiesByName.get(name);
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookie.getPath() != null && path.startsWith(cookie.getPath())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(Cookie cookie) {
+        Objects.requireNonNull(cookie, "cookie must not be null");
+        final List<Cookie> cookies = cookiesByName.computeIfAbsent(cookie.getName(), name -> new ArrayList<>(1));
+        if (indexOf(cookies, cookie) >= 0) {
+            return false;
+        }
+        cookies.add(cookie);
+        final PathNode node = pathNode(cookie, true);
+        if (node != null) {
+            node.add(cookie);
+        }
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Cookie)) {
+            return false;
+        }
+        final Cookie cookie = (Cookie) o;
+        final List<Cookie> cookies = cookiesByName.get(cookie.getName());
+        if (cookies == null) {
+            return false;
+        }
+        final int index = indexOf(cookies, cookie);
+        if (index < 0) {
+            return false;
+        }
+        unindex(cookies.remove(index));
+        if (cookies.isEmpty()) {
+            cookiesByName.remove(cookie.getName());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Cookie)) {
+            return false;
+        }
+        final Cookie cookie = (Cookie) o;
+        final List<Cookie> cookies = cookiesByName.get(cookie.getName());
+        return cookies != null && indexOf(cookies, cookie) >= 0;
+    }
+
+    @Override
+    public void clear() {
+        cookiesByName.clear();
+        cookiesByPath.clear();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Cookie> iterator() {
+        return new Iterator<>() {
+            private final Iterator<List<Cookie>> names = cookiesByName.values().iterator();
+            private Iterator<Cookie> cookies;
+            private Iterator<Cookie> lastCookies;
+            private Cookie last;
+
+            @Override
+            public boolean hasNext() {
+                while ((cookies == null || !cookies.hasNext()) && names.hasNext()) {
+                    cookies = names.next().iterator();
+                }
+                return cookies != null && cookies.hasNext();
+            }
+
+            @Override
+            public Cookie next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = cookies.next();
+                lastCookies = cookies;
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                // an emptied list of a name is kept, so that the iteration is not disturbed
+                lastCookies.remove();
+                unindex(last);
+                last = null;
+            }
+        };
+    }
+
+    /*
+     * A request-path path-matches a given cookie-path if at least one of
+     * the following conditions holds:
+     * - The cookie-path and the request-path are identical.
+     * - The cookie-path is a prefix of the request-path, and the last
+     * character of the cookie-path is %x2F ("/").
+     * - The cookie-path is a prefix of the request-path, and the first
+     * character of the request-path that is not included in the cookie-
+     * path is a %x2F ("/") character.
+     *
+     * https://tools.ietf.org/html/rfc6265#section-5.1.4
+     *
+     * The request path is reduced as the default-path of a cookie would be, and
+     * a trailing "/" is ignored on both paths.
+     */
+    static boolean pathMatches(String cookiePath, String uriPath) {
+        if (cookiePath == null) {
+            return false;
+        }
+        final String normalizedCookiePath = cookiePath(cookiePath);
+        final String requestPath = requestPath(uriPath);
+        return requestPath.equals(normalizedCookiePath)
+            || requestPath.startsWith(normalizedCookiePath)
+                && requestPath.charAt(normalizedCookiePath.length()) == '/';
+    }
+
+    /*
+     * The user agent MUST use an algorithm equivalent to the following
+     * algorithm to compute the default-path of a cookie:
+     * 1. Let uri-path be the path portion of the request-uri if such a
+     * portion exists (and empty otherwise).
+     * 2. If the uri-path is empty or if the first character of the uri-
+     * path is not a %x2F ("/") character, output %x2F ("/") and skip
+     * the remaining steps.
+     * 3. If the uri-path contains no more than one %x2F ("/") character,
+     * output %x2F ("/") and skip the remaining step.
+     * 4. Output the characters of the uri-path from the first character up
+     * to, but not including, the right-most %x2F ("/").
+     */
+    private static String requestPath(String uriPath) {
+        if (!uriPath.startsWith("/")) {
+            return "/";
+        }
+        int end = uriPath.length();
+        while (end > 0 && uriPath.charAt(end - 1) == '/') {
+            end--;
+        }
+        int slashes = 0;
+        for (int i = 0; i < end && slashes <= 1; i++) {
+            if (uriPath.charAt(i) == '/') {
+                slashes++;
+            }
+        }
+        if (slashes <= 1) {
+            return "/";
+        }
+        return uriPath.endsWith("/") ? uriPath.substring(0, uriPath.length() - 1) : uriPath;
+    }
+
+    private static String cookiePath(String path) {
+        if (path.isEmpty()) {
+            return "/";
+        }
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static int indexOf(List<Cookie> cookies, Cookie cookie) {
+        for (int i = 0; i < cookies.size(); i++) {
+            final Cookie candidate = cookies.get(i);
+            if (Objects.equals(candidate.getPath(), cookie.getPath())
+                && Objects.equals(candidate.getDomain(), cookie.getDomain())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void unindex(Cookie cookie) {
+        final PathNode node = pathNode(cookie, false);
+        if (node != null) {
+            node.remove(cookie);
+        }
+        size--;
+    }
+
+    /**
+     * @return the node of the path of the cookie, or null if its path can never
+     *         match a request path
+     */
+    private PathNode pathNode(Cookie cookie, boolean create) {
+        if (cookie.getPath() == null) {
+            return null;
+        }
+        final String path = cookiePath(cookie.getPath());
+        if (!path.startsWith("/") && !path.isEmpty()) {
+            return null;
+        }
+        PathNode node = cookiesByPath;
+        int start = 1;
+        while (node != null && start <= path.length()) {
+            final int slash = path.indexOf('/', start);
+            final int end = slash < 0 ? path.length() : slash;
+            final String segment = path.substring(start, end);
+            node = create ? node.childOrCreate(segment) : node.child(segment);
+            start = end + 1;
+        }
+        return node;
+    }
+
+    private static final class PathNode {
+
+        private Map<String, PathNode> children;
+        private List<Cookie> cookies;
+
+        PathNode child(String segment) {
+            return children == null ? null : children.get(segment);
+        }
+
+        PathNode childOrCreate(String segment) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(segment, s -> new PathNode());
+        }
+
+        void add(Cookie cookie) {
+            if (cookies == null) {
+                cookies = new ArrayList<>(1);
+            }
+            cookies.add(cookie);
+        }
+
+        void remove(Cookie cookie) {
+            if (cookies != null) {
+                cookies.removeIf(c -> c == cookie);
+            }
+        }
+
+        void addCookiesTo(List<Cookie> matching) {
+            if (cookies != null) {
+                matching.addAll(cookies);
+            }
+        }
+
+        void clear() {
+            children = null;
+            cookies = null;
+        }
+    }
+
     @Override
     public void writeToBuffer(Buffer buffer) {
+        if (!SessionDataFormat.isEnabled()) {
+            writeLegacyToBuffer(buffer);
+            return;
+        }
+        SessionDataFormat.writeVersion(buffer);
+        SessionDataFormat.writeVarLong(buffer, size);
+        for (Cookie c : this) {
+            SessionDataFormat.writeString(buffer, c.getName());
+            SessionDataFormat.writeString(buffer, c.getValue());
+            SessionDataFormat.writeString(buffer, c.getDomain());
+            SessionDataFormat.writeString(buffer, c.getPath());
+            SessionDataFormat.writeSignedVarLong(buffer, c.getMaxAge());
+
+            int flags = 0;
+            if (c.isSecure()) {
+                flags |= FLAG_SECURE;
+            }
+            if (c.isHttpOnly()) {
+                flags |= FLAG_HTTP_ONLY;
+            }
+            if (c.getSameSite() != null) {
+                flags |= (c.getSameSite().ordinal() + 1) << FLAG_SAME_SITE_SHIFT;
+            }
+            buffer.appendByte((byte) flags);
+        }
+    }
+
+    @Override
+    public int readFromBuffer(int pos, Buffer buffer) {
+        if (SessionDataFormat.isLegacy(pos, buffer)) {
+            return readLegacyFromBuffer(pos, buffer);
+        }
+        final SessionDataFormat.Reader reader = SessionDataFormat.reader(pos, buffer);
+        final int count = reader.readVarInt();
+        for (int i = 0; i < count; i++) {
+            final Cookie c = Cookie.cookie(reader.readString(), reader.readString());
+            c.setDomain(reader.readString());
+            c.setPath(reader.readString());
+            c.setMaxAge(reader.readSignedVarLong());
+
+            final int flags = reader.readByte();
+            c.setSecure((flags & FLAG_SECURE) != 0);
+            c.setHttpOnly((flags & FLAG_HTTP_ONLY) != 0);
+            final int sameSite = flags >> FLAG_SAME_SITE_SHIFT;
+            if (sameSite > 0) {
+                c.setSameSite(CookieSameSite.values()[sameSite - 1]);
+            }
+            this.add(c);
+        }
+        return reader.position();
+    }
+
+    // readable by previous releases
+    private void writeLegacyToBuffer(Buffer buffer) {
         final JsonArray json = new JsonArray();
-        final Iterator<Cookie> itr = iterator();
-        while (itr.hasNext()) {
-            final Cookie c = itr.next();
+        for (Cookie c : this) {
             final JsonObject cookie = new JsonObject();
 
             cookie.put(NAME, c.getName());
@@ -54,8 +454,8 @@ public class CookieBag extends HashSet<Cookie> implements ClusterSerializable {
         json.writeToBuffer(buffer);
     }
 
-    @Override
-    public int readFromBuffer(int pos, Buffer buffer) {
+    // written by previous releases
+    private int readLegacyFromBuffer(int pos, Buffer buffer) {
         final JsonArray json = new JsonArray();
         final int read = json.readFromBuffer(pos, buffer);
 
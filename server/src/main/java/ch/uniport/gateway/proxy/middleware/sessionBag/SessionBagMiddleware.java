@@ -1,19 +1,22 @@
 package ch.uniport.gateway.proxy.middleware.sessionBag;
 
+import ch.uniport.gateway.proxy.middleware.RequestCookies;
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import io.netty.handler.codec.http.cookie.ClientCookieDecoder;
 import io.opentelemetry.api.trace.Span;
 import io.vertx.core.MultiMap;
 import io.vertx.core.http.Cookie;
 import io.vertx.core.http.HttpHeaders;
-import io.vertx.core.http.impl.ServerCookie;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.PlatformHandler;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,14 +36,13 @@ public class SessionBagMiddleware extends TraceMiddleware implements PlatformHan
     public static final String SESSION_BAG_COOKIES = "sessionBagCookies";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SessionBagMiddleware.class);
-    // https://github.com/vert-x3/vertx-web/issues/1716
-    private static final String COOKIE_DELIMITER = "; "; // RFC 6265 4.2.1
 
     private final String name;
     // These cookies are allowed to be passed back to the user agent.
     // This is required for some frontend logic to work properly
     // (e.g. for keycloak login logic of its admin console)
-    private final List<WhitelistedCookieOptions> whitelistedCookies;
+    // paths of the whitelisted cookies by their names
+    private final Map<String, Set<String>> whitelistedCookies;
     private final String sessionCookieName;
 
     public SessionBagMiddleware(
@@ -52,13 +54,17 @@ public class SessionBagMiddleware extends TraceMiddleware implements PlatformHan
         Objects.requireNonNull(sessionCookieName, "sessionCookieName must not be null");
 
         this.name = name;
-        this.whitelistedCookies = whitelistedCookies.stream().map(WhitelistedCookieOptions::copyOf).toList();
+        this.whitelistedCookies = new HashMap<>();
+        for (WhitelistedCookieOptions whitelistedCookie : whitelistedCookies) {
+            this.whitelistedCookies.computeIfAbsent(whitelistedCookie.getName(), n -> new HashSet<>())
+                .add(whitelistedCookie.getPath());
+        }
         this.sessionCookieName = sessionCookieName;
     }
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         if (ctx.session() == null) {
             LOGGER.debug("No session initialized. Skipping session bag middleware");
@@ -66,15 +72,8 @@ public class SessionBagMiddleware extends TraceMiddleware implements PlatformHan
             return;
         }
 
-        // load request cookies
-        final Set<ServerCookie> requestCookies = cookies(ctx);
-        ctx.request().headers().remove(HttpHeaders.COOKIE);
-
         // on incoming request: set cookie from session bag if present
-        final String cookieHeaderValue = loadCookiesFromSessionBag(ctx, requestCookies);
-        if (cookieHeaderValue != null && !cookieHeaderValue.isEmpty()) {
-            ctx.request().headers().add(HttpHeaders.COOKIE.toString(), cookieHeaderValue);
-        }
+        loadCookiesFromSessionBag(ctx, requestCookies(ctx));
 
         // on outgoing response: remove cookies if present and store them in session bag
         ctx.addHeadersEndHandler(v -> storeCookiesInSessionBag(ctx, ctx.response().headers()));
@@ -83,123 +82,52 @@ public class SessionBagMiddleware extends TraceMiddleware implements PlatformHan
         ctx.next();
     }
 
-    private Set<ServerCookie> cookies(RoutingContext ctx) {
-        // we need to be able to handle invalid cookies as well, hence we parse the
-        // cookie header our self and use a custom cookie jar that disables validation
-        final String cookieHeader = ctx.request().headers().get(HttpHeaders.COOKIE);
-        if (cookieHeader == null) {
-            return new LaxCookieJar();
-        }
-        return new LaxCookieJar(cookieHeader);
-    }
-
     /**
+     * Replaces the request cookies by the matching cookies of the session bag,
+     * followed by the conflict free request cookies.
      *
      * @param ctx
-     * @param requestCookies
-     * @return
+     * @param cookies
+     *            of the request, modified in place
      */
-    private String loadCookiesFromSessionBag(RoutingContext ctx, Set<ServerCookie> requestCookies) {
+    private void loadCookiesFromSessionBag(RoutingContext ctx, RequestCookies cookies) {
         final Set<Cookie> storedCookies = ctx.session().get(SESSION_BAG_COOKIES);
-        final List<String> outgoingCookies = loadMatchingCookies(storedCookies, ctx.request().path(),
-            ctx.request().isSSL());
-
-        return appendEncodedConflictFreeCookies(ctx.request().path(), outgoingCookies, requestCookies, storedCookies);
-    }
+        final CookieBag cookieBag = storedCookies != null ? CookieBag.of(storedCookies) : null;
+        final String path = ctx.request().path();
 
-    private List<String> loadMatchingCookies(Set<Cookie> storedCookies, String path, boolean isSSL) {
-        if (storedCookies == null) {
-            return new ArrayList<>();
-        }
-
-        final List<String> encodedStoredCookies = new ArrayList<>();
-        for (Cookie storedCookie : storedCookies) {
-            if (cookieMatchesRequest(storedCookie, isSSL, path)) {
-                LOGGER.debug("Adding cookie '{}' to request", storedCookie.getName());
-                encodedStoredCookies.add(encodeCooke(storedCookie.getName(), storedCookie.getValue()));
-            }
-        }
-        return encodedStoredCookies;
-    }
+        final List<Cookie> requestCookies = new ArrayList<>();
+        cookies.forEach(requestCookies::add);
+        cookies.clear();
 
-    private boolean cookieMatchesRequest(Cookie cookie, boolean isSSL, String path) {
-        if (matchesSSL(cookie, isSSL) && matchesPath(cookie, path)) {
-            return true;
-        }
-        LOGGER.debug("Ignoring cookie '{}', match path = '{}', match ssl = '{}'", cookie.getName(),
-            matchesPath(cookie, path), matchesSSL(cookie, isSSL));
-        return false;
-    }
-
-    private boolean matchesSSL(Cookie cookie, boolean isSSL) {
-        // hardcoded to true, necessary for Keycloak login flow, otherwise special
-        // handling for Keycloak
-        // cookies `AUTH_SESSION` and `AUTH_SESSION_LEGACY` is required. Keycloak seems
-        // to set the secure
-        // flag on both cookies if the request is forwarded via HTTPS, even if the
-        // Uniport-Gateway --> Keycloak
-        // connection is HTTP.
-        return true;
+        addMatchingCookies(cookies, cookieBag, path);
+        addConflictFreeCookies(cookies, path, requestCookies, cookieBag);
     }
 
     /*
-     * The user agent MUST use an algorithm equivalent to the following
-     * algorithm to compute the default-path of a cookie:
-     * 1. Let uri-path be the path portion of the request-uri if such a
-     * portion exists (and empty otherwise). For example, if the
-     * request-uri contains just a path (and optional query string),
-     * then the uri-path is that path (without the %x3F ("?") character
-     * or query string), and if the request-uri contains a full
-     * absoluteURI, the uri-path is the path component of that URI.
-     * 2. If the uri-path is empty or if the first character of the uri-
-     * path is not a %x2F ("/") character, output %x2F ("/") and skip
-     * the remaining steps.
-     * 3. If the uri-path contains no more than one %x2F ("/") character,
-     * output %x2F ("/") and skip the remaining step.
-     * 4. Output the characters of the uri-path from the first character up
-     * to, but not including, the right-most %x2F ("/").
-     * 
-     * A request-path path-matches a given cookie-path if at least one of
-     * the following conditions holds:
-     * - The cookie-path and the request-path are identical.
-     * - The cookie-path is a prefix of the request-path, and the last
-     * character of the cookie-path is %x2F ("/").
-     * - The cookie-path is a prefix of the request-path, and the first
-     * character of the request-path that is not included in the cookie-
-     * path is a %x2F ("/") character.
-     * 
-     * https://tools.ietf.org/html/rfc6265#section-5.1.4
+     * The secure flag is ignored, it is necessary for Keycloak login flow,
+     * otherwise special handling for Keycloak cookies `AUTH_SESSION` and
+     * `AUTH_SESSION_LEGACY` is required. Keycloak seems to set the secure flag on
+     * both cookies if the request is forwarded via HTTPS, even if the
+     * Uniport-Gateway --> Keycloak connection is HTTP.
      */
-    private boolean matchesPath(Cookie cookie, String uriPath) {
-        final String requestPath;
-        if (!uriPath.startsWith("/") || uriPath.split("/").length - 1 <= 1) {
-            requestPath = "/";
-        } else {
-            requestPath = uriPath.endsWith("/") ? uriPath.substring(0, uriPath.length() - 1) : uriPath;
-        }
-
-        if (cookie.getPath() == null) {
-            return false;
+    private void addMatchingCookies(RequestCookies cookies, CookieBag storedCookies, String path) {
+        if (storedCookies == null) {
+            return;
         }
 
-        final String cookiePath;
-        if (cookie.getPath().isEmpty()) {
-            cookiePath = "/";
-        } else {
-            cookiePath = cookie.getPath().endsWith("/") ? cookie.getPath().substring(0, cookie.getPath().length() - 1)
-                : cookie.getPath();
+        for (Cookie storedCookie : storedCookies.matching(path)) {
+            LOGGER.debug("Adding cookie '{}' to request", storedCookie.getName());
+            cookies.add(storedCookie);
         }
-        final String regex = String.format("^%s(\\/.*)?$", escapeSpecialRegexChars(cookiePath));
-        return Pattern.compile(regex).matcher(requestPath).matches();
     }
 
     /**
      * check for conflicting request and stored cookies
      * stored cookie have precedence to avoid cookie injection
      */
-    private String appendEncodedConflictFreeCookies(
-        String path, List<String> outgoingCookies,
-        Set<ServerCookie> requestCookies, Set<Cookie> storedCookies
+    private void addConflictFreeCookies(
+        RequestCookies cookies, String path,
+        List<Cookie> requestCookies, CookieBag storedCookies
     ) {
         for (Cookie requestCookie : requestCookies) {
             if (hasMatchingCookieOnPath(storedCookies, requestCookie, path)
@@ -207,13 +135,8 @@ public class SessionBagMiddleware extends TraceMiddleware implements PlatformHan
                 LOGGER.debug("Ignoring cookie '{}' from request.", requestCookie.getName());
                 continue;
             }
-            outgoingCookies.add(encodeCooke(requestCookie.getName(), requestCookie.getValue()));
+            cookies.add(requestCookie);
         }
-        return String.join(COOKIE_DELIMITER, outgoingCookies);
-    }
-
-    private String encodeCooke(String name, String value) {
-        return String.format("%s=%s", name, value);
     }
 
     private void storeCookiesInSessionBag(RoutingContext ctx, MultiMap headers) {
@@ -226,10 +149,7 @@ public class SessionBagMiddleware extends TraceMiddleware implements PlatformHan
         LOGGER.debug("Set-Cookie detected. Removing and storing in session with id '{}'.", ctx.session().id());
         headers.remove(HttpHeaders.SET_COOKIE);
 
-        Set<Cookie> storedCookies = ctx.session().get(SESSION_BAG_COOKIES);
-        if (storedCookies == null) {
-            storedCookies = new CookieBag();
-        }
+        final CookieBag storedCookies = CookieBag.of(ctx.session().get(SESSION_BAG_COOKIES));
 
         for (String cookieToSet : cookiesToSet) {
             final Cookie decodedCookieToSet = CookieUtil
@@ -263,7 +183,7 @@ public class SessionBagMiddleware extends TraceMiddleware implements PlatformHan
      * Cookies can be deleted by sending a new cookie with an Expires
      * attribute with a value in the past.
      */
-    private void updateSessionBag(Set<Cookie> storedCookies, Cookie newCookie) {
+    private void updateSessionBag(CookieBag storedCookies, Cookie newCookie) {
         if (newCookie.getName() == null) {
             LOGGER.warn("Ignoring cookie without a name");
             return;
@@ -272,7 +192,7 @@ public class SessionBagMiddleware extends TraceMiddleware implements PlatformHan
             newCookie.setPath("/");
         }
 
-        final Cookie foundCookie = findMatchingCookie(storedCookies, newCookie);
+        final Cookie foundCookie = storedCookies.get(newCookie.getName(), newCookie.getPath());
         if (foundCookie != null) {
             final boolean expired = (foundCookie.getMaxAge() == 0L);
             storedCookies.remove(foundCookie);
@@ -290,38 +210,17 @@ public class SessionBagMiddleware extends TraceMiddleware implements PlatformHan
         storedCookies.add(newCookie);
     }
 
-    private String escapeSpecialRegexChars(String regex) {
-        return regex.replace("\\", "\\\\").replace("^", "\\^").replace("$", "\\$").replace(".", "\\.")
-            .replace("|", "\\.").replace("?", "\\?").replace("*", "\\*").replace("+", "\\+").replace("(", "\\(")
-            .replace(")", "\\)").replace("[", "\\[").replace("]", "\\]").replace("{", "\\{").replace("}", "\\}");
-    }
-
-    private Cookie findMatchingCookie(Set<Cookie> set, Cookie cookie) {
-        return set.stream()
-            .filter(c -> c.getName().equals(cookie.getName()) && c.getPath().equals(cookie.getPath()))
-            .findFirst()
-            .orElse(null);
-    }
-
-    private boolean hasMatchingCookieOnPath(Set<Cookie> set, Cookie cookie, String path) {
-        if (set == null) {
-            return false;
-        }
-
-        return set.stream()
-            .filter(c -> c.getName().equals(cookie.getName()) && path.startsWith(c.getPath()))
-            .findFirst()
-            .isPresent();
+    private boolean hasMatchingCookieOnPath(CookieBag storedCookies, Cookie cookie, String path) {
+        return storedCookies != null && storedCookies.hasCookieWithPathPrefix(cookie.getName(), path);
     }
 
     private boolean isWhitelisted(Cookie cookie) {
-        return whitelistedCookies.stream()
-            .anyMatch(c -> c.getName().equals(cookie.getName()) && c.getPath().equals(cookie.getPath()));
+        final Set<String> paths = whitelistedCookies.get(cookie.getName());
+        return paths != null && paths.contains(cookie.getPath());
     }
 
     private boolean isWhitelistedIgnoringPath(Cookie cookie) {
-        return whitelistedCookies.stream()
-            .anyMatch(c -> c.getName().equals(cookie.getName()));
+        return whitelistedCookies.containsKey(cookie.getName());
     }
 
     private boolean isSessionCookie(Cookie cookie) {
@@ -7,6 +7,7 @@ import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERR
 import static io.vertx.core.http.HttpHeaders.APPLICATION_X_WWW_FORM_URLENCODED;
 
 import ch.uniport.gateway.proxy.middleware.HttpResponder;
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
 import ch.uniport.gateway.proxy.middleware.authorization.JWKAccessibleAuthHandler;
 import ch.uniport.gateway.proxy.middleware.log.SessionAdapter;
@@ -80,7 +81,7 @@ public class BackChannelLogoutMiddleware extends TraceMiddleware {
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
         if (!isBackChannelLogoutRequest(ctx.request())) {
             LOGGER.warn("invalid back channel logout request");
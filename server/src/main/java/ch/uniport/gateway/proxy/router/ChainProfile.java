@@ -0,0 +1,63 @@
+package ch.uniport.gateway.proxy.router;
+
+import io.vertx.core.AsyncResult;
+
+/**
+ * The middleware of a request currently in charge. A middleware is in charge
+ * from when it is entered until the next middleware is entered or the
+ * response ends.
+ * <p>
+ * Only accessed from the event loop of the request.
+ */
+final class ChainProfile {
+
+    private final MiddlewareProfiler profiler;
+
+    private MiddlewareProfiler.Stats current;
+    private long enteredAt;
+    private long allocatedAtEntry;
+    private boolean allocationRecorded;
+
+    ChainProfile(MiddlewareProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    void enter(MiddlewareProfiler.Stats stats) {
+        final long now = profiler.now();
+        final long allocated = profiler.allocatedBytes();
+        if (current != null) {
+            // the current middleware calls the next one synchronously
+            recordAllocation(allocated);
+            current.recordDuration(now - enteredAt);
+        }
+        current = stats;
+        enteredAt = now;
+        allocatedAtEntry = allocated;
+        allocationRecorded = false;
+    }
+
+    /**
+     * Called when the handle method of a middleware returns. Whatever it
+     * allocates asynchronously afterwards is not measured.
+     */
+    void returned(MiddlewareProfiler.Stats stats) {
+        if (current == stats) {
+            recordAllocation(profiler.allocatedBytes());
+        }
+    }
+
+    void end(AsyncResult<Void> ignored) {
+        if (current != null) {
+            current.recordDuration(profiler.now() - enteredAt);
+            current = null;
+        }
+    }
+
+    private void recordAllocation(long allocated) {
+        if (allocationRecorded || allocated < 0 || allocatedAtEntry < 0) {
+            return;
+        }
+        current.recordAllocation(allocated - allocatedAtEntry);
+        allocationRecorded = true;
+    }
+}
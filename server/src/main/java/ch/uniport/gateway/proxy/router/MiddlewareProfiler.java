@@ -0,0 +1,222 @@
+package ch.uniport.gateway.proxy.router;
+
+import ch.uniport.gateway.MeterRegistries;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the time spent in every middleware of the router chains, shared by
+ * all verticle instances.
+ * <p>
+ * The time of a middleware is measured from when it is called until the next
+ * middleware is called or the response ends, including the time it waits for
+ * asynchronous operations. Optionally, the memory allocated by a middleware
+ * until it calls the next middleware or returns is measured with the
+ * allocation counter of the current thread. Memory allocated by asynchronous
+ * continuations is not taken into account.
+ * <p>
+ * The following metric is provided:
+ * <ul>
+ * <li>{@code uniport.gateway.middleware.duration}: timer with the tags
+ * {@code router}, {@code middleware} and {@code type}</li>
+ * </ul>
+ */
+public final class MiddlewareProfiler {
+
+    static final String METRIC_NAME = "uniport.gateway.middleware.duration";
+
+    public static final String SORT_BY_MEAN = "mean";
+    public static final String SORT_BY_TOTAL = "total";
+    public static final String SORT_BY_ALLOCATION = "allocation";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MiddlewareProfiler.class);
+
+    private static final MiddlewareProfiler INSTANCE = new MiddlewareProfiler(System::nanoTime);
+
+    private final Map<Key, Stats> stats = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final long startedAtNanos;
+    private final com.sun.management.ThreadMXBean threads;
+
+    private volatile boolean allocationTracking;
+
+    MiddlewareProfiler(LongSupplier clock) {
+        this.clock = clock;
+        this.startedAtNanos = clock.getAsLong();
+        this.threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t
+            && t.isThreadAllocatedMemorySupported() ? t : null;
+    }
+
+    public static MiddlewareProfiler instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Measures the allocations of middlewares from now on. Costs two reads of
+     * the allocation counter of the current thread per middleware and request.
+     */
+    public void enableAllocationTracking() {
+        if (threads == null) {
+            LOGGER.warn("Allocation tracking is not supported by this JVM");
+            return;
+        }
+        if (!threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        allocationTracking = true;
+    }
+
+    /**
+     * @return the stats of a middleware in a router chain, registered on first
+     *         use and shared by all chains of the same router. Every chain has
+     *         to {@link #release(Stats)} them once it is removed.
+     */
+    Stats stats(String router, String middleware, String type) {
+        return stats.compute(new Key(router, middleware, type), (key, existing) -> {
+            final Stats s = existing != null ? existing : new Stats(key);
+            s.owners++;
+            return s;
+        });
+    }
+
+    /**
+     * Releases the stats of a removed router chain. They are removed together
+     * with their timer, when the last chain releases them.
+     */
+    void release(Stats released) {
+        stats.computeIfPresent(released.key, (key, existing) -> {
+            if (existing != released || --existing.owners > 0) {
+                return existing;
+            }
+            existing.removeTimer();
+            return null;
+        });
+    }
+
+    long now() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or -1 if
+     *         allocation tracking is disabled
+     */
+    long allocatedBytes() {
+        return allocationTracking ? threads.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * @param sortBy
+     *            one of {@value #SORT_BY_MEAN}, {@value #SORT_BY_TOTAL} or
+     *            {@value #SORT_BY_ALLOCATION}
+     * @return the first {@code limit} middlewares, the most expensive first
+     */
+    public JsonArray top(int limit, String sortBy) {
+        final Comparator<Stats> order = switch (sortBy.toLowerCase(Locale.ROOT)) {
+            case SORT_BY_TOTAL -> Comparator.comparingLong(Stats::totalNanos);
+            case SORT_BY_ALLOCATION -> Comparator.comparingDouble(Stats::meanAllocatedBytes);
+            case SORT_BY_MEAN -> Comparator.comparingDouble(Stats::meanNanos);
+            default -> throw new IllegalArgumentException(String.format("unknown sort order '%s'", sortBy));
+        };
+        final double uptimeSeconds = Math.max(1, clock.getAsLong() - startedAtNanos) / 1e9;
+        final JsonArray result = new JsonArray();
+        stats.values().stream()
+            .filter(s -> s.count() > 0)
+            .sorted(order.reversed())
+            .limit(limit)
+            .forEach(s -> result.add(s.toJson(uptimeSeconds, allocationTracking)));
+        return result;
+    }
+
+    private record Key(String router, String middleware, String type) {
+    }
+
+    /**
+     * The measurements of a middleware in a router chain.
+     */
+    static final class Stats {
+
+        private final Key key;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder allocationSamples = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final MeterRegistry registry;
+        private final Timer timer;
+        // guarded by the map entry
+        private int owners;
+
+        private Stats(Key key) {
+            this.key = key;
+            this.registry = MeterRegistries.getDefault();
+            this.timer = Timer.builder(METRIC_NAME)
+                .description("Time spent in a middleware of a router")
+                .tags("router", key.router, "middleware", key.middleware, "type", key.type)
+                .register(registry);
+        }
+
+        void recordDuration(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void removeTimer() {
+            registry.remove(timer);
+        }
+
+        void recordAllocation(long bytes) {
+            allocationSamples.increment();
+            allocatedBytes.add(bytes);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        double meanNanos() {
+            final long n = count.sum();
+            return n == 0 ? 0 : (double) totalNanos.sum() / n;
+        }
+
+        double meanAllocatedBytes() {
+            final long n = allocationSamples.sum();
+            return n == 0 ? 0 : (double) allocatedBytes.sum() / n;
+        }
+
+        JsonObject toJson(double uptimeSeconds, boolean allocationTracking) {
+            final JsonObject json = new JsonObject()
+                .put("router", key.router)
+                .put("middleware", key.middleware)
+                .put("type", key.type)
+                .put("count", count())
+                .put("meanMs", meanNanos() / 1e6)
+                .put("maxMs", maxNanos.get() / 1e6)
+                .put("totalMs", totalNanos() / 1e6);
+            if (allocationTracking) {
+                json.put("allocatedBytesPerRequest", meanAllocatedBytes())
+                    .put("allocatedBytesPerSecond", allocatedBytes.sum() / uptimeSeconds);
+            }
+            return json;
+        }
+    }
+}
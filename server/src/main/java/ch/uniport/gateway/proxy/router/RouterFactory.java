@@ -15,6 +15,7 @@ import ch.uniport.gateway.proxy.middleware.oauth2.OAuth2MiddlewareFactory;
 import ch.uniport.gateway.proxy.middleware.oauth2.OAuth2MiddlewareOptions;
 import ch.uniport.gateway.proxy.middleware.oauth2.OAuth2RegistrationMiddlewareFactory;
 import ch.uniport.gateway.proxy.middleware.oauth2.OAuth2RegistrationMiddlewareOptions;
+import ch.uniport.gateway.proxy.service.ReverseProxy;
 import ch.uniport.gateway.proxy.service.ReverseProxyFactory;
 import com.google.common.collect.ImmutableList;
 import io.vertx.core.Future;
@@ -22,6 +23,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.HostAndPort;
 import io.vertx.ext.healthchecks.HealthCheckHandler;
 import io.vertx.ext.healthchecks.HealthChecks;
 import io.vertx.ext.healthchecks.Status;
@@ -31,6 +33,7 @@ import io.vertx.ext.web.RoutingContext;
 import io.vertx.spi.cluster.hazelcast.ClusterHealthCheck;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +57,12 @@ import org.slf4j.LoggerFactory;
  * well. To avoid path overlap, routes are sorted, by default, in descending
  * order using rules length. The priority is directly equal to the length of the
  * rule, and so the longest length has the highest priority.
+ * The rules of all routers are compiled into a {@link RoutingTable}, so that
+ * selecting the router of a request does not scale with the number of routers.
+ * A router factory remembers the routers and proxies it created last. On the
+ * next dynamic configuration only the routers whose router, middleware or
+ * service configuration changed are rebuilt, and proxies of unchanged services
+ * are reused together with their connection pools.
  */
 public class RouterFactory {
 
@@ -63,6 +72,9 @@ public class RouterFactory {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RouterFactory.class);
 
+    // type of the reverse proxy at the end of a middleware chain, as measured by the MiddlewareProfiler
+    private static final String SERVICE_TYPE = "service";
+
     private static final String PATH_RULE_NAME = "Path";
     private static final String PATH_REGEX_RULE_NAME = "PathRegex";
     private static final String PATH_PREFIX_RULE_NAME = "PathPrefix";
@@ -129,10 +141,20 @@ public class RouterFactory {
     private static final Pattern HOST_PATTERN = Pattern.compile("^[" + IP_LITERAL + IPV4 + REG_NAME + "]+$");
     private static final Pattern PATH_PATTERN = Pattern.compile("^\\/[" + PCHAR + "\\/]*$");
 
+    /**
+     * Proxies of changed or removed services may still be used by requests in
+     * flight on the previous router. Their clients are closed after this delay.
+     */
+    private static final long RETIRED_PROXY_CLOSE_DELAY_MS = 60_000;
+
     private final Vertx vertx;
     private final PublicProtoHostPort publicProtoHostPort;
     private final String entrypointName;
 
+    // routers and proxies of the last successfully created router, by name
+    private Map<String, CachedSubRouter> subRouterCache = Map.of();
+    private Map<String, CachedProxy> proxyCache = Map.of();
+
     /**
      * Validates a router config i.e. with a valid rule.
      * 
@@ -209,6 +231,9 @@ public class RouterFactory {
         final ImmutableList<ServiceModel> services = model.getServices();
 
         LOGGER.debug("Creating router from config");
+        final Map<String, CachedSubRouter> nextSubRouters = new HashMap<>();
+        final Map<String, CachedProxy> nextProxies = new HashMap<>();
+        final List<RouterModel> mountedRouters = new ArrayList<>();
         final List<Future<Router>> subRouters = new ArrayList<>();
         for (RouterModel r : routers) {
 
@@ -226,7 +251,8 @@ public class RouterFactory {
                 continue;
             }
 
-            subRouters.add(createSubRouter(r, middlewares, services));
+            mountedRouters.add(r);
+            subRouters.add(getOrCreateSubRouter(r, middlewares, services, nextSubRouters, nextProxies));
         }
 
         final GatewayRouterInternal router = GatewayRouterInternal.router(this.vertx, "root");
@@ -235,19 +261,246 @@ public class RouterFactory {
         addHealthRoute(router);
 
         return Future.join(subRouters)
-            .onFailure(err -> LOGGER.error("Route creation failed: {}", err))
+            .onFailure(err -> {
+                LOGGER.error("Route creation failed: {}", err);
+                // the previous router stays in place, so only proxies created for this one are discarded
+                retireProxies(nextProxies, proxyCache, 0);
+                retireSubRouters(nextSubRouters, subRouterCache);
+            })
             .onSuccess(ar -> {
-                for (Future<Router> subRouter : subRouters) {
-                    router.mountSubRouter("/", subRouter.result());
-                }
+                mountSubRouters(router, mountedRouters, subRouters);
+                retireProxies(proxyCache, nextProxies, RETIRED_PROXY_CLOSE_DELAY_MS);
+                retireSubRouters(subRouterCache, nextSubRouters);
+                subRouterCache = nextSubRouters;
+                proxyCache = nextProxies;
                 LOGGER.debug("Router '{}' created successfully", router.getName());
             })
             .map(router);
     }
 
-    private Future<Router> createSubRouter(
+    /**
+     * A sub router is reused if its router configuration and the configurations
+     * of all its middlewares and its service are equal to the ones it was
+     * created with. Middlewares are reused together with their sub router only,
+     * since they may have registered additional routes on it.
+     */
+    private Future<Router> getOrCreateSubRouter(
+        RouterModel routerConfig, ImmutableList<MiddlewareModel> middlewares,
+        ImmutableList<ServiceModel> services, Map<String, CachedSubRouter> nextSubRouters,
+        Map<String, CachedProxy> nextProxies
+    ) {
+        final String routerName = routerConfig.getName();
+        final SubRouterKey key = subRouterKey(routerConfig, middlewares, services);
+
+        final CachedSubRouter cached = subRouterCache.get(routerName);
+        if (key != null && cached != null && cached.key().equals(key)) {
+            LOGGER.debug("Router '{}' is unchanged, reusing it", routerName);
+            // keep the proxy of the reused sub router alive
+            final String serviceName = key.service().getName();
+            if (!nextProxies.containsKey(serviceName) && proxyCache.containsKey(serviceName)) {
+                nextProxies.put(serviceName, proxyCache.get(serviceName));
+            }
+            nextSubRouters.put(routerName, cached);
+            return Future.succeededFuture(cached.router());
+        }
+
+        LOGGER.debug("Router '{}' is new or changed, creating it", routerName);
+        final List<Runnable> releases = new ArrayList<>();
+        return createSubRouter(routerConfig, middlewares, services, nextProxies, releases)
+            // sub routers without a key are never reused, but tracked to release their meters
+            .onSuccess(subRouter -> nextSubRouters.put(routerName, new CachedSubRouter(key, subRouter, releases)));
+    }
+
+    private SubRouterKey subRouterKey(
         RouterModel routerConfig, ImmutableList<MiddlewareModel> middlewares,
         ImmutableList<ServiceModel> services
+    ) {
+        final List<MiddlewareModel> middlewareConfigs = new ArrayList<>();
+        for (String middlewareName : routerConfig.getMiddlewares()) {
+            final Optional<MiddlewareModel> middlewareConfig = findMiddleware(middlewares, middlewareName);
+            if (middlewareConfig.isEmpty()) {
+                return null;
+            }
+            middlewareConfigs.add(middlewareConfig.get());
+        }
+
+        final Optional<ServiceModel> serviceConfig = findService(services, routerConfig.getService());
+        if (serviceConfig.isEmpty()) {
+            return null;
+        }
+        return new SubRouterKey(routerConfig, middlewareConfigs, serviceConfig.get());
+    }
+
+    /**
+     * Proxies are shared by all routers of a service and reused as long as the
+     * service configuration is unchanged.
+     */
+    private Future<ReverseProxy> getOrCreateProxy(ServiceModel serviceConfig, Map<String, CachedProxy> nextProxies) {
+        final String serviceName = serviceConfig.getName();
+        final CachedProxy next = nextProxies.get(serviceName);
+        if (next != null && next.service().equals(serviceConfig)) {
+            return next.proxy();
+        }
+
+        final CachedProxy cached = proxyCache.get(serviceName);
+        if (cached != null && cached.service().equals(serviceConfig) && !cached.proxy().failed()) {
+            LOGGER.debug("Service '{}' is unchanged, reusing its proxy", serviceName);
+            nextProxies.put(serviceName, cached);
+            return cached.proxy();
+        }
+
+        final Future<ReverseProxy> proxy = ReverseProxyFactory.of(vertx, serviceName, serviceConfig);
+        nextProxies.put(serviceName, new CachedProxy(serviceConfig, proxy));
+        return proxy;
+    }
+
+    /**
+     * Closes all proxies in {@code retired} that are not part of {@code kept}.
+     */
+    private void retireProxies(Map<String, CachedProxy> retired, Map<String, CachedProxy> kept, long delayMs) {
+        for (Map.Entry<String, CachedProxy> entry : retired.entrySet()) {
+            final CachedProxy keptProxy = kept.get(entry.getKey());
+            if (keptProxy != null && keptProxy.proxy() == entry.getValue().proxy()) {
+                continue;
+            }
+
+            entry.getValue().proxy().onSuccess(proxy -> {
+                LOGGER.debug("Closing proxy of service '{}' in {} ms", entry.getKey(), delayMs);
+                if (delayMs > 0) {
+                    vertx.setTimer(delayMs, id -> proxy.close());
+                } else {
+                    proxy.close();
+                }
+            });
+        }
+    }
+
+    /**
+     * Releases the profiler stats and meters of all sub routers in
+     * {@code retired} that are not part of {@code kept}.
+     */
+    private void retireSubRouters(Map<String, CachedSubRouter> retired, Map<String, CachedSubRouter> kept) {
+        for (Map.Entry<String, CachedSubRouter> entry : retired.entrySet()) {
+            if (kept.get(entry.getKey()) == entry.getValue()) {
+                continue;
+            }
+            entry.getValue().releases().forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Instead of mounting every sub router on its own, consecutive sub routers
+     * are compiled into a {@link RoutingTable}, which selects the matching sub
+     * router with a single lookup. Sub routers with additional routes, e.g. the
+     * callback route of the OAuth2 middleware, may match requests outside of
+     * their rule and are therefore still mounted on their own. The mounting
+     * order, and with it the priority of the routers, is retained.
+     */
+    private void mountSubRouters(
+        GatewayRouterInternal router, List<RouterModel> routerConfigs,
+        List<Future<Router>> subRouters
+    ) {
+        RoutingTable.Builder<Router> table = null;
+        for (int i = 0; i < subRouters.size(); i++) {
+            final Router subRouter = subRouters.get(i).result();
+            if (hasAdditionalRoutes(subRouter)) {
+                mountRoutingTable(router, table);
+                table = null;
+                router.mountSubRouter("/", subRouter);
+                continue;
+            }
+
+            if (table == null) {
+                table = RoutingTable.builder();
+            }
+            addToRoutingTable(table, routerConfigs.get(i).getRule(), subRouter);
+        }
+        mountRoutingTable(router, table);
+    }
+
+    private boolean hasAdditionalRoutes(Router subRouter) {
+        // every sub router has at least the route for its rule
+        return subRouter.getRoutes().size() > 1;
+    }
+
+    private void mountRoutingTable(GatewayRouterInternal router, RoutingTable.Builder<Router> tableBuilder) {
+        if (tableBuilder == null) {
+            return;
+        }
+        final RoutingTable<Router> table = tableBuilder.build();
+        LOGGER.debug("Mounting routing table with '{}' routers", table.size());
+
+        // the selected sub router still verifies its rule on its own route,
+        // if it does not match, the request is passed on to the next route
+        router.route()
+            .setName(String.format("routing table (%d routers)", table.size()))
+            .handler(ctx -> {
+                final Router subRouter = lookup(table, ctx);
+                if (subRouter == null) {
+                    ctx.next();
+                    return;
+                }
+                subRouter.handleContext(ctx);
+            })
+            .failureHandler(ctx -> {
+                final Router subRouter = lookup(table, ctx);
+                if (subRouter == null) {
+                    ctx.next();
+                    return;
+                }
+                subRouter.handleFailure(ctx);
+            });
+    }
+
+    private Router lookup(RoutingTable<Router> table, RoutingContext ctx) {
+        final HostAndPort authority = ctx.request().authority();
+        final String host = authority != null ? authority.host() : null;
+        return table.lookup(host, ctx.normalizedPath());
+    }
+
+    private void addToRoutingTable(RoutingTable.Builder<Router> table, String rule, Router subRouter) {
+        final Matcher m = RULE_PATTERN.matcher(rule);
+        if (!m.matches()) {
+            // rules are parsed before the sub router is created
+            throw new IllegalStateException(String.format("illegal rule format: '%s'", rule));
+        }
+
+        final String ruleValue = m.group("ruleValue");
+        switch (m.group("ruleName")) {
+            case PATH_RULE_NAME: {
+                table.path(ruleValue, subRouter);
+                return;
+            }
+            case PATH_REGEX_RULE_NAME: {
+                table.pathRegex(ruleValue, subRouter);
+                return;
+            }
+            case PATH_PREFIX_RULE_NAME: {
+                table.pathPrefix(ruleValue, subRouter);
+                return;
+            }
+            case PATH_PREFIX_REGEX_RULE_NAME: {
+                table.pathPrefixRegex(ruleValue, subRouter);
+                return;
+            }
+            case HOST_RULE_NAME: {
+                table.host(ruleValue, subRouter);
+                return;
+            }
+            case HOST_REGEX_RULE_NAME: {
+                table.hostRegex(ruleValue, subRouter);
+                return;
+            }
+            default: {
+                throw new IllegalStateException(String.format("unknown rule: '%s'", rule));
+            }
+        }
+    }
+
+    private Future<Router> createSubRouter(
+        RouterModel routerConfig, ImmutableList<MiddlewareModel> middlewares,
+        ImmutableList<ServiceModel> services, Map<String, CachedProxy> nextProxies,
+        List<Runnable> releases
     ) {
         final String routerName = routerConfig.getName();
         final Router router = GatewayRouterInternal.router(this.vertx, String.format("rule matcher %s", routerName));
@@ -262,12 +515,11 @@ public class RouterFactory {
         final Route route = routingRule.apply(router).last();
 
         final List<Future<?>> middlewareFutures = new ArrayList<>();
+        final List<ChainElement> chainElements = new ArrayList<>();
 
         final ImmutableList<String> middlewareNames = routerConfig.getMiddlewares();
         for (String middlewareName : middlewareNames) {
-            final Optional<MiddlewareModel> middlewareConfig = middlewares.stream()
-                .filter(m -> m.getName().equals(middlewareName))
-                .findFirst();
+            final Optional<MiddlewareModel> middlewareConfig = findMiddleware(middlewares, middlewareName);
 
             if (middlewareConfig.isEmpty()) {
                 final String errMsg = String.format("Failed to find middleware '%s' in router '%s'", middlewareName,
@@ -277,12 +529,11 @@ public class RouterFactory {
             }
 
             middlewareFutures.add(createMiddleware(middlewareConfig.get(), router));
+            chainElements.add(new ChainElement(middlewareName, middlewareConfig.get().getType()));
         }
 
         final String serviceName = routerConfig.getService();
-        final Optional<ServiceModel> serviceConfig = services.stream()
-            .filter(s -> s.getName().equals(serviceName))
-            .findFirst();
+        final Optional<ServiceModel> serviceConfig = findService(services, serviceName);
 
         if (serviceConfig.isEmpty()) {
             final String errMsg = String.format("Failed to find service '%s' in router '%s'", serviceConfig,
@@ -292,9 +543,9 @@ public class RouterFactory {
         }
 
         // required to be the last element in the middleware chain
-        final Future<Handler<RoutingContext>> proxyFuture = ReverseProxyFactory.of(vertx, serviceName,
-            serviceConfig.get());
+        final Future<ReverseProxy> proxyFuture = getOrCreateProxy(serviceConfig.get(), nextProxies);
         middlewareFutures.add(proxyFuture);
+        chainElements.add(new ChainElement(serviceName, SERVICE_TYPE));
 
         // Handlers will get called if and only if
         // - all futures are succeeded and completed
@@ -307,15 +558,43 @@ public class RouterFactory {
                 return Future.failedFuture(errMsg);
             })
             .map(cf -> {
-                mountMiddlewareChain(route, middlewareFutures);
+                if (routerConfig.getTimeoutMs() > 0) {
+                    final RouterTimeoutHandler timeoutHandler = new RouterTimeoutHandler(this.vertx, routerName,
+                        routerConfig.getTimeoutMs());
+                    releases.add(timeoutHandler::close);
+                    route.handler(timeoutHandler);
+                }
+                mountMiddlewareChain(route, routerName, middlewareFutures, chainElements, releases);
                 LOGGER.debug("Middlewares of router '{}' created successfully", routerName);
                 return router;
             });
     }
 
+    private Optional<MiddlewareModel> findMiddleware(ImmutableList<MiddlewareModel> middlewares, String name) {
+        return middlewares.stream()
+            .filter(m -> m.getName().equals(name))
+            .findFirst();
+    }
+
+    private Optional<ServiceModel> findService(ImmutableList<ServiceModel> services, String name) {
+        return services.stream()
+            .filter(s -> s.getName().equals(name))
+            .findFirst();
+    }
+
     @SuppressWarnings("unchecked")
-    private void mountMiddlewareChain(Route route, List<Future<?>> middlewares) {
-        middlewares.forEach(mf -> route.handler((Handler<RoutingContext>) mf.result()));
+    private void mountMiddlewareChain(
+        Route route, String routerName, List<Future<?>> middlewares, List<ChainElement> elements,
+        List<Runnable> releases
+    ) {
+        final MiddlewareProfiler profiler = MiddlewareProfiler.instance();
+        for (int i = 0; i < middlewares.size(); i++) {
+            final Handler<RoutingContext> middleware = (Handler<RoutingContext>) middlewares.get(i).result();
+            final ChainElement element = elements.get(i);
+            final MiddlewareProfiler.Stats elementStats = profiler.stats(routerName, element.name(), element.type());
+            releases.add(() -> profiler.release(elementStats));
+            route.handler(TimedMiddleware.wrap(middleware, profiler, elementStats));
+        }
     }
 
     private Future<Middleware> createMiddleware(MiddlewareModel middlewareConfig, Router router) {
@@ -484,4 +763,19 @@ public class RouterFactory {
             return router.route().virtualHost(hostRegex).setName(name);
         };
     }
+
+    /**
+     * Everything a sub router is created from. Compared by value.
+     */
+    private record SubRouterKey(RouterModel router, List<MiddlewareModel> middlewares, ServiceModel service) {
+    }
+
+    private record CachedSubRouter(SubRouterKey key, Router router, List<Runnable> releases) {
+    }
+
+    private record ChainElement(String name, String type) {
+    }
+
+    private record CachedProxy(ServiceModel service, Future<ReverseProxy> proxy) {
+    }
 }
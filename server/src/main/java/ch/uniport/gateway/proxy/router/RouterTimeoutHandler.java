@@ -0,0 +1,63 @@
+package ch.uniport.gateway.proxy.router;
+
+import ch.uniport.gateway.proxy.service.RequestDeadline;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sets the deadline of a router on every request. Responds with
+ * {@code 504 Gateway Timeout} if the middlewares of the router do not hand the
+ * request over to the service in time. Afterwards, the service enforces the
+ * deadline.
+ */
+class RouterTimeoutHandler implements Handler<RoutingContext> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RouterTimeoutHandler.class);
+
+    private final Vertx vertx;
+    private final String routerName;
+    private final long timeoutMs;
+    private final RequestDeadline.Timeouts timeouts;
+
+    RouterTimeoutHandler(Vertx vertx, String routerName, long timeoutMs) {
+        this.vertx = vertx;
+        this.routerName = routerName;
+        this.timeoutMs = timeoutMs;
+        this.timeouts = RequestDeadline.Timeouts.register(RequestDeadline.SCOPE_ROUTER, routerName,
+            RequestDeadline.PHASE_DEADLINE);
+    }
+
+    @Override
+    public void handle(RoutingContext ctx) {
+        RequestDeadline.restrict(ctx, timeoutMs);
+        final long remainingMs = RequestDeadline.remainingMs(ctx);
+        final long timerId = vertx.setTimer(Math.max(1, remainingMs), id -> onTimeout(ctx));
+        ctx.addEndHandler(ignored -> vertx.cancelTimer(timerId));
+        ctx.next();
+    }
+
+    private void onTimeout(RoutingContext ctx) {
+        final HttpServerResponse response = ctx.response();
+        if (response.ended() || RequestDeadline.isHandedOver(ctx)) {
+            return;
+        }
+        LOGGER.debug("Router '{}' timed out after '{}ms'", routerName, timeoutMs);
+        timeouts.count(RequestDeadline.PHASE_DEADLINE);
+        if (response.headWritten()) {
+            response.reset();
+        } else {
+            response.setStatusCode(504).end();
+        }
+    }
+
+    /**
+     * Releases the timeout counter, once the router was removed.
+     */
+    void close() {
+        timeouts.release();
+    }
+}
@@ -0,0 +1,292 @@
+package ch.uniport.gateway.proxy.router;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled lookup structure for the rules of a list of routers. Instead of
+ * asking every router in turn whether its rule matches, the rules are indexed
+ * once when the dynamic configuration is applied:
+ * <ul>
+ * <li>{@code Path} and {@code PathPrefix} rules are stored in a radix tree,</li>
+ * <li>{@code Host} rules without wildcards are stored in a hash map,</li>
+ * <li>all remaining rules ({@code PathRegex}, {@code PathPrefixRegex},
+ * {@code HostRegex} and {@code Host} rules with wildcards) are kept in a
+ * fallback list.</li>
+ * </ul>
+ * The order in which the rules are added defines their priority, i.e. the
+ * first added rule has the highest priority. A lookup returns the target of the
+ * matching rule with the highest priority. Its cost depends on the length of
+ * the path and the number of fallback rules, but not on the total number of
+ * rules.
+ *
+ * @param <T>
+ *            type of the routing targets
+ */
+public final class RoutingTable<T> {
+
+    private final Node<T> paths;
+    private final Map<String, Entry<T>> hosts;
+    private final List<FallbackEntry<T>> fallbacks;
+    private final int size;
+
+    private RoutingTable(Node<T> paths, Map<String, Entry<T>> hosts, List<FallbackEntry<T>> fallbacks, int size) {
+        this.paths = paths;
+        this.hosts = hosts;
+        this.fallbacks = fallbacks;
+        this.size = size;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return number of rules in this table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param host
+     *            of the request without port, may be null
+     * @param path
+     *            normalized path of the request, may be null
+     * @return the target of the matching rule with the highest priority or null
+     *         if no rule matches
+     */
+    public T lookup(String host, String path) {
+        Entry<T> best = null;
+        if (path != null) {
+            best = paths.lookup(path);
+        }
+        if (host != null) {
+            best = better(best, hosts.get(host.toLowerCase(Locale.ROOT)));
+        }
+        for (FallbackEntry<T> fallback : fallbacks) {
+            if (best != null && best.order < fallback.order) {
+                // fallbacks are sorted by priority, no better match can follow
+                break;
+            }
+            if (fallback.matches(host, path)) {
+                best = fallback;
+                break;
+            }
+        }
+        return best == null ? null : best.target;
+    }
+
+    private static <T> Entry<T> better(Entry<T> current, Entry<T> candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        if (current == null || candidate.order < current.order) {
+            return candidate;
+        }
+        return current;
+    }
+
+    /**
+     * Builder for {@link RoutingTable}. Rules have to be added in descending
+     * order of their priority.
+     *
+     * @param <T>
+     *            type of the routing targets
+     */
+    public static final class Builder<T> {
+
+        private final Node<T> paths = new Node<>("");
+        private final Map<String, Entry<T>> hosts = new HashMap<>();
+        private final List<FallbackEntry<T>> fallbacks = new ArrayList<>();
+        private int order;
+
+        private Builder() {
+        }
+
+        /**
+         * Matches the exact path. As in Vert.x, a trailing slash of the request
+         * path is ignored, if the rule path does not end with a slash.
+         */
+        public Builder<T> path(String path, T target) {
+            final Entry<T> entry = entry(target);
+            paths.insert(path, entry, false);
+            if (!path.endsWith("/")) {
+                paths.insert(path + "/", entry, false);
+            }
+            return this;
+        }
+
+        /**
+         * Matches any path starting with the given prefix. As in Vert.x, a
+         * prefix ending with a slash also matches the path without it.
+         */
+        public Builder<T> pathPrefix(String pathPrefix, T target) {
+            final Entry<T> entry = entry(target);
+            paths.insert(pathPrefix, entry, true);
+            if (pathPrefix.length() > 1 && pathPrefix.endsWith("/")) {
+                paths.insert(pathPrefix.substring(0, pathPrefix.length() - 1), entry, false);
+            }
+            return this;
+        }
+
+        public Builder<T> pathRegex(String pathRegex, T target) {
+            final Pattern pattern = Pattern.compile(pathRegex);
+            fallbacks.add(new FallbackEntry<>(order++, target,
+                (host, path) -> path != null && pattern.matcher(path).matches()));
+            return this;
+        }
+
+        public Builder<T> pathPrefixRegex(String pathRegex, T target) {
+            // append non-capturing atomic group that matches anything
+            return pathRegex(pathRegex + "(?>.*)", target);
+        }
+
+        /**
+         * Matches the host case-insensitively. Hosts containing a wildcard
+         * {@code *} are matched like in Vert.x.
+         */
+        public Builder<T> host(String host, T target) {
+            if (host.contains("*")) {
+                return hostRegex(host, target);
+            }
+            hosts.putIfAbsent(host.toLowerCase(Locale.ROOT), entry(target));
+            return this;
+        }
+
+        public Builder<T> hostRegex(String hostRegex, T target) {
+            final Pattern pattern = virtualHostPattern(hostRegex);
+            fallbacks.add(new FallbackEntry<>(order++, target,
+                (host, path) -> host != null && pattern.matcher(host).matches()));
+            return this;
+        }
+
+        public RoutingTable<T> build() {
+            return new RoutingTable<>(paths, Map.copyOf(hosts), Collections.unmodifiableList(fallbacks), order);
+        }
+
+        private Entry<T> entry(T target) {
+            return new Entry<>(order++, target);
+        }
+
+        /**
+         * Same translation as Vert.x applies in {@code Route.virtualHost}.
+         */
+        private static Pattern virtualHostPattern(String hostnamePattern) {
+            return Pattern.compile(
+                hostnamePattern.replaceAll("\\.", "\\\\.").replaceAll("[*]", "(.*?)"),
+                Pattern.CASE_INSENSITIVE);
+        }
+    }
+
+    private static class Entry<T> {
+        final int order;
+        final T target;
+
+        Entry(int order, T target) {
+            this.order = order;
+            this.target = Objects.requireNonNull(target, "target must not be null");
+        }
+    }
+
+    private static final class FallbackEntry<T> extends Entry<T> {
+        private final RuleMatcher matcher;
+
+        FallbackEntry(int order, T target, RuleMatcher matcher) {
+            super(order, target);
+            this.matcher = matcher;
+        }
+
+        boolean matches(String host, String path) {
+            return matcher.matches(host, path);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RuleMatcher {
+        boolean matches(String host, String path);
+    }
+
+    /**
+     * Node of a radix tree. The label is the part of the key on the edge leading
+     * to this node.
+     */
+    private static final class Node<T> {
+        private String label;
+        private final Map<Character, Node<T>> children = new HashMap<>();
+        private Entry<T> exact;
+        private Entry<T> prefix;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void insert(String key, Entry<T> entry, boolean isPrefix) {
+            Node<T> node = this;
+            int i = 0;
+            while (i < key.length()) {
+                Node<T> child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    child = new Node<>(key.substring(i));
+                    node.children.put(key.charAt(i), child);
+                    child.set(entry, isPrefix);
+                    return;
+                }
+
+                final int common = commonPrefixLength(child.label, key, i);
+                if (common < child.label.length()) {
+                    // split the edge
+                    final Node<T> intermediate = new Node<>(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    intermediate.children.put(child.label.charAt(0), child);
+                    node.children.put(key.charAt(i), intermediate);
+                    child = intermediate;
+                }
+                node = child;
+                i += common;
+            }
+            node.set(entry, isPrefix);
+        }
+
+        Entry<T> lookup(String path) {
+            Entry<T> best = null;
+            Node<T> node = this;
+            int i = 0;
+            while (true) {
+                best = better(best, node.prefix);
+                if (i == path.length()) {
+                    return better(best, node.exact);
+                }
+                final Node<T> child = node.children.get(path.charAt(i));
+                if (child == null || !path.startsWith(child.label, i)) {
+                    return best;
+                }
+                node = child;
+                i += child.label.length();
+            }
+        }
+
+        private void set(Entry<T> entry, boolean isPrefix) {
+            if (isPrefix) {
+                prefix = better(prefix, entry);
+            } else {
+                exact = better(exact, entry);
+            }
+        }
+
+        private static int commonPrefixLength(String label, String key, int offset) {
+            final int max = Math.min(label.length(), key.length() - offset);
+            int i = 0;
+            while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
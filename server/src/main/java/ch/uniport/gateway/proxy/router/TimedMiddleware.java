@@ -0,0 +1,66 @@
+package ch.uniport.gateway.proxy.router;
+
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.PlatformHandler;
+
+/**
+ * Measures a middleware of a router chain with the {@link MiddlewareProfiler}.
+ * <p>
+ * The first middleware of a request attaches a {@link ChainProfile} to the
+ * routing context, which every middleware of the chain updates when it is
+ * entered.
+ */
+class TimedMiddleware implements Handler<RoutingContext> {
+
+    private static final String CHAIN_PROFILE = TimedMiddleware.class.getName() + ".chainProfile";
+
+    private final Handler<RoutingContext> delegate;
+    private final MiddlewareProfiler profiler;
+    private final MiddlewareProfiler.Stats stats;
+
+    TimedMiddleware(Handler<RoutingContext> delegate, MiddlewareProfiler profiler, MiddlewareProfiler.Stats stats) {
+        this.delegate = delegate;
+        this.profiler = profiler;
+        this.stats = stats;
+    }
+
+    /**
+     * Keeps the ordering of vert.x web for {@link PlatformHandler}s, which
+     * must come before any other handler of a route.
+     */
+    static Handler<RoutingContext> wrap(
+        Handler<RoutingContext> delegate, MiddlewareProfiler profiler, MiddlewareProfiler.Stats stats
+    ) {
+        if (delegate instanceof PlatformHandler) {
+            return new TimedPlatformMiddleware(delegate, profiler, stats);
+        }
+        return new TimedMiddleware(delegate, profiler, stats);
+    }
+
+    @Override
+    public void handle(RoutingContext ctx) {
+        ChainProfile profile = ctx.get(CHAIN_PROFILE);
+        if (profile == null) {
+            profile = new ChainProfile(profiler);
+            ctx.put(CHAIN_PROFILE, profile);
+            ctx.addEndHandler(profile::end);
+        }
+
+        profile.enter(stats);
+        try {
+            delegate.handle(ctx);
+        } finally {
+            profile.returned(stats);
+        }
+    }
+
+    private static final class TimedPlatformMiddleware extends TimedMiddleware implements PlatformHandler {
+
+        TimedPlatformMiddleware(
+            Handler<RoutingContext> delegate, MiddlewareProfiler profiler, MiddlewareProfiler.Stats stats
+        ) {
+            super(delegate, profiler, stats);
+        }
+    }
+}
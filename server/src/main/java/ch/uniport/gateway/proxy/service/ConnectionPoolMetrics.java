@@ -0,0 +1,92 @@
+package ch.uniport.gateway.proxy.service;
+
+import ch.uniport.gateway.MeterRegistries;
+import ch.uniport.gateway.proxy.config.model.ConnectionPoolOptions;
+import ch.uniport.gateway.proxy.config.model.TransportOptions;
+import ch.uniport.gateway.proxy.service.loadBalancer.Upstream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.vertx.core.http.HttpVersion;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gauges for the connection pool of every upstream of a service:
+ * <ul>
+ * <li>{@code uniport.gateway.service.pool.connections}: open connections</li>
+ * <li>{@code uniport.gateway.service.pool.active}: connections serving at
+ * least one request</li>
+ * <li>{@code uniport.gateway.service.pool.idle}: open connections serving no
+ * request</li>
+ * <li>{@code uniport.gateway.service.pool.waiting}: requests exceeding the
+ * capacity of the pool, i.e. waiting for a connection</li>
+ * </ul>
+ * Active and waiting are derived from the requests in flight and the capacity
+ * of a connection (1, the pipelining limit or the HTTP/2 multiplexing limit).
+ * <p>
+ * The gauges report the sum over the proxies of all verticle instances, see
+ * {@link SharedMeters}.
+ */
+final class ConnectionPoolMetrics {
+
+    static final String METRIC_PREFIX = "uniport.gateway.service.pool.";
+
+    private final List<SharedMeters.Handle> meters;
+
+    private ConnectionPoolMetrics(List<SharedMeters.Handle> meters) {
+        this.meters = meters;
+    }
+
+    static ConnectionPoolMetrics register(
+        String service,
+        List<Upstream> upstreams,
+        ConnectionPoolOptions poolOptions,
+        TransportOptions transportOptions
+    ) {
+        final MeterRegistry registry = MeterRegistries.getDefault();
+        final boolean http2 = transportOptions.getProtocolVersion() == HttpVersion.HTTP_2;
+        final int maxConnections = http2 ? poolOptions.getHttp2MaxSize() : poolOptions.getMaxSize();
+        final int requestsPerConnection;
+        if (http2) {
+            final int limit = poolOptions.getHttp2MultiplexingLimit();
+            // a negative limit means the limit announced by the server applies
+            requestsPerConnection = limit > 0 ? limit : Integer.MAX_VALUE;
+        } else if (poolOptions.isPipelining()) {
+            requestsPerConnection = poolOptions.getPipeliningLimit();
+        } else {
+            requestsPerConnection = 1;
+        }
+
+        final List<SharedMeters.Handle> meters = new ArrayList<>();
+        for (Upstream upstream : upstreams) {
+            final Tags tags = Tags.of("service", service, "server", upstream.toString());
+            meters.add(SharedMeters.gauge(registry, METRIC_PREFIX + "connections", tags,
+                "Open connections to the server", null,
+                upstream::openConnections));
+            meters.add(SharedMeters.gauge(registry, METRIC_PREFIX + "active", tags,
+                "Connections to the server serving at least one request", null,
+                () -> active(upstream, requestsPerConnection)));
+            meters.add(SharedMeters.gauge(registry, METRIC_PREFIX + "idle", tags,
+                "Open connections to the server serving no request", null,
+                () -> Math.max(0, upstream.openConnections() - active(upstream, requestsPerConnection))));
+            meters.add(SharedMeters.gauge(registry, METRIC_PREFIX + "waiting", tags,
+                "Requests to the server waiting for a connection", null,
+                () -> Math.max(0L, upstream.outstandingRequests() - (long) maxConnections * requestsPerConnection)));
+        }
+        return new ConnectionPoolMetrics(meters);
+    }
+
+    private static int active(Upstream upstream, int requestsPerConnection) {
+        final int requests = upstream.outstandingRequests();
+        final long connections = ((long) requests + requestsPerConnection - 1) / requestsPerConnection;
+        return (int) Math.min(upstream.openConnections(), Math.max(0L, connections));
+    }
+
+    /**
+     * Releases the gauges of the upstreams, they are removed once no other
+     * proxy of the service reports into them.
+     */
+    void unregister() {
+        meters.forEach(SharedMeters.Handle::release);
+    }
+}
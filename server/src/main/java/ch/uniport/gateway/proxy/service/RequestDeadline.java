@@ -0,0 +1,123 @@
+package ch.uniport.gateway.proxy.service;
+
+import ch.uniport.gateway.MeterRegistries;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.vertx.ext.web.RoutingContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The point in time by which the response to a request must be sent, kept in
+ * the routing context. Routers and services can only shorten it.
+ * <p>
+ * Timeouts are counted by {@code uniport.gateway.timeouts}, tagged with the
+ * {@code scope} ({@value #SCOPE_ROUTER} or {@value #SCOPE_SERVICE}), its
+ * {@code name} and the {@code phase} the request timed out in, see
+ * {@link Timeouts}.
+ */
+public final class RequestDeadline {
+
+    public static final String SCOPE_ROUTER = "router";
+    public static final String SCOPE_SERVICE = "service";
+
+    /**
+     * The deadline expired before the request was sent to a server.
+     */
+    public static final String PHASE_DEADLINE = "deadline";
+    /**
+     * The response headers of the server were not received in time.
+     */
+    public static final String PHASE_FIRST_BYTE = "firstByte";
+    /**
+     * The response was not completely sent in time.
+     */
+    public static final String PHASE_TOTAL = "total";
+
+    static final String METRIC_NAME = "uniport.gateway.timeouts";
+
+    private static final String DEADLINE = RequestDeadline.class.getName() + ".deadline";
+    private static final String HANDED_OVER = RequestDeadline.class.getName() + ".handedOver";
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Shortens the deadline of the request to at most {@code timeoutMs} from
+     * now. Does nothing if {@code timeoutMs} is not positive.
+     */
+    public static void restrict(RoutingContext ctx, long timeoutMs) {
+        if (timeoutMs <= 0) {
+            return;
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        final Long current = ctx.get(DEADLINE);
+        if (current == null || deadline - current < 0) {
+            ctx.put(DEADLINE, deadline);
+        }
+    }
+
+    /**
+     * @return whether the request has a deadline
+     */
+    public static boolean isSet(RoutingContext ctx) {
+        return ctx.get(DEADLINE) != null;
+    }
+
+    /**
+     * @return the milliseconds left until the deadline, not positive if it
+     *         expired, or {@link Long#MAX_VALUE} without a deadline
+     */
+    public static long remainingMs(RoutingContext ctx) {
+        final Long deadline = ctx.get(DEADLINE);
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    /**
+     * Marks that a service enforces the deadline from now on, so that the
+     * router does not respond on its own anymore.
+     */
+    static void handOver(RoutingContext ctx) {
+        ctx.put(HANDED_OVER, Boolean.TRUE);
+    }
+
+    public static boolean isHandedOver(RoutingContext ctx) {
+        return ctx.get(HANDED_OVER) != null;
+    }
+
+    /**
+     * The timeout counters of a router or a service, registered once per phase
+     * and shared by all its instances. They have to be released once the router
+     * or service is removed.
+     */
+    public static final class Timeouts {
+
+        private final Map<String, SharedMeters.Handle> counters;
+
+        private Timeouts(Map<String, SharedMeters.Handle> counters) {
+            this.counters = counters;
+        }
+
+        public static Timeouts register(String scope, String name, String... phases) {
+            final MeterRegistry registry = MeterRegistries.getDefault();
+            final Map<String, SharedMeters.Handle> counters = new HashMap<>();
+            for (String phase : phases) {
+                counters.put(phase, SharedMeters.counter(registry, METRIC_NAME,
+                    Tags.of("scope", scope, "name", name, "phase", phase), "Requests that timed out"));
+            }
+            return new Timeouts(counters);
+        }
+
+        public void count(String phase) {
+            counters.get(phase).increment();
+        }
+
+        public void release() {
+            counters.values().forEach(SharedMeters.Handle::release);
+        }
+    }
+}
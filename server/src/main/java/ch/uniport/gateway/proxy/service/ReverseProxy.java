@@ -1,29 +1,69 @@
 package ch.uniport.gateway.proxy.service;
 
+import ch.uniport.gateway.MeterRegistries;
+import ch.uniport.gateway.proxy.config.DynamicConfiguration;
+import ch.uniport.gateway.proxy.config.model.BulkheadOptions;
+import ch.uniport.gateway.proxy.config.model.CircuitBreakerOptions;
+import ch.uniport.gateway.proxy.config.model.ConnectionPoolOptions;
+import ch.uniport.gateway.proxy.config.model.HTTPsOptions;
+import ch.uniport.gateway.proxy.config.model.RetryOptions;
+import ch.uniport.gateway.proxy.config.model.ServerOptions;
+import ch.uniport.gateway.proxy.config.model.ServiceModel;
+import ch.uniport.gateway.proxy.config.model.TimeoutOptions;
+import ch.uniport.gateway.proxy.config.model.TransportOptions;
 import ch.uniport.gateway.proxy.middleware.Middleware;
+import ch.uniport.gateway.proxy.middleware.RequestCookies;
+import ch.uniport.gateway.proxy.middleware.RequestDiagnostics;
 import ch.uniport.gateway.proxy.middleware.TraceMiddleware;
+import ch.uniport.gateway.proxy.service.cache.ResponseCache;
+import ch.uniport.gateway.proxy.service.circuitBreaker.Bulkhead;
+import ch.uniport.gateway.proxy.service.circuitBreaker.CircuitBreaker;
 import ch.uniport.gateway.proxy.service.contextAware.ContextAwareHttpServerRequest;
+import ch.uniport.gateway.proxy.service.healthCheck.HealthChecker;
+import ch.uniport.gateway.proxy.service.loadBalancer.LoadBalancer;
+import ch.uniport.gateway.proxy.service.loadBalancer.Upstream;
+import ch.uniport.gateway.proxy.service.retry.LatencyPercentile;
+import ch.uniport.gateway.proxy.service.retry.RetryBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import io.opentelemetry.api.trace.Span;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.RequestOptions;
 import io.vertx.core.net.HostAndPort;
 import io.vertx.core.net.JksOptions;
 import io.vertx.core.net.SocketAddress;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.httpproxy.Body;
 import io.vertx.httpproxy.HttpProxy;
 import io.vertx.httpproxy.ProxyContext;
 import io.vertx.httpproxy.ProxyInterceptor;
 import io.vertx.httpproxy.ProxyRequest;
 import io.vertx.httpproxy.ProxyResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,16 +79,70 @@ public class ReverseProxy extends TraceMiddleware {
     private static final CharSequence X_FORWARDED_HOST = HttpHeaders.createOptimized("x-forwarded-host");
     private static final CharSequence X_FORWARDED_PORT = HttpHeaders.createOptimized("x-forwarded-port");
     private static final CharSequence X_FORWARDED_FOR = HttpHeaders.createOptimized("x-forwarded-for");
+    private static final CharSequence RETRY_AFTER = HttpHeaders.createOptimized("retry-after");
 
     private static final String HTTPS = "https";
 
+    private static final String UPSTREAM = ReverseProxy.class.getName() + ".upstream";
+    private static final String CLIENT_REQUEST = ReverseProxy.class.getName() + ".clientRequest";
+    private static final String TIMED_OUT = ReverseProxy.class.getName() + ".timedOut";
+    private static final String CIRCUIT_BREAKER_PERMIT = ReverseProxy.class.getName() + ".circuitBreakerPermit";
+
+    private static final String REJECTED_METRIC_NAME = "uniport.gateway.service.rejected";
+    private static final String RETRIES_METRIC_NAME = "uniport.gateway.service.retries";
+
+    private static final String RETRY = "retry";
+    private static final String HEDGE = "hedge";
+
+    private final Vertx vertx;
+
     private final HttpProxy httpProxy;
 
     private final String name;
 
-    private final String serverProto;
-    private final String serverHost;
-    private final int serverPort;
+    private final LoadBalancer loadBalancer;
+
+    private final ConnectionPoolMetrics poolMetrics;
+
+    private final UpstreamLatencyMetrics latencyMetrics;
+
+    private final HealthChecker healthChecker;
+
+    private final ResponseCache responseCache;
+
+    private final TimeoutOptions timeout;
+
+    private final int connectTimeoutMs;
+
+    private final CircuitBreakerOptions circuitBreakerOptions;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Bulkhead bulkhead;
+
+    // null if the circuit breaker or bulkhead is disabled
+    private final SharedMeters.Handle rejectedByCircuitBreaker;
+    private final SharedMeters.Handle rejectedByBulkhead;
+
+    private final RequestDeadline.Timeouts timeouts;
+
+    // by type and result, empty if neither retries nor hedging are enabled
+    private final Map<String, SharedMeters.Handle> retries;
+
+    private final int bulkheadStatusCode;
+
+    private final RetryOptions retryOptions;
+
+    private final boolean retrying;
+
+    private final Set<HttpMethod> retryMethods;
+
+    private final Set<Integer> retryStatusCodes;
+
+    private final RetryBudget retryBudget;
+
+    // null if hedging is disabled
+    private final LatencyPercentile latencies;
 
     public ReverseProxy(
         Vertx vertx,
@@ -62,71 +156,261 @@ public class ReverseProxy extends TraceMiddleware {
         String httpsTrustStorePassword,
         boolean verbose
     ) {
+        this(vertx, name, ServiceModel.builder()
+            .withName(name)
+            .withServers(List.of(ServerOptions.builder()
+                .withHost(Objects.requireNonNull(serverHost, "serverHost must not be null"))
+                .withPort(serverPort)
+                .withProtocol(Objects.requireNonNull(serverProtocol, "serverProtocol must not be null"))
+                .withHTTPs(HTTPsOptions.builder()
+                    .withTrustAll(Objects.requireNonNull(httpsTrustAll, "httpsTrustAll must not be null"))
+                    .withVerifyHostname(
+                        Objects.requireNonNull(httpsVerifyHostname, "httpsVerifyHostname must not be null"))
+                    // httpsTrustStorePath is allowed to be null
+                    .withTrustStorePath(httpsTrustStorePath)
+                    // httpsTrustStorePassword is allowed to be null
+                    .withTrustStorePassword(httpsTrustStorePassword)
+                    .build())
+                .build()))
+            .withVerbose(verbose)
+            .build());
+    }
+
+    /**
+     * Proxies requests to one of the servers of the service, as selected by its
+     * load balancing strategy. Every server gets its own {@link HttpClient} and
+     * therefore its own connection pool.
+     */
+    public ReverseProxy(Vertx vertx, String name, ServiceModel service) {
         Objects.requireNonNull(vertx, "vertx must not be null");
         Objects.requireNonNull(name, "name must not be null");
-        Objects.requireNonNull(serverHost, "serverHost must not be null");
-        Objects.requireNonNull(serverProtocol, "serverProtocol must not be null");
-        Objects.requireNonNull(httpsTrustAll, "httpsTrustAll must not be null");
-        Objects.requireNonNull(httpsVerifyHostname, "httpsVerifyHostname must not be null");
-        // httpsTrustStorePath is allowed to be null
-        // httpsTrustStorePassword is allowed to be null
+        Objects.requireNonNull(service, "service must not be null");
 
+        this.vertx = vertx;
         this.name = name;
-        this.serverProto = serverProtocol;
-        this.serverHost = serverHost;
-        this.serverPort = serverPort;
-
-        httpProxy = HttpProxy.reverseProxy(
-            createHttpClient(
-                serverProtocol,
-                serverHost,
-                httpsTrustAll,
-                httpsVerifyHostname,
-                httpsTrustStorePath,
-                httpsTrustStorePassword,
-                vertx))
-            .origin(serverPort, serverHost);
+
+        final ConnectionPoolOptions poolOptions = service.getConnectionPool();
+        final TransportOptions transportOptions = service.getTransport();
+        this.timeout = service.getTimeout();
+        this.connectTimeoutMs = transportOptions.getConnectTimeoutMs();
+        this.circuitBreakerOptions = service.getCircuitBreaker();
+        this.circuitBreaker = circuitBreakerOptions.isEnabled()
+            ? new CircuitBreaker(name, circuitBreakerOptions)
+            : null;
+        final BulkheadOptions bulkheadOptions = service.getBulkhead();
+        this.bulkhead = bulkheadOptions.isEnabled() ? new Bulkhead(bulkheadOptions.getMaxConcurrentRequests()) : null;
+        this.bulkheadStatusCode = bulkheadOptions.getStatusCode();
+        this.rejectedByCircuitBreaker = circuitBreaker != null ? registerRejections(name, "circuitBreaker") : null;
+        this.rejectedByBulkhead = bulkhead != null ? registerRejections(name, "bulkhead") : null;
+        this.timeouts = RequestDeadline.Timeouts.register(RequestDeadline.SCOPE_SERVICE, name,
+            RequestDeadline.PHASE_DEADLINE, RequestDeadline.PHASE_FIRST_BYTE, RequestDeadline.PHASE_TOTAL);
+        this.retryOptions = service.getRetry();
+        this.retrying = retryOptions.isEnabled() || retryOptions.getHedge().isEnabled();
+        this.retries = retrying ? registerRetries(name) : Map.of();
+        this.retryMethods = (retryOptions.getMethods().isEmpty()
+            ? DynamicConfiguration.SERVICE_RETRY_IDEMPOTENT_METHODS
+            : retryOptions.getMethods()).stream()
+            .map(HttpMethod::valueOf)
+            .collect(Collectors.toUnmodifiableSet());
+        this.retryStatusCodes = Set.copyOf(retryOptions.getStatusCodes());
+        this.retryBudget = new RetryBudget(retryOptions.getBudgetPercent(), retryOptions.getMinRetriesPerSecond());
+        this.latencies = retryOptions.getHedge().isEnabled()
+            ? new LatencyPercentile(retryOptions.getHedge().getPercentile())
+            : null;
+        final List<String> upstreamNames = service.getServers().stream()
+            .map(server -> String.format("%s:%d", server.getHost(), server.getPort()))
+            .toList();
+        this.healthChecker = HealthChecker.acquire(vertx, name, upstreamNames, service.getHealthCheck());
+        final List<Upstream> upstreams = new ArrayList<>(service.getServers().size());
+        for (int i = 0; i < service.getServers().size(); i++) {
+            final ServerOptions server = service.getServers().get(i);
+            final AtomicInteger openConnections = new AtomicInteger();
+            upstreams.add(new Upstream(
+                server.getProtocol(),
+                server.getHost(),
+                server.getPort(),
+                server.getWeight(),
+                createHttpClient(server, poolOptions, transportOptions, openConnections, vertx),
+                openConnections,
+                healthChecker.upstreamHealth(upstreamNames.get(i))));
+        }
+        this.loadBalancer = LoadBalancer.of(service.getLoadBalancer().getStrategy(), upstreams);
+        this.poolMetrics = ConnectionPoolMetrics.register(name, upstreams, poolOptions, transportOptions);
+        this.latencyMetrics = UpstreamLatencyMetrics.register(name, upstreams);
+
+        // the client passed here is never used, every request is sent with the
+        // client of its upstream
+        httpProxy = HttpProxy.reverseProxy(upstreams.get(0).client())
+            .originRequestProvider(this::originRequest);
 
         setXForwardedHeaders(httpProxy);
         applyModifiers(httpProxy);
-        if (verbose) {
+        // after the modifiers, so that the cache key is the URI sent to the server
+        if (service.getCache().isEnabled()) {
+            responseCache = ResponseCache.create(name, service.getCache());
+            httpProxy.addInterceptor(responseCache.interceptor());
+        } else {
+            responseCache = null;
+        }
+        // after the cache, so that responses from the cache are not taken into account
+        if (service.getHealthCheck().getPassive().isEnabled()) {
+            detectOutliers(httpProxy);
+        }
+        if (circuitBreaker != null) {
+            feedCircuitBreaker(httpProxy);
+        }
+        measureLatency(httpProxy);
+        // after the outlier detection and the circuit breaker, so that timeouts
+        // count as failures of the server
+        enforceTimeouts(httpProxy);
+        if (service.isVerbose()) {
             logRequestResponse(httpProxy);
         }
+        // last, as it sends the requests itself
+        if (retrying) {
+            retry(httpProxy);
+        }
+
+        warmUp(upstreams, poolOptions.getWarmUpConnections());
+        healthChecker.start(upstreams);
     }
 
     protected HttpClient createHttpClient(
-        String serverProtocol,
-        String serverHost,
-        Boolean httpsTrustAll,
-        Boolean httpsVerifyHostname,
-        String httpsTrustStorePath,
-        String httpsTrustStorePassword,
+        ServerOptions server,
+        ConnectionPoolOptions poolOptions,
+        TransportOptions transportOptions,
+        AtomicInteger openConnections,
         Vertx vertx
     ) {
-        final HttpClientOptions options = new HttpClientOptions();
-        if (HTTPS.equalsIgnoreCase(serverProtocol)) {
+        final HttpClientOptions options = new HttpClientOptions()
+            .setMaxPoolSize(poolOptions.getMaxSize())
+            .setHttp2MaxPoolSize(poolOptions.getHttp2MaxSize())
+            .setHttp2MultiplexingLimit(poolOptions.getHttp2MultiplexingLimit())
+            .setMaxWaitQueueSize(poolOptions.getMaxWaitQueueSize())
+            .setKeepAlive(poolOptions.isKeepAlive())
+            .setKeepAliveTimeout(poolOptions.getKeepAliveTimeoutSeconds())
+            .setIdleTimeout(poolOptions.getIdleTimeoutSeconds())
+            .setPipelining(poolOptions.isPipelining())
+            .setPipeliningLimit(poolOptions.getPipeliningLimit())
+            .setConnectTimeout(transportOptions.getConnectTimeoutMs())
+            .setTcpNoDelay(transportOptions.isTcpNoDelay())
+            .setTcpKeepAlive(transportOptions.isTcpKeepAlive())
+            .setTcpFastOpen(transportOptions.isTcpFastOpen())
+            .setTcpQuickAck(transportOptions.isTcpQuickAck());
+
+        final boolean https = HTTPS.equalsIgnoreCase(server.getProtocol());
+        if (https) {
+            final HTTPsOptions httpsOptions = server.getHTTPs();
             options.setSsl(true);
-            options.setTrustAll(httpsTrustAll);
-            options.setVerifyHost(httpsVerifyHostname);
-            if (httpsTrustStorePath != null && httpsTrustStorePassword != null) {
+            options.setTrustAll(httpsOptions.trustAll());
+            options.setVerifyHost(httpsOptions.verifyHostname());
+            if (httpsOptions.getTrustStorePath() != null && httpsOptions.getTrustStorePassword() != null) {
                 options.setTrustOptions(
                     new JksOptions()
-                        .setPath(httpsTrustStorePath)
-                        .setPassword(httpsTrustStorePassword));
+                        .setPath(httpsOptions.getTrustStorePath())
+                        .setPassword(httpsOptions.getTrustStorePassword()));
             }
             options.setLogActivity(LOGGER.isDebugEnabled());
-            LOGGER.info("using HTTPS for host '{}'", serverHost);
+            LOGGER.info("using HTTPS for host '{}'", server.getHost());
+        }
+
+        if (transportOptions.getProtocolVersion() == HttpVersion.HTTP_2) {
+            options.setProtocolVersion(HttpVersion.HTTP_2);
+            if (https) {
+                // negotiate HTTP/2 with ALPN, falls back to HTTP/1.1
+                options.setUseAlpn(true);
+            } else {
+                // h2c, either with an upgrade from HTTP/1.1 or with prior knowledge
+                options.setHttp2ClearTextUpgrade(transportOptions.isHttp2ClearTextUpgrade());
+            }
+            LOGGER.info("using HTTP/2 for host '{}'", server.getHost());
         }
 
-        return vertx.createHttpClient(options);
+        return vertx.httpClientBuilder()
+            .with(options)
+            .withConnectHandler(connection -> {
+                openConnections.incrementAndGet();
+                connection.closeHandler(v -> openConnections.decrementAndGet());
+            })
+            .build();
+    }
+
+    /**
+     * Opens connections to all upstreams in advance, so that the first requests do
+     * not pay for connection establishment (and TLS handshakes). Concurrent
+     * {@code OPTIONS *} requests are used to open distinct connections.
+     */
+    private void warmUp(List<Upstream> upstreams, int connections) {
+        if (connections <= 0) {
+            return;
+        }
+        for (Upstream upstream : upstreams) {
+            LOGGER.debug("'{}' is warming up {} connection(s) to '{}'", name, connections, upstream);
+            for (int i = 0; i < connections; i++) {
+                upstream.client().request(new RequestOptions()
+                    .setServer(upstream.address())
+                    .setHost(upstream.host())
+                    .setPort(upstream.port())
+                    .setMethod(HttpMethod.OPTIONS)
+                    .setURI("*"))
+                    .compose(HttpClientRequest::send)
+                    .compose(HttpClientResponse::body)
+                    .onFailure(err -> LOGGER.debug("'{}' failed to warm up connection to '{}': {}", name, upstream,
+                        err.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Closes the clients, and with them the connection pools, of all upstreams.
+     * Requests in flight are aborted.
+     */
+    public Future<Void> close() {
+        healthChecker.release(loadBalancer.upstreams());
+        poolMetrics.unregister();
+        latencyMetrics.unregister();
+        timeouts.release();
+        retries.values().forEach(SharedMeters.Handle::release);
+        if (rejectedByCircuitBreaker != null) {
+            rejectedByCircuitBreaker.release();
+        }
+        if (rejectedByBulkhead != null) {
+            rejectedByBulkhead.release();
+        }
+        if (circuitBreaker != null) {
+            circuitBreaker.close();
+        }
+        if (responseCache != null) {
+            responseCache.close();
+        }
+        final List<Future<Void>> closed = new ArrayList<>();
+        for (Upstream upstream : loadBalancer.upstreams()) {
+            closed.add(upstream.client().close());
+        }
+        return Future.join(closed).mapEmpty();
     }
 
     @Override
     public void handleWithTraceSpan(RoutingContext ctx, Span span) {
-        LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        RequestDiagnostics.handling(LOGGER, name, ctx);
 
-        LOGGER.debug("'{}' is proxying to '{}://{}:{}{}'", name, serverProto, serverHost, serverPort,
-            ctx.request().uri());
+        // e.g. answered by the router timeout while a middleware was still busy. The end handlers
+        // already ran, so permissions taken now would never be returned
+        if (ctx.response().ended() || ctx.response().closed()) {
+            LOGGER.debug("'{}' ignores request, its response was already sent", name);
+            return;
+        }
+        // before admitting, so that requests whose deadline expired take no permissions
+        if (!applyDeadline(ctx) || !admit(ctx)) {
+            return;
+        }
+
+        final Upstream upstream = loadBalancer.next();
+        upstream.acquire();
+        ctx.addEndHandler(ignored -> upstream.release());
+        ctx.put(UPSTREAM, upstream);
+
+        LOGGER.debug("'{}' is proxying to '{}{}'", name, upstream, ctx.request().uri());
         try {
             httpProxy.handle(new ContextAwareHttpServerRequest(ctx.request(), ctx));
         } catch (Exception e) {
@@ -135,6 +419,375 @@ public class ReverseProxy extends TraceMiddleware {
         }
     }
 
+    /**
+     * Sends the request to the upstream selected in
+     * {@link #handleWithTraceSpan(RoutingContext, Span)} using its own client.
+     * This is what {@code HttpProxy.origin} does for a single server.
+     */
+    private Future<HttpClientRequest> originRequest(HttpServerRequest request, HttpClient ignored) {
+        final RoutingContext ctx = getContextFromRequest(request);
+        return originRequest(ctx, ctx.get(UPSTREAM));
+    }
+
+    private Future<HttpClientRequest> originRequest(RoutingContext ctx, Upstream upstream) {
+        final RequestOptions options = new RequestOptions()
+            .setServer(upstream.address())
+            .setHost(upstream.host())
+            .setPort(upstream.port());
+        // waiting for a connection must not outlast the deadline
+        final long remainingMs = RequestDeadline.remainingMs(ctx);
+        if (remainingMs != Long.MAX_VALUE && (connectTimeoutMs <= 0 || remainingMs < connectTimeoutMs)) {
+            options.setConnectTimeout(Math.max(1, remainingMs));
+        }
+        return upstream.client().request(options)
+            .onSuccess(clientRequest -> {
+                if (ctx.get(TIMED_OUT) != null) {
+                    clientRequest.reset();
+                } else {
+                    ctx.put(CLIENT_REQUEST, clientRequest);
+                }
+            });
+    }
+
+    /**
+     * Rejects the request without sending it to a server, if the circuit
+     * breaker is open or the bulkhead is full. Permissions are returned when the
+     * response ends.
+     *
+     * @return whether the request is to be proxied
+     */
+    private boolean admit(RoutingContext ctx) {
+        if (circuitBreaker != null) {
+            final CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+            if (permit == null) {
+                LOGGER.debug("'{}' rejects request, its circuit breaker is open", name);
+                rejectedByCircuitBreaker.increment();
+                final long retryAfterSeconds = TimeUnit.MILLISECONDS.toSeconds(circuitBreaker.remainingOpenMs() + 999);
+                if (retryAfterSeconds > 0) {
+                    ctx.response().putHeader(RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                }
+                ctx.response()
+                    .setStatusCode(circuitBreakerOptions.getStatusCode())
+                    .end(circuitBreakerOptions.getBody());
+                return false;
+            }
+            ctx.put(CIRCUIT_BREAKER_PERMIT, permit);
+            ctx.addEndHandler(ignored -> {
+                // the request did not reach a server, e.g. it was answered from the cache
+                final CircuitBreaker.Permit unused = ctx.remove(CIRCUIT_BREAKER_PERMIT);
+                if (unused != null) {
+                    circuitBreaker.release(unused);
+                }
+            });
+        }
+        if (bulkhead != null) {
+            if (!bulkhead.tryAcquire()) {
+                LOGGER.debug("'{}' rejects request, {} requests are in flight already", name, bulkhead.inFlight());
+                rejectedByBulkhead.increment();
+                ctx.response().setStatusCode(bulkheadStatusCode).end();
+                return false;
+            }
+            ctx.addEndHandler(ignored -> bulkhead.release());
+        }
+        return true;
+    }
+
+    private static SharedMeters.Handle registerRejections(String service, String reason) {
+        return SharedMeters.counter(MeterRegistries.getDefault(), REJECTED_METRIC_NAME,
+            Tags.of("service", service, "reason", reason), "Requests rejected without sending them to a server");
+    }
+
+    /**
+     * Shortens the deadline of the request to the deadline announced by the
+     * client and the total timeout of the service. Requests whose deadline
+     * already expired, e.g. in the middlewares, are rejected with
+     * {@code 504 Gateway Timeout} without sending them to a server. Once the
+     * response headers are sent, the response is reset when the deadline
+     * expires.
+     *
+     * @return whether the request is to be proxied
+     */
+    private boolean applyDeadline(RoutingContext ctx) {
+        final String deadlineHeader = timeout.getDeadlineHeader();
+        if (!deadlineHeader.isEmpty()) {
+            final String announced = ctx.request().getHeader(deadlineHeader);
+            if (announced != null) {
+                try {
+                    RequestDeadline.restrict(ctx, Math.max(1, Long.parseLong(announced.trim())));
+                } catch (NumberFormatException e) {
+                    LOGGER.debug("Ignoring invalid deadline '{}' in header '{}'", announced, deadlineHeader);
+                }
+            }
+        }
+        RequestDeadline.restrict(ctx, timeout.getTotalMs());
+        if (!RequestDeadline.isSet(ctx)) {
+            return true;
+        }
+
+        final long remainingMs = RequestDeadline.remainingMs(ctx);
+        if (remainingMs <= 0) {
+            LOGGER.debug("'{}' rejects request, its deadline expired", name);
+            timeouts.count(RequestDeadline.PHASE_DEADLINE);
+            ctx.response().setStatusCode(504).end();
+            return false;
+        }
+
+        RequestDeadline.handOver(ctx);
+        final long timerId = vertx.setTimer(remainingMs, id -> {
+            final HttpServerResponse response = ctx.response();
+            // before the response headers are sent, the interceptor of enforceTimeouts responds
+            if (response.ended() || !response.headWritten()) {
+                return;
+            }
+            LOGGER.debug("'{}' resets response, its deadline expired", name);
+            timeouts.count(RequestDeadline.PHASE_TOTAL);
+            abort(ctx);
+            response.reset();
+        });
+        ctx.addEndHandler(ignored -> vertx.cancelTimer(timerId));
+        return true;
+    }
+
+    /**
+     * Responds with {@code 504 Gateway Timeout} if the response headers of the
+     * server are not received within the first byte timeout or before the
+     * deadline of the request, and propagates the time left until the deadline
+     * to the server. Requests that may be sent more than once get the first
+     * byte timeout per attempt, see {@link #retry(HttpProxy)}.
+     *
+     * @param proxy
+     */
+    protected void enforceTimeouts(HttpProxy proxy) {
+        proxy.addInterceptor(new ProxyInterceptor() {
+            @Override
+            public Future<ProxyResponse> handleProxyRequest(ProxyContext proxyContext) {
+                final RoutingContext ctx = getContextFromRequest(proxyContext);
+                final long remainingMs = RequestDeadline.remainingMs(ctx);
+                propagateDeadline(ctx, proxyContext.request().headers());
+
+                final long firstByteMs = timeout.getFirstByteMs() > 0 && !isRetryable(proxyContext.request())
+                    ? timeout.getFirstByteMs()
+                    : Long.MAX_VALUE;
+                final long timeoutMs = Math.min(firstByteMs, remainingMs);
+                if (timeoutMs == Long.MAX_VALUE) {
+                    return proxyContext.sendRequest();
+                }
+                final String phase = firstByteMs <= remainingMs
+                    ? RequestDeadline.PHASE_FIRST_BYTE
+                    : RequestDeadline.PHASE_TOTAL;
+
+                final Promise<ProxyResponse> response = Promise.promise();
+                final long timerId = vertx.setTimer(Math.max(1, timeoutMs), id -> {
+                    if (response.tryComplete(gatewayTimeout(proxyContext.request()))) {
+                        LOGGER.debug("'{}' timed out waiting for the response of the server", name);
+                        timeouts.count(phase);
+                        abort(ctx);
+                    }
+                });
+                proxyContext.sendRequest()
+                    .onComplete(ar -> {
+                        vertx.cancelTimer(timerId);
+                        response.tryHandle(ar);
+                    });
+                return response.future();
+            }
+        });
+    }
+
+    /**
+     * Propagates the time left until the deadline of the request to the server.
+     */
+    private void propagateDeadline(RoutingContext ctx, MultiMap headers) {
+        final long remainingMs = RequestDeadline.remainingMs(ctx);
+        if (remainingMs != Long.MAX_VALUE && !timeout.getDeadlineHeader().isEmpty()) {
+            headers.set(timeout.getDeadlineHeader(), String.valueOf(Math.max(0, remainingMs)));
+        }
+    }
+
+    /**
+     * Resets the request to the server, if it was already sent, which frees
+     * its connection.
+     */
+    private void abort(RoutingContext ctx) {
+        ctx.put(TIMED_OUT, Boolean.TRUE);
+        final HttpClientRequest clientRequest = ctx.get(CLIENT_REQUEST);
+        if (clientRequest != null) {
+            clientRequest.reset();
+        }
+    }
+
+    private static ProxyResponse gatewayTimeout(ProxyRequest request) {
+        return emptyResponse(request, 504);
+    }
+
+    private static ProxyResponse badGateway(ProxyRequest request) {
+        return emptyResponse(request, 502);
+    }
+
+    private static ProxyResponse emptyResponse(ProxyRequest request, int statusCode) {
+        final ProxyResponse response = request.response();
+        response.setStatusCode(statusCode);
+        response.setBody(Body.body(Buffer.buffer()));
+        return response;
+    }
+
+    /**
+     * Feeds the outcome of every proxied request into the health of its upstream.
+     * Connection failures, server errors and responses slower than the latency
+     * threshold count as failures. The latency is measured until the response
+     * headers are received.
+     *
+     * @param proxy
+     */
+    protected void detectOutliers(HttpProxy proxy) {
+        proxy.addInterceptor(new ProxyInterceptor() {
+            @Override
+            public Future<ProxyResponse> handleProxyRequest(ProxyContext proxyContext) {
+                final RoutingContext ctx = getContextFromRequest(proxyContext);
+                final long start = System.nanoTime();
+                return proxyContext.sendRequest()
+                    .andThen(ar -> {
+                        // the server of the last attempt, if the request was retried
+                        final Upstream upstream = ctx.get(UPSTREAM);
+                        if (ar.failed()) {
+                            upstream.health().onFailure();
+                            return;
+                        }
+                        final long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        upstream.health().onResponse(ar.result().getStatusCode(), latencyMs);
+                    });
+            }
+        });
+    }
+
+    /**
+     * Feeds the outcome of every proxied request into the circuit breaker of
+     * the service. Connection failures and server errors count as failures,
+     * the latency is measured until the response headers are received.
+     *
+     * @param proxy
+     */
+    protected void feedCircuitBreaker(HttpProxy proxy) {
+        proxy.addInterceptor(new ProxyInterceptor() {
+            @Override
+            public Future<ProxyResponse> handleProxyRequest(ProxyContext proxyContext) {
+                final RoutingContext ctx = getContextFromRequest(proxyContext);
+                final long start = System.nanoTime();
+                return proxyContext.sendRequest()
+                    .andThen(ar -> {
+                        final CircuitBreaker.Permit permit = ctx.remove(CIRCUIT_BREAKER_PERMIT);
+                        if (permit == null) {
+                            return;
+                        }
+                        final long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        circuitBreaker.onResult(permit, ar.failed() || ar.result().getStatusCode() >= 500, latencyMs);
+                    });
+            }
+        });
+    }
+
+    /**
+     * Records the time to first byte and the total duration of every proxied
+     * request per upstream. The total duration ends when the response is sent
+     * to the client.
+     *
+     * @param proxy
+     */
+    protected void measureLatency(HttpProxy proxy) {
+        proxy.addInterceptor(new ProxyInterceptor() {
+            @Override
+            public Future<ProxyResponse> handleProxyRequest(ProxyContext proxyContext) {
+                final RoutingContext ctx = getContextFromRequest(proxyContext);
+                final long start = System.nanoTime();
+                // the server of the last attempt, if the request was retried
+                ctx.addEndHandler(
+                    ignored -> latencyMetrics.recordDuration(ctx.get(UPSTREAM), System.nanoTime() - start));
+                return proxyContext.sendRequest()
+                    .onSuccess(
+                        ignored -> latencyMetrics.recordTimeToFirstByte(ctx.get(UPSTREAM), System.nanoTime() - start));
+            }
+        });
+    }
+
+    /**
+     * Sends requests with an idempotent method and without a body again, if
+     * they fail or get a response with one of the configured status codes.
+     * With hedging, the request is additionally sent to another server, if its
+     * response headers take longer than the configured percentile of the
+     * latencies of the service. The first response is used. Retries and hedged
+     * requests are limited by the retry budget of the service and by the
+     * deadline of the request.
+     * <p>
+     * Every attempt sends a copy of the request as modified by the interceptors
+     * before, with the time left until the deadline. It waits at most the first
+     * byte timeout for the response headers, and needs a permission of the
+     * circuit breaker, which its outcome is fed into.
+     * <p>
+     * Must be the last interceptor, as it sends the requests itself.
+     *
+     * @param proxy
+     */
+    protected void retry(HttpProxy proxy) {
+        proxy.addInterceptor(new ProxyInterceptor() {
+            @Override
+            public Future<ProxyResponse> handleProxyRequest(ProxyContext proxyContext) {
+                retryBudget.deposit();
+                final ProxyRequest request = proxyContext.request();
+                if (!isRetryable(request)) {
+                    return proxyContext.sendRequest();
+                }
+                return new Attempts(getContextFromRequest(proxyContext), request).start();
+            }
+        });
+    }
+
+    private boolean isRetryable(ProxyRequest request) {
+        if (!retrying || !retryMethods.contains(request.getMethod())) {
+            return false;
+        }
+        // the body is streamed from the client, it cannot be sent twice
+        final MultiMap headers = request.proxiedRequest().headers();
+        final String contentLength = headers.get(HttpHeaders.CONTENT_LENGTH);
+        return !headers.contains(HttpHeaders.TRANSFER_ENCODING)
+            && (contentLength == null || "0".equals(contentLength.trim()));
+    }
+
+    /**
+     * @return another server than {@code current}, or null if the load balancer
+     *         has no other server
+     */
+    private Upstream another(Upstream current) {
+        final int candidates = loadBalancer.upstreams().size();
+        for (int i = 0; i < candidates; i++) {
+            final Upstream next = loadBalancer.next();
+            if (next != current) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    private void countRetry(String type, boolean granted) {
+        retries.get(retryKey(type, granted)).increment();
+    }
+
+    private static Map<String, SharedMeters.Handle> registerRetries(String service) {
+        final MeterRegistry registry = MeterRegistries.getDefault();
+        final Map<String, SharedMeters.Handle> retries = new HashMap<>();
+        for (String type : List.of(RETRY, HEDGE)) {
+            for (boolean granted : new boolean[] { true, false }) {
+                retries.put(retryKey(type, granted), SharedMeters.counter(registry, RETRIES_METRIC_NAME,
+                    Tags.of("service", service, "type", type, "result", granted ? "sent" : "budgetExhausted"),
+                    "Retried and hedged requests, and those denied by the retry budget"));
+            }
+        }
+        return retries;
+    }
+
+    private static String retryKey(String type, boolean granted) {
+        return granted ? type : type + "Denied";
+    }
+
     /**
      * Since version 4.3.5, the vertx-http-proxy sets the 'x-forwarded-host', in
      * case it detects that
@@ -237,6 +890,12 @@ public class ReverseProxy extends TraceMiddleware {
                 }
                 incomingRequest.setURI(uri.toString());
 
+                // serialize the cookies modified by middlewares
+                final RequestCookies cookies = ctx.get(Middleware.REQUEST_COOKIES);
+                if (cookies != null) {
+                    cookies.writeTo(incomingRequest.headers());
+                }
+
                 // modify headers
                 final List<Handler<MultiMap>> headerModifiers = ctx.get(Middleware.REQUEST_HEADERS_MODIFIERS);
                 if (headerModifiers != null) {
@@ -320,15 +979,324 @@ public class ReverseProxy extends TraceMiddleware {
      * @return
      */
     private RoutingContext getContextFromRequest(ProxyContext proxyContext) {
-        final ProxyRequest incomingRequest = proxyContext.request();
-        if (!(incomingRequest.proxiedRequest() instanceof ContextAwareHttpServerRequest)) {
+        return getContextFromRequest(proxyContext.request().proxiedRequest());
+    }
+
+    private RoutingContext getContextFromRequest(HttpServerRequest request) {
+        if (!(request instanceof ContextAwareHttpServerRequest)) {
             final String errMsg = "request has to be of type ContextAwareHttpServerRequest";
             LOGGER.error(errMsg);
             throw new IllegalStateException(errMsg);
         }
 
-        final ContextAwareHttpServerRequest contextAwareRequest = (ContextAwareHttpServerRequest) incomingRequest
-            .proxiedRequest();
+        final ContextAwareHttpServerRequest contextAwareRequest = (ContextAwareHttpServerRequest) request;
         return contextAwareRequest.routingContext();
     }
+
+    /**
+     * The attempts to send a single request to the servers of the service. All
+     * callbacks run on the event loop of the request.
+     */
+    private final class Attempts {
+
+        private final RoutingContext ctx;
+        private final ProxyRequest request;
+        // the request as modified by the interceptors before, sent by every attempt
+        private final HttpMethod method;
+        private final String uri;
+        private final MultiMap headers;
+        private final Promise<ProxyResponse> result = Promise.promise();
+        private final List<Attempt> attempts = new ArrayList<>(2);
+        private boolean finished;
+        private int inFlight;
+        private int retries;
+        private long hedgeTimerId = -1;
+        private Attempt fallback;
+
+        Attempts(RoutingContext ctx, ProxyRequest request) {
+            this.ctx = ctx;
+            this.request = request;
+            this.method = request.getMethod();
+            this.uri = request.getURI();
+            this.headers = HttpHeaders.headers().addAll(request.headers());
+        }
+
+        Future<ProxyResponse> start() {
+            final Upstream upstream = ctx.get(UPSTREAM);
+            ctx.addEndHandler(ignored -> cancel());
+            // the outcomes of the attempts are fed into the circuit breaker here
+            send(new Attempt(upstream, ctx.remove(CIRCUIT_BREAKER_PERMIT)), request);
+            final long percentileMs = latencies == null ? -1 : latencies.value();
+            if (percentileMs >= 0) {
+                final long delayMs = Math.max(retryOptions.getHedge().getMinDelayMs(), percentileMs);
+                hedgeTimerId = vertx.setTimer(delayMs, id -> {
+                    hedgeTimerId = -1;
+                    hedge(upstream);
+                });
+            }
+            return result.future();
+        }
+
+        private void send(Attempt attempt, ProxyRequest attemptRequest) {
+            inFlight++;
+            attempts.add(attempt);
+            propagateDeadline(ctx, attemptRequest.headers());
+            final long timerId = timeout.getFirstByteMs() <= 0 ? -1 : vertx.setTimer(timeout.getFirstByteMs(), id -> {
+                if (attempt.timeOut()) {
+                    LOGGER.debug("'{}' timed out waiting for the response of '{}'", name, attempt.upstream);
+                    timeouts.count(RequestDeadline.PHASE_FIRST_BYTE);
+                }
+            });
+            attempt.outcome.future().onComplete(ar -> {
+                if (timerId >= 0) {
+                    vertx.cancelTimer(timerId);
+                }
+                onAttempt(attempt, ar);
+            });
+            originRequest(ctx, attempt.upstream)
+                .compose(clientRequest -> {
+                    if (!attempt.sending(clientRequest)) {
+                        return Future.failedFuture("attempt was reset");
+                    }
+                    return attemptRequest.send(clientRequest);
+                })
+                .onComplete(ar -> {
+                    if (!attempt.outcome.tryHandle(ar)) {
+                        // the attempt timed out or was cancelled meanwhile
+                        discard(ar);
+                    }
+                });
+        }
+
+        /**
+         * Sends the request once more, if the circuit breaker and the retry
+         * budget permit it. The body of the client was sent by the first
+         * attempt already, so the request is copied without it.
+         *
+         * @return whether the request was sent
+         */
+        private boolean sendAgain(Upstream upstream, String type) {
+            CircuitBreaker.Permit permit = null;
+            if (circuitBreaker != null) {
+                permit = circuitBreaker.tryAcquire();
+                if (permit == null) {
+                    LOGGER.debug("'{}' does not send request again, its circuit breaker is open", name);
+                    return false;
+                }
+            }
+            final boolean granted = retryBudget.tryWithdraw();
+            countRetry(type, granted);
+            if (!granted) {
+                if (permit != null) {
+                    circuitBreaker.release(permit);
+                }
+                return false;
+            }
+            upstream.acquire();
+            ctx.addEndHandler(ignored -> upstream.release());
+
+            final ProxyRequest copy = ProxyRequest.reverseProxy(request.proxiedRequest())
+                .setMethod(method)
+                .setURI(uri)
+                .setBody(Body.body(Buffer.buffer()));
+            copy.headers().clear().addAll(headers);
+            send(new Attempt(upstream, permit), copy);
+            return true;
+        }
+
+        private void hedge(Upstream primary) {
+            if (finished || ctx.get(TIMED_OUT) != null || inFlight == 0) {
+                return;
+            }
+            final Upstream other = another(primary);
+            if (other != null && sendAgain(other, HEDGE)) {
+                LOGGER.debug("'{}' hedged request to '{}'", name, other);
+            }
+        }
+
+        private void onAttempt(Attempt attempt, AsyncResult<ProxyResponse> ar) {
+            inFlight--;
+            final long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - attempt.start);
+            report(attempt, ar, latencyMs);
+            if (finished || ctx.get(TIMED_OUT) != null) {
+                // answered by another attempt, timed out or cancelled
+                discard(ar);
+                return;
+            }
+            if (ar.succeeded()) {
+                if (latencies != null) {
+                    latencies.record(latencyMs);
+                }
+                if (!retryStatusCodes.contains(ar.result().getStatusCode())) {
+                    complete(attempt, ar.result());
+                    return;
+                }
+            }
+
+            if (mayRetry()) {
+                final Upstream other = another(attempt.upstream);
+                final Upstream next = other != null ? other : attempt.upstream;
+                if (sendAgain(next, RETRY)) {
+                    LOGGER.debug("'{}' retried request to '{}'", name, next);
+                    retries++;
+                    // the outcome of the last attempt is recorded by the outlier detection
+                    if (ar.failed()) {
+                        attempt.upstream.health().onFailure();
+                    } else {
+                        attempt.upstream.health().onResponse(ar.result().getStatusCode(), latencyMs);
+                    }
+                    discard(ar);
+                    return;
+                }
+            }
+
+            if (ar.succeeded()) {
+                attempt.response = ar.result();
+                if (fallback != null) {
+                    fallback.response.release();
+                }
+                fallback = attempt;
+            }
+            if (inFlight > 0) {
+                // a hedged request may still succeed
+                return;
+            }
+            if (fallback != null) {
+                complete(fallback, fallback.response);
+                return;
+            }
+            finished = true;
+            cancelHedge();
+            ctx.put(UPSTREAM, attempt.upstream);
+            result.complete(attempt.timedOut ? gatewayTimeout(request) : badGateway(request));
+        }
+
+        /**
+         * Feeds the outcome of the attempt into the circuit breaker. Attempts
+         * cancelled because another attempt answered or the client went away do
+         * not count, unless the deadline of the request expired.
+         */
+        private void report(Attempt attempt, AsyncResult<ProxyResponse> ar, long latencyMs) {
+            if (attempt.permit == null) {
+                return;
+            }
+            if (attempt.cancelled && ctx.get(TIMED_OUT) == null) {
+                circuitBreaker.release(attempt.permit);
+                return;
+            }
+            circuitBreaker.onResult(attempt.permit, ar.failed() || ar.result().getStatusCode() >= 500, latencyMs);
+        }
+
+        private boolean mayRetry() {
+            return retryOptions.isEnabled() && retries < retryOptions.getMaxRetries()
+                && RequestDeadline.remainingMs(ctx) > 0;
+        }
+
+        private void complete(Attempt winner, ProxyResponse response) {
+            finished = true;
+            cancelHedge();
+            if (fallback != null && fallback != winner) {
+                fallback.response.release();
+            }
+            fallback = null;
+            ctx.put(UPSTREAM, winner.upstream);
+            if (winner.clientRequest != null) {
+                ctx.put(CLIENT_REQUEST, winner.clientRequest);
+            }
+            cancelAllBut(winner);
+            result.complete(response);
+        }
+
+        private void cancel() {
+            cancelHedge();
+            if (!finished) {
+                finished = true;
+                cancelAllBut(null);
+            }
+        }
+
+        private void cancelHedge() {
+            if (hedgeTimerId >= 0) {
+                vertx.cancelTimer(hedgeTimerId);
+                hedgeTimerId = -1;
+            }
+        }
+
+        private void cancelAllBut(Attempt winner) {
+            // cancelling completes the outcome of an attempt, which is handled right away
+            for (Attempt attempt : List.copyOf(attempts)) {
+                if (attempt != winner) {
+                    attempt.cancel();
+                }
+            }
+        }
+
+        private static void discard(AsyncResult<ProxyResponse> ar) {
+            if (ar.succeeded()) {
+                ar.result().release();
+            }
+        }
+    }
+
+    /**
+     * A single attempt to send a request to a server. Its outcome is completed
+     * by the response headers of the server, a failure, a timeout or a
+     * cancellation, whatever comes first.
+     */
+    private static final class Attempt {
+
+        private final Upstream upstream;
+        // null if the circuit breaker is disabled
+        private final CircuitBreaker.Permit permit;
+        private final long start = System.nanoTime();
+        private final Promise<ProxyResponse> outcome = Promise.promise();
+        private HttpClientRequest clientRequest;
+        private ProxyResponse response;
+        private boolean timedOut;
+        private boolean cancelled;
+
+        Attempt(Upstream upstream, CircuitBreaker.Permit permit) {
+            this.upstream = upstream;
+            this.permit = permit;
+        }
+
+        /**
+         * @return whether the request is to be sent, it is reset if the attempt
+         *         timed out or was cancelled while waiting for a connection
+         */
+        boolean sending(HttpClientRequest request) {
+            clientRequest = request;
+            if (outcome.future().isComplete()) {
+                request.reset();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * @return whether the attempt timed out, i.e. it was still waiting for
+         *         the response headers
+         */
+        boolean timeOut() {
+            timedOut = !outcome.future().isComplete();
+            if (timedOut) {
+                reset("first byte timeout");
+            }
+            return timedOut;
+        }
+
+        void cancel() {
+            if (!outcome.future().isComplete()) {
+                cancelled = true;
+                reset("cancelled");
+            }
+        }
+
+        private void reset(String reason) {
+            if (clientRequest != null) {
+                clientRequest.reset();
+            }
+            outcome.tryFail(reason);
+        }
+    }
 }
@@ -0,0 +1,190 @@
+package ch.uniport.gateway.proxy.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * Meters shared by the proxies of the same service, i.e. by the verticle
+ * instances and by a proxy being retired and its successor.
+ * <p>
+ * A meter registry returns the meter already registered for a name and tags,
+ * so a meter is bound to the state of its first owner. Instead, the gauges
+ * report the sum of the values of all owners, and the function counters the
+ * sum of the counts of all owners, including the counts of the owners that
+ * released them. A meter is removed from the registry when its last owner
+ * releases it.
+ */
+public final class SharedMeters {
+
+    private static final ConcurrentMap<Meter.Id, Shared> SHARED = new ConcurrentHashMap<>();
+
+    private SharedMeters() {
+    }
+
+    /**
+     * @return a gauge reporting the sum of {@code value} of all owners
+     */
+    public static Handle gauge(
+        MeterRegistry registry, String name, Tags tags, String description, String baseUnit, DoubleSupplier value
+    ) {
+        final Meter.Id id = new Meter.Id(name, tags, baseUnit, description, Meter.Type.GAUGE);
+        return share(registry, id, value, null, false, shared -> Gauge.builder(name, shared, Shared::sum)
+            .description(description)
+            .tags(tags)
+            .baseUnit(baseUnit)
+            .register(registry));
+    }
+
+    /**
+     * @return a counter reporting the sum of {@code count} of all owners
+     */
+    public static Handle functionCounter(
+        MeterRegistry registry, String name, Tags tags, String description, DoubleSupplier count
+    ) {
+        final Meter.Id id = new Meter.Id(name, tags, null, description, Meter.Type.COUNTER);
+        return share(registry, id, count, null, true, shared -> FunctionCounter.builder(name, shared, Shared::sum)
+            .description(description)
+            .tags(tags)
+            .register(registry));
+    }
+
+    /**
+     * @return a counter reporting the sum of the increments of all owners, see
+     *         {@link Handle#increment()}
+     */
+    public static Handle counter(MeterRegistry registry, String name, Tags tags, String description) {
+        final LongAdder increments = new LongAdder();
+        final Meter.Id id = new Meter.Id(name, tags, null, description, Meter.Type.COUNTER);
+        return share(registry, id, increments::sum, increments, true,
+            shared -> FunctionCounter.builder(name, shared, Shared::sum)
+                .description(description)
+                .tags(tags)
+                .register(registry));
+    }
+
+    /**
+     * @return a timer recorded into by all owners
+     */
+    public static Handle timer(MeterRegistry registry, String name, Tags tags, String description) {
+        final Meter.Id id = new Meter.Id(name, tags, null, description, Meter.Type.TIMER);
+        return share(registry, id, null, null, false, shared -> Timer.builder(name)
+            .description(description)
+            .tags(tags)
+            .register(registry));
+    }
+
+    private static Handle share(
+        MeterRegistry registry, Meter.Id id, DoubleSupplier source, LongAdder increments, boolean monotonic,
+        Function<Shared, Meter> register
+    ) {
+        final Handle[] result = new Handle[1];
+        SHARED.compute(id, (k, existing) -> {
+            Shared shared = existing;
+            if (shared == null || shared.registry != registry) {
+                shared = new Shared(registry, monotonic);
+                shared.meter = register.apply(shared);
+            }
+            result[0] = new Handle(id, shared, source, increments);
+            shared.handles.add(result[0]);
+            return shared;
+        });
+        return result[0];
+    }
+
+    private static void release(Handle handle) {
+        SHARED.computeIfPresent(handle.id, (k, shared) -> {
+            if (shared != handle.shared) {
+                // the meter was registered again with another registry
+                return shared;
+            }
+            if (shared.monotonic && handle.source != null) {
+                shared.released += handle.source.getAsDouble();
+            }
+            shared.handles.remove(handle);
+            if (!shared.handles.isEmpty()) {
+                return shared;
+            }
+            shared.registry.remove(shared.meter);
+            return null;
+        });
+    }
+
+    /**
+     * The share of an owner in a meter.
+     */
+    public static final class Handle {
+
+        private final Meter.Id id;
+        private final Shared shared;
+        private final DoubleSupplier source;
+        private final LongAdder increments;
+        private boolean released;
+
+        private Handle(Meter.Id id, Shared shared, DoubleSupplier source, LongAdder increments) {
+            this.id = id;
+            this.shared = shared;
+            this.source = source;
+            this.increments = increments;
+        }
+
+        public Meter meter() {
+            return shared.meter;
+        }
+
+        /**
+         * Increments the share of the owner in a counter created by
+         * {@link SharedMeters#counter(MeterRegistry, String, Tags, String)}.
+         */
+        public void increment() {
+            increments.increment();
+        }
+
+        /**
+         * Releases the share of the owner, the meter is removed when its last
+         * owner releases it. Releasing twice has no effect.
+         */
+        public synchronized void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            SharedMeters.release(this);
+        }
+    }
+
+    private static final class Shared {
+
+        private final MeterRegistry registry;
+        private final boolean monotonic;
+        private final List<Handle> handles = new CopyOnWriteArrayList<>();
+        // guarded by the map entry
+        private Meter meter;
+        private volatile double released;
+
+        Shared(MeterRegistry registry, boolean monotonic) {
+            this.registry = registry;
+            this.monotonic = monotonic;
+        }
+
+        double sum() {
+            double sum = released;
+            for (Handle handle : handles) {
+                if (handle.source != null) {
+                    sum += handle.source.getAsDouble();
+                }
+            }
+            return sum;
+        }
+    }
+}
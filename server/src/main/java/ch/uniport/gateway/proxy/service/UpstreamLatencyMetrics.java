@@ -0,0 +1,77 @@
+package ch.uniport.gateway.proxy.service;
+
+import ch.uniport.gateway.MeterRegistries;
+import ch.uniport.gateway.proxy.service.loadBalancer.Upstream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the latency of every upstream of a service:
+ * <ul>
+ * <li>{@code uniport.gateway.service.upstream.ttfb}: time until the response
+ * headers of the server are received</li>
+ * <li>{@code uniport.gateway.service.upstream.duration}: time until the
+ * response is sent to the client</li>
+ * </ul>
+ * Responses served from the cache are not taken into account. The timers are
+ * shared by the proxies of the service of all verticle instances, see
+ * {@link SharedMeters}.
+ */
+final class UpstreamLatencyMetrics {
+
+    static final String METRIC_PREFIX = "uniport.gateway.service.upstream.";
+
+    private final Map<Upstream, Timer[]> timers;
+    private final List<SharedMeters.Handle> handles;
+
+    private UpstreamLatencyMetrics(Map<Upstream, Timer[]> timers, List<SharedMeters.Handle> handles) {
+        this.timers = timers;
+        this.handles = handles;
+    }
+
+    static UpstreamLatencyMetrics register(String service, List<Upstream> upstreams) {
+        final MeterRegistry registry = MeterRegistries.getDefault();
+        final Map<Upstream, Timer[]> timers = new IdentityHashMap<>();
+        final List<SharedMeters.Handle> handles = new ArrayList<>();
+        for (Upstream upstream : upstreams) {
+            final Tags tags = Tags.of("service", service, "server", upstream.toString());
+            final SharedMeters.Handle ttfb = SharedMeters.timer(registry, METRIC_PREFIX + "ttfb", tags,
+                "Time until the response headers of the server are received");
+            final SharedMeters.Handle duration = SharedMeters.timer(registry, METRIC_PREFIX + "duration", tags,
+                "Time until the response of the server is sent to the client");
+            handles.add(ttfb);
+            handles.add(duration);
+            timers.put(upstream, new Timer[] { (Timer) ttfb.meter(), (Timer) duration.meter() });
+        }
+        return new UpstreamLatencyMetrics(timers, handles);
+    }
+
+    void recordTimeToFirstByte(Upstream upstream, long nanos) {
+        record(upstream, 0, nanos);
+    }
+
+    void recordDuration(Upstream upstream, long nanos) {
+        record(upstream, 1, nanos);
+    }
+
+    private void record(Upstream upstream, int index, long nanos) {
+        final Timer[] upstreamTimers = timers.get(upstream);
+        if (upstreamTimers != null) {
+            upstreamTimers[index].record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Releases the timers of the upstreams, they are removed once no other
+     * proxy of the service records into them.
+     */
+    void unregister() {
+        handles.forEach(SharedMeters.Handle::release);
+    }
+}
@@ -0,0 +1,82 @@
+package ch.uniport.gateway.proxy.service.cache;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parsed {@code Cache-Control} header, see RFC 9111 section 5.2. Directive names
+ * are case-insensitive. Unknown directives are kept, but ignored by the cache.
+ */
+final class CacheControl {
+
+    static final String NO_STORE = "no-store";
+    static final String NO_CACHE = "no-cache";
+    static final String PRIVATE = "private";
+    static final String PUBLIC = "public";
+    static final String MAX_AGE = "max-age";
+    static final String S_MAXAGE = "s-maxage";
+    static final String MUST_REVALIDATE = "must-revalidate";
+    static final String PROXY_REVALIDATE = "proxy-revalidate";
+
+    private static final CacheControl EMPTY = new CacheControl(Map.of());
+
+    private final Map<String, String> directives;
+
+    private CacheControl(Map<String, String> directives) {
+        this.directives = directives;
+    }
+
+    /**
+     * @param headerValues
+     *            all values of the {@code Cache-Control} header, may be empty
+     */
+    static CacheControl parse(List<String> headerValues) {
+        if (headerValues == null || headerValues.isEmpty()) {
+            return EMPTY;
+        }
+        final Map<String, String> directives = new HashMap<>();
+        for (String headerValue : headerValues) {
+            for (String directive : headerValue.split(",")) {
+                final String trimmed = directive.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                final int eq = trimmed.indexOf('=');
+                if (eq < 0) {
+                    directives.putIfAbsent(trimmed.toLowerCase(Locale.ROOT), "");
+                } else {
+                    final String name = trimmed.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+                    String value = trimmed.substring(eq + 1).trim();
+                    if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                        value = value.substring(1, value.length() - 1);
+                    }
+                    // the first occurrence wins, duplicates are invalid anyway
+                    directives.putIfAbsent(name, value);
+                }
+            }
+        }
+        return new CacheControl(directives);
+    }
+
+    boolean has(String directive) {
+        return directives.containsKey(directive);
+    }
+
+    /**
+     * @return the value of a delta-seconds directive, or -1 if it is absent or
+     *         invalid
+     */
+    long seconds(String directive) {
+        final String value = directives.get(directive);
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
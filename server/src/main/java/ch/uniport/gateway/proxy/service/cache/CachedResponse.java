@@ -0,0 +1,206 @@
+package ch.uniport.gateway.proxy.service.cache;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import java.nio.ByteBuffer;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * A stored response together with what is needed to decide whether it is still
+ * fresh (RFC 9111 section 4.2) and how to revalidate it (section 4.3).
+ */
+final class CachedResponse {
+
+    static final CharSequence AGE = HttpHeaders.createOptimized("age");
+
+    // headers that only apply to a single connection and must not be stored
+    private static final List<CharSequence> HOP_BY_HOP_HEADERS = List.of(
+        HttpHeaders.CONNECTION,
+        HttpHeaders.createOptimized("keep-alive"),
+        HttpHeaders.createOptimized("proxy-authenticate"),
+        HttpHeaders.createOptimized("proxy-authorization"),
+        HttpHeaders.createOptimized("te"),
+        HttpHeaders.TRANSFER_ENCODING,
+        HttpHeaders.createOptimized("upgrade"));
+
+    private final int statusCode;
+    private final String statusMessage;
+    private final MultiMap headers;
+    private final Buffer heapBody;
+    private final ByteBuffer offHeapBody;
+    private final long responseTimeMs;
+    private final long initialAgeMs;
+    private final long freshnessLifetimeMs;
+
+    private CachedResponse(
+        int statusCode,
+        String statusMessage,
+        MultiMap headers,
+        Buffer heapBody,
+        ByteBuffer offHeapBody,
+        long responseTimeMs
+    ) {
+        this.statusCode = statusCode;
+        this.statusMessage = statusMessage;
+        this.headers = headers;
+        this.heapBody = heapBody;
+        this.offHeapBody = offHeapBody;
+        this.responseTimeMs = responseTimeMs;
+        this.initialAgeMs = initialAgeMs(headers, responseTimeMs);
+        this.freshnessLifetimeMs = freshnessLifetimeMs(headers);
+    }
+
+    /**
+     * @param offHeap
+     *            if true, the body is copied to direct memory, so that large
+     *            bodies do not put pressure on the garbage collector
+     */
+    static CachedResponse of(int statusCode, String statusMessage, MultiMap headers, Buffer body, long nowMs,
+        boolean offHeap
+    ) {
+        final MultiMap stored = MultiMap.caseInsensitiveMultiMap().addAll(headers);
+        HOP_BY_HOP_HEADERS.forEach(stored::remove);
+        if (offHeap) {
+            final ByteBuffer direct = ByteBuffer.allocateDirect(body.length());
+            direct.put(body.getBytes()).flip();
+            return new CachedResponse(statusCode, statusMessage, stored, null, direct.asReadOnlyBuffer(), nowMs);
+        }
+        return new CachedResponse(statusCode, statusMessage, stored, body.copy(), null, nowMs);
+    }
+
+    /**
+     * Freshens the stored response with the headers of a {@code 304 Not Modified}
+     * response, see RFC 9111 section 4.3.4.
+     */
+    CachedResponse revalidated(MultiMap notModifiedHeaders, long nowMs) {
+        final MultiMap updated = MultiMap.caseInsensitiveMultiMap().addAll(headers);
+        for (Entry<String, String> header : notModifiedHeaders) {
+            if (HttpHeaders.CONTENT_LENGTH.toString().equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            updated.remove(header.getKey());
+        }
+        for (Entry<String, String> header : notModifiedHeaders) {
+            if (HttpHeaders.CONTENT_LENGTH.toString().equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            updated.add(header.getKey(), header.getValue());
+        }
+        HOP_BY_HOP_HEADERS.forEach(updated::remove);
+        return new CachedResponse(statusCode, statusMessage, updated, heapBody, offHeapBody, nowMs);
+    }
+
+    int statusCode() {
+        return statusCode;
+    }
+
+    String statusMessage() {
+        return statusMessage;
+    }
+
+    MultiMap headers() {
+        return headers;
+    }
+
+    Buffer body() {
+        if (heapBody != null) {
+            return heapBody;
+        }
+        // wrap a view on the direct memory, the stored buffer is never released
+        return Buffer.buffer(Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(offHeapBody.duplicate())));
+    }
+
+    /**
+     * @return the number of bytes accounted for this entry
+     */
+    int size() {
+        return heapBody != null ? heapBody.length() : offHeapBody.capacity();
+    }
+
+    String etag() {
+        return headers.get(HttpHeaders.ETAG);
+    }
+
+    String lastModified() {
+        return headers.get(HttpHeaders.LAST_MODIFIED);
+    }
+
+    boolean hasValidator() {
+        return etag() != null || lastModified() != null;
+    }
+
+    long ageSeconds(long nowMs) {
+        return currentAgeMs(nowMs) / 1000;
+    }
+
+    boolean isFresh(long nowMs) {
+        return freshnessLifetimeMs > currentAgeMs(nowMs);
+    }
+
+    private long currentAgeMs(long nowMs) {
+        return initialAgeMs + Math.max(0, nowMs - responseTimeMs);
+    }
+
+    /**
+     * Uses {@code s-maxage}, {@code max-age} or {@code Expires}, in that order.
+     * Responses marked with {@code no-cache} are stale right away, so they are
+     * revalidated on every use. No heuristic freshness is applied.
+     */
+    static long freshnessLifetimeMs(MultiMap headers) {
+        final CacheControl cacheControl = CacheControl.parse(headers.getAll(HttpHeaders.CACHE_CONTROL));
+        if (cacheControl.has(CacheControl.NO_CACHE)) {
+            return 0;
+        }
+        final long sMaxAge = cacheControl.seconds(CacheControl.S_MAXAGE);
+        if (sMaxAge >= 0) {
+            return sMaxAge * 1000;
+        }
+        final long maxAge = cacheControl.seconds(CacheControl.MAX_AGE);
+        if (maxAge >= 0) {
+            return maxAge * 1000;
+        }
+        final String expires = headers.get(HttpHeaders.EXPIRES);
+        if (expires != null) {
+            final long expiresMs = parseDate(expires);
+            final long dateMs = parseDate(headers.get(HttpHeaders.DATE));
+            if (expiresMs < 0 || dateMs < 0) {
+                // invalid dates represent a time in the past
+                return 0;
+            }
+            return Math.max(0, expiresMs - dateMs);
+        }
+        return 0;
+    }
+
+    private static long initialAgeMs(MultiMap headers, long responseTimeMs) {
+        long ageMs = 0;
+        final String age = headers.get(AGE);
+        if (age != null) {
+            try {
+                ageMs = Math.max(0, Long.parseLong(age.trim())) * 1000;
+            } catch (NumberFormatException e) {
+                // ignore invalid age
+            }
+        }
+        final long dateMs = parseDate(headers.get(HttpHeaders.DATE));
+        final long apparentAgeMs = dateMs < 0 ? 0 : Math.max(0, responseTimeMs - dateMs);
+        return Math.max(ageMs, apparentAgeMs);
+    }
+
+    private static long parseDate(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package ch.uniport.gateway.proxy.service.cache;
+
+import ch.uniport.gateway.MeterRegistries;
+import ch.uniport.gateway.proxy.config.model.ResponseCacheOptions;
+import ch.uniport.gateway.proxy.service.SharedMeters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.vertx.core.MultiMap;
+import io.vertx.httpproxy.ProxyInterceptor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory HTTP cache of a service (RFC 9111, shared cache). The store is
+ * bounded by the number of entries and by the total size of the bodies, the
+ * least recently used entries are evicted first.
+ * <p>
+ * Responses varying on request headers ({@code Vary}) are stored once per
+ * combination of the values of these headers.
+ * <p>
+ * The following metrics are provided per service:
+ * <ul>
+ * <li>{@code uniport.gateway.service.cache.requests}: counter with the tag
+ * {@code result} being {@code hit}, {@code miss} or {@code revalidated}</li>
+ * <li>{@code uniport.gateway.service.cache.evictions}: counter</li>
+ * <li>{@code uniport.gateway.service.cache.entries}: gauge</li>
+ * <li>{@code uniport.gateway.service.cache.bytes}: gauge</li>
+ * </ul>
+ * The metrics report the sum over the caches of the service of all verticle
+ * instances.
+ */
+public final class ResponseCache {
+
+    static final String METRIC_PREFIX = "uniport.gateway.service.cache.";
+
+    private final ResponseCacheOptions options;
+    private final LongSupplier clock;
+
+    // guarded by this
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, List<String>> varyByPrimaryKey = new HashMap<>();
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final List<SharedMeters.Handle> meters = new ArrayList<>();
+
+    ResponseCache(ResponseCacheOptions options, LongSupplier clock) {
+        this.options = Objects.requireNonNull(options, "options must not be null");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+    }
+
+    public static ResponseCache create(String service, ResponseCacheOptions options) {
+        final ResponseCache cache = new ResponseCache(options, System::currentTimeMillis);
+        cache.registerMetrics(service);
+        return cache;
+    }
+
+    /**
+     * @return the interceptor applying this cache to the requests of a proxy
+     */
+    public ProxyInterceptor interceptor() {
+        return new ResponseCacheInterceptor(this);
+    }
+
+    /**
+     * Removes all entries of this cache and releases its metrics, which are
+     * shared with the caches of the same service of the other proxies.
+     */
+    public void close() {
+        synchronized (this) {
+            entries.clear();
+            varyByPrimaryKey.clear();
+            bytes = 0;
+        }
+        meters.forEach(SharedMeters.Handle::release);
+        meters.clear();
+    }
+
+    long now() {
+        return clock.getAsLong();
+    }
+
+    boolean isOffHeap() {
+        return options.isOffHeap();
+    }
+
+    int maxEntrySizeBytes() {
+        return Math.min(options.getMaxEntrySizeBytes(), options.getMaxSizeBytes());
+    }
+
+    /**
+     * @param requestHeaders
+     *            used to select the variant if the stored response varies on
+     *            request headers
+     * @return the stored response or null
+     */
+    synchronized CachedResponse get(String primaryKey, MultiMap requestHeaders) {
+        final List<String> vary = varyByPrimaryKey.get(primaryKey);
+        if (vary == null) {
+            return null;
+        }
+        return entries.get(variantKey(primaryKey, vary, requestHeaders));
+    }
+
+    synchronized void put(String primaryKey, List<String> vary, MultiMap requestHeaders, CachedResponse response) {
+        if (response.size() > maxEntrySizeBytes()) {
+            return;
+        }
+        final List<String> previousVary = varyByPrimaryKey.put(primaryKey, List.copyOf(vary));
+        if (previousVary != null && !previousVary.equals(vary)) {
+            // variants stored with other request headers are unreachable now
+            removeVariants(primaryKey);
+        }
+        final CachedResponse previous = entries.put(variantKey(primaryKey, vary, requestHeaders), response);
+        if (previous != null) {
+            bytes -= previous.size();
+        }
+        bytes += response.size();
+        evict();
+    }
+
+    /**
+     * Removes all variants of the given key, e.g. after an unsafe request to the
+     * same URI (RFC 9111 section 4.4).
+     */
+    synchronized void invalidate(String primaryKey) {
+        if (varyByPrimaryKey.remove(primaryKey) != null) {
+            removeVariants(primaryKey);
+        }
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    void recordRevalidation() {
+        revalidations.incrementAndGet();
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    long revalidations() {
+        return revalidations.get();
+    }
+
+    long evictions() {
+        return evictions.get();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    private void evict() {
+        final Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+        while ((entries.size() > options.getMaxEntries() || bytes > options.getMaxSizeBytes()) && it.hasNext()) {
+            final Map.Entry<String, CachedResponse> eldest = it.next();
+            bytes -= eldest.getValue().size();
+            it.remove();
+            evictions.incrementAndGet();
+            // keeps the index bounded, other variants of the same key become
+            // unreachable and are evicted in turn
+            varyByPrimaryKey.remove(primaryKeyOf(eldest.getKey()));
+        }
+    }
+
+    private void removeVariants(String primaryKey) {
+        final String prefix = primaryKey + '\0';
+        final Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<String, CachedResponse> entry = it.next();
+            if (entry.getKey().equals(primaryKey) || entry.getKey().startsWith(prefix)) {
+                bytes -= entry.getValue().size();
+                it.remove();
+            }
+        }
+    }
+
+    private static String primaryKeyOf(String variantKey) {
+        final int end = variantKey.indexOf('\0');
+        return end < 0 ? variantKey : variantKey.substring(0, end);
+    }
+
+    private static String variantKey(String primaryKey, List<String> vary, MultiMap requestHeaders) {
+        if (vary.isEmpty()) {
+            return primaryKey;
+        }
+        final StringBuilder key = new StringBuilder(primaryKey);
+        for (String name : vary) {
+            key.append('\0').append(name).append('=');
+            // values are combined as if they were sent in a single header field
+            final List<String> values = requestHeaders.getAll(name);
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    key.append(',');
+                }
+                key.append(values.get(i).trim());
+            }
+        }
+        return key.toString();
+    }
+
+    private void registerMetrics(String service) {
+        final MeterRegistry registry = MeterRegistries.getDefault();
+        final Tags tags = Tags.of("service", service);
+        meters.add(SharedMeters.functionCounter(registry, METRIC_PREFIX + "requests", tags.and("result", "hit"),
+            "Requests answered by the cache", hits::get));
+        meters.add(SharedMeters.functionCounter(registry, METRIC_PREFIX + "requests", tags.and("result", "miss"),
+            "Requests answered by the cache", misses::get));
+        meters.add(SharedMeters.functionCounter(registry, METRIC_PREFIX + "requests", tags.and("result", "revalidated"),
+            "Requests answered by the cache", revalidations::get));
+        meters.add(SharedMeters.functionCounter(registry, METRIC_PREFIX + "evictions", tags,
+            "Entries evicted from the cache", evictions::get));
+        meters.add(SharedMeters.gauge(registry, METRIC_PREFIX + "entries", tags,
+            "Entries in the cache", null, this::size));
+        meters.add(SharedMeters.gauge(registry, METRIC_PREFIX + "bytes", tags,
+            "Size of the bodies in the cache", "bytes", this::bytes));
+    }
+}
@@ -0,0 +1,313 @@
+package ch.uniport.gateway.proxy.service.cache;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.net.HostAndPort;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.httpproxy.Body;
+import io.vertx.httpproxy.ProxyContext;
+import io.vertx.httpproxy.ProxyInterceptor;
+import io.vertx.httpproxy.ProxyRequest;
+import io.vertx.httpproxy.ProxyResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Answers {@code GET} requests from the {@link ResponseCache} and stores
+ * cacheable responses, following the rules for shared caches of RFC 9111:
+ * <ul>
+ * <li>fresh responses are served without contacting the server,</li>
+ * <li>stale responses with an {@code ETag} or {@code Last-Modified} validator
+ * are revalidated with a conditional request,</li>
+ * <li>{@code If-None-Match} of the client is answered with
+ * {@code 304 Not Modified} on a hit,</li>
+ * <li>successful unsafe requests invalidate the stored responses of their
+ * URI.</li>
+ * </ul>
+ * Only responses with a {@code Content-Length} up to the configured maximum
+ * entry size are stored, so that streamed responses are never buffered.
+ * Responses setting cookies are never stored.
+ */
+final class ResponseCacheInterceptor implements ProxyInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCacheInterceptor.class);
+
+    private static final String STATE = ResponseCacheInterceptor.class.getName() + ".state";
+
+    private static final CharSequence PRAGMA = HttpHeaders.createOptimized("pragma");
+    private static final CharSequence RANGE = HttpHeaders.createOptimized("range");
+
+    // RFC 9110 section 15.1, status codes that are heuristically cacheable,
+    // except 206 as partial responses are not stored
+    private static final Set<Integer> CACHEABLE_STATUS_CODES = Set.of(
+        200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+
+    private static final Set<HttpMethod> SAFE_METHODS = Set.of(
+        HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.TRACE);
+
+    private static final String VARY_ANY = "*";
+
+    private final ResponseCache cache;
+
+    ResponseCacheInterceptor(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    private enum Action {
+        HIT,
+        MISS,
+        REVALIDATE,
+        INVALIDATE
+    }
+
+    private record State(Action action, String primaryKey, MultiMap requestHeaders, CachedResponse stored) {
+    }
+
+    @Override
+    public Future<ProxyResponse> handleProxyRequest(ProxyContext proxyContext) {
+        final ProxyRequest request = proxyContext.request();
+        final String primaryKey = primaryKey(request);
+
+        if (request.getMethod() != HttpMethod.GET) {
+            if (!SAFE_METHODS.contains(request.getMethod())) {
+                proxyContext.set(STATE, new State(Action.INVALIDATE, primaryKey, null, null));
+            }
+            return proxyContext.sendRequest();
+        }
+
+        final MultiMap headers = request.headers();
+        if (headers.contains(RANGE)) {
+            // partial responses are not stored, and not assembled from stored ones
+            return proxyContext.sendRequest();
+        }
+
+        final long now = cache.now();
+        final CachedResponse stored = cache.get(primaryKey, headers);
+        if (stored == null) {
+            cache.recordMiss();
+            proxyContext.set(STATE, new State(Action.MISS, primaryKey, copy(headers), null));
+            return proxyContext.sendRequest();
+        }
+
+        if (!requiresRevalidation(headers) && stored.isFresh(now)) {
+            cache.recordHit();
+            LOGGER.debug("Serving '{}' from cache", primaryKey);
+            proxyContext.set(STATE, new State(Action.HIT, primaryKey, null, stored));
+            return Future.succeededFuture(fromCache(request, stored, now));
+        }
+
+        if (stored.hasValidator() && !isConditional(headers)) {
+            if (stored.etag() != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, stored.etag());
+            }
+            if (stored.lastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, stored.lastModified());
+            }
+            proxyContext.set(STATE, new State(Action.REVALIDATE, primaryKey, copy(headers), stored));
+            return proxyContext.sendRequest();
+        }
+
+        cache.recordMiss();
+        proxyContext.set(STATE, new State(Action.MISS, primaryKey, copy(headers), null));
+        return proxyContext.sendRequest();
+    }
+
+    @Override
+    public Future<Void> handleProxyResponse(ProxyContext proxyContext) {
+        final State state = proxyContext.get(STATE, State.class);
+        if (state == null) {
+            return proxyContext.sendResponse();
+        }
+
+        final ProxyResponse response = proxyContext.response();
+        switch (state.action()) {
+            case HIT:
+                return proxyContext.sendResponse();
+            case INVALIDATE:
+                if (response.getStatusCode() < 400) {
+                    cache.invalidate(state.primaryKey());
+                }
+                return proxyContext.sendResponse();
+            case REVALIDATE:
+                if (response.getStatusCode() == 304) {
+                    final long now = cache.now();
+                    final CachedResponse revalidated = state.stored().revalidated(response.headers(), now);
+                    cache.put(state.primaryKey(), vary(revalidated.headers()), state.requestHeaders(), revalidated);
+                    cache.recordRevalidation();
+                    LOGGER.debug("Revalidated '{}'", state.primaryKey());
+                    writeTo(response, revalidated, now);
+                    return proxyContext.sendResponse();
+                }
+                cache.recordMiss();
+                return store(proxyContext, state);
+            case MISS:
+            default:
+                return store(proxyContext, state);
+        }
+    }
+
+    private Future<Void> store(ProxyContext proxyContext, State state) {
+        final ProxyResponse response = proxyContext.response();
+        final MultiMap requestHeaders = state.requestHeaders();
+        if (!isStorable(requestHeaders, response)) {
+            return proxyContext.sendResponse();
+        }
+
+        final List<String> vary = vary(response.headers());
+        final int statusCode = response.getStatusCode();
+        final String statusMessage = response.getStatusMessage();
+        return readBody(response.getBody())
+            .compose(body -> {
+                final CachedResponse stored = CachedResponse.of(statusCode, statusMessage, response.headers(), body,
+                    cache.now(), cache.isOffHeap());
+                cache.put(state.primaryKey(), vary, requestHeaders, stored);
+                LOGGER.debug("Stored '{}' in cache", state.primaryKey());
+                response.setBody(Body.body(body));
+                return proxyContext.sendResponse();
+            });
+    }
+
+    private boolean isStorable(MultiMap requestHeaders, ProxyResponse response) {
+        if (!CACHEABLE_STATUS_CODES.contains(response.getStatusCode())) {
+            return false;
+        }
+        final MultiMap headers = response.headers();
+        final CacheControl responseCacheControl = CacheControl.parse(headers.getAll(HttpHeaders.CACHE_CONTROL));
+        final CacheControl requestCacheControl = CacheControl.parse(requestHeaders.getAll(HttpHeaders.CACHE_CONTROL));
+        if (responseCacheControl.has(CacheControl.NO_STORE)
+            || requestCacheControl.has(CacheControl.NO_STORE)
+            || responseCacheControl.has(CacheControl.PRIVATE)) {
+            return false;
+        }
+        // RFC 9111 section 3.5
+        if (requestHeaders.contains(HttpHeaders.AUTHORIZATION)
+            && !responseCacheControl.has(CacheControl.PUBLIC)
+            && !responseCacheControl.has(CacheControl.S_MAXAGE)
+            && !responseCacheControl.has(CacheControl.MUST_REVALIDATE)) {
+            return false;
+        }
+        if (headers.contains(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        final List<String> vary = vary(headers);
+        if (vary.contains(VARY_ANY)) {
+            return false;
+        }
+        final boolean hasValidator = headers.contains(HttpHeaders.ETAG) || headers.contains(HttpHeaders.LAST_MODIFIED);
+        if (CachedResponse.freshnessLifetimeMs(headers) <= 0 && !hasValidator) {
+            return false;
+        }
+        if (response.getStatusCode() == 204) {
+            return true;
+        }
+        final long contentLength = response.getBody() != null ? response.getBody().length() : -1;
+        return contentLength >= 0 && contentLength <= cache.maxEntrySizeBytes();
+    }
+
+    private static Future<Buffer> readBody(Body body) {
+        if (body == null) {
+            return Future.succeededFuture(Buffer.buffer());
+        }
+        final Promise<Buffer> promise = Promise.promise();
+        final Buffer buffer = Buffer.buffer((int) Math.max(0, body.length()));
+        final ReadStream<Buffer> stream = body.stream();
+        stream.exceptionHandler(promise::tryFail);
+        stream.endHandler(v -> promise.tryComplete(buffer));
+        stream.handler(buffer::appendBuffer);
+        stream.resume();
+        return promise.future();
+    }
+
+    private static ProxyResponse fromCache(ProxyRequest request, CachedResponse stored, long now) {
+        final ProxyResponse response = request.response();
+        final String etag = stored.etag();
+        if (etag != null && matches(request.headers().getAll(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatusCode(304);
+            response.headers().addAll(stored.headers());
+            response.headers().remove(HttpHeaders.CONTENT_LENGTH);
+            response.headers().set(CachedResponse.AGE, String.valueOf(stored.ageSeconds(now)));
+            response.setBody(Body.body(Buffer.buffer()));
+            return response;
+        }
+        writeTo(response, stored, now);
+        return response;
+    }
+
+    private static void writeTo(ProxyResponse response, CachedResponse stored, long now) {
+        response.setStatusCode(stored.statusCode());
+        if (stored.statusMessage() != null) {
+            response.setStatusMessage(stored.statusMessage());
+        }
+        response.headers().clear();
+        response.headers().addAll(stored.headers());
+        response.headers().set(CachedResponse.AGE, String.valueOf(stored.ageSeconds(now)));
+        response.setBody(Body.body(stored.body()));
+    }
+
+    private static boolean requiresRevalidation(MultiMap requestHeaders) {
+        final List<String> cacheControlValues = requestHeaders.getAll(HttpHeaders.CACHE_CONTROL);
+        if (cacheControlValues.isEmpty()) {
+            // RFC 9111 section 5.4, Pragma is only considered without Cache-Control
+            final String pragma = requestHeaders.get(PRAGMA);
+            return pragma != null && pragma.toLowerCase(Locale.ROOT).contains(CacheControl.NO_CACHE);
+        }
+        final CacheControl cacheControl = CacheControl.parse(cacheControlValues);
+        return cacheControl.has(CacheControl.NO_CACHE) || cacheControl.seconds(CacheControl.MAX_AGE) == 0;
+    }
+
+    private static boolean isConditional(MultiMap requestHeaders) {
+        return requestHeaders.contains(HttpHeaders.IF_NONE_MATCH)
+            || requestHeaders.contains(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}, see RFC 9110
+     * section 13.1.2.
+     */
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        final String opaqueTag = weak(etag);
+        for (String value : ifNoneMatch) {
+            for (String candidate : value.split(",")) {
+                final String trimmed = candidate.trim();
+                if (trimmed.equals(VARY_ANY) || weak(trimmed).equals(opaqueTag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String weak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static List<String> vary(MultiMap responseHeaders) {
+        final List<String> vary = new ArrayList<>();
+        for (String value : responseHeaders.getAll(HttpHeaders.VARY)) {
+            for (String name : value.split(",")) {
+                final String trimmed = name.trim().toLowerCase(Locale.ROOT);
+                if (!trimmed.isEmpty() && !vary.contains(trimmed)) {
+                    vary.add(trimmed);
+                }
+            }
+        }
+        return vary;
+    }
+
+    private static String primaryKey(ProxyRequest request) {
+        final HostAndPort authority = request.proxiedRequest().authority();
+        return (authority == null ? "" : authority.toString()) + request.getURI();
+    }
+
+    private static MultiMap copy(MultiMap headers) {
+        return MultiMap.caseInsensitiveMultiMap().addAll(headers);
+    }
+}
@@ -0,0 +1,44 @@
+package ch.uniport.gateway.proxy.service.circuitBreaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the requests a service processes at the same time, so that a slow
+ * service cannot hold up an unbounded number of requests and connections.
+ */
+public final class Bulkhead {
+
+    private final int maxConcurrentRequests;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public Bulkhead(int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be at least 1");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    /**
+     * @return whether the request may be processed. Every admitted request
+     *         must be followed by exactly one {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= maxConcurrentRequests) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
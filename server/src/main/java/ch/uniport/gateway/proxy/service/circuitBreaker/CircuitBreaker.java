@@ -0,0 +1,288 @@
+package ch.uniport.gateway.proxy.service.circuitBreaker;
+
+import ch.uniport.gateway.MeterRegistries;
+import ch.uniport.gateway.proxy.config.model.CircuitBreakerOptions;
+import ch.uniport.gateway.proxy.service.SharedMeters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker of a service, fed with the outcome of every request proxied
+ * to one of its servers.
+ * <p>
+ * While closed, the outcomes of the last {@code windowSize} requests are kept.
+ * Once at least {@code minimumCalls} requests were recorded and either the
+ * rate of failed requests reaches {@code failureRatePercent} or the rate of
+ * slow requests reaches {@code slowCallRatePercent}, the breaker opens and
+ * rejects all requests for {@code openDurationMs}. Afterwards, it is half-open
+ * and lets {@code halfOpenCalls} requests through as probes. A failed or slow
+ * probe opens the breaker again, once all probes succeeded it closes.
+ * <p>
+ * Every permission is tied to the state it was granted in. Outcomes and
+ * releases of requests permitted before the last state transition are
+ * ignored, so that a slow request permitted while closed is not taken for a
+ * probe.
+ * <p>
+ * State transitions are counted by
+ * {@code uniport.gateway.service.circuit-breaker.transitions}, tagged with the
+ * {@code service} and the states {@code from} and {@code to}. The counters are
+ * registered with the circuit breaker and removed by {@link #close()}.
+ */
+public final class CircuitBreaker {
+
+    static final String METRIC_NAME = "uniport.gateway.service.circuit-breaker.transitions";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private static final List<Transition> TRANSITIONS = List.of(
+        new Transition(State.CLOSED, State.OPEN),
+        new Transition(State.OPEN, State.HALF_OPEN),
+        new Transition(State.HALF_OPEN, State.OPEN),
+        new Transition(State.HALF_OPEN, State.CLOSED));
+
+    /**
+     * States of a circuit breaker.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Permission to send a request to the service, granted by
+     * {@link CircuitBreaker#tryAcquire()}. It is used up by the first call to
+     * {@link CircuitBreaker#onResult(Permit, boolean, long)} or
+     * {@link CircuitBreaker#release(Permit)}.
+     */
+    public static final class Permit {
+
+        private final long generation;
+        // guarded by the circuit breaker
+        private boolean used;
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    private final String name;
+    private final CircuitBreakerOptions options;
+    private final LongSupplier clock;
+    private final Map<Transition, SharedMeters.Handle> transitions;
+
+    // guarded by this
+    private State state = State.CLOSED;
+    // incremented on every state transition
+    private long generation;
+    private final byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failed;
+    private int slow;
+    private long openUntil;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(String name, CircuitBreakerOptions options) {
+        this(name, options, () -> System.nanoTime() / 1_000_000);
+    }
+
+    CircuitBreaker(String name, CircuitBreakerOptions options, LongSupplier clock) {
+        this.name = Objects.requireNonNull(name, "name must not be null");
+        this.options = Objects.requireNonNull(options, "options must not be null");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        this.outcomes = new byte[options.getWindowSize()];
+        this.transitions = registerTransitions(name);
+    }
+
+    /**
+     * @return the permission to send a request to the service, or null if the
+     *         request is to be rejected. Every permission must be followed by
+     *         {@link #onResult(Permit, boolean, long)} or
+     *         {@link #release(Permit)}.
+     */
+    public synchronized Permit tryAcquire() {
+        switch (state) {
+            case OPEN -> {
+                if (clock.getAsLong() < openUntil) {
+                    return null;
+                }
+                transitionTo(State.HALF_OPEN);
+                probesStarted = 1;
+                return new Permit(generation);
+            }
+            case HALF_OPEN -> {
+                if (probesStarted >= options.getHalfOpenCalls()) {
+                    return null;
+                }
+                probesStarted++;
+                return new Permit(generation);
+            }
+            default -> {
+                return new Permit(generation);
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a permitted request.
+     *
+     * @param permit
+     *            of the request
+     * @param failure
+     *            whether the request failed, i.e. no response or a server error
+     *            was received
+     * @param latencyMs
+     *            until the response headers were received
+     */
+    public synchronized void onResult(Permit permit, boolean failure, long latencyMs) {
+        if (!use(permit)) {
+            return;
+        }
+        final int slowCallDurationMs = options.getSlowCallDurationMs();
+        final boolean slowCall = slowCallDurationMs > 0 && latencyMs > slowCallDurationMs;
+        switch (state) {
+            case CLOSED -> record(failure, slowCall);
+            case HALF_OPEN -> {
+                if (failure || slowCall) {
+                    open();
+                    return;
+                }
+                probesSucceeded++;
+                if (probesSucceeded >= options.getHalfOpenCalls()) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            default -> {
+                // no permissions are granted while open
+            }
+        }
+    }
+
+    /**
+     * Returns the permission of a request that was not sent to the service,
+     * e.g. because it was answered from the cache.
+     *
+     * @param permit
+     *            of the request
+     */
+    public synchronized void release(Permit permit) {
+        if (!use(permit)) {
+            return;
+        }
+        // while half-open, every permission is a probe
+        if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--;
+        }
+    }
+
+    /**
+     * Removes the transition counters, once the service was removed.
+     */
+    public void close() {
+        transitions.values().forEach(SharedMeters.Handle::release);
+    }
+
+    /**
+     * @return the milliseconds until the breaker lets requests through again,
+     *         0 if it is not open
+     */
+    public synchronized long remainingOpenMs() {
+        return state == State.OPEN ? Math.max(0, openUntil - clock.getAsLong()) : 0;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return whether the permit is used for the first time and was granted
+     *         in the current state
+     */
+    private boolean use(Permit permit) {
+        if (permit.used) {
+            return false;
+        }
+        permit.used = true;
+        return permit.generation == generation;
+    }
+
+    private void record(boolean failure, boolean slowCall) {
+        if (recorded == outcomes.length) {
+            final byte evicted = outcomes[next];
+            failed -= evicted & FAILED;
+            slow -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        final byte outcome = (byte) ((failure ? FAILED : 0) | (slowCall ? SLOW : 0));
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+        failed += outcome & FAILED;
+        slow += (outcome & SLOW) >> 1;
+
+        if (recorded < options.getMinimumCalls()) {
+            return;
+        }
+        if (failed * 100L >= (long) options.getFailureRatePercent() * recorded
+            || slow * 100L >= (long) options.getSlowCallRatePercent() * recorded) {
+            LOGGER.warn("Opening circuit breaker of '{}' for {}ms, {} of {} requests failed and {} were slow",
+                name, options.getOpenDurationMs(), failed, recorded, slow);
+            open();
+        }
+    }
+
+    private void open() {
+        openUntil = clock.getAsLong() + options.getOpenDurationMs();
+        transitionTo(State.OPEN);
+    }
+
+    private void transitionTo(State to) {
+        final State from = state;
+        state = to;
+        generation++;
+        // every state starts with a clean slate
+        next = 0;
+        recorded = 0;
+        failed = 0;
+        slow = 0;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        LOGGER.info("Circuit breaker of '{}' changed from '{}' to '{}'", name, from, to);
+        countTransition(from, to);
+    }
+
+    private void countTransition(State from, State to) {
+        transitions.get(new Transition(from, to)).increment();
+    }
+
+    private static Map<Transition, SharedMeters.Handle> registerTransitions(String service) {
+        final MeterRegistry registry = MeterRegistries.getDefault();
+        final Map<Transition, SharedMeters.Handle> transitions = new HashMap<>();
+        for (Transition transition : TRANSITIONS) {
+            transitions.put(transition, SharedMeters.counter(registry, METRIC_NAME,
+                Tags.of("service", service, "from", transition.from.tag(), "to", transition.to.tag()),
+                "State transitions of the circuit breaker of a service"));
+        }
+        return transitions;
+    }
+
+    private record Transition(State from, State to) {
+    }
+}
@@ -0,0 +1,218 @@
+package ch.uniport.gateway.proxy.service.healthCheck;
+
+import ch.uniport.gateway.proxy.config.model.ActiveHealthCheckOptions;
+import ch.uniport.gateway.proxy.config.model.HealthCheckOptions;
+import ch.uniport.gateway.proxy.config.model.PassiveHealthCheckOptions;
+import ch.uniport.gateway.proxy.service.loadBalancer.Upstream;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Health checks of the servers of a service. Creates the
+ * {@link UpstreamHealth} of every server, periodically probes the servers if
+ * active health checks are enabled, and limits how many servers may be ejected
+ * at the same time by the passive outlier detection.
+ * <p>
+ * The proxies of a service, i.e. of all verticle instances, share the checker
+ * per Vert.x instance, as long as the servers and the health check options of
+ * the service do not change. The servers are then probed once per interval
+ * instead of once per verticle instance, with the clients of one of the
+ * proxies, and the outcomes of proxied requests of all proxies count towards
+ * the health of a server.
+ */
+public final class HealthChecker {
+
+    private static final String CHECKERS_MAP_NAME = "uniport.gateway.health-checkers";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HealthChecker.class);
+
+    private final Vertx vertx;
+    private final String name;
+    private final HealthCheckOptions options;
+    private final LongSupplier clock;
+    private final Map<String, UpstreamHealth> healths = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private final List<Owner> owners = new ArrayList<>();
+    private int acquired = 1;
+    private long timerId = -1;
+
+    public HealthChecker(Vertx vertx, String name, HealthCheckOptions options) {
+        this(vertx, name, options, () -> System.nanoTime() / 1_000_000);
+    }
+
+    HealthChecker(Vertx vertx, String name, HealthCheckOptions options, LongSupplier clock) {
+        this.vertx = Objects.requireNonNull(vertx, "vertx must not be null");
+        this.name = Objects.requireNonNull(name, "name must not be null");
+        this.options = Objects.requireNonNull(options, "options must not be null");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+    }
+
+    /**
+     * @param upstreams
+     *            the names of the upstreams of the service
+     * @return the checker of the service, created if it does not exist yet or
+     *         if its upstreams or options changed. It has to be released with
+     *         {@link #release(List)}.
+     */
+    public static HealthChecker acquire(
+        Vertx vertx, String name, List<String> upstreams, HealthCheckOptions options
+    ) {
+        final LocalMap<String, SharedChecker> checkers = vertx.sharedData().getLocalMap(CHECKERS_MAP_NAME);
+        final Settings settings = new Settings(List.copyOf(upstreams), options);
+        return checkers.compute(name, (k, existing) -> {
+            if (existing != null && existing.settings.equals(settings) && existing.checker.retain()) {
+                return existing;
+            }
+            return new SharedChecker(settings, new HealthChecker(vertx, name, options));
+        }).checker;
+    }
+
+    /**
+     * @param upstreamName
+     *            used for logging only
+     * @return the health of an upstream of this service, the same for all
+     *         proxies sharing this checker
+     */
+    public UpstreamHealth upstreamHealth(String upstreamName) {
+        return healths.computeIfAbsent(upstreamName,
+            k -> new UpstreamHealth(String.format("%s/%s", name, upstreamName), this, clock));
+    }
+
+    /**
+     * Starts probing the upstreams, if active health checks are enabled and the
+     * upstreams of another proxy are not probed already.
+     */
+    public synchronized void start(List<Upstream> upstreams) {
+        final Owner owner = new Owner(vertx.getOrCreateContext(), upstreams);
+        owners.add(owner);
+        startProbing(owner);
+    }
+
+    /**
+     * Releases the share of a proxy. If its upstreams were probed, the
+     * upstreams of another proxy are probed from now on. Probing stops when the
+     * last proxy releases the checker.
+     */
+    public void release(List<Upstream> upstreams) {
+        final boolean last;
+        synchronized (this) {
+            final boolean probing = !owners.isEmpty() && owners.get(0).upstreams.equals(upstreams);
+            owners.removeIf(owner -> owner.upstreams.equals(upstreams));
+            if (probing) {
+                stopProbing();
+                if (!owners.isEmpty()) {
+                    // the timer is bound to the context of the proxy whose clients are used
+                    final Owner next = owners.get(0);
+                    next.context.runOnContext(v -> startProbing(next));
+                }
+            }
+            last = --acquired == 0;
+        }
+        if (last) {
+            stopProbing();
+            final LocalMap<String, SharedChecker> checkers = vertx.sharedData().getLocalMap(CHECKERS_MAP_NAME);
+            checkers.computeIfPresent(name, (k, shared) -> shared.checker == this ? null : shared);
+        }
+    }
+
+    /**
+     * @return false, if the checker was released by all proxies and must not
+     *         be shared anymore
+     */
+    private synchronized boolean retain() {
+        if (acquired == 0) {
+            return false;
+        }
+        acquired++;
+        return true;
+    }
+
+    private synchronized void startProbing(Owner owner) {
+        final ActiveHealthCheckOptions active = options.getActive();
+        if (!active.isEnabled() || timerId >= 0 || owners.isEmpty() || owners.get(0) != owner) {
+            return;
+        }
+        LOGGER.debug("'{}' starts probing '{}' every {}ms", name, active.getPath(), active.getIntervalMs());
+        probe(owner.upstreams, active);
+        timerId = vertx.setPeriodic(active.getIntervalMs(), id -> probe(owner.upstreams, active));
+    }
+
+    private synchronized void stopProbing() {
+        if (timerId >= 0) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+    }
+
+    ActiveHealthCheckOptions activeOptions() {
+        return options.getActive();
+    }
+
+    PassiveHealthCheckOptions passiveOptions() {
+        return options.getPassive();
+    }
+
+    /**
+     * @return true if one more upstream may be ejected without exceeding
+     *         {@code maxEjectionPercent}
+     */
+    boolean mayEject() {
+        int ejected = 0;
+        for (UpstreamHealth health : healths.values()) {
+            if (health.isEjected()) {
+                ejected++;
+            }
+        }
+        return (ejected + 1) * 100 <= healths.size() * options.getPassive().getMaxEjectionPercent();
+    }
+
+    private void probe(List<Upstream> upstreams, ActiveHealthCheckOptions active) {
+        for (Upstream upstream : upstreams) {
+            upstream.client().request(new RequestOptions()
+                .setServer(upstream.address())
+                .setHost(upstream.host())
+                .setPort(upstream.port())
+                .setMethod(HttpMethod.GET)
+                .setURI(active.getPath())
+                .setConnectTimeout(active.getTimeoutMs())
+                .setIdleTimeout(active.getTimeoutMs()))
+                .compose(HttpClientRequest::send)
+                .compose(response -> response.body().map(ignored -> response.statusCode()))
+                .onSuccess(statusCode -> {
+                    final boolean healthy = statusCode == active.getExpectedStatus();
+                    if (!healthy) {
+                        LOGGER.debug("'{}' health check of '{}' returned {}", name, upstream, statusCode);
+                    }
+                    upstream.health().onProbe(healthy);
+                })
+                .onFailure(err -> {
+                    LOGGER.debug("'{}' health check of '{}' failed: {}", name, upstream, err.getMessage());
+                    upstream.health().onProbe(false);
+                });
+        }
+    }
+
+    private record Owner(Context context, List<Upstream> upstreams) {
+    }
+
+    private record Settings(List<String> upstreams, HealthCheckOptions options) {
+    }
+
+    // local maps only accept shareable values, the checkers are thread-safe
+    private record SharedChecker(Settings settings, HealthChecker checker) implements Shareable {
+    }
+}
@@ -0,0 +1,155 @@
+package ch.uniport.gateway.proxy.service.healthCheck;
+
+import ch.uniport.gateway.proxy.config.model.ActiveHealthCheckOptions;
+import ch.uniport.gateway.proxy.config.model.PassiveHealthCheckOptions;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Health of a single upstream, as observed by active probes and by the
+ * responses of proxied requests (passive outlier detection).
+ * <p>
+ * An upstream is unavailable while it is marked unhealthy by the active probes
+ * or while it is ejected. Ejections last {@code baseEjectionMs * 2^(n-1)}
+ * (capped at {@code maxEjectionMs}), where {@code n} counts the ejections in a
+ * row. The count is reset once the upstream stayed in rotation for
+ * {@code maxEjectionMs}.
+ */
+public final class UpstreamHealth {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UpstreamHealth.class);
+
+    // limits the exponent of the back-off, the duration is capped anyway
+    private static final int MAX_BACK_OFF_EXPONENT = 20;
+
+    private final String name;
+    private final HealthChecker checker;
+    private final LongSupplier clock;
+
+    private volatile boolean activeHealthy = true;
+    private volatile long ejectedUntil = Long.MIN_VALUE;
+
+    // guarded by this
+    private int consecutiveFailures;
+    private int consecutiveEjections;
+    private int probeFailures;
+    private int probeSuccesses;
+
+    UpstreamHealth(String name, HealthChecker checker, LongSupplier clock) {
+        this.name = name;
+        this.checker = checker;
+        this.clock = clock;
+    }
+
+    /**
+     * @return health of an upstream without any health checks, it is always
+     *         available
+     */
+    public static UpstreamHealth alwaysHealthy() {
+        return new UpstreamHealth("", null, () -> 0L);
+    }
+
+    public boolean isAvailable() {
+        return activeHealthy && !isEjected();
+    }
+
+    public boolean isEjected() {
+        return clock.getAsLong() < ejectedUntil;
+    }
+
+    /**
+     * Records the response of a proxied request. Server errors and responses
+     * slower than the configured latency threshold count as failures.
+     */
+    public void onResponse(int statusCode, long latencyMs) {
+        if (!isPassiveEnabled()) {
+            return;
+        }
+        final int latencyThresholdMs = checker.passiveOptions().getLatencyThresholdMs();
+        if (statusCode >= 500 || (latencyThresholdMs > 0 && latencyMs > latencyThresholdMs)) {
+            onFailure();
+        } else {
+            onSuccess();
+        }
+    }
+
+    /**
+     * Records a proxied request that did not get any response, e.g. because the
+     * connection could not be established.
+     */
+    public void onFailure() {
+        if (!isPassiveEnabled()) {
+            return;
+        }
+        final PassiveHealthCheckOptions options = checker.passiveOptions();
+        synchronized (this) {
+            consecutiveFailures++;
+            if (consecutiveFailures < options.getConsecutiveFailures() || isEjected()) {
+                return;
+            }
+            if (!checker.mayEject()) {
+                LOGGER.warn("'{}' is failing, but is not ejected as too many servers are ejected already", name);
+                return;
+            }
+            eject(options);
+        }
+    }
+
+    private void onSuccess() {
+        synchronized (this) {
+            consecutiveFailures = 0;
+        }
+    }
+
+    private void eject(PassiveHealthCheckOptions options) {
+        final long now = clock.getAsLong();
+        if (consecutiveEjections > 0 && now - ejectedUntil >= options.getMaxEjectionMs()) {
+            // stayed in rotation long enough, start over with the base duration
+            consecutiveEjections = 0;
+        }
+        consecutiveEjections++;
+        final int exponent = Math.min(consecutiveEjections - 1, MAX_BACK_OFF_EXPONENT);
+        final long duration = Math.min((long) options.getBaseEjectionMs() << exponent, options.getMaxEjectionMs());
+        ejectedUntil = now + duration;
+        consecutiveFailures = 0;
+        LOGGER.info("Ejecting '{}' for {}ms after {} consecutive failures", name, duration,
+            options.getConsecutiveFailures());
+    }
+
+    /**
+     * Records the result of an active health probe.
+     */
+    public void onProbe(boolean healthy) {
+        if (checker == null) {
+            return;
+        }
+        final ActiveHealthCheckOptions options = checker.activeOptions();
+        synchronized (this) {
+            if (healthy) {
+                probeFailures = 0;
+                probeSuccesses++;
+                if (!activeHealthy && probeSuccesses >= options.getHealthyThreshold()) {
+                    LOGGER.info("'{}' is healthy again", name);
+                    activeHealthy = true;
+                }
+            } else {
+                probeSuccesses = 0;
+                probeFailures++;
+                if (activeHealthy && probeFailures >= options.getUnhealthyThreshold()) {
+                    LOGGER.warn("'{}' is unhealthy after {} failed health checks", name, probeFailures);
+                    activeHealthy = false;
+                }
+            }
+        }
+    }
+
+    private boolean isPassiveEnabled() {
+        return checker != null && checker.passiveOptions().isEnabled();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,46 @@
+package ch.uniport.gateway.proxy.service.loadBalancer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects the available upstream with the fewest outstanding requests. Ties
+ * are broken round-robin, so that idle upstreams are not always hit in the
+ * same order.
+ */
+final class LeastRequestsLoadBalancer implements LoadBalancer {
+
+    private final List<Upstream> upstreams;
+    private final AtomicInteger offset = new AtomicInteger();
+
+    LeastRequestsLoadBalancer(List<Upstream> upstreams) {
+        this.upstreams = List.copyOf(upstreams);
+    }
+
+    @Override
+    public Upstream next() {
+        final int size = upstreams.size();
+        final int start = Math.floorMod(offset.getAndIncrement(), size);
+
+        Upstream best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        for (int i = 0; i < size && bestOutstanding > 0; i++) {
+            final Upstream candidate = upstreams.get((start + i) % size);
+            if (!candidate.isAvailable()) {
+                continue;
+            }
+            final int outstanding = candidate.outstandingRequests();
+            if (outstanding < bestOutstanding) {
+                best = candidate;
+                bestOutstanding = outstanding;
+            }
+        }
+        // no upstream is available, rather try one than fail the request
+        return best != null ? best : upstreams.get(start);
+    }
+
+    @Override
+    public List<Upstream> upstreams() {
+        return upstreams;
+    }
+}
@@ -0,0 +1,32 @@
+package ch.uniport.gateway.proxy.service.loadBalancer;
+
+import java.util.List;
+
+/**
+ * Selects the upstream a request is proxied to.
+ */
+public interface LoadBalancer {
+
+    static LoadBalancer of(LoadBalancingStrategy strategy, List<Upstream> upstreams) {
+        if (upstreams == null || upstreams.isEmpty()) {
+            throw new IllegalArgumentException("at least one upstream is required");
+        }
+        if (upstreams.size() == 1) {
+            return new SingleUpstreamLoadBalancer(upstreams.get(0));
+        }
+
+        return switch (strategy) {
+            case ROUND_ROBIN -> new RoundRobinLoadBalancer(upstreams);
+            case WEIGHTED_ROUND_ROBIN -> new WeightedRoundRobinLoadBalancer(upstreams);
+            case LEAST_REQUESTS -> new LeastRequestsLoadBalancer(upstreams);
+            case POWER_OF_TWO_CHOICES -> new PowerOfTwoChoicesLoadBalancer(upstreams);
+        };
+    }
+
+    /**
+     * @return the upstream for the next request, never null
+     */
+    Upstream next();
+
+    List<Upstream> upstreams();
+}
@@ -0,0 +1,25 @@
+package ch.uniport.gateway.proxy.service.loadBalancer;
+
+import ch.uniport.gateway.proxy.config.DynamicConfiguration;
+
+public enum LoadBalancingStrategy {
+
+    ROUND_ROBIN(DynamicConfiguration.SERVICE_LOAD_BALANCER_STRATEGY_ROUND_ROBIN),
+
+    WEIGHTED_ROUND_ROBIN(DynamicConfiguration.SERVICE_LOAD_BALANCER_STRATEGY_WEIGHTED_ROUND_ROBIN),
+
+    LEAST_REQUESTS(DynamicConfiguration.SERVICE_LOAD_BALANCER_STRATEGY_LEAST_REQUESTS),
+
+    POWER_OF_TWO_CHOICES(DynamicConfiguration.SERVICE_LOAD_BALANCER_STRATEGY_POWER_OF_TWO_CHOICES);
+
+    private final String name;
+
+    LoadBalancingStrategy(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -0,0 +1,53 @@
+package ch.uniport.gateway.proxy.service.loadBalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two distinct upstreams at random and selects the one with fewer
+ * outstanding requests. This gets close to {@link LeastRequestsLoadBalancer}
+ * while only looking at two upstreams per request, and it avoids that several
+ * gateway instances all pile onto the same least loaded upstream.
+ */
+final class PowerOfTwoChoicesLoadBalancer implements LoadBalancer {
+
+    private final List<Upstream> upstreams;
+
+    PowerOfTwoChoicesLoadBalancer(List<Upstream> upstreams) {
+        this.upstreams = List.copyOf(upstreams);
+    }
+
+    @Override
+    public Upstream next() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int size = upstreams.size();
+        final int first = random.nextInt(size);
+        // pick a second index different from the first one
+        final int second = (first + 1 + random.nextInt(size - 1)) % size;
+
+        final Upstream a = upstreams.get(first);
+        final Upstream b = upstreams.get(second);
+        if (a.isAvailable() && b.isAvailable()) {
+            return b.outstandingRequests() < a.outstandingRequests() ? b : a;
+        }
+        if (a.isAvailable()) {
+            return a;
+        }
+        if (b.isAvailable()) {
+            return b;
+        }
+        for (int i = 1; i < size; i++) {
+            final Upstream candidate = upstreams.get((first + i) % size);
+            if (candidate.isAvailable()) {
+                return candidate;
+            }
+        }
+        // no upstream is available, rather try one than fail the request
+        return a;
+    }
+
+    @Override
+    public List<Upstream> upstreams() {
+        return upstreams;
+    }
+}
@@ -0,0 +1,37 @@
+package ch.uniport.gateway.proxy.service.loadBalancer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cycles through all upstreams in the configured order, skipping unavailable
+ * upstreams.
+ */
+final class RoundRobinLoadBalancer implements LoadBalancer {
+
+    private final List<Upstream> upstreams;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    RoundRobinLoadBalancer(List<Upstream> upstreams) {
+        this.upstreams = List.copyOf(upstreams);
+    }
+
+    @Override
+    public Upstream next() {
+        final int size = upstreams.size();
+        final int start = Math.floorMod(counter.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            final Upstream upstream = upstreams.get((start + i) % size);
+            if (upstream.isAvailable()) {
+                return upstream;
+            }
+        }
+        // no upstream is available, rather try one than fail the request
+        return upstreams.get(start);
+    }
+
+    @Override
+    public List<Upstream> upstreams() {
+        return upstreams;
+    }
+}
@@ -0,0 +1,26 @@
+package ch.uniport.gateway.proxy.service.loadBalancer;
+
+import java.util.List;
+
+/**
+ * Used for services with a single server, regardless of the configured
+ * strategy.
+ */
+final class SingleUpstreamLoadBalancer implements LoadBalancer {
+
+    private final Upstream upstream;
+
+    SingleUpstreamLoadBalancer(Upstream upstream) {
+        this.upstream = upstream;
+    }
+
+    @Override
+    public Upstream next() {
+        return upstream;
+    }
+
+    @Override
+    public List<Upstream> upstreams() {
+        return List.of(upstream);
+    }
+}
@@ -0,0 +1,119 @@
+package ch.uniport.gateway.proxy.service.loadBalancer;
+
+import ch.uniport.gateway.proxy.service.healthCheck.UpstreamHealth;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.net.SocketAddress;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single server of a service, together with its own {@link HttpClient} (and
+ * therefore its own connection pool), the number of requests currently in
+ * flight to it and its health.
+ */
+public final class Upstream {
+
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final int weight;
+    private final SocketAddress address;
+    private final HttpClient client;
+    private final AtomicInteger outstandingRequests = new AtomicInteger();
+    private final AtomicInteger openConnections;
+    private final UpstreamHealth health;
+
+    public Upstream(String protocol, String host, int port, int weight, HttpClient client) {
+        this(protocol, host, port, weight, client, new AtomicInteger(), UpstreamHealth.alwaysHealthy());
+    }
+
+    /**
+     * @param openConnections
+     *            counter of the connections currently open in the pool of the
+     *            client, maintained by the owner of the client
+     * @param health
+     *            decides whether the upstream is available for new requests
+     */
+    public Upstream(String protocol, String host, int port, int weight, HttpClient client,
+        AtomicInteger openConnections, UpstreamHealth health
+    ) {
+        Objects.requireNonNull(protocol, "protocol must not be null");
+        Objects.requireNonNull(host, "host must not be null");
+        Objects.requireNonNull(client, "client must not be null");
+        Objects.requireNonNull(openConnections, "openConnections must not be null");
+        Objects.requireNonNull(health, "health must not be null");
+        if (weight < 1) {
+            throw new IllegalArgumentException("weight must be at least 1");
+        }
+
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.weight = weight;
+        this.address = SocketAddress.inetSocketAddress(port, host);
+        this.client = client;
+        this.openConnections = openConnections;
+        this.health = health;
+    }
+
+    public String protocol() {
+        return protocol;
+    }
+
+    public String host() {
+        return host;
+    }
+
+    public int port() {
+        return port;
+    }
+
+    public int weight() {
+        return weight;
+    }
+
+    public SocketAddress address() {
+        return address;
+    }
+
+    public HttpClient client() {
+        return client;
+    }
+
+    public int outstandingRequests() {
+        return outstandingRequests.get();
+    }
+
+    public int openConnections() {
+        return openConnections.get();
+    }
+
+    public UpstreamHealth health() {
+        return health;
+    }
+
+    /**
+     * @return false if the upstream is considered unhealthy and should not get
+     *         new requests
+     */
+    public boolean isAvailable() {
+        return health.isAvailable();
+    }
+
+    /**
+     * Has to be called when a request is sent to this upstream. Every call has
+     * to be followed by exactly one call to {@link #release()}.
+     */
+    public void acquire() {
+        outstandingRequests.incrementAndGet();
+    }
+
+    public void release() {
+        outstandingRequests.decrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s://%s:%d", protocol, host, port);
+    }
+}
@@ -0,0 +1,57 @@
+package ch.uniport.gateway.proxy.service.loadBalancer;
+
+import java.util.List;
+
+/**
+ * Smooth weighted round-robin as implemented by nginx: every upstream is
+ * selected proportionally to its weight, and selections of the same upstream
+ * are spread evenly instead of being sent in bursts. For the weights
+ * {@code 5, 1, 1} the selection sequence is {@code a a b a c a a}.
+ */
+final class WeightedRoundRobinLoadBalancer implements LoadBalancer {
+
+    private final List<Upstream> upstreams;
+    private final int[] currentWeights;
+
+    WeightedRoundRobinLoadBalancer(List<Upstream> upstreams) {
+        this.upstreams = List.copyOf(upstreams);
+        this.currentWeights = new int[upstreams.size()];
+    }
+
+    @Override
+    public synchronized Upstream next() {
+        final Upstream upstream = select(true);
+        // no upstream is available, rather try one than fail the request
+        return upstream != null ? upstream : select(false);
+    }
+
+    /**
+     * Unavailable upstreams do not take part in a round, so their share is
+     * distributed among the available upstreams according to their weights.
+     */
+    private Upstream select(boolean availableOnly) {
+        int best = -1;
+        int totalWeight = 0;
+        for (int i = 0; i < currentWeights.length; i++) {
+            final Upstream upstream = upstreams.get(i);
+            if (availableOnly && !upstream.isAvailable()) {
+                continue;
+            }
+            currentWeights[i] += upstream.weight();
+            totalWeight += upstream.weight();
+            if (best < 0 || currentWeights[i] > currentWeights[best]) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        currentWeights[best] -= totalWeight;
+        return upstreams.get(best);
+    }
+
+    @Override
+    public List<Upstream> upstreams() {
+        return upstreams;
+    }
+}
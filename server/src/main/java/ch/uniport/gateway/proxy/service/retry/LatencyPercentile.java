@@ -0,0 +1,61 @@
+package ch.uniport.gateway.proxy.service.retry;
+
+import java.util.Arrays;
+
+/**
+ * Estimates a percentile of the latencies of a service from its most recent
+ * {@value #WINDOW_SIZE} requests. The estimate is recomputed every
+ * {@value #RECOMPUTE_INTERVAL} requests, so that recording stays cheap.
+ */
+public final class LatencyPercentile {
+
+    static final int WINDOW_SIZE = 1024;
+    static final int RECOMPUTE_INTERVAL = 64;
+    static final int MIN_SAMPLES = 100;
+
+    private final int percentile;
+
+    // guarded by this
+    private final long[] samples = new long[WINDOW_SIZE];
+    private final long[] sorted = new long[WINDOW_SIZE];
+    private int next;
+    private int count;
+    private int sinceRecompute;
+
+    private volatile long value = -1;
+
+    public LatencyPercentile(int percentile) {
+        if (percentile < 1 || percentile > 99) {
+            throw new IllegalArgumentException("percentile must be between 1 and 99");
+        }
+        this.percentile = percentile;
+    }
+
+    public synchronized void record(long latencyMs) {
+        samples[next] = latencyMs;
+        next = (next + 1) % WINDOW_SIZE;
+        if (count < WINDOW_SIZE) {
+            count++;
+        }
+        sinceRecompute++;
+        if (count >= MIN_SAMPLES && (value < 0 || sinceRecompute >= RECOMPUTE_INTERVAL)) {
+            recompute();
+        }
+    }
+
+    /**
+     * @return the estimated percentile in milliseconds, or -1 until
+     *         {@value #MIN_SAMPLES} latencies were recorded
+     */
+    public long value() {
+        return value;
+    }
+
+    private void recompute() {
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        final int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        value = sorted[Math.max(0, index)];
+        sinceRecompute = 0;
+    }
+}
@@ -0,0 +1,63 @@
+package ch.uniport.gateway.proxy.service.retry;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket limiting the retries and hedged requests of a service, so that
+ * they cannot multiply the load on a failing service.
+ * <p>
+ * Every request deposits {@code budgetPercent / 100} tokens, and
+ * {@code minRetriesPerSecond} tokens are added per second, so that services
+ * with little traffic can retry too. Every retry withdraws a token. The bucket
+ * holds at most the tokens of {@value #BURST_SECONDS} seconds at the minimum
+ * rate, but at least {@value #MIN_CAPACITY}.
+ */
+public final class RetryBudget {
+
+    static final int BURST_SECONDS = 10;
+    static final int MIN_CAPACITY = 10;
+
+    private final double depositPerRequest;
+    private final double tokensPerMs;
+    private final double capacity;
+    private final LongSupplier clock;
+
+    // guarded by this
+    private double tokens;
+    private long refilledAt;
+
+    public RetryBudget(int budgetPercent, int minRetriesPerSecond) {
+        this(budgetPercent, minRetriesPerSecond, () -> System.nanoTime() / 1_000_000);
+    }
+
+    RetryBudget(int budgetPercent, int minRetriesPerSecond, LongSupplier clock) {
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        this.depositPerRequest = budgetPercent / 100.0;
+        this.tokensPerMs = minRetriesPerSecond / 1000.0;
+        this.capacity = Math.max(MIN_CAPACITY, (double) minRetriesPerSecond * BURST_SECONDS);
+        this.tokens = capacity;
+        this.refilledAt = clock.getAsLong();
+    }
+
+    /**
+     * Records a request sent for the first time.
+     */
+    public synchronized void deposit() {
+        tokens = Math.min(capacity, tokens + depositPerRequest);
+    }
+
+    /**
+     * @return whether a request may be retried or hedged
+     */
+    public synchronized boolean tryWithdraw() {
+        final long now = clock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerMs);
+        refilledAt = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package ch.uniport.gateway.core.admin;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.net.SocketAddress;
+import org.junit.jupiter.api.Test;
+
+public class AdminServerTest {
+
+    @Test
+    public void shouldAcceptLoopbackAddresses() {
+        // given
+        final SocketAddress ipv4 = SocketAddress.inetSocketAddress(1234, "127.0.0.1");
+        final SocketAddress ipv6 = SocketAddress.inetSocketAddress(1234, "::1");
+
+        // when
+        final boolean ipv4Local = AdminServer.isLocal(ipv4);
+        final boolean ipv6Local = AdminServer.isLocal(ipv6);
+
+        // then
+        assertTrue(ipv4Local);
+        assertTrue(ipv6Local);
+    }
+
+    @Test
+    public void shouldRejectRemoteAddresses() {
+        // given
+        final SocketAddress remote = SocketAddress.inetSocketAddress(1234, "10.0.0.1");
+
+        // when
+        final boolean local = AdminServer.isLocal(remote);
+
+        // then
+        assertFalse(local);
+        assertFalse(AdminServer.isLocal(null));
+    }
+}
@@ -0,0 +1,85 @@
+package ch.uniport.gateway.proxy.listener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import ch.uniport.gateway.proxy.config.model.DynamicModel;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class SharedConfigurationTest {
+
+    private static final String ADDRESS = "test-shared-configuration-address";
+
+    @Test
+    public void allSubscribersReceiveSameSnapshot(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final DynamicModel model = DynamicModel.builder().build();
+        final SharedConfigurationPublisher publisher = new SharedConfigurationPublisher(vertx, ADDRESS);
+
+        final Checkpoint received = testCtx.checkpoint(2);
+        final SharedConfigurationSubscriber first = new SharedConfigurationSubscriber(vertx, ADDRESS);
+        final SharedConfigurationSubscriber second = new SharedConfigurationSubscriber(vertx, ADDRESS);
+        for (SharedConfigurationSubscriber subscriber : List.of(first, second)) {
+            subscriber.addListener(m -> testCtx.verify(() -> {
+                // then
+                assertSame(model, m);
+                received.flag();
+            }));
+        }
+
+        // when
+        first.subscribe()
+            .compose(v -> second.subscribe())
+            .onComplete(testCtx.succeeding(v -> publisher.listen(model)));
+    }
+
+    @Test
+    public void lateSubscriberReceivesCurrentSnapshot(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final DynamicModel model = DynamicModel.builder().build();
+        final SharedConfigurationPublisher publisher = new SharedConfigurationPublisher(vertx, ADDRESS);
+        publisher.listen(model);
+
+        final SharedConfigurationSubscriber subscriber = new SharedConfigurationSubscriber(vertx, ADDRESS);
+        subscriber.addListener(m -> testCtx.verify(() -> {
+            // then
+            assertSame(model, m);
+            testCtx.completeNow();
+        }));
+
+        // when
+        subscriber.subscribe()
+            .onFailure(testCtx::failNow);
+    }
+
+    @Test
+    public void subscribeBeforePublisherIsDeployed(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final DynamicModel model = DynamicModel.builder().build();
+        final List<DynamicModel> received = new ArrayList<>();
+        final SharedConfigurationSubscriber subscriber = new SharedConfigurationSubscriber(vertx, ADDRESS);
+        subscriber.addListener(received::add);
+
+        // when
+        subscriber.subscribe()
+            .onComplete(testCtx.succeeding(v -> {
+                final SharedConfigurationPublisher publisher = new SharedConfigurationPublisher(vertx, ADDRESS);
+                publisher.listen(model);
+
+                vertx.setTimer(100, id -> testCtx.verify(() -> {
+                    // then
+                    assertEquals(1, received.size());
+                    assertSame(model, received.get(0));
+                    testCtx.completeNow();
+                }));
+            }));
+    }
+}
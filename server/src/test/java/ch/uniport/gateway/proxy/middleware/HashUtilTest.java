@@ -0,0 +1,24 @@
+package ch.uniport.gateway.proxy.middleware;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+public class HashUtilTest {
+
+    @Test
+    public void shouldEncodeDigestUrlSafeWithoutPadding() {
+        // given
+        final String value = "abc";
+
+        // when
+        final String hash = HashUtil.sha256(value);
+
+        // then
+        assertEquals("ungWv48Bz-pBQUDeXa4iI7ADYaOWF3qctBD_YfIAFa0", hash);
+        assertArrayEquals(Base64.getUrlDecoder().decode(hash), HashUtil.sha256(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
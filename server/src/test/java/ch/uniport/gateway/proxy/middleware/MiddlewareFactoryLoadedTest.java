@@ -2,6 +2,7 @@ package ch.uniport.gateway.proxy.middleware;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import ch.uniport.gateway.Runtime;
@@ -42,6 +43,50 @@ public class MiddlewareFactoryLoadedTest {
         testCtx.completeNow();
     }
 
+    @Test
+    void shouldReuseFactories() {
+        // given
+        final MiddlewareFactoryLoader loader = MiddlewareFactoryLoader.getInstance();
+
+        // when
+        Optional<MiddlewareFactory> first = loader.getFactory("additionalRoutes");
+        Optional<MiddlewareFactory> second = loader.getFactory("additionalRoutes");
+
+        // then
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertTrue(loader.getFactory("unknown").isEmpty());
+    }
+
+    @Test
+    void shouldDiscoverExternalJarImplementationOnReload() throws Exception {
+        // given
+        final MiddlewareFactoryLoader loader = MiddlewareFactoryLoader.getInstance();
+        Path tempDir = Files.createTempDirectory("mock-extension-reload-test");
+        File mockJarFile = MockExtensionsJarCreator.create(tempDir);
+        String previousExtensionsPath = System.getProperty(Runtime.EXTENSIONS_PATH_PROPERTY);
+        System.setProperty(Runtime.EXTENSIONS_PATH_PROPERTY, mockJarFile.getParent());
+
+        try {
+            // when
+            loader.reload();
+
+            // then
+            Optional<MiddlewareFactory> maybe = loader.getFactory(MockExtensionsJarCreator.MOCK_TYPE);
+            assertTrue(maybe.isPresent(), "mock extension not found");
+            assertEquals(MockExtensionsJarCreator.IMPL_FQN, maybe.get().getClass().getName());
+            assertTrue(loader.getFactory("additionalRoutes").isPresent());
+        } finally {
+            if (previousExtensionsPath == null) {
+                System.clearProperty(Runtime.EXTENSIONS_PATH_PROPERTY);
+            } else {
+                System.setProperty(Runtime.EXTENSIONS_PATH_PROPERTY, previousExtensionsPath);
+            }
+            loader.reload();
+            tempDir.toFile().delete();
+        }
+    }
+
     @Test
     void shouldDiscoverExternalJarImplementation() throws Exception {
         // given
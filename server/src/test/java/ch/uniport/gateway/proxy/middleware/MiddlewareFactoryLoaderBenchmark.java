@@ -0,0 +1,81 @@
+package ch.uniport.gateway.proxy.middleware;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the lookup of the factories of a configuration with 200
+ * middlewares, as done on every configuration reload, by discovering the
+ * factories with a {@link ServiceLoader} per lookup (as before) and with the
+ * registry of the {@link MiddlewareFactoryLoader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MiddlewareFactoryLoaderBenchmark {
+
+    private static final int MIDDLEWARES = 200;
+
+    private String[] types;
+    private URLClassLoader classLoader;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(MiddlewareFactoryLoaderBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+
+    @Setup
+    public void setup() {
+        final List<String> available = MiddlewareFactoryLoader.getInstance().listFactories().stream()
+            .map(MiddlewareFactory::provides)
+            .toList();
+        types = new String[MIDDLEWARES];
+        for (int i = 0; i < MIDDLEWARES; i++) {
+            types[i] = available.get(i % available.size());
+        }
+        classLoader = new URLClassLoader(new URL[0], MiddlewareFactory.class.getClassLoader());
+    }
+
+    @Benchmark
+    public void serviceLoaderPerLookup(Blackhole blackhole) {
+        for (String type : types) {
+            final Optional<MiddlewareFactory> factory = ServiceLoader.load(MiddlewareFactory.class, classLoader)
+                .stream()
+                .map(ServiceLoader.Provider::get)
+                .filter(f -> f.provides().equals(type))
+                .findFirst();
+            blackhole.consume(factory);
+        }
+    }
+
+    @Benchmark
+    public void registry(Blackhole blackhole) {
+        final MiddlewareFactoryLoader loader = MiddlewareFactoryLoader.getInstance();
+        for (String type : types) {
+            blackhole.consume(loader.getFactory(type));
+        }
+    }
+}
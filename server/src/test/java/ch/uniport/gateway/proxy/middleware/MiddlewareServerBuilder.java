@@ -38,6 +38,7 @@ import ch.uniport.gateway.proxy.middleware.log.RequestResponseLoggerMiddleware;
 import ch.uniport.gateway.proxy.middleware.matomo.MatomoMiddleware;
 import ch.uniport.gateway.proxy.middleware.oauth2.AuthenticationUserContext;
 import ch.uniport.gateway.proxy.middleware.oauth2.OAuth2MiddlewareFactory;
+import ch.uniport.gateway.proxy.middleware.rateLimit.RateLimitMiddlewareFactory;
 import ch.uniport.gateway.proxy.middleware.replacePathRegex.ReplacePathRegexMiddleware;
 import ch.uniport.gateway.proxy.middleware.replacedSessionCookieDetection.ReplacedSessionCookieDetectionMiddleware;
 import ch.uniport.gateway.proxy.middleware.responseHeadersOnStatus.ResponseHeadersOnStatusMiddleware;
@@ -513,6 +514,15 @@ public final class MiddlewareServerBuilder {
         return withMiddleware(new ClaimToHeaderMiddleware("withClaimToMiddleware", claim, headerName));
     }
 
+    public MiddlewareServerBuilder withRateLimitMiddleware(MiddlewareOptionsModel rateLimitConfig) {
+        final Future<Middleware> middlewareFuture = new RateLimitMiddlewareFactory()
+            .create(vertx, "rateLimit", router, rateLimitConfig);
+        if (middlewareFuture.failed()) {
+            throw new IllegalStateException("RateLimit Middleware could not be instantiated");
+        }
+        return withMiddleware(middlewareFuture.result());
+    }
+
     public MiddlewareServerBuilder withReplacedSessionCookieDetectionMiddleware() {
         return withMiddleware(
             new ReplacedSessionCookieDetectionMiddleware(
@@ -0,0 +1,110 @@
+package ch.uniport.gateway.proxy.middleware;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.HttpHeaders;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class RequestCookiesTest {
+
+    @Test
+    public void parsesAllHeaders() {
+        // given
+        final List<String> headers = List.of("a=1; b=2", "c=3");
+
+        // when
+        final RequestCookies cookies = RequestCookies.parse(headers);
+
+        // then
+        assertEquals(3, cookies.size());
+        assertEquals("1", cookies.get("a").getValue());
+        assertEquals("3", cookies.get("c").getValue());
+        assertNull(cookies.get("d"));
+    }
+
+    @Test
+    public void parsesInvalidCookies() {
+        // given
+        final List<String> headers = List.of("app-platform=iOS App Store; whatsNew:1.01=true");
+
+        // when
+        final RequestCookies cookies = RequestCookies.parse(headers);
+
+        // then
+        assertEquals("iOS App Store", cookies.get("app-platform").getValue());
+        assertEquals("true", cookies.get("whatsNew:1.01").getValue());
+    }
+
+    @Test
+    public void keepsHeadersIfUnmodified() {
+        // given
+        final MultiMap headers = cookieHeaders("b=2;a=1", "c=\"3\"");
+        final RequestCookies cookies = RequestCookies.parse(headers.getAll(HttpHeaders.COOKIE));
+
+        // when
+        final boolean removed = cookies.remove("d");
+        cookies.writeTo(headers);
+
+        // then
+        assertFalse(removed);
+        assertFalse(cookies.isModified());
+        assertEquals(List.of("b=2;a=1", "c=\"3\""), headers.getAll(HttpHeaders.COOKIE));
+    }
+
+    @Test
+    public void preservesHeaderStructure() {
+        // given
+        final MultiMap headers = cookieHeaders("b=2; a=1", "session=4", "c=\"3\"; d=5");
+        final RequestCookies cookies = RequestCookies.parse(headers.getAll(HttpHeaders.COOKIE));
+
+        // when
+        final boolean removed = cookies.remove("session");
+        cookies.add(Cookie.cookie("e", "6"));
+        cookies.writeTo(headers);
+
+        // then
+        assertTrue(removed);
+        assertEquals(List.of("b=2; a=1", "c=\"3\"; d=5; e=6"), headers.getAll(HttpHeaders.COOKIE));
+    }
+
+    @Test
+    public void removesEmptyHeaders() {
+        // given
+        final MultiMap headers = cookieHeaders("a=1", "b=2");
+        final RequestCookies cookies = RequestCookies.parse(headers.getAll(HttpHeaders.COOKIE));
+
+        // when
+        cookies.clear();
+        cookies.writeTo(headers);
+
+        // then
+        assertFalse(headers.contains(HttpHeaders.COOKIE));
+    }
+
+    @Test
+    public void keepsReceivedCookies() {
+        // given
+        final RequestCookies cookies = RequestCookies.parse(List.of("a=1"));
+
+        // when
+        cookies.remove("a");
+
+        // then
+        assertNull(cookies.get("a"));
+        assertEquals("1", cookies.received("a").getValue());
+    }
+
+    private static MultiMap cookieHeaders(String... values) {
+        final MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+        for (String value : values) {
+            headers.add(HttpHeaders.COOKIE, value);
+        }
+        return headers;
+    }
+}
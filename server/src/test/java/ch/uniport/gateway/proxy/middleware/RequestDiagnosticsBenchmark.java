@@ -0,0 +1,112 @@
+package ch.uniport.gateway.proxy.middleware;
+
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the DEBUG logging of a chain of 10 middlewares with eagerly
+ * evaluated arguments and with {@link RequestDiagnostics}, with DEBUG being
+ * disabled. Every invocation is a new request, whose absolute URI is built on
+ * first use and cached, as by Vert.x. Run with the GC profiler, the lazy
+ * variant should not allocate per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestDiagnosticsBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestDiagnosticsBenchmark.class);
+    private static final int CHAIN_LENGTH = 10;
+
+    private String[] names;
+    private FakeRequest request;
+    private RoutingContext ctx;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RequestDiagnosticsBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+
+    @Setup
+    public void setup() {
+        if (LOGGER.isDebugEnabled()) {
+            throw new IllegalStateException("DEBUG must be disabled for " + LOGGER.getName());
+        }
+        names = new String[CHAIN_LENGTH];
+        for (int i = 0; i < CHAIN_LENGTH; i++) {
+            names[i] = "middleware-" + i;
+        }
+        request = new FakeRequest();
+        final HttpServerRequest httpRequest = (HttpServerRequest) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] { HttpServerRequest.class },
+            (proxy, method, args) -> request.absoluteURI());
+        ctx = (RoutingContext) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] { RoutingContext.class },
+            (proxy, method, args) -> httpRequest);
+    }
+
+    @Benchmark
+    public void eager(Blackhole blackhole) {
+        request.reset();
+        for (String name : names) {
+            LOGGER.debug("{}: Handling '{}'", name, ctx.request().absoluteURI());
+        }
+        blackhole.consume(request);
+    }
+
+    @Benchmark
+    public void lazy(Blackhole blackhole) {
+        request.reset();
+        for (String name : names) {
+            RequestDiagnostics.handling(LOGGER, name, ctx);
+        }
+        blackhole.consume(request);
+    }
+
+    /**
+     * Builds the absolute URI like {@code HttpServerRequest#absoluteURI}.
+     */
+    private static final class FakeRequest {
+
+        private final String scheme = "https";
+        private final String host = "portal.example.com";
+        private final String uri = "/service/api/v1/resources/42?expand=true";
+        private String absoluteURI;
+
+        void reset() {
+            absoluteURI = null;
+        }
+
+        String absoluteURI() {
+            if (absoluteURI == null) {
+                absoluteURI = scheme + "://" + host + uri;
+            }
+            return absoluteURI;
+        }
+    }
+}
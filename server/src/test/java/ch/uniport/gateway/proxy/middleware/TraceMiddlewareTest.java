@@ -0,0 +1,162 @@
+package ch.uniport.gateway.proxy.middleware;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.impl.RoutingContextInternal;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TraceMiddlewareTest {
+
+    private static final SpanContext UNSAMPLED = SpanContext.create(
+        "0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331", TraceFlags.getDefault(), TraceState.getDefault());
+
+    private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextCalls = new AtomicInteger();
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+    private RoutingContext ctx;
+
+    @BeforeEach
+    void setup() {
+        tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(new CollectingExporter()))
+            .build();
+        tracer = tracerProvider.get(TraceMiddlewareTest.class.getName());
+        ctx = (RoutingContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { RoutingContextInternal.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("next")) {
+                    nextCalls.incrementAndGet();
+                }
+                return null;
+            });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void shouldCreateSpanPerMiddleware() {
+        // given
+        final TraceMiddleware middleware = new TestMiddleware(tracer, TracingMode.ALL);
+
+        // when
+        middleware.handle(ctx);
+
+        // then
+        assertEquals(1, nextCalls.get());
+        assertEquals(1, exported.size());
+        assertEquals(TestMiddleware.class.getName(), exported.get(0).getName());
+    }
+
+    @Test
+    void shouldSkipSpansOfUnsampledRequests() {
+        // given
+        final TraceMiddleware middleware = new TestMiddleware(tracer, TracingMode.SAMPLED);
+
+        // when
+        try (Scope scope = Span.wrap(UNSAMPLED).makeCurrent()) {
+            middleware.handle(ctx);
+        }
+
+        // then
+        assertEquals(1, nextCalls.get());
+        assertEquals(0, exported.size());
+    }
+
+    @Test
+    void shouldCreateSpansOfSampledRequests() {
+        // given
+        final TraceMiddleware middleware = new TestMiddleware(tracer, TracingMode.SAMPLED);
+        final Span requestSpan = tracer.spanBuilder("request").startSpan();
+
+        // when
+        try (Scope scope = requestSpan.makeCurrent()) {
+            middleware.handle(ctx);
+        }
+
+        // then
+        assertEquals(1, nextCalls.get());
+        assertEquals(1, exported.size());
+        assertEquals(requestSpan.getSpanContext().getSpanId(), exported.get(0).getParentSpanId());
+    }
+
+    @Test
+    void shouldRecordMiddlewaresAsEventsOnRequestSpan() {
+        // given
+        final TraceMiddleware first = new TestMiddleware(tracer, TracingMode.ROUTE);
+        final TraceMiddleware second = new OtherTestMiddleware(tracer, TracingMode.ROUTE);
+        final Span requestSpan = tracer.spanBuilder("request").startSpan();
+
+        // when
+        try (Scope scope = requestSpan.makeCurrent()) {
+            first.handle(ctx);
+            second.handle(ctx);
+        }
+        requestSpan.end();
+
+        // then
+        assertEquals(2, nextCalls.get());
+        assertEquals(1, exported.size());
+        final List<EventData> events = exported.get(0).getEvents();
+        assertEquals(2, events.size());
+        assertEquals(TraceMiddleware.MIDDLEWARE_EVENT, events.get(0).getName());
+        assertEquals(TestMiddleware.class.getName(),
+            events.get(0).getAttributes().get(TraceMiddleware.MIDDLEWARE_CLASS));
+        assertEquals(OtherTestMiddleware.class.getName(),
+            events.get(1).getAttributes().get(TraceMiddleware.MIDDLEWARE_CLASS));
+    }
+
+    private static class TestMiddleware extends TraceMiddleware {
+        TestMiddleware(Tracer tracer, TracingMode mode) {
+            super(tracer, mode);
+        }
+    }
+
+    private static class OtherTestMiddleware extends TraceMiddleware {
+        OtherTestMiddleware(Tracer tracer, TracingMode mode) {
+            super(tracer, mode);
+        }
+    }
+
+    private class CollectingExporter implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            exported.addAll(spans);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
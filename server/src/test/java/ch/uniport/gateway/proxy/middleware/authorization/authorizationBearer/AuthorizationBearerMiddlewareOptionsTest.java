@@ -39,5 +39,21 @@ public class AuthorizationBearerMiddlewareOptionsTest {
         final AuthorizationBearerMiddlewareOptions options = assertDoesNotThrow(parse);
         assertNotNull(options);
         assertEquals(sessionScope, options.getSessionScope());
+        assertEquals(AbstractAuthorizationBearerMiddlewareOptions.DEFAULT_PROACTIVE_REFRESH_SECONDS, options.getProactiveRefreshSeconds());
+    }
+
+    @Test
+    public void shouldParseProactiveRefresh() {
+        // given
+        final JsonObject json = JsonObject.of(
+            AuthorizationBearerMiddlewareFactory.SESSION_SCOPE, "aSessionScope",
+            AuthorizationBearerMiddlewareFactory.PROACTIVE_REFRESH_SECONDS, 30);
+
+        // when
+        final ThrowingSupplier<AuthorizationBearerMiddlewareOptions> parse = () -> new ObjectMapper().readValue(json.encode(), AuthorizationBearerMiddlewareOptions.class);
+
+        // then
+        final AuthorizationBearerMiddlewareOptions options = assertDoesNotThrow(parse);
+        assertEquals(30, options.getProactiveRefreshSeconds());
     }
 }
@@ -16,7 +16,10 @@ import ch.uniport.gateway.proxy.middleware.authorization.MockOAuth2Auth;
 import ch.uniport.gateway.proxy.middleware.authorization.shared.tokenLoader.SessionScopeAuthTokenLoader;
 import ch.uniport.gateway.proxy.middleware.oauth2.AuthenticationUserContext;
 import ch.uniport.gateway.proxy.middleware.oauth2.OAuth2MiddlewareFactory;
+import ch.uniport.gateway.proxy.middleware.session.SessionMiddleware;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpHeaders;
@@ -26,11 +29,13 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.oauth2.OAuth2Auth;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.sstore.SessionStore;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -216,6 +221,65 @@ public class AuthorizationBearerMiddlewareTest extends MiddlewareTestBase {
         });
     }
 
+    @Test
+    void persistsTokenRefreshedInBackground(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final String sessionScope = "testScope";
+        final String rawAccessToken = "mayIAccessThisRessource";
+        final JsonObject principal = new JsonObject()
+            .put("access_token", rawAccessToken)
+            .put("expires_in", 30)
+            .put("refresh_token", "persistsTokenRefreshedInBackground");
+
+        final Promise<User> refreshed = Promise.promise();
+        final OAuth2Auth authProvider = new MockOAuth2Auth(principal) {
+            @Override
+            public Future<User> refresh(User user) {
+                return refreshed.future();
+            }
+        };
+        final AtomicReference<SessionStore> sessionStore = new AtomicReference<>();
+        final AtomicReference<String> sessionId = new AtomicReference<>();
+
+        // mock OAuth2 authentication
+        final Handler<RoutingContext> injectTokenHandler = ctx -> {
+            AuthenticationUserContext.of(authProvider, MockOAuth2Auth.createUser(principal))
+                .toSessionAtScope(ctx.session(), sessionScope);
+            sessionStore.set(ctx.get(SessionMiddleware.SESSION_MIDDLEWARE_SESSION_STORE_KEY));
+            sessionId.set(ctx.session().id());
+            ctx.next();
+        };
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withSessionMiddleware()
+            .withMiddleware(injectTokenHandler)
+            .withMiddleware(new AuthorizationBearerMiddleware(vertx, "authorizationBearer", sessionScope, 60))
+            .build(ctx -> {
+                // the current token is provided while refreshing
+                assertAuthorizationBearer(testCtx, ctx.request(), rawAccessToken);
+                ctx.response().setStatusCode(200).end("ok");
+            })
+            .start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+            // the refresh completes after the session was written
+            refreshed.complete(MockOAuth2Auth.createUser(new JsonObject()
+                .put("access_token", "refreshedToken")
+                .put("expires_in", 300)
+                .put("refresh_token", "rotatedRefreshToken")));
+
+            vertx.setTimer(200, timerId -> sessionStore.get().get(sessionId.get())
+                .onComplete(testCtx.succeeding(session -> {
+                    // then
+                    final Optional<AuthenticationUserContext> authContext = AuthenticationUserContext.fromSessionAtScope(session, sessionScope);
+                    assertTrue(testCtx, authContext.isPresent(), "user should exist");
+                    assertEquals(testCtx, "rotatedRefreshToken", authContext.get().getUser().principal().getString("refresh_token"));
+                    testCtx.completeNow();
+                })));
+        });
+    }
+
     @Test
     void setNoToken(Vertx vertx, VertxTestContext testCtx) {
         final String token = "mayIAccessThisRessource";
@@ -0,0 +1,120 @@
+package ch.uniport.gateway.proxy.middleware.authorization.shared.customClaimsChecker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the compiled {@link JWTClaimEvaluator} with evaluating every claim
+ * by JsonPath on the encoded payload and comparing values by their JSON
+ * representation, which is how claims were checked before. Half of the claims
+ * compare strings, the other half check the roles of a client.
+ * <p>
+ * The GC profiler reports the allocations per operation
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTClaimEvaluatorBenchmark {
+
+    @Param({ "5", "20", "50" })
+    public int claimCount;
+
+    private JsonObject payload;
+    private List<JWTClaim> claims;
+    private List<JWTClaimEvaluator> evaluators;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JWTClaimEvaluatorBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+
+    @Setup
+    public void setup() {
+        final JsonObject resourceAccess = new JsonObject();
+        payload = new JsonObject()
+            .put("iss", "http://localhost/auth/realms/portal")
+            .put("scope", "openid email profile")
+            .put("resource_access", resourceAccess);
+        claims = new ArrayList<>();
+        for (int i = 0; i < claimCount; i++) {
+            if (i % 2 == 0) {
+                payload.put("claim-" + i, "value-" + i);
+                claims.add(new JWTClaim(String.format("$['claim-%d']", i), JWTClaimOperator.EQUALS, "value-" + i));
+            } else {
+                resourceAccess.put("client-" + i, new JsonObject()
+                    .put("roles", new JsonArray().add("USER").add("TENANT")));
+                claims.add(new JWTClaim(String.format("$['resource_access']['client-%d']['roles']", i),
+                    JWTClaimOperator.CONTAINS, List.of("ADMINISTRATOR", "TENANT")));
+            }
+        }
+        evaluators = claims.stream().map(JWTClaimEvaluator::compile).toList();
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        for (JWTClaimEvaluator evaluator : evaluators) {
+            if (!evaluator.matches(evaluator.read(payload))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean jsonPathPerRequest() throws JsonProcessingException {
+        for (JWTClaim claim : claims) {
+            final Object payloadValue = JsonPath.read(payload.encode(), claim.path);
+            if (!verifyByJsonRepresentation(payloadValue, claim)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean verifyByJsonRepresentation(Object payloadValue, JWTClaim claim)
+        throws JsonProcessingException {
+        final ObjectMapper mapper = new ObjectMapper();
+        if (claim.operator == JWTClaimOperator.EQUALS) {
+            return mapper.readTree(new JsonArray().add(payloadValue).encode())
+                .equals(mapper.readTree(new JsonArray().add(claim.value).encode()));
+        }
+        final JsonArray claimArray = new JsonArray(new JsonArray((List<?>) claim.value).encode());
+        for (Object payloadItem : new JsonArray(payloadValue.toString())) {
+            for (Object claimItem : claimArray) {
+                if (mapper.readTree(new JsonArray().add(payloadItem).encode())
+                    .equals(mapper.readTree(new JsonArray().add(claimItem).encode()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
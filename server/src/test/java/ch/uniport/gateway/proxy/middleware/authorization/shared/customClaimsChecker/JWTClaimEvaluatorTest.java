@@ -0,0 +1,164 @@
+package ch.uniport.gateway.proxy.middleware.authorization.shared.customClaimsChecker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class JWTClaimEvaluatorTest {
+
+    private static final JsonObject PAYLOAD = new JsonObject()
+        .put("scope", "openid email profile")
+        .put("organisation", "portal")
+        .put("email-verified", false)
+        .put("acr", 1)
+        .put("http://hasura.io/jwt/claims", new JsonObject()
+            .put("x-hasura-user-id", 1234L)
+            .put("x-hasura-allowed-roles", new JsonArray().add("KEYCLOAK").add("portaluser")))
+        .put("resource_access", new JsonObject()
+            .put("Organisation", new JsonObject()
+                .put("roles", new JsonArray().add("TENANT"))));
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "$['resource_access']['Organisation']['roles'][0]",
+        "$.resource_access.Organisation.roles[0]",
+        "$[\"resource_access\"]['Organisation'].roles[0]"
+    })
+    public void evaluatesDefinitePathsDirectly(String path) {
+        // given
+        final JWTClaimEvaluator claim = JWTClaimEvaluator.compile(new JWTClaim(path, JWTClaimOperator.EQUALS, "TENANT"));
+
+        // when
+        final Object payloadValue = claim.read(PAYLOAD);
+
+        // then
+        assertEquals("TENANT", payloadValue);
+        assertTrue(claim.matches(payloadValue));
+    }
+
+    @Test
+    public void fallsBackToJsonPath() {
+        // given
+        final JWTClaimEvaluator claim = JWTClaimEvaluator.compile(
+            new JWTClaim("$..roles[*]", JWTClaimOperator.CONTAINS, List.of("TENANT")));
+
+        // when
+        final Object payloadValue = claim.read(PAYLOAD);
+
+        // then
+        assertEquals(new JsonArray().add("TENANT"), payloadValue);
+        assertTrue(claim.matches(payloadValue));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "$['missing']", "$.resource_access.Organisation.roles[1]", "$.organisation.name" })
+    public void failsOnMissingPath(String path) {
+        // given
+        final JWTClaimEvaluator claim = JWTClaimEvaluator.compile(new JWTClaim(path, JWTClaimOperator.EQUALS, "x"));
+
+        // when
+        // then
+        assertThrows(IllegalStateException.class, () -> claim.read(PAYLOAD));
+    }
+
+    @Test
+    public void comparesTyped() {
+        // given
+        final JWTClaimEvaluator stringClaim = compile("$['acr']", JWTClaimOperator.EQUALS, "1");
+        final JWTClaimEvaluator numberClaim = compile("$['acr']", JWTClaimOperator.EQUALS, 1L);
+        final JWTClaimEvaluator booleanClaim = compile("$['email-verified']", JWTClaimOperator.EQUALS, false);
+
+        // when
+        // then
+        assertFalse(stringClaim.matches(stringClaim.read(PAYLOAD)));
+        assertTrue(numberClaim.matches(numberClaim.read(PAYLOAD)));
+        assertTrue(booleanClaim.matches(booleanClaim.read(PAYLOAD)));
+    }
+
+    @Test
+    public void detectsValuesDifferingInTypeOnly() {
+        // given
+        // when
+        // then
+        assertTrue(JWTClaimEvaluator.differsInTypeOnly("1", 1));
+        assertTrue(JWTClaimEvaluator.differsInTypeOnly(false, "false"));
+        assertFalse(JWTClaimEvaluator.differsInTypeOnly("1", "1"));
+        assertFalse(JWTClaimEvaluator.differsInTypeOnly("2", 1));
+        assertFalse(JWTClaimEvaluator.differsInTypeOnly(new JsonArray().add("1"), "[\"1\"]"));
+    }
+
+    @Test
+    public void comparesObjects() {
+        // given
+        final JWTClaimEvaluator claim = compile("$['http://hasura.io/jwt/claims']", JWTClaimOperator.EQUALS, Map.of(
+            "x-hasura-allowed-roles", List.of("KEYCLOAK", "portaluser"),
+            "x-hasura-user-id", 1234));
+        final JWTClaimEvaluator otherOrder = compile("$['http://hasura.io/jwt/claims']", JWTClaimOperator.EQUALS,
+            Map.of(
+                "x-hasura-allowed-roles", List.of("portaluser", "KEYCLOAK"),
+                "x-hasura-user-id", 1234));
+
+        // when
+        // then
+        assertTrue(claim.matches(claim.read(PAYLOAD)));
+        assertFalse(otherOrder.matches(otherOrder.read(PAYLOAD)));
+    }
+
+    @Test
+    public void contains() {
+        // given
+        final JWTClaimEvaluator roles = compile("$['resource_access']['Organisation']['roles']",
+            JWTClaimOperator.CONTAINS, List.of("ADMINISTRATOR", "TENANT"));
+        final JWTClaimEvaluator acr = compile("$['acr']", JWTClaimOperator.CONTAINS, List.of(9, 1));
+        final JWTClaimEvaluator organisation = compile("$['organisation']", JWTClaimOperator.CONTAINS,
+            List.of("other"));
+        final JWTClaimEvaluator notAnArray = compile("$['organisation']", JWTClaimOperator.CONTAINS, "portal");
+
+        // when
+        // then
+        assertTrue(roles.matches(roles.read(PAYLOAD)));
+        assertTrue(acr.matches(acr.read(PAYLOAD)));
+        assertFalse(organisation.matches(organisation.read(PAYLOAD)));
+        assertThrows(IllegalStateException.class, () -> notAnArray.matches(notAnArray.read(PAYLOAD)));
+    }
+
+    @Test
+    public void splitsWhitespace() {
+        // given
+        final JWTClaimEvaluator equals = compile("$['scope']", JWTClaimOperator.EQUALS_SUBSTRING_WHITESPACE,
+            List.of("openid", "email", "profile"));
+        final JWTClaimEvaluator contains = compile("$['scope']", JWTClaimOperator.CONTAINS_SUBSTRING_WHITESPACE,
+            List.of("email", "Test"));
+
+        // when
+        // then
+        assertTrue(equals.matches(equals.read(PAYLOAD)));
+        assertTrue(contains.matches(contains.read(PAYLOAD)));
+    }
+
+    @Test
+    public void rejectsIndefinitePaths() {
+        // given
+        // when
+        // then
+        assertNull(JWTClaimEvaluator.parseDefinitePath("$..roles"));
+        assertNull(JWTClaimEvaluator.parseDefinitePath("$.roles[*]"));
+        assertNull(JWTClaimEvaluator.parseDefinitePath("$.roles[?(@ == 'a')]"));
+        assertNull(JWTClaimEvaluator.parseDefinitePath("$['a','b']"));
+        assertEquals(List.of("a", 0, "b.c"), JWTClaimEvaluator.parseDefinitePath("$.a[0]['b.c']"));
+    }
+
+    private static JWTClaimEvaluator compile(String path, JWTClaimOperator operator, Object value) {
+        return JWTClaimEvaluator.compile(new JWTClaim(path, operator, value));
+    }
+}
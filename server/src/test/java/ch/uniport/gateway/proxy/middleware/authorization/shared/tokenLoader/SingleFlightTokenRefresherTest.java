@@ -0,0 +1,134 @@
+package ch.uniport.gateway.proxy.middleware.authorization.shared.tokenLoader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import ch.uniport.gateway.proxy.middleware.authorization.MockOAuth2Auth;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class SingleFlightTokenRefresherTest {
+
+    @Test
+    void coalescesConcurrentRefreshes(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final Promise<User> pending = Promise.promise();
+        final CountingOAuth2Auth authProvider = new CountingOAuth2Auth(() -> pending.future());
+        final User user = expiredUser("coalescesConcurrentRefreshes");
+
+        // when
+        final List<Future<User>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(SingleFlightTokenRefresher.refresh(vertx, authProvider, user, "aSession"));
+        }
+        pending.complete(refreshedUser());
+
+        // then
+        Future.all(results).onComplete(testCtx.succeeding(all -> testCtx.verify(() -> {
+            assertEquals(1, authProvider.refreshes.get());
+            for (Future<User> result : results) {
+                assertEquals("refreshedToken", result.result().principal().getString("access_token"));
+            }
+            testCtx.completeNow();
+        })));
+    }
+
+    @Test
+    void adoptsRecentlyRefreshedToken(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final CountingOAuth2Auth authProvider = new CountingOAuth2Auth(() -> Future.succeededFuture(refreshedUser()));
+        final User user = expiredUser("adoptsRecentlyRefreshedToken");
+
+        // when
+        SingleFlightTokenRefresher.refresh(vertx, authProvider, user, "aSession")
+            .compose(first -> SingleFlightTokenRefresher.refresh(vertx, authProvider, user, "aSession"))
+            // then
+            .onComplete(testCtx.succeeding(second -> testCtx.verify(() -> {
+                assertEquals(1, authProvider.refreshes.get());
+                assertEquals("refreshedToken", second.principal().getString("access_token"));
+                testCtx.completeNow();
+            })));
+    }
+
+    @Test
+    void retriesFailedRefresh(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountingOAuth2Auth authProvider = new CountingOAuth2Auth(() -> attempts.incrementAndGet() == 1
+            ? Future.failedFuture("boom")
+            : Future.succeededFuture(refreshedUser()));
+        final User user = expiredUser("retriesFailedRefresh");
+
+        // when
+        SingleFlightTokenRefresher.refresh(vertx, authProvider, user, "aSession")
+            .recover(err -> SingleFlightTokenRefresher.refresh(vertx, authProvider, user, "aSession"))
+            // then
+            .onComplete(testCtx.succeeding(refreshed -> testCtx.verify(() -> {
+                assertEquals(2, authProvider.refreshes.get());
+                assertEquals("refreshedToken", refreshed.principal().getString("access_token"));
+                testCtx.completeNow();
+            })));
+    }
+
+    @Test
+    void completesOnContextOfCaller(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final Promise<User> pending = Promise.promise();
+        final CountingOAuth2Auth authProvider = new CountingOAuth2Auth(() -> pending.future());
+        final User user = expiredUser("completesOnContextOfCaller");
+        final Context callerContext = vertx.getOrCreateContext();
+
+        // when
+        callerContext.runOnContext(v -> SingleFlightTokenRefresher.refresh(vertx, authProvider, user, "aSession")
+            // then
+            .onComplete(testCtx.succeeding(refreshed -> testCtx.verify(() -> {
+                assertSame(callerContext, Vertx.currentContext());
+                testCtx.completeNow();
+            }))));
+        vertx.getOrCreateContext().runOnContext(v -> pending.complete(refreshedUser()));
+    }
+
+    private static User expiredUser(String refreshToken) {
+        return MockOAuth2Auth.createUser(new JsonObject()
+            .put("access_token", "expiredToken")
+            .put("expires_in", 0)
+            .put("refresh_token", refreshToken));
+    }
+
+    private static User refreshedUser() {
+        return MockOAuth2Auth.createUser(new JsonObject()
+            .put("access_token", "refreshedToken")
+            .put("expires_in", 60)
+            .put("refresh_token", "rotatedRefreshToken"));
+    }
+
+    private static final class CountingOAuth2Auth extends MockOAuth2Auth {
+
+        private final AtomicInteger refreshes = new AtomicInteger();
+        private final Supplier<Future<User>> result;
+
+        CountingOAuth2Auth(Supplier<Future<User>> result) {
+            super(new JsonObject());
+            this.result = result;
+        }
+
+        @Override
+        public Future<User> refresh(User user) {
+            refreshes.incrementAndGet();
+            return result.get();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ch.uniport.gateway.proxy.middleware.authorization.shared.verifiedTokenCache;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.JWTOptions;
+import io.vertx.ext.auth.PubSecKeyOptions;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.authentication.TokenCredentials;
+import io.vertx.ext.auth.jwt.JWTAuth;
+import io.vertx.ext.auth.jwt.JWTAuthOptions;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the authentication of an RS256 signed token with and without the
+ * {@link VerifiedTokenCache}. A cache hit should cost a hash of the token
+ * instead of a signature verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerifiedTokenCacheBenchmark {
+
+    private static final String ISSUER = "http://localhost/auth/realms/test";
+    private static final String AUDIENCE = "test";
+
+    private Vertx vertx;
+    private JWTAuth uncached;
+    private JWTAuth cached;
+    private TokenCredentials credentials;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(VerifiedTokenCacheBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        final KeyPair keyPair = generator.generateKeyPair();
+
+        vertx = Vertx.vertx();
+        uncached = JWTAuth.create(vertx, new JWTAuthOptions()
+            .addPubSecKey(new PubSecKeyOptions()
+                .setAlgorithm("RS256")
+                .setBuffer(pem("PUBLIC KEY", keyPair.getPublic().getEncoded())))
+            .addPubSecKey(new PubSecKeyOptions()
+                .setAlgorithm("RS256")
+                .setBuffer(pem("PRIVATE KEY", keyPair.getPrivate().getEncoded())))
+            .setJWTOptions(new JWTOptions()
+                .setIssuer(ISSUER)
+                .setAudience(List.of(AUDIENCE))));
+
+        final String token = uncached.generateToken(new JsonObject().put("sub", "aSubject"), new JWTOptions()
+            .setAlgorithm("RS256")
+            .setIssuer(ISSUER)
+            .setAudience(List.of(AUDIENCE))
+            .setExpiresInMinutes(60));
+        credentials = new TokenCredentials(token);
+
+        final VerifiedTokenCache cache = VerifiedTokenCache.create("benchmark", 10_000, 300_000);
+        cache.put(uncached.authenticate(credentials).result());
+        cached = cache.wrap(uncached);
+    }
+
+    @TearDown
+    public void tearDown() {
+        vertx.close();
+    }
+
+    @Benchmark
+    public User uncached() {
+        return uncached.authenticate(credentials).result();
+    }
+
+    @Benchmark
+    public User cached() {
+        return cached.authenticate(credentials).result();
+    }
+
+    private static String pem(String type, byte[] key) {
+        final String encoded = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII))
+            .encodeToString(key);
+        return String.join("\n",
+            "-----BEGIN " + type + "-----",
+            encoded,
+            "-----END " + type + "-----");
+    }
+}
@@ -0,0 +1,122 @@
+package ch.uniport.gateway.proxy.middleware.authorization.shared.verifiedTokenCache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class VerifiedTokenCacheTest {
+
+    private static final String MIDDLEWARE = "jwt";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    public void returnsCopiesOfCachedUsers() {
+        // given
+        final VerifiedTokenCache cache = new VerifiedTokenCache(MIDDLEWARE, 10, 60_000, clock::get);
+        cache.put(user("aToken", 2_000));
+
+        // when
+        final User first = cache.get("aToken");
+        final User second = cache.get("aToken");
+
+        // then
+        assertNotNull(first);
+        assertNotSame(first, second);
+        assertEquals("aToken", first.principal().getString("access_token"));
+        assertEquals("aSubject", first.attributes().getJsonObject("accessToken").getString("sub"));
+        assertTrue(VerifiedTokenCache.isCached(first));
+        assertFalse(VerifiedTokenCache.isCached(first));
+        assertNull(cache.get("anotherToken"));
+    }
+
+    @Test
+    public void expiresWithToken() {
+        // given
+        final VerifiedTokenCache cache = new VerifiedTokenCache(MIDDLEWARE, 10, 60_000, clock::get);
+        cache.put(user("aToken", 1_010));
+
+        // when
+        clock.addAndGet(9_999);
+        final User beforeExpiration = cache.get("aToken");
+        clock.addAndGet(1);
+
+        // then
+        assertNotNull(beforeExpiration);
+        assertNull(cache.get("aToken"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void expiresAfterMaxTtl() {
+        // given
+        final VerifiedTokenCache cache = new VerifiedTokenCache(MIDDLEWARE, 10, 5_000, clock::get);
+        cache.put(user("aToken", 2_000));
+
+        // when
+        clock.addAndGet(5_000);
+
+        // then
+        assertNull(cache.get("aToken"));
+    }
+
+    @Test
+    public void skipsExpiredTokens() {
+        // given
+        final VerifiedTokenCache cache = new VerifiedTokenCache(MIDDLEWARE, 10, 60_000, clock::get);
+
+        // when
+        cache.put(user("aToken", 1_000));
+
+        // then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        // given
+        final VerifiedTokenCache cache = new VerifiedTokenCache(MIDDLEWARE, 2, 60_000, clock::get);
+        cache.put(user("a", 2_000));
+        cache.put(user("b", 2_000));
+
+        // when
+        cache.get("a");
+        cache.put(user("c", 2_000));
+
+        // then
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void invalidatesAll() {
+        // given
+        final VerifiedTokenCache cache = new VerifiedTokenCache(MIDDLEWARE, 10, 60_000, clock::get);
+        cache.put(user("a", 2_000));
+        cache.put(user("b", 2_000));
+
+        // when
+        cache.invalidateAll();
+
+        // then
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    private static User user(String token, long expSeconds) {
+        final User user = User.fromToken(token);
+        user.attributes().put("accessToken", new JsonObject()
+            .put("sub", "aSubject")
+            .put("exp", expSeconds));
+        return user;
+    }
+}
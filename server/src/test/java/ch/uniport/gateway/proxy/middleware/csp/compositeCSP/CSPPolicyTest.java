@@ -0,0 +1,61 @@
+package ch.uniport.gateway.proxy.middleware.csp.compositeCSP;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class CSPPolicyTest {
+
+    @Test
+    void shouldParsePolicy() {
+        // given
+        final String policyString = " Default-Src 'self'  https://a.example.com; ;img-src data: ";
+
+        // when
+        final CSPPolicy policy = CSPPolicy.parse(policyString);
+
+        // then
+        assertEquals("default-src 'self' https://a.example.com; img-src data:", policy.value());
+    }
+
+    @Test
+    void shouldKeepDirectivesWithoutValues() {
+        // given
+        final String policyString = "default-src 'self'; upgrade-insecure-requests";
+
+        // when
+        final CSPPolicy policy = CSPPolicy.parse(policyString);
+
+        // then
+        assertEquals("default-src 'self'; upgrade-insecure-requests", policy.value());
+    }
+
+    @Test
+    void shouldUniteDirectivesAndValues() {
+        // given
+        final CSPPolicy first = CSPPolicy.parse("default-src 'self'; script-src 'self'");
+        final CSPPolicy second = CSPPolicy.parse("script-src 'self' https://cdn.example.com; img-src *");
+
+        // when
+        final CSPPolicy united = first.union(second);
+
+        // then
+        assertEquals("default-src 'self'; script-src 'self' https://cdn.example.com; img-src *", united.value());
+    }
+
+    @Test
+    void shouldReuseNonEmptyPolicyForUnionWithEmptyPolicy() {
+        // given
+        final CSPPolicy policy = CSPPolicy.parse("default-src 'self'");
+
+        // when
+        final CSPPolicy united = CSPPolicy.parse(null).union(policy);
+
+        // then
+        assertTrue(CSPPolicy.parse("").isEmpty());
+        assertSame(policy, united);
+        assertSame(policy, policy.union(CSPPolicy.EMPTY));
+    }
+}
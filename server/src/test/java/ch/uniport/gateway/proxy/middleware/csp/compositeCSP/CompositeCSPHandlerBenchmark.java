@@ -0,0 +1,121 @@
+package ch.uniport.gateway.proxy.middleware.csp.compositeCSP;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Merges the policies of three stacked CSP middlewares and of the backend for
+ * every request, once with a backend policy that never changes (steady state,
+ * served from the memoized policies) and once with a new nonce in every
+ * backend policy (every merge is computed).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompositeCSPHandlerBenchmark {
+
+    private static final String BACKEND_POLICY = "default-src 'self'; script-src 'self' https://cdn.example.com; "
+        + "style-src 'self' 'unsafe-inline'; img-src 'self' data:; connect-src 'self' https://api.example.com";
+
+    private CompositeCSPHandler[] handlers;
+    private Map<String, Object> data;
+    private MultiMap headers;
+    private RoutingContext ctx;
+    private long nonce;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CompositeCSPHandlerBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+
+    @Setup
+    public void setup() {
+        handlers = new CompositeCSPHandler[] {
+            handler(CSPMergeStrategy.UNION, "default-src", "self", "script-src", "https://portal.example.com"),
+            handler(CSPMergeStrategy.UNION, "img-src", "https://images.example.com", "font-src", "self"),
+            handler(CSPMergeStrategy.UNION, "frame-ancestors", "none", "script-src", "https://analytics.example.com")
+        };
+
+        data = new HashMap<>();
+        headers = MultiMap.caseInsensitiveMultiMap();
+        final HttpServerResponse response = (HttpServerResponse) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] { HttpServerResponse.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "headers" -> headers;
+                case "putHeader" -> {
+                    headers.set(args[0].toString(), args[1].toString());
+                    yield proxy;
+                }
+                default -> null;
+            });
+        ctx = (RoutingContext) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] { RoutingContext.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "get" -> data.get((String) args[0]);
+                case "put" -> {
+                    data.put((String) args[0], args[1]);
+                    yield proxy;
+                }
+                case "response" -> response;
+                default -> null;
+            });
+    }
+
+    @Benchmark
+    public void steadyState(Blackhole blackhole) {
+        handleRequest(BACKEND_POLICY, blackhole);
+    }
+
+    @Benchmark
+    public void changingBackendPolicy(Blackhole blackhole) {
+        handleRequest(BACKEND_POLICY + "; script-src 'nonce-" + nonce++ + "'", blackhole);
+    }
+
+    private void handleRequest(String backendPolicy, Blackhole blackhole) {
+        data.clear();
+        headers.clear();
+        for (CompositeCSPHandler handler : handlers) {
+            handler.handle(ctx);
+        }
+        headers.set(CompositeCSPHandler.CSP_HEADER_NAME, backendPolicy);
+        // headers end handlers are called in reverse order
+        for (int i = handlers.length - 1; i >= 0; i--) {
+            handlers[i].handleResponse(ctx);
+        }
+        blackhole.consume(headers.get(CompositeCSPHandler.CSP_HEADER_NAME));
+    }
+
+    private static CompositeCSPHandler handler(CSPMergeStrategy strategy, String... directives) {
+        final CompositeCSPHandler handler = CompositeCSPHandler.create(strategy);
+        for (int i = 0; i < directives.length; i += 2) {
+            handler.addDirective(directives[i], directives[i + 1]);
+        }
+        return handler;
+    }
+}
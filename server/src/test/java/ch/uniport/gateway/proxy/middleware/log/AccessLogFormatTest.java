@@ -0,0 +1,54 @@
+package ch.uniport.gateway.proxy.middleware.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class AccessLogFormatTest {
+
+    @Test
+    void shouldFormatDefault() {
+        // given
+        final AccessLogFormat format = AccessLogFormat.parse(AccessLogFormat.DEFAULT_FORMAT);
+
+        // when
+        final String line = format(format, entry(format));
+
+        // then
+        assertEquals("\"GET /foo?bar=baz HTTP/1.1\" 200 42 \"-\" \"curl\" 7ms 127.0.0.1", line);
+    }
+
+    @Test
+    void shouldFormatCustom() {
+        // given
+        final AccessLogFormat format = AccessLogFormat.parse("{middleware}: {status} {userId}/{sessionId}/{traceId}");
+
+        // when
+        final String line = format(format, entry(format));
+
+        // then
+        assertEquals("logger: 200 alice/abcde/-", line);
+    }
+
+    @Test
+    void shouldRejectUnknownField() {
+        assertThrows(IllegalArgumentException.class, () -> AccessLogFormat.parse("{method} {unknown}"));
+    }
+
+    @Test
+    void shouldRejectUnclosedField() {
+        assertThrows(IllegalArgumentException.class, () -> AccessLogFormat.parse("{method} {uri"));
+    }
+
+    private static String format(AccessLogFormat format, AccessLogEntry entry) {
+        final StringBuilder line = new StringBuilder();
+        format.appendTo(line, entry);
+        return line.toString();
+    }
+
+    static AccessLogEntry entry(AccessLogFormat format) {
+        return new AccessLogEntry(format, "logger", "GET", "/foo?bar=baz", "HTTP/1.1", 200, 42, 7,
+            "127.0.0.1", null, "curl", "alice", "abcde", null);
+    }
+}
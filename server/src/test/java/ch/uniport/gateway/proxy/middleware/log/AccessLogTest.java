@@ -0,0 +1,79 @@
+package ch.uniport.gateway.proxy.middleware.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+public class AccessLogTest {
+
+    @Test
+    void ringBufferShouldRejectWhenFull() {
+        // given
+        final AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(3);
+
+        // when
+        for (int i = 0; i < buffer.capacity(); i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        // then
+        assertEquals(4, buffer.capacity());
+        assertFalse(buffer.offer(4));
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void shouldWriteEntriesInBatches() {
+        // given
+        final Logger logger = (Logger) LoggerFactory.getLogger(AccessLogTest.class);
+        final ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
+        logger.addAppender(listAppender);
+        listAppender.start();
+
+        final AccessLog accessLog = new AccessLog(1024, logger);
+        final AccessLogFormat format = AccessLogFormat.parse("{method} {uri} {status}");
+        final int count = AccessLog.BATCH_SIZE + 1;
+
+        // when
+        for (int i = 0; i < count; i++) {
+            accessLog.log(AccessLogFormatTest.entry(format));
+        }
+
+        // then
+        assertEquals(AccessLog.BATCH_SIZE, accessLog.writeBatch());
+        assertEquals(1, accessLog.writeBatch());
+        assertEquals(0, accessLog.writeBatch());
+        assertEquals(count, listAppender.list.size());
+        assertEquals("GET /foo?bar=baz 200", listAppender.list.get(0).getFormattedMessage());
+        assertTrue(listAppender.list.get(0).getArgumentArray()[1] instanceof AccessLogEntry);
+        logger.detachAppender(listAppender);
+    }
+
+    @Test
+    void shouldBackOffExponentiallyWhileIdle() {
+        // given
+        long parkNanos = AccessLog.MIN_IDLE_PARK_NANOS;
+
+        // when
+        final long second = AccessLog.nextIdleParkNanos(parkNanos);
+        for (int i = 0; i < 64; i++) {
+            parkNanos = AccessLog.nextIdleParkNanos(parkNanos);
+        }
+
+        // then
+        assertEquals(2 * AccessLog.MIN_IDLE_PARK_NANOS, second);
+        assertEquals(AccessLog.MAX_IDLE_PARK_NANOS, parkNanos);
+    }
+}
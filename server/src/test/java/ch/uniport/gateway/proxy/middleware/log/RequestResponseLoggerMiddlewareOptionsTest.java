@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.vertx.core.json.JsonObject;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.ThrowingSupplier;
 
@@ -19,12 +20,17 @@ public class RequestResponseLoggerMiddlewareOptionsTest {
         final String contentType = "aContentType";
         final Boolean requestEnabled = true;
         final Boolean responseEnabled = true;
+        final Boolean accessLogEnabled = true;
+        final String accessLogFormat = "{method} {uri} {status}";
 
         final JsonObject json = JsonObject.of(
             RequestResponseLoggerMiddlewareFactory.FILTER_REGEX, filterRegex,
             RequestResponseLoggerMiddlewareFactory.CONTENT_TYPES, List.of(contentType),
             RequestResponseLoggerMiddlewareFactory.LOGGING_REQUEST_ENABLED, requestEnabled,
-            RequestResponseLoggerMiddlewareFactory.LOGGING_RESPONSE_ENABLED, responseEnabled);
+            RequestResponseLoggerMiddlewareFactory.LOGGING_RESPONSE_ENABLED, responseEnabled,
+            RequestResponseLoggerMiddlewareFactory.ACCESS_LOG, Map.of(
+                RequestResponseLoggerMiddlewareFactory.ACCESS_LOG_ENABLED, accessLogEnabled,
+                RequestResponseLoggerMiddlewareFactory.ACCESS_LOG_FORMAT, accessLogFormat));
 
         // when
         final ThrowingSupplier<RequestResponseLoggerMiddlewareOptions> parse = () -> new ObjectMapper().readValue(json.encode(), RequestResponseLoggerMiddlewareOptions.class);
@@ -37,5 +43,8 @@ public class RequestResponseLoggerMiddlewareOptionsTest {
         assertEquals(contentType, options.getContentTypes().get(0));
         assertEquals(requestEnabled, options.isRequestEnabled());
         assertEquals(responseEnabled, options.isResponseEnabled());
+        assertNotNull(options.getAccessLog());
+        assertEquals(accessLogEnabled, options.getAccessLog().isEnabled());
+        assertEquals(accessLogFormat, options.getAccessLog().getFormat());
     }
 }
@@ -1,21 +1,33 @@
 package ch.uniport.gateway.proxy.middleware.oauth2;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import ch.uniport.gateway.proxy.middleware.session.SessionDataFormat;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.impl.UserConverter;
 import io.vertx.ext.auth.oauth2.OAuth2Auth;
 import io.vertx.ext.auth.oauth2.OAuth2Options;
 import io.vertx.ext.auth.oauth2.impl.OAuth2AuthProviderImpl;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 @ExtendWith(VertxExtension.class)
 public class AuthenticationUserContextTest {
 
+    @AfterEach
+    void disableCompactFormat() {
+        SessionDataFormat.setEnabled(false);
+    }
+
     @Test
     void serializeAndDeserialize(Vertx vertx, VertxTestContext testCtx) {
         // given
@@ -55,4 +67,82 @@ public class AuthenticationUserContextTest {
         testCtx.completeNow();
     }
 
+    @Test
+    void serializeReferenceToProvider(Vertx vertx) {
+        // given
+        SessionDataFormat.setEnabled(true);
+        final OAuth2Options options = new OAuth2Options()
+            .setClientId("testClient")
+            .setClientSecret("very-secret")
+            .setSite("http://localhost/auth/realms/test")
+            .setTokenPath("/test/token");
+        final OAuth2Auth oauth2 = OAuth2Auth.create(vertx, options);
+
+        final AuthenticationUserContext authContext = AuthenticationUserContext.of(oauth2, User.fromName("test"));
+
+        // when
+        final Buffer buffer = Buffer.buffer();
+        authContext.writeToBuffer(buffer);
+
+        // then
+        assertFalse(buffer.toString().contains("very-secret"), "provider config must not be serialized");
+        final AuthenticationUserContext actualAuthContext = new AuthenticationUserContext();
+        assertEquals(buffer.length(), actualAuthContext.readFromBuffer(0, buffer));
+        final AuthenticationUserContext otherAuthContext = new AuthenticationUserContext();
+        otherAuthContext.readFromBuffer(0, buffer);
+        assertSame(actualAuthContext.getAuthenticationProvider(vertx), otherAuthContext.getAuthenticationProvider(vertx),
+            "deserialized sessions should share their provider");
+    }
+
+    @Test
+    void serializeLegacyFormatUnlessCompactFormatIsEnabled(Vertx vertx) {
+        // given
+        final OAuth2Options options = new OAuth2Options()
+            .setClientId("testClient")
+            .setTokenPath("/test/token");
+        final OAuth2Auth oauth2 = OAuth2Auth.create(vertx, options);
+        final User user = User.fromName("test");
+
+        final AuthenticationUserContext authContext = AuthenticationUserContext.of(oauth2, user);
+
+        // when
+        final Buffer buffer = Buffer.buffer();
+        authContext.writeToBuffer(buffer);
+
+        // then
+        assertTrue(SessionDataFormat.isLegacy(0, buffer), "previous releases should be able to read it");
+        final JsonObject legacy = new JsonObject();
+        assertEquals(buffer.length(), legacy.readFromBuffer(0, buffer));
+        assertEquals("testClient", legacy.getJsonObject("authenticationProvider").getString("clientId"));
+        assertEquals(UserConverter.encode(user), legacy.getJsonObject("user"));
+    }
+
+    @Test
+    void deserializeLegacyFormat(Vertx vertx) {
+        // given
+        final OAuth2Options options = new OAuth2Options()
+            .setClientId("testClient")
+            .setTokenPath("/test/token");
+        final User user = User.fromName("test");
+
+        final JsonObject legacy = new JsonObject()
+            .put("authenticationProvider", options.toJson())
+            .put("user", UserConverter.encode(user))
+            .put("sessionScope", "testScope");
+        final Buffer buffer = Buffer.buffer();
+        legacy.writeToBuffer(buffer);
+
+        // when
+        final AuthenticationUserContext actualAuthContext = new AuthenticationUserContext();
+        final int read = actualAuthContext.readFromBuffer(0, buffer);
+
+        // then
+        assertEquals(buffer.length(), read);
+        final OAuth2Options actualOptions = ((OAuth2AuthProviderImpl) actualAuthContext
+            .getAuthenticationProvider(vertx)).getConfig();
+        assertEquals("testClient", actualOptions.getClientId());
+        assertEquals("/test/token", actualOptions.getTokenPath());
+        assertEquals(user, actualAuthContext.getUser());
+        assertEquals("testScope", actualAuthContext.getSessionScope());
+    }
 }
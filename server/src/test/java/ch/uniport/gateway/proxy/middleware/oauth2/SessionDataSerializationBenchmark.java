@@ -0,0 +1,185 @@
+package ch.uniport.gateway.proxy.middleware.oauth2;
+
+import ch.uniport.gateway.proxy.middleware.session.SessionDataFormat;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.JWTOptions;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.impl.UserConverter;
+import io.vertx.ext.auth.oauth2.OAuth2Auth;
+import io.vertx.ext.auth.oauth2.OAuth2Options;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares encoding and decoding an {@link AuthenticationUserContext} as
+ * stored in a clustered session with the legacy JSON format, which embedded
+ * the provider config. The user carries an access, refresh and id token of
+ * the given number of custom claims, as issued by Keycloak. The serialized
+ * sizes are printed by {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionDataSerializationBenchmark {
+
+    @Param({ "5", "50" })
+    public int claimCount;
+
+    private Vertx vertx;
+    private AuthenticationUserContext authContext;
+    private OAuth2Options config;
+    private Buffer legacyEncoded;
+    private Buffer encoded;
+
+    public static void main(String[] args) throws RunnerException {
+        for (int claimCount : new int[] { 5, 50 }) {
+            final SessionDataSerializationBenchmark benchmark = new SessionDataSerializationBenchmark();
+            benchmark.claimCount = claimCount;
+            benchmark.setup();
+            System.out.printf("claims: %d, legacy: %d bytes, compact: %d bytes%n",
+                claimCount, benchmark.legacyEncoded.length(), benchmark.encoded.length());
+            benchmark.tearDown();
+        }
+
+        new Runner(new OptionsBuilder()
+            .include(SessionDataSerializationBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+
+    @Setup
+    public void setup() {
+        SessionDataFormat.setEnabled(true);
+        vertx = Vertx.vertx();
+        config = new OAuth2Options()
+            .setClientId("portal-app")
+            .setClientSecret("a1b2c3d4-e5f6-a7b8-c9d0-e1f2a3b4c5d6")
+            .setSite("http://keycloak:8080/auth/realms/portal")
+            .setAuthorizationPath("http://localhost:20000/auth/realms/portal/protocol/openid-connect/auth")
+            .setTokenPath("http://keycloak:8080/auth/realms/portal/protocol/openid-connect/token")
+            .setRevocationPath("http://keycloak:8080/auth/realms/portal/protocol/openid-connect/revoke")
+            .setLogoutPath("http://keycloak:8080/auth/realms/portal/protocol/openid-connect/logout")
+            .setUserInfoPath("http://keycloak:8080/auth/realms/portal/protocol/openid-connect/userinfo")
+            .setJwkPath("http://keycloak:8080/auth/realms/portal/protocol/openid-connect/certs")
+            .setIntrospectionPath(
+                "http://keycloak:8080/auth/realms/portal/protocol/openid-connect/token/introspect")
+            .setSupportedGrantTypes(List.of("authorization_code", "refresh_token", "password"))
+            .setJWTOptions(new JWTOptions()
+                .setIssuer("http://localhost:20000/auth/realms/portal")
+                .setAudience(List.of("portal-app", "account")));
+        final OAuth2Auth provider = OAuth2Auth.create(vertx, config);
+
+        final JsonObject payload = payload();
+        final JsonObject principal = new JsonObject()
+            .put("access_token", jwt(payload))
+            .put("refresh_token", jwt(new JsonObject().put("typ", "Refresh").put("sid", "f3b1c2d4")))
+            .put("id_token", jwt(payload))
+            .put("token_type", "Bearer")
+            .put("expires_in", 300)
+            .put("refresh_expires_in", 1800)
+            .put("scope", "openid profile email");
+        final User user = User.create(principal, new JsonObject()
+            .put("accessToken", payload)
+            .put("idToken", payload)
+            .put("exp", payload.getLong("exp"))
+            .put("iat", payload.getLong("iat")));
+        authContext = AuthenticationUserContext.of(provider, user);
+
+        legacyEncoded = encodeLegacy();
+        encoded = encode();
+    }
+
+    @TearDown
+    public void tearDown() {
+        vertx.close();
+    }
+
+    @Benchmark
+    public Buffer encodeLegacy() {
+        final JsonObject json = new JsonObject()
+            .put("authenticationProvider", config.toJson())
+            .put("user", UserConverter.encode(authContext.getUser()))
+            .put("sessionScope", authContext.getSessionScope());
+        final Buffer buffer = Buffer.buffer();
+        json.writeToBuffer(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Buffer encode() {
+        final Buffer buffer = Buffer.buffer();
+        authContext.writeToBuffer(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public AuthenticationUserContext decodeLegacy() {
+        final AuthenticationUserContext decoded = new AuthenticationUserContext();
+        decoded.readFromBuffer(0, legacyEncoded);
+        // previously every decoded session created its own provider
+        decoded.getAuthenticationProvider(vertx);
+        return decoded;
+    }
+
+    @Benchmark
+    public AuthenticationUserContext decode() {
+        final AuthenticationUserContext decoded = new AuthenticationUserContext();
+        decoded.readFromBuffer(0, encoded);
+        decoded.getAuthenticationProvider(vertx);
+        return decoded;
+    }
+
+    private JsonObject payload() {
+        final long now = System.currentTimeMillis() / 1000;
+        final JsonObject payload = new JsonObject()
+            .put("exp", now + 300)
+            .put("iat", now)
+            .put("jti", "6a5c1d7e-3f2b-4c8a-9e1d-0b7f6a5c4d3e")
+            .put("iss", "http://localhost:20000/auth/realms/portal")
+            .put("aud", new JsonArray().add("portal-app").add("account"))
+            .put("sub", "0d8e4f2a-7b6c-4d5e-8f9a-1b2c3d4e5f6a")
+            .put("typ", "Bearer")
+            .put("azp", "portal-app")
+            .put("session_state", "f3b1c2d4-5e6f-7a8b-9c0d-1e2f3a4b5c6d")
+            .put("realm_access", new JsonObject()
+                .put("roles", new JsonArray().add("offline_access").add("uma_authorization")))
+            .put("scope", "openid profile email")
+            .put("email_verified", true)
+            .put("preferred_username", "jane.doe");
+        for (int i = 0; i < claimCount; i++) {
+            payload.put("claim-" + i, "value-" + i);
+        }
+        return payload;
+    }
+
+    private static String jwt(JsonObject payload) {
+        final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        final String header = encoder.encodeToString(
+            "{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"uFQ3x4mP0\"}".getBytes(StandardCharsets.UTF_8));
+        final String body = encoder.encodeToString(payload.encode().getBytes(StandardCharsets.UTF_8));
+        return header + "." + body + "." + encoder.encodeToString(new byte[256]);
+    }
+}
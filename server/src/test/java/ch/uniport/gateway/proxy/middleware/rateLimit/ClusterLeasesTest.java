@@ -0,0 +1,198 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.shareddata.AsyncMap;
+import io.vertx.core.shareddata.impl.LocalAsyncMapImpl;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class ClusterLeasesTest {
+
+    private static final int LIMIT = 10;
+    private static final long PERIOD_MS = 1_000;
+    private static final int LEASE_SIZE = 4;
+    private static final String KEY = "client";
+    private static final String FALLBACK_KEY = "ip:client";
+
+    // in the middle of the first window
+    private final AtomicLong clock = new AtomicLong(500);
+
+    @Test
+    public void leasesBatchesUntilLimit(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final AsyncMap<String, Integer> map = new LocalAsyncMapImpl<>((VertxInternal) vertx);
+        final ClusterLeases leases = leases(() -> Future.succeededFuture(map));
+
+        // when
+        acquire(leases, 4)
+            .compose(granted -> map.get(KEY + "@0").map(leased -> {
+                // then
+                assertEquals(List.of(4, 4, 2, 0), granted);
+                assertEquals(LIMIT, leased);
+                return null;
+            }))
+            .onComplete(testCtx.succeedingThenComplete());
+    }
+
+    @Test
+    public void asksAgainOnlyOnceTokensCouldBeReleased(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final AsyncMap<String, Integer> map = new LocalAsyncMapImpl<>((VertxInternal) vertx);
+        final ClusterLeases leases = leases(() -> Future.succeededFuture(map));
+        final List<Integer> granted = new ArrayList<>();
+
+        // when
+        acquire(leases, 4)
+            // another instance would be granted tokens again
+            .compose(v -> map.remove(KEY + "@0"))
+            .compose(v -> leases.acquire(KEY, FALLBACK_KEY, LEASE_SIZE))
+            .compose(whileRefused -> {
+                granted.add(whileRefused);
+                // the time it takes to release a batch
+                clock.addAndGet(PERIOD_MS * LEASE_SIZE / LIMIT);
+                return leases.acquire(KEY, FALLBACK_KEY, LEASE_SIZE);
+            })
+            .map(afterRefusal -> {
+                granted.add(afterRefusal);
+                // then
+                assertEquals(List.of(0, 4), granted);
+                return null;
+            })
+            .onComplete(testCtx.succeedingThenComplete());
+    }
+
+    @Test
+    public void weightsLeasesOfPreviousWindow(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final AsyncMap<String, Integer> map = new LocalAsyncMapImpl<>((VertxInternal) vertx);
+        final ClusterLeases leases = leases(() -> Future.succeededFuture(map));
+
+        // when
+        acquire(leases, 4)
+            .compose(v -> {
+                // half of the previous window still counts
+                clock.set(PERIOD_MS + PERIOD_MS / 2);
+                return acquire(leases, 3);
+            })
+            .map(granted -> {
+                // then
+                assertEquals(List.of(4, 1, 0), granted);
+                return null;
+            })
+            .onComplete(testCtx.succeedingThenComplete());
+    }
+
+    @Test
+    public void sharesLimitWithOtherInstances(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final AsyncMap<String, Integer> map = new LocalAsyncMapImpl<>((VertxInternal) vertx);
+        final ClusterLeases first = leases(() -> Future.succeededFuture(map));
+        final ClusterLeases second = leases(() -> Future.succeededFuture(map));
+        final List<Integer> granted = new ArrayList<>();
+
+        // when
+        first.acquire(KEY, FALLBACK_KEY, LEASE_SIZE)
+            .compose(tokens -> {
+                granted.add(tokens);
+                return second.acquire(KEY, FALLBACK_KEY, LEASE_SIZE);
+            })
+            .compose(tokens -> {
+                granted.add(tokens);
+                return first.acquire(KEY, FALLBACK_KEY, LEASE_SIZE);
+            })
+            .compose(tokens -> {
+                granted.add(tokens);
+                return second.acquire(KEY, FALLBACK_KEY, LEASE_SIZE);
+            })
+            .map(tokens -> {
+                granted.add(tokens);
+                // then
+                assertEquals(List.of(4, 4, 2, 0), granted);
+                return null;
+            })
+            .onComplete(testCtx.succeedingThenComplete());
+    }
+
+    @Test
+    public void retriesContendedReservation(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final ContendedMap map = new ContendedMap(vertx, 2);
+        final ClusterLeases leases = leases(() -> Future.succeededFuture(map));
+
+        // when
+        acquire(leases, 2)
+            .compose(granted -> map.get(KEY + "@0").map(leased -> {
+                // then
+                assertEquals(List.of(4, 4), granted);
+                // 4 + 2 tokens of the other instance + 4
+                assertEquals(LIMIT, leased);
+                return null;
+            }))
+            .onComplete(testCtx.succeedingThenComplete());
+    }
+
+    @Test
+    public void failsIfReservationStaysContended(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final ContendedMap map = new ContendedMap(vertx, Integer.MAX_VALUE);
+        final ClusterLeases leases = leases(() -> Future.succeededFuture(map));
+
+        // when
+        acquire(leases, 2)
+            // then
+            .onComplete(testCtx.failingThenComplete());
+    }
+
+    private ClusterLeases leases(Supplier<Future<AsyncMap<String, Integer>>> map) {
+        return new ClusterLeases(map, "test", LIMIT, PERIOD_MS, LEASE_SIZE, 10, clock::get);
+    }
+
+    /**
+     * @return the tokens granted by {@code times} consecutive leases
+     */
+    private static Future<List<Integer>> acquire(ClusterLeases leases, int times) {
+        Future<List<Integer>> granted = Future.succeededFuture(new ArrayList<>());
+        for (int i = 0; i < times; i++) {
+            granted = granted.compose(list -> leases.acquire(KEY, FALLBACK_KEY, LEASE_SIZE)
+                .map(tokens -> {
+                    list.add(tokens);
+                    return list;
+                }));
+        }
+        return granted;
+    }
+
+    /**
+     * Lets another instance reserve a token before each of the first
+     * {@code contentions} reservations.
+     */
+    private static final class ContendedMap extends LocalAsyncMapImpl<String, Integer> {
+
+        private int contentions;
+
+        ContendedMap(Vertx vertx, int contentions) {
+            super((VertxInternal) vertx);
+            this.contentions = contentions;
+        }
+
+        @Override
+        public Future<Boolean> replaceIfPresent(String k, Integer oldValue, Integer newValue) {
+            if (contentions > 0) {
+                contentions--;
+                return super.replaceIfPresent(k, oldValue, oldValue + 1).map(false);
+            }
+            return super.replaceIfPresent(k, oldValue, newValue);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+public class RateLimitMiddlewareOptionsTest {
+
+    @Test
+    public void shouldParse() {
+        // given
+        final int limit = 50;
+        final long periodMs = 60_000;
+        final int burst = 100;
+        final String keyName = "$.sub";
+
+        final JsonObject json = JsonObject.of(
+            RateLimitMiddlewareFactory.ALGORITHM, RateLimitMiddlewareFactory.ALGORITHM_SLIDING_WINDOW,
+            RateLimitMiddlewareFactory.LIMIT, limit,
+            RateLimitMiddlewareFactory.PERIOD_MS, periodMs,
+            RateLimitMiddlewareFactory.BURST, burst,
+            RateLimitMiddlewareFactory.KEY, RateLimitMiddlewareFactory.KEY_CLAIM,
+            RateLimitMiddlewareFactory.KEY_NAME, keyName);
+
+        // when
+        final ThrowingSupplier<RateLimitMiddlewareOptions> parse = () -> new ObjectMapper().readValue(json.encode(), RateLimitMiddlewareOptions.class);
+
+        // then
+        final RateLimitMiddlewareOptions options = assertDoesNotThrow(parse);
+        assertNotNull(options);
+        assertEquals(RateLimitAlgorithm.SLIDING_WINDOW, options.getAlgorithm());
+        assertEquals(limit, options.getLimit());
+        assertEquals(periodMs, options.getPeriodMs());
+        assertEquals(burst, options.getBurst());
+        assertEquals(RateLimitKey.CLAIM, options.getKey());
+        assertEquals(keyName, options.getKeyName());
+        assertEquals(AbstractRateLimitMiddlewareOptions.DEFAULT_STATUS_CODE, options.getStatusCode());
+    }
+
+    @Test
+    public void shouldUseDefaults() {
+        // given
+        final JsonObject json = JsonObject.of(RateLimitMiddlewareFactory.LIMIT, 10);
+
+        // when
+        final ThrowingSupplier<RateLimitMiddlewareOptions> parse = () -> new ObjectMapper().readValue(json.encode(), RateLimitMiddlewareOptions.class);
+
+        // then
+        final RateLimitMiddlewareOptions options = assertDoesNotThrow(parse);
+        assertEquals(AbstractRateLimitMiddlewareOptions.DEFAULT_ALGORITHM, options.getAlgorithm());
+        assertEquals(AbstractRateLimitMiddlewareOptions.DEFAULT_PERIOD_MS, options.getPeriodMs());
+        assertEquals(AbstractRateLimitMiddlewareOptions.DEFAULT_KEY, options.getKey());
+        assertEquals(AbstractRateLimitMiddlewareOptions.DEFAULT_MAX_KEYS, options.getMaxKeys());
+    }
+
+    @Test
+    public void shouldFailWithoutKeyNameForHeader() {
+        assertThrows(IllegalStateException.class, () -> RateLimitMiddlewareOptions.builder()
+            .withLimit(10)
+            .withKey(RateLimitKey.HEADER)
+            .build());
+    }
+}
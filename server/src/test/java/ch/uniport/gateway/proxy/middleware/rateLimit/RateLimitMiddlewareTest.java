@@ -0,0 +1,156 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import static ch.uniport.gateway.TestUtils.buildConfiguration;
+import static ch.uniport.gateway.TestUtils.withMiddleware;
+import static ch.uniport.gateway.TestUtils.withMiddlewareOpts;
+import static ch.uniport.gateway.TestUtils.withMiddlewares;
+import static ch.uniport.gateway.proxy.middleware.MiddlewareServerBuilder.uniportGateway;
+import static io.vertx.core.http.HttpMethod.GET;
+
+import ch.uniport.gateway.proxy.middleware.MiddlewareServer;
+import ch.uniport.gateway.proxy.middleware.MiddlewareTestBase;
+import ch.uniport.gateway.proxy.middleware.VertxAssertions;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.provider.Arguments;
+
+@ExtendWith(VertxExtension.class)
+public class RateLimitMiddlewareTest extends MiddlewareTestBase {
+
+    private static final String CLIENT_HEADER = "X-Client";
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Stream<Arguments> provideConfigValidationTestData() {
+        final JsonObject simple = buildConfiguration(
+            withMiddlewares(
+                withMiddleware("rateLimit", RateLimitMiddlewareFactory.TYPE,
+                    withMiddlewareOpts(JsonObject.of(
+                        RateLimitMiddlewareFactory.LIMIT, 10)))));
+
+        final JsonObject full = buildConfiguration(
+            withMiddlewares(
+                withMiddleware("rateLimit", RateLimitMiddlewareFactory.TYPE,
+                    withMiddlewareOpts(JsonObject.of(
+                        RateLimitMiddlewareFactory.ALGORITHM, RateLimitMiddlewareFactory.ALGORITHM_SLIDING_WINDOW,
+                        RateLimitMiddlewareFactory.LIMIT, 10,
+                        RateLimitMiddlewareFactory.PERIOD_MS, 60_000,
+                        RateLimitMiddlewareFactory.KEY, RateLimitMiddlewareFactory.KEY_HEADER,
+                        RateLimitMiddlewareFactory.KEY_NAME, CLIENT_HEADER,
+                        RateLimitMiddlewareFactory.STATUS_CODE, 503,
+                        RateLimitMiddlewareFactory.MAX_KEYS, 1_000,
+                        RateLimitMiddlewareFactory.CLUSTER_LEASE_SIZE, 5)))));
+
+        final JsonObject missingLimit = buildConfiguration(
+            withMiddlewares(
+                withMiddleware("rateLimit", RateLimitMiddlewareFactory.TYPE,
+                    withMiddlewareOpts(JsonObject.of(
+                        RateLimitMiddlewareFactory.PERIOD_MS, 1_000)))));
+
+        final JsonObject missingKeyName = buildConfiguration(
+            withMiddlewares(
+                withMiddleware("rateLimit", RateLimitMiddlewareFactory.TYPE,
+                    withMiddlewareOpts(JsonObject.of(
+                        RateLimitMiddlewareFactory.LIMIT, 10,
+                        RateLimitMiddlewareFactory.KEY, RateLimitMiddlewareFactory.KEY_CLAIM)))));
+
+        final JsonObject unknownKey = buildConfiguration(
+            withMiddlewares(
+                withMiddleware("rateLimit", RateLimitMiddlewareFactory.TYPE,
+                    withMiddlewareOpts(JsonObject.of(
+                        RateLimitMiddlewareFactory.LIMIT, 10,
+                        RateLimitMiddlewareFactory.KEY, "COOKIE")))));
+
+        return Stream.of(
+            Arguments.of("accept simple config", simple, complete, expectedTrue),
+            Arguments.of("accept full config", full, complete, expectedTrue),
+            Arguments.of("reject config missing required property (limit)", missingLimit, complete, expectedFalse),
+            Arguments.of("reject config missing key name", missingKeyName, complete, expectedFalse),
+            Arguments.of("reject config with unknown key", unknownKey, complete, expectedFalse));
+    }
+
+    @Test
+    public void rejectsRequestsExceedingLimit(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withRateLimitMiddleware(RateLimitMiddlewareOptions.builder()
+                .withLimit(1)
+                .withPeriodMs(60_000)
+                .withKey(RateLimitKey.HEADER)
+                .withKeyName(CLIENT_HEADER)
+                .build())
+            .build().start();
+
+        // when
+        gateway.incomingRequest(GET, "/", client("a"), first -> {
+            gateway.incomingRequest(GET, "/", client("a"), second -> {
+                gateway.incomingRequest(GET, "/", client("b"), other -> {
+                    // then
+                    VertxAssertions.assertEquals(testCtx, 200, first.statusCode(), "first request should be admitted");
+                    VertxAssertions.assertEquals(testCtx, 429, second.statusCode(),
+                        "second request should be rejected");
+                    VertxAssertions.assertEquals(testCtx, "60", second.getHeader("Retry-After"));
+                    VertxAssertions.assertEquals(testCtx, 200, other.statusCode(), "other client should be admitted");
+                    testCtx.completeNow();
+                });
+            });
+        });
+    }
+
+    @Test
+    public void admitsRequestsIfLimiterFails(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final RateLimiter failing = (key, fallbackKey, tokens) -> Future.failedFuture("lease contended");
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(new RateLimitMiddleware("rateLimit", failing, RateLimitKey.CLIENT_IP, null,
+                1, 60_000, 429, 10))
+            .build().start();
+
+        // when
+        gateway.incomingRequest(GET, "/", first -> {
+            gateway.incomingRequest(GET, "/", second -> {
+                // then
+                VertxAssertions.assertEquals(testCtx, 200, first.statusCode(), "first request should be admitted");
+                VertxAssertions.assertEquals(testCtx, 200, second.statusCode(), "second request should be admitted");
+                testCtx.completeNow();
+            });
+        });
+    }
+
+    @Test
+    public void separatesHeaderValuesFromClientIpKeys(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final RateLimiter limiter = new TokenBuckets(1, 60_000, 1, 10, () -> 0);
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(new RateLimitMiddleware("rateLimit", limiter, RateLimitKey.HEADER, CLIENT_HEADER,
+                1, 60_000, 429, 10))
+            .build().start();
+
+        // when
+        // the header value equals the key of the client IP, which limits requests without the header
+        gateway.incomingRequest(GET, "/", client("ip:127.0.0.1"), spoofed -> {
+            gateway.incomingRequest(GET, "/", withoutHeader -> {
+                gateway.incomingRequest(GET, "/", client("ip:127.0.0.1"), spoofedAgain -> {
+                    // then
+                    VertxAssertions.assertEquals(testCtx, 200, spoofed.statusCode());
+                    VertxAssertions.assertEquals(testCtx, 200, withoutHeader.statusCode(),
+                        "IP bucket should not be drained by the header value");
+                    VertxAssertions.assertEquals(testCtx, 429, spoofedAgain.statusCode());
+                    testCtx.completeNow();
+                });
+            });
+        });
+    }
+
+    private static RequestOptions client(String name) {
+        return new RequestOptions().setHeaders(MultiMap.caseInsensitiveMultiMap().add(CLIENT_HEADER, name));
+    }
+}
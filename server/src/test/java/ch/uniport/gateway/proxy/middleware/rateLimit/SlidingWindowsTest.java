@@ -0,0 +1,52 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class SlidingWindowsTest {
+
+    @Test
+    public void admitsLimitPerWindow() {
+        // given
+        final SlidingWindows windows = new SlidingWindows(10, 1_000, 10, () -> 0);
+
+        // when
+        final int first = windows.acquire("client", "client", 8, 100);
+        final int second = windows.acquire("client", "client", 8, 900);
+
+        // then
+        assertEquals(8, first);
+        assertEquals(2, second);
+    }
+
+    @Test
+    public void weightsPreviousWindow() {
+        // given
+        final SlidingWindows windows = new SlidingWindows(10, 1_000, 10, () -> 0);
+        windows.acquire("client", "client", 10, 500);
+
+        // when
+        final int quarterIntoNextWindow = windows.acquire("client", "client", 10, 1_250);
+        final int threeQuartersIntoNextWindow = windows.acquire("client", "client", 10, 1_750);
+
+        // then
+        // 10 * 0.75 of the previous window are still in the sliding window
+        assertEquals(2, quarterIntoNextWindow);
+        // 10 * 0.25 of the previous window and 2 of the current window
+        assertEquals(5, threeQuartersIntoNextWindow);
+    }
+
+    @Test
+    public void forgetsWindowsOlderThanPrevious() {
+        // given
+        final SlidingWindows windows = new SlidingWindows(10, 1_000, 10, () -> 0);
+        windows.acquire("client", "client", 10, 500);
+
+        // when
+        final int granted = windows.acquire("client", "client", 10, 2_000);
+
+        // then
+        assertEquals(10, granted);
+    }
+}
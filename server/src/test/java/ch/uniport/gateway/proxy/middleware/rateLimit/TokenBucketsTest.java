@@ -0,0 +1,97 @@
+package ch.uniport.gateway.proxy.middleware.rateLimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketsTest {
+
+    @Test
+    public void admitsBurstAndRejectsBeyond() {
+        // given
+        final TokenBuckets buckets = new TokenBuckets(10, 1_000, 5, 10, () -> 0);
+
+        // when
+        final int first = buckets.acquire("client", "client", 3, 0);
+        final int second = buckets.acquire("client", "client", 3, 0);
+        final int third = buckets.acquire("client", "client", 1, 0);
+
+        // then
+        assertEquals(3, first);
+        assertEquals(2, second);
+        assertEquals(0, third);
+    }
+
+    @Test
+    public void refillsWithLimitPerPeriod() {
+        // given
+        final TokenBuckets buckets = new TokenBuckets(10, 1_000, 10, 10, () -> 0);
+        buckets.acquire("client", "client", 10, 0);
+
+        // when
+        final int afterTwoTokens = buckets.acquire("client", "client", 10, 250);
+        final int afterPeriod = buckets.acquire("client", "client", 20, 5_000);
+
+        // then
+        assertEquals(2, afterTwoTokens);
+        assertEquals(10, afterPeriod);
+    }
+
+    @Test
+    public void limitsKeysSeparately() {
+        // given
+        final TokenBuckets buckets = new TokenBuckets(1, 1_000, 1, 10, () -> 0);
+
+        // when
+        final int first = buckets.acquire("a", "a", 1, 0);
+        final int second = buckets.acquire("b", "b", 1, 0);
+
+        // then
+        assertEquals(1, first);
+        assertEquals(1, second);
+    }
+
+    @Test
+    public void limitsNewKeysByFallbackKeyAtMaxKeys() {
+        // given
+        final TokenBuckets buckets = new TokenBuckets(1, 1_000, 1, 2, () -> 0);
+        buckets.acquire("a", "ip:a", 1, 0);
+        buckets.acquire("b", "ip:b", 1, 0);
+
+        // when
+        final int newKey = buckets.acquire("c", "ip:attacker", 1, 0);
+        final int anotherNewKey = buckets.acquire("d", "ip:attacker", 1, 0);
+        final int otherClient = buckets.acquire("e", "ip:other", 1, 0);
+        final int afterIdle = buckets.acquire("f", "ip:attacker", 1, 2_000);
+
+        // then
+        assertEquals(1, newKey);
+        assertEquals(0, anotherNewKey);
+        assertEquals(1, otherClient);
+        assertEquals(1, afterIdle);
+        assertEquals(1, buckets.size());
+    }
+
+    @Test
+    public void sharesStateBeyondTwiceMaxKeys() {
+        // given
+        final TokenBuckets buckets = new TokenBuckets(1, 1_000, 1, 1, () -> 0);
+        buckets.acquire("a", "ip:a", 1, 0);
+        buckets.acquire("b", "ip:b", 1, 0);
+
+        // when
+        final int overflow = buckets.acquire("c", "ip:c", 1, 0);
+        final int sharedOverflow = buckets.acquire("d", "ip:d", 1, 0);
+
+        // then
+        assertEquals(1, overflow);
+        assertEquals(0, sharedOverflow);
+        assertEquals(3, buckets.size());
+    }
+
+    @Test
+    public void rejectsInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(0, 1_000, 1, 10));
+    }
+}
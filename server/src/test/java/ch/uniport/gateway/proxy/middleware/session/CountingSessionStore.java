@@ -0,0 +1,84 @@
+package ch.uniport.gateway.proxy.middleware.session;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.SessionStore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the sessions loaded from and written to a store.
+ */
+final class CountingSessionStore implements SessionStore {
+
+    private final SessionStore delegate;
+    private final AtomicInteger gets = new AtomicInteger();
+    private final AtomicInteger puts = new AtomicInteger();
+
+    CountingSessionStore(SessionStore delegate) {
+        this.delegate = delegate;
+    }
+
+    int gets() {
+        return gets.get();
+    }
+
+    int puts() {
+        return puts.get();
+    }
+
+    @Override
+    public SessionStore init(Vertx vertx, JsonObject options) {
+        delegate.init(vertx, options);
+        return this;
+    }
+
+    @Override
+    public long retryTimeout() {
+        return delegate.retryTimeout();
+    }
+
+    @Override
+    public Session createSession(long timeout) {
+        return delegate.createSession(timeout);
+    }
+
+    @Override
+    public Session createSession(long timeout, int length) {
+        return delegate.createSession(timeout, length);
+    }
+
+    @Override
+    public void get(String cookieValue, Handler<AsyncResult<Session>> resultHandler) {
+        gets.incrementAndGet();
+        delegate.get(cookieValue, resultHandler);
+    }
+
+    @Override
+    public void delete(String id, Handler<AsyncResult<Void>> resultHandler) {
+        delegate.delete(id, resultHandler);
+    }
+
+    @Override
+    public void put(Session session, Handler<AsyncResult<Void>> resultHandler) {
+        puts.incrementAndGet();
+        delegate.put(session, resultHandler);
+    }
+
+    @Override
+    public void clear(Handler<AsyncResult<Void>> resultHandler) {
+        delegate.clear(resultHandler);
+    }
+
+    @Override
+    public void size(Handler<AsyncResult<Integer>> resultHandler) {
+        delegate.size(resultHandler);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
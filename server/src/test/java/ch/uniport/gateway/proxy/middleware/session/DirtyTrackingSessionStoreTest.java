@@ -0,0 +1,135 @@
+package ch.uniport.gateway.proxy.middleware.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.LocalSessionStore;
+import io.vertx.ext.web.sstore.SessionStore;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class DirtyTrackingSessionStoreTest {
+
+    private static final String MIDDLEWARE = "session";
+    private static final long TIMEOUT_MS = 15 * 60_000L;
+
+    @Test
+    void shouldSkipUnchangedSession(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final CountingSessionStore delegate = new CountingSessionStore(LocalSessionStore.create(vertx));
+        final DirtyTrackingSessionStore store = new DirtyTrackingSessionStore(vertx, MIDDLEWARE, delegate, 60_000,
+            System::currentTimeMillis);
+
+        // when
+        roundTrip(store, delegate, session -> session.put("foo", "bar"))
+            .onComplete(testCtx.succeeding(session -> {
+                // then
+                testCtx.verify(() -> assertEquals(1, delegate.puts()));
+                testCtx.completeNow();
+            }));
+    }
+
+    @Test
+    void shouldWriteChangedSession(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final CountingSessionStore delegate = new CountingSessionStore(LocalSessionStore.create(vertx));
+        final DirtyTrackingSessionStore store = new DirtyTrackingSessionStore(vertx, MIDDLEWARE, delegate, 60_000,
+            System::currentTimeMillis);
+
+        // when
+        roundTrip(store, delegate, session -> session.put("foo", "baz"))
+            .onComplete(testCtx.succeeding(session -> {
+                // then
+                testCtx.verify(() -> assertEquals(2, delegate.puts()));
+                testCtx.completeNow();
+            }));
+    }
+
+    @Test
+    void shouldWriteUnchangedSessionAfterInterval(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final CountingSessionStore delegate = new CountingSessionStore(LocalSessionStore.create(vertx));
+        final DirtyTrackingSessionStore store = new DirtyTrackingSessionStore(vertx, MIDDLEWARE, delegate, 0,
+            System::currentTimeMillis);
+
+        // when
+        roundTrip(store, delegate, session -> session.put("foo", "bar"))
+            .onComplete(testCtx.succeeding(session -> {
+                // then
+                testCtx.verify(() -> assertEquals(2, delegate.puts()));
+                testCtx.completeNow();
+            }));
+    }
+
+    @Test
+    void shouldWriteSessionWithUnhashableData(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final CountingSessionStore delegate = new CountingSessionStore(LocalSessionStore.create(vertx));
+        final DirtyTrackingSessionStore store = new DirtyTrackingSessionStore(vertx, MIDDLEWARE, delegate, 60_000,
+            System::currentTimeMillis);
+        final Object unhashable = new Object();
+
+        // when
+        final Session session = delegate.createSession(TIMEOUT_MS);
+        session.put("foo", unhashable);
+        delegate.put(session)
+            .compose(v -> store.get(session.id()))
+            .compose(loaded -> store.put(loaded))
+            .onComplete(testCtx.succeeding(v -> {
+                // then
+                testCtx.verify(() -> assertEquals(2, delegate.puts()));
+                testCtx.completeNow();
+            }));
+    }
+
+    @Test
+    void shouldPurgeSnapshotsOfSessionsNotPutBack(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        final CountingSessionStore delegate = new CountingSessionStore(LocalSessionStore.create(vertx));
+        final DirtyTrackingSessionStore store = new DirtyTrackingSessionStore(vertx, MIDDLEWARE, delegate, 60_000,
+            now::get);
+        final Session session = delegate.createSession(TIMEOUT_MS);
+
+        // when
+        delegate.put(session)
+            .compose(v -> store.get(session.id()))
+            .onComplete(testCtx.succeeding(loaded -> {
+                // then
+                testCtx.verify(() -> {
+                    assertEquals(1, store.snapshotCount());
+                    now.addAndGet(DirtyTrackingSessionStore.SNAPSHOT_RETENTION_MS + 1);
+                    store.purgeSnapshots();
+                    assertEquals(0, store.snapshotCount());
+                });
+                testCtx.completeNow();
+            }));
+    }
+
+    /**
+     * Stores a session with the initial data, loads it, applies the modification
+     * and puts it back, as the session handler does per request.
+     */
+    private static Future<Session> roundTrip(
+        DirtyTrackingSessionStore store, SessionStore delegate, Consumer<Session> modification
+    ) {
+        final Session session = delegate.createSession(TIMEOUT_MS);
+        session.put("foo", "bar");
+        session.put("json", new JsonObject().put("nested", 1));
+        return delegate.put(session)
+            .compose(v -> store.get(session.id()))
+            .compose(loaded -> {
+                modification.accept(loaded);
+                loaded.setAccessed();
+                return store.put(loaded).map(loaded);
+            });
+    }
+}
@@ -0,0 +1,149 @@
+package ch.uniport.gateway.proxy.middleware.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.LocalSessionStore;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class NearCacheSessionStoreTest {
+
+    private static final String MIDDLEWARE = "session";
+    private static final long TIMEOUT_MS = 15 * 60_000L;
+    private static final long MAX_TTL_MS = 30_000L;
+    // event bus delivery to the other instance
+    private static final long INVALIDATION_DELAY_MS = 100;
+
+    @Test
+    void shouldServeRepeatedLoadsFromCache(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final CountingSessionStore delegate = new CountingSessionStore(LocalSessionStore.create(vertx));
+        final NearCacheSessionStore store = nearCache(vertx, delegate, System::currentTimeMillis);
+        final Session session = delegate.createSession(TIMEOUT_MS).put("foo", "bar");
+
+        // when
+        delegate.put(session)
+            .compose(v -> store.get(session.id()))
+            .compose(v -> store.get(session.id()))
+            .onComplete(testCtx.succeeding(cached -> {
+                // then
+                testCtx.verify(() -> {
+                    assertEquals(1, delegate.gets());
+                    assertEquals("bar", cached.get("foo"));
+                    assertEquals(session.version(), cached.version());
+                });
+                testCtx.completeNow();
+            }));
+    }
+
+    @Test
+    void shouldReadOwnWrites(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final CountingSessionStore delegate = new CountingSessionStore(LocalSessionStore.create(vertx));
+        final NearCacheSessionStore store = nearCache(vertx, delegate, System::currentTimeMillis);
+        final Session session = delegate.createSession(TIMEOUT_MS).put("foo", "bar");
+
+        // when
+        delegate.put(session)
+            .compose(v -> store.get(session.id()))
+            .compose(loaded -> store.put(loaded.put("foo", "baz")))
+            .compose(v -> store.get(session.id()))
+            .onComplete(testCtx.succeeding(cached -> {
+                // then
+                testCtx.verify(() -> {
+                    assertEquals(1, delegate.gets());
+                    assertEquals("baz", cached.get("foo"));
+                });
+                testCtx.completeNow();
+            }));
+    }
+
+    @Test
+    void shouldEvictSessionWrittenByOtherInstance(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final CountingSessionStore delegate = new CountingSessionStore(LocalSessionStore.create(vertx));
+        final NearCacheSessionStore store = nearCache(vertx, delegate, System::currentTimeMillis);
+        final NearCacheSessionStore otherStore = nearCache(vertx, delegate, System::currentTimeMillis);
+        final Session session = delegate.createSession(TIMEOUT_MS).put("foo", "bar");
+
+        // when
+        delegate.put(session)
+            .compose(v -> store.get(session.id()))
+            .compose(v -> otherStore.get(session.id()))
+            .compose(loaded -> otherStore.put(loaded.put("foo", "baz")))
+            .compose(v -> delay(vertx, INVALIDATION_DELAY_MS))
+            .compose(v -> store.get(session.id()))
+            .onComplete(testCtx.succeeding(loaded -> {
+                // then
+                testCtx.verify(() -> {
+                    assertEquals(3, delegate.gets());
+                    assertEquals("baz", loaded.get("foo"));
+                });
+                testCtx.completeNow();
+            }));
+    }
+
+    @Test
+    void shouldKeepNewerSessionOnOutdatedInvalidation(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final CountingSessionStore delegate = new CountingSessionStore(LocalSessionStore.create(vertx));
+        final NearCacheSessionStore store = nearCache(vertx, delegate, System::currentTimeMillis);
+        final Session session = delegate.createSession(TIMEOUT_MS).put("foo", "bar");
+
+        // when
+        delegate.put(session)
+            .compose(v -> store.get(session.id()))
+            .compose(loaded -> {
+                store.evict(loaded.id(), loaded.version() - 1);
+                return store.get(session.id());
+            })
+            .onComplete(testCtx.succeeding(cached -> {
+                // then
+                testCtx.verify(() -> assertEquals(1, delegate.gets()));
+                testCtx.completeNow();
+            }));
+    }
+
+    @Test
+    void shouldExpireCachedSessions(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        final CountingSessionStore delegate = new CountingSessionStore(LocalSessionStore.create(vertx));
+        final NearCacheSessionStore store = nearCache(vertx, delegate, now::get);
+        final Session session = delegate.createSession(TIMEOUT_MS).put("foo", "bar");
+
+        // when
+        delegate.put(session)
+            .compose(v -> store.get(session.id()))
+            .compose(v -> {
+                now.addAndGet(MAX_TTL_MS);
+                return store.get(session.id());
+            })
+            .onComplete(testCtx.succeeding(loaded -> {
+                // then
+                testCtx.verify(() -> assertEquals(2, delegate.gets()));
+                testCtx.completeNow();
+            }));
+    }
+
+    private static NearCacheSessionStore nearCache(
+        Vertx vertx, CountingSessionStore delegate, LongSupplier clock
+    ) {
+        return new NearCacheSessionStore(vertx, MIDDLEWARE, delegate, 100, MAX_TTL_MS, clock);
+    }
+
+    private static Future<Void> delay(Vertx vertx, long delayMs) {
+        final Promise<Void> promise = Promise.promise();
+        vertx.setTimer(delayMs, timerId -> promise.complete());
+        return promise.future();
+    }
+}
@@ -0,0 +1,84 @@
+package ch.uniport.gateway.proxy.middleware.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class SessionDataFormatTest {
+
+    @Test
+    void readsWhatWasWritten() {
+        // given
+        final JsonObject json = new JsonObject()
+            .put("string", "grüezi")
+            .put("int", -42)
+            .put("long", 1_700_000_000_000L)
+            .put("double", 1.5)
+            .put("boolean", true)
+            .putNull("null")
+            .put("array", new JsonArray().add(1).add("two").add(new JsonObject().put("three", 3)))
+            .put("object", new JsonObject().put("nested", new JsonArray()));
+
+        final Buffer buffer = Buffer.buffer();
+
+        // when
+        SessionDataFormat.writeVersion(buffer);
+        SessionDataFormat.writeString(buffer, null);
+        SessionDataFormat.writeJsonObject(buffer, json);
+        SessionDataFormat.writeSignedVarLong(buffer, Long.MIN_VALUE);
+
+        final SessionDataFormat.Reader reader = SessionDataFormat.reader(0, buffer);
+
+        // then
+        assertFalse(SessionDataFormat.isLegacy(0, buffer));
+        assertNull(reader.readString());
+        assertEquals(json, reader.readJsonObject());
+        assertEquals(Long.MIN_VALUE, reader.readSignedVarLong());
+        assertEquals(buffer.length(), reader.position());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0, 1, 127, 128, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE })
+    void readsVarLongs(long value) {
+        // given
+        final Buffer buffer = Buffer.buffer();
+        SessionDataFormat.writeVersion(buffer);
+
+        // when
+        SessionDataFormat.writeVarLong(buffer, value);
+
+        // then
+        assertEquals(value, SessionDataFormat.reader(0, buffer).readVarLong());
+    }
+
+    @Test
+    void detectsLegacyFormat() {
+        // given
+        final Buffer buffer = Buffer.buffer();
+
+        // when
+        new JsonObject().put("foo", "bar").writeToBuffer(buffer);
+
+        // then
+        assertTrue(SessionDataFormat.isLegacy(0, buffer));
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        // given
+        final Buffer buffer = Buffer.buffer().appendInt(-2);
+
+        // when
+        // then
+        assertThrows(IllegalStateException.class, () -> SessionDataFormat.reader(0, buffer));
+    }
+}
@@ -27,6 +27,10 @@ public class SessionMiddlewareOptionsTest {
         final Boolean cookieSecure = true;
         final CookieSameSite cookieSameSite = CookieSameSite.LAX;
         final Integer clusteredSessionStoreTimeout = 1234;
+        final Integer idleTimeoutResetInterval = 30;
+        final Boolean nearCacheEnabled = true;
+        final Integer nearCacheMaxEntries = 500;
+        final Long nearCacheMaxTtlMs = 5000L;
 
         final JsonObject json = JsonObject.of(
             SessionMiddlewareFactory.SESSION_IDLE_TIMEOUT_IN_MINUTES, idleTime,
@@ -40,7 +44,12 @@ public class SessionMiddlewareOptionsTest {
                 SessionMiddlewareFactory.SESSION_COOKIE_HTTP_ONLY, cookieHttpOnly,
                 SessionMiddlewareFactory.SESSION_COOKIE_SECURE, cookieSecure,
                 SessionMiddlewareFactory.SESSION_COOKIE_SAME_SITE, cookieSameSite),
-            SessionMiddlewareFactory.CLUSTERED_SESSION_STORE_RETRY_TIMEOUT_MS, clusteredSessionStoreTimeout
+            SessionMiddlewareFactory.CLUSTERED_SESSION_STORE_RETRY_TIMEOUT_MS, clusteredSessionStoreTimeout,
+            SessionMiddlewareFactory.SESSION_IDLE_TIMEOUT_RESET_INTERVAL_IN_SECONDS, idleTimeoutResetInterval,
+            SessionMiddlewareFactory.NEAR_CACHE, Map.of(
+                SessionMiddlewareFactory.NEAR_CACHE_ENABLED, nearCacheEnabled,
+                SessionMiddlewareFactory.NEAR_CACHE_MAX_ENTRIES, nearCacheMaxEntries,
+                SessionMiddlewareFactory.NEAR_CACHE_MAX_TTL_MS, nearCacheMaxTtlMs)
 
         );
 
@@ -64,5 +73,11 @@ public class SessionMiddlewareOptionsTest {
         assertEquals(cookieSameSite, options.getSessionCookie().getSameSite());
 
         assertEquals(clusteredSessionStoreTimeout, options.getClusteredSessionStoreRetryTimeoutMs());
+        assertEquals(idleTimeoutResetInterval, options.getIdleTimeoutResetIntervalSeconds());
+
+        assertNotNull(options.getNearCache());
+        assertEquals(nearCacheEnabled, options.getNearCache().isEnabled());
+        assertEquals(nearCacheMaxEntries, options.getNearCache().getMaxEntries());
+        assertEquals(nearCacheMaxTtlMs, options.getNearCache().getMaxTtlMs());
     }
 }
@@ -0,0 +1,120 @@
+package ch.uniport.gateway.proxy.middleware.sessionBag;
+
+import io.vertx.core.http.Cookie;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the lookups of the {@link SessionBagMiddleware} per request on a
+ * {@link CookieBag} with the previous implementation, which compiled a regex
+ * per stored cookie and scanned a {@link HashSet} for every request cookie.
+ * Each request loads the cookies matching its path and checks five request
+ * cookies for conflicts. Cookies are spread over a few paths, as Keycloak sets
+ * them per realm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CookieBagBenchmark {
+
+    private static final String PATH = "/auth/realms/portal/protocol/openid-connect/auth";
+
+    @Param({ "5", "30", "100" })
+    public int cookieCount;
+
+    private CookieBag cookieBag;
+    private Set<Cookie> hashSet;
+    private List<Cookie> requestCookies;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CookieBagBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+
+    @Setup
+    public void setup() {
+        cookieBag = new CookieBag();
+        hashSet = new HashSet<>();
+        for (int i = 0; i < cookieCount; i++) {
+            final String path = switch (i % 4) {
+                case 0 -> "/";
+                case 1 -> "/auth/realms/portal/";
+                case 2 -> "/auth/realms/master/";
+                default -> "/app-" + i;
+            };
+            final Cookie cookie = Cookie.cookie("cookie-" + i, "value-" + i).setPath(path);
+            cookieBag.add(cookie);
+            hashSet.add(cookie);
+        }
+        requestCookies = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requestCookies.add(Cookie.cookie("cookie-" + (i * 7), "request-" + i));
+        }
+    }
+
+    @Benchmark
+    public int cookieBag() {
+        int count = cookieBag.matching(PATH).size();
+        for (Cookie requestCookie : requestCookies) {
+            if (!cookieBag.hasCookieWithPathPrefix(requestCookie.getName(), PATH)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int regexAndScan() {
+        int count = 0;
+        for (Cookie cookie : hashSet) {
+            if (matchesPathWithRegex(cookie, PATH)) {
+                count++;
+            }
+        }
+        for (Cookie requestCookie : requestCookies) {
+            if (hashSet.stream()
+                .noneMatch(c -> c.getName().equals(requestCookie.getName()) && PATH.startsWith(c.getPath()))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // the previous implementation of SessionBagMiddleware#matchesPath
+    private static boolean matchesPathWithRegex(Cookie cookie, String uriPath) {
+        final String requestPath;
+        if (!uriPath.startsWith("/") || uriPath.split("/").length - 1 <= 1) {
+            requestPath = "/";
+        } else {
+            requestPath = uriPath.endsWith("/") ? uriPath.substring(0, uriPath.length() - 1) : uriPath;
+        }
+        final String cookiePath = cookie.getPath().endsWith("/")
+            ? cookie.getPath().substring(0, cookie.getPath().length() - 1)
+            : cookie.getPath();
+        final String regex = String.format("^%s(\\/.*)?$", Pattern.quote(cookiePath));
+        return Pattern.compile(regex).matcher(requestPath).matches();
+    }
+}
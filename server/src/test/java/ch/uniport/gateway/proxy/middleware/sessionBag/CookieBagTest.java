@@ -1,18 +1,37 @@
 package ch.uniport.gateway.proxy.middleware.sessionBag;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import ch.uniport.gateway.proxy.middleware.VertxAssertions;
+import ch.uniport.gateway.proxy.middleware.session.SessionDataFormat;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.Cookie;
 import io.vertx.core.http.CookieSameSite;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 @ExtendWith(VertxExtension.class)
 public class CookieBagTest {
 
+    @AfterEach
+    void disableCompactFormat() {
+        SessionDataFormat.setEnabled(false);
+    }
+
     @Test
     void serializeAndDeserialize(Vertx vertx, VertxTestContext testCtx) {
         // given
@@ -48,6 +67,161 @@ public class CookieBagTest {
         testCtx.completeNow();
     }
 
+    @Test
+    void deserializeLegacyFormat() {
+        // given
+        final JsonArray legacy = new JsonArray()
+            .add(new JsonObject()
+                .put("name", "foo").put("value", "bar")
+                .put("domain", "example.com").put("path", "/test")
+                .put("maxAge", 1337L).put("secure", true).put("httpOnly", false)
+                .put("sameSite", "Lax"));
+        final Buffer buffer = Buffer.buffer();
+        legacy.writeToBuffer(buffer);
+
+        // when
+        final CookieBag actualCookieBag = new CookieBag();
+        final int read = actualCookieBag.readFromBuffer(0, buffer);
+
+        // then
+        assertEquals(buffer.length(), read);
+        final Cookie expected = Cookie.cookie("foo", "bar")
+            .setDomain("example.com")
+            .setPath("/test")
+            .setMaxAge(1337L)
+            .setSecure(true)
+            .setSameSite(CookieSameSite.LAX);
+        assertEquals(Set.of(expected.encode()),
+            actualCookieBag.stream().map(Cookie::encode).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void serializeLegacyFormatUnlessCompactFormatIsEnabled() {
+        // given
+        final CookieBag cookieBag = new CookieBag();
+        cookieBag.add(Cookie.cookie("foo", "bar").setPath("/test").setSameSite(CookieSameSite.LAX));
+
+        // when
+        final Buffer buffer = Buffer.buffer();
+        cookieBag.writeToBuffer(buffer);
+
+        // then
+        assertTrue(SessionDataFormat.isLegacy(0, buffer), "previous releases should be able to read it");
+        final JsonArray legacy = new JsonArray();
+        assertEquals(buffer.length(), legacy.readFromBuffer(0, buffer));
+        assertEquals("bar", legacy.getJsonObject(0).getString("value"));
+        assertEquals("Lax", legacy.getJsonObject(0).getString("sameSite"));
+    }
+
+    @Test
+    void serializesSmallerThanLegacyFormat() {
+        // given
+        SessionDataFormat.setEnabled(true);
+        final CookieBag cookieBag = new CookieBag();
+        cookieBag.add(Cookie.cookie("KEYCLOAK_SESSION", "portal/1234/abcd").setPath("/auth/realms/portal/")
+            .setMaxAge(36000).setSecure(true).setSameSite(CookieSameSite.NONE));
+
+        final JsonArray legacy = new JsonArray()
+            .add(new JsonObject()
+                .put("name", "KEYCLOAK_SESSION").put("value", "portal/1234/abcd")
+                .put("domain", null).put("path", "/auth/realms/portal/")
+                .put("maxAge", 36000L).put("secure", true).put("httpOnly", false)
+                .put("sameSite", "None"));
+        final Buffer legacyBuffer = Buffer.buffer();
+        legacy.writeToBuffer(legacyBuffer);
+
+        // when
+        final Buffer buffer = Buffer.buffer();
+        cookieBag.writeToBuffer(buffer);
+
+        // then
+        assertTrue(buffer.length() < legacyBuffer.length() / 2,
+            String.format("expected less than half of %d bytes, got %d", legacyBuffer.length(), buffer.length()));
+    }
+
+    @Test
+    void matchesCookiesOnPath() {
+        // given
+        final CookieBag cookieBag = new CookieBag();
+        cookieBag.add(Cookie.cookie("root", "1").setPath("/"));
+        cookieBag.add(Cookie.cookie("realm", "2").setPath("/auth/realms/portal/"));
+        cookieBag.add(Cookie.cookie("other", "3").setPath("/auth/realms/master"));
+        cookieBag.add(Cookie.cookie("prefix", "4").setPath("/auth/realm"));
+
+        // when
+        final List<Cookie> matching = cookieBag.matching("/auth/realms/portal/account");
+
+        // then
+        assertEquals(List.of("realm", "root"), matching.stream().map(Cookie::getName).toList());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/, /",
+        "/, /foo/bar",
+        "/foo, /foo/bar",
+        "/foo/, /foo/bar/",
+        "/foo, /foobar/baz",
+        "/foo/bar, /foo",
+        "/foo/bar, /foo/bar",
+        "/foo/bar, /foo/bar/baz",
+        "/foo/bar, /foo//bar",
+        "/foo//, /foo//bar",
+        "'', /",
+        "'', /foo/bar",
+        "foo, /foo/bar",
+        "/a.c, /abc/d",
+    })
+    void matchesAsPathMatch(String cookiePath, String uriPath) {
+        // given
+        final CookieBag cookieBag = new CookieBag();
+        cookieBag.add(Cookie.cookie("foo", "bar").setPath(cookiePath));
+
+        // when
+        final boolean matches = !cookieBag.matching(uriPath).isEmpty();
+
+        // then
+        assertEquals(CookieBag.pathMatches(cookiePath, uriPath), matches);
+    }
+
+    @Test
+    void replacesCookieWithSameNameAndPath() {
+        // given
+        final CookieBag cookieBag = new CookieBag();
+        cookieBag.add(Cookie.cookie("foo", "1").setPath("/"));
+        cookieBag.add(Cookie.cookie("foo", "2").setPath("/bar"));
+
+        // when
+        final boolean added = cookieBag.add(Cookie.cookie("foo", "3").setPath("/"));
+        cookieBag.remove(cookieBag.get("foo", "/"));
+        cookieBag.add(Cookie.cookie("foo", "4").setPath("/"));
+
+        // then
+        assertFalse(added);
+        assertEquals(2, cookieBag.size());
+        assertEquals("4", cookieBag.get("foo", "/").getValue());
+        assertEquals(List.of("4"), cookieBag.matching("/").stream().map(Cookie::getValue).toList());
+        assertTrue(cookieBag.hasCookieWithPathPrefix("foo", "/bar/baz"));
+    }
+
+    @Test
+    void removesWithIterator() {
+        // given
+        final CookieBag cookieBag = new CookieBag();
+        cookieBag.add(Cookie.cookie("foo", "1").setPath("/"));
+        cookieBag.add(Cookie.cookie("bar", "2").setPath("/"));
+        cookieBag.add(Cookie.cookie("foo", "3").setPath("/baz"));
+
+        // when
+        cookieBag.removeIf(cookie -> cookie.getName().equals("foo"));
+
+        // then
+        assertEquals(1, cookieBag.size());
+        assertNull(cookieBag.get("foo", "/"));
+        assertEquals(List.of("bar"), cookieBag.matching("/baz/qux").stream().map(Cookie::getName).toList());
+        assertEquals(Set.of("bar"), cookieBag.stream().map(Cookie::getName).collect(Collectors.toSet()));
+    }
+
     boolean hasAtLeastTheSameCookies(CookieBag some, CookieBag other) {
         boolean allPresent = true;
         for (Cookie c1 : some) {
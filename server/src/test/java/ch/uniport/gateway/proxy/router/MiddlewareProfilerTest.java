@@ -0,0 +1,117 @@
+package ch.uniport.gateway.proxy.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MiddlewareProfilerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private MiddlewareProfiler profiler;
+
+    @BeforeEach
+    void setup() {
+        profiler = new MiddlewareProfiler(clock::get);
+    }
+
+    @Test
+    void shouldMeasureMiddlewaresUntilNextMiddlewareOrEnd() {
+        // given
+        final MiddlewareProfiler.Stats first = profiler.stats("router", "first", "headers");
+        final MiddlewareProfiler.Stats proxy = profiler.stats("router", "backend", "service");
+        final ChainProfile profile = new ChainProfile(profiler);
+
+        // when
+        profile.enter(first);
+        clock.addAndGet(2_000_000);
+        profile.enter(proxy);
+        profile.returned(proxy);
+        profile.returned(first);
+        clock.addAndGet(5_000_000);
+        profile.end(null);
+
+        // then
+        assertEquals(1, first.count());
+        assertEquals(2_000_000, first.totalNanos());
+        assertEquals(1, proxy.count());
+        assertEquals(5_000_000, proxy.totalNanos());
+    }
+
+    @Test
+    void shouldMeasureEachRequest() {
+        // given
+        final MiddlewareProfiler.Stats stats = profiler.stats("router", "backend", "service");
+
+        // when
+        for (int i = 1; i <= 3; i++) {
+            final ChainProfile profile = new ChainProfile(profiler);
+            profile.enter(stats);
+            clock.addAndGet(i * 1_000_000L);
+            profile.end(null);
+        }
+
+        // then
+        assertEquals(3, stats.count());
+        assertEquals(2_000_000, stats.meanNanos());
+    }
+
+    @Test
+    void shouldListMostExpensiveMiddlewaresFirst() {
+        // given
+        record(profiler.stats("router", "fast", "headers"), 1_000_000);
+        record(profiler.stats("router", "slow", "oauth2"), 9_000_000);
+        record(profiler.stats("router", "medium", "csp"), 4_000_000);
+
+        // when
+        final JsonArray top = profiler.top(2, MiddlewareProfiler.SORT_BY_MEAN);
+
+        // then
+        assertEquals(2, top.size());
+        final JsonObject slowest = top.getJsonObject(0);
+        assertEquals("router", slowest.getString("router"));
+        assertEquals("slow", slowest.getString("middleware"));
+        assertEquals("oauth2", slowest.getString("type"));
+        assertEquals(1, slowest.getLong("count"));
+        assertEquals(9.0, slowest.getDouble("meanMs"));
+        assertEquals("medium", top.getJsonObject(1).getString("middleware"));
+    }
+
+    @Test
+    void shouldRemoveStatsReleasedByAllChains() {
+        // given
+        final MiddlewareProfiler.Stats first = profiler.stats("router", "backend", "service");
+        final MiddlewareProfiler.Stats second = profiler.stats("router", "backend", "service");
+        record(first, 1_000_000);
+
+        // when
+        profiler.release(first);
+        final JsonArray afterFirstRelease = profiler.top(10, MiddlewareProfiler.SORT_BY_MEAN);
+        profiler.release(second);
+        final JsonArray afterSecondRelease = profiler.top(10, MiddlewareProfiler.SORT_BY_MEAN);
+
+        // then
+        assertSame(first, second);
+        assertEquals(1, afterFirstRelease.size());
+        assertEquals(0, afterSecondRelease.size());
+        assertNotSame(first, profiler.stats("router", "backend", "service"));
+    }
+
+    @Test
+    void shouldRejectUnknownSortOrder() {
+        assertThrows(IllegalArgumentException.class, () -> profiler.top(1, "latency"));
+    }
+
+    private void record(MiddlewareProfiler.Stats stats, long nanos) {
+        final ChainProfile profile = new ChainProfile(profiler);
+        profile.enter(stats);
+        clock.addAndGet(nanos);
+        profile.end(null);
+    }
+}
@@ -2,6 +2,7 @@ package ch.uniport.gateway.proxy.router;
 
 import static ch.uniport.gateway.TestUtils.toModel;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 import ch.uniport.gateway.TestUtils;
 import ch.uniport.gateway.proxy.config.DynamicConfiguration;
@@ -15,6 +16,7 @@ import ch.uniport.gateway.proxy.middleware.redirectRegex.RedirectRegexMiddleware
 import ch.uniport.gateway.proxy.router.additionalRoutes.AdditionalRoutesMiddlewareFactory;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
@@ -478,6 +480,87 @@ public class RouterFactoryTest {
             }));
     }
 
+    @Test
+    public void unchangedServiceKeepsConnectionPool(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        // the backend answers with the address of the proxy connection
+        final int backendPort = TestUtils.findFreePort();
+        final JsonObject config = configWithBackend(backendPort, "foo");
+        // an additional router does not change the router 'foo' nor its service
+        final JsonObject changedConfig = configWithBackend(backendPort, "foo", "other");
+
+        // when
+        vertx.createHttpServer()
+            .requestHandler(req -> req.response().end(req.remoteAddress().toString()))
+            .listen(backendPort)
+            .compose(backend -> routerFactory.createRouter(toModel(config)))
+            .compose(router -> {
+                proxyRouter = router;
+                return doRequest(vertx, HOST, "/foo");
+            })
+            .compose(first -> routerFactory.createRouter(toModel(changedConfig))
+                .compose(router -> {
+                    proxyRouter = router;
+                    return doRequest(vertx, HOST, "/foo");
+                })
+                .onComplete(testCtx.succeeding(second -> testCtx.verify(() -> {
+                    // then
+                    assertEquals(HttpResponseStatus.OK.code(), first.statusCode());
+                    assertEquals(HttpResponseStatus.OK.code(), second.statusCode());
+                    assertEquals(first.bodyAsString(), second.bodyAsString());
+                    testCtx.completeNow();
+                }))));
+    }
+
+    @Test
+    public void changedServiceGetsNewConnectionPool(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final int backendPort = TestUtils.findFreePort();
+        final JsonObject config = configWithBackend(backendPort, "foo");
+        final JsonObject changedConfig = configWithBackend(backendPort, "foo");
+        changedConfig.getJsonObject(DynamicConfiguration.HTTP)
+            .getJsonArray(DynamicConfiguration.SERVICES)
+            .getJsonObject(0)
+            .put(DynamicConfiguration.SERVICE_VERBOSE, true);
+
+        // when
+        vertx.createHttpServer()
+            .requestHandler(req -> req.response().end(req.remoteAddress().toString()))
+            .listen(backendPort)
+            .compose(backend -> routerFactory.createRouter(toModel(config)))
+            .compose(router -> {
+                proxyRouter = router;
+                return doRequest(vertx, HOST, "/foo");
+            })
+            .compose(first -> routerFactory.createRouter(toModel(changedConfig))
+                .compose(router -> {
+                    proxyRouter = router;
+                    return doRequest(vertx, HOST, "/foo");
+                })
+                .onComplete(testCtx.succeeding(second -> testCtx.verify(() -> {
+                    // then
+                    assertEquals(HttpResponseStatus.OK.code(), first.statusCode());
+                    assertEquals(HttpResponseStatus.OK.code(), second.statusCode());
+                    assertNotEquals(first.bodyAsString(), second.bodyAsString());
+                    testCtx.completeNow();
+                }))));
+    }
+
+    private JsonObject configWithBackend(int backendPort, String... routerNames) {
+        final Handler<JsonObject>[] routers = Stream.of(routerNames)
+            .map(name -> TestUtils.withRouter(name,
+                TestUtils.withRouterEntrypoints(ENTRYPOINT_NAME),
+                TestUtils.withRouterRule(String.format("PathPrefix('/%s')", name)),
+                TestUtils.withRouterService("backend")))
+            .toArray(Handler[]::new);
+
+        return TestUtils.buildConfiguration(
+            TestUtils.withRouters(routers),
+            TestUtils.withServices(
+                TestUtils.withService("backend",
+                    TestUtils.withServers(TestUtils.withServer(HOST, backendPort)))));
+    }
+
     private Future<HttpResponse<Buffer>> doRequest(Vertx vertx, String virtualHost, String uri) {
         final HttpClient client = vertx.createHttpClient(
             new HttpClientOptions()
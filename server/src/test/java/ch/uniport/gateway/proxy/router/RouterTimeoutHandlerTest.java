@@ -0,0 +1,156 @@
+package ch.uniport.gateway.proxy.router;
+
+import static ch.uniport.gateway.proxy.middleware.MiddlewareServerBuilder.uniportGateway;
+
+import ch.uniport.gateway.TestUtils;
+import ch.uniport.gateway.proxy.config.model.AbstractServiceModel;
+import ch.uniport.gateway.proxy.config.model.BulkheadOptions;
+import ch.uniport.gateway.proxy.config.model.CircuitBreakerOptions;
+import ch.uniport.gateway.proxy.config.model.ServerOptions;
+import ch.uniport.gateway.proxy.config.model.ServiceModel;
+import ch.uniport.gateway.proxy.middleware.MiddlewareServer;
+import ch.uniport.gateway.proxy.middleware.VertxAssertions;
+import ch.uniport.gateway.proxy.service.ReverseProxy;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class RouterTimeoutHandlerTest {
+
+    @Test
+    void respondsWithGatewayTimeoutIfMiddlewaresDoNotHandOver(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(new RouterTimeoutHandler(vertx, "router", 100))
+            // never hands the request over to a service
+            .withMiddleware(ctx -> {
+            })
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+            // then
+            VertxAssertions.assertEquals(testCtx, HttpResponseStatus.GATEWAY_TIMEOUT.code(), response.statusCode());
+            testCtx.completeNow();
+        });
+    }
+
+    @Test
+    void resetsResponseIfHeadersWereSent(Vertx vertx, VertxTestContext testCtx) {
+        // given
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(new RouterTimeoutHandler(vertx, "router", 100))
+            // sends the headers and part of the body, but never ends the response
+            .withMiddleware(ctx -> ctx.response().setChunked(true).write("partial"))
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+            // then
+            VertxAssertions.assertEquals(testCtx, HttpResponseStatus.OK.code(), response.statusCode());
+            response.body().onComplete(testCtx.failing(err -> testCtx.completeNow()));
+        });
+    }
+
+    @Test
+    void propagatesDeadlineOfRouterToServer(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final int backendPort = TestUtils.findFreePort();
+        final String deadlineHeader = AbstractServiceModel.DEFAULT_SERVICE_TIMEOUT_DEADLINE_HEADER;
+        final Checkpoint propagated = testCtx.checkpoint();
+
+        final ReverseProxy proxy = new ReverseProxy(vertx, "proxy", ServiceModel.builder()
+            .withName("proxy")
+            .withServers(List.of(ServerOptions.builder().withHost("127.0.0.1").withPort(backendPort).build()))
+            .build());
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(new RouterTimeoutHandler(vertx, "router", 1_000))
+            .withMiddleware(proxy)
+            .withBackend(vertx, backendPort, ctx -> {
+                // then
+                final long remainingMs = Long.parseLong(ctx.request().getHeader(deadlineHeader));
+                VertxAssertions.assertTrue(testCtx, remainingMs > 0 && remainingMs <= 1_000, "remaining " + remainingMs);
+                propagated.flag();
+                ctx.response().end();
+            })
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+            VertxAssertions.assertEquals(testCtx, HttpResponseStatus.OK.code(), response.statusCode());
+            testCtx.completeNow();
+        });
+    }
+
+    @Test
+    void releasesPermitsIfMiddlewareHandsOverAfterTimeout(Vertx vertx, VertxTestContext testCtx)
+        throws InterruptedException {
+        // given
+        final int backendPort = TestUtils.findFreePort();
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger backendRequests = new AtomicInteger();
+
+        final ReverseProxy proxy = new ReverseProxy(vertx, "proxy", ServiceModel.builder()
+            .withName("proxy")
+            .withServers(List.of(ServerOptions.builder().withHost("127.0.0.1").withPort(backendPort).build()))
+            .withCircuitBreaker(CircuitBreakerOptions.builder()
+                .withEnabled(true)
+                .withWindowSize(1)
+                .withMinimumCalls(1)
+                .withFailureRatePercent(100)
+                .withOpenDurationMs(100)
+                .withHalfOpenCalls(1)
+                .withStatusCode(HttpResponseStatus.TOO_MANY_REQUESTS.code())
+                .build())
+            .withBulkhead(BulkheadOptions.builder()
+                .withEnabled(true)
+                .withMaxConcurrentRequests(1)
+                .build())
+            .build());
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(new RouterTimeoutHandler(vertx, "router", 100))
+            // hands the second request over once the router timed out and the circuit breaker is half-open
+            .withMiddleware(ctx -> {
+                if (requests.incrementAndGet() == 2) {
+                    vertx.setTimer(300, id -> ctx.next());
+                } else {
+                    ctx.next();
+                }
+            })
+            .withMiddleware(proxy)
+            .withBackend(vertx, backendPort, ctx -> {
+                // the first request opens the circuit breaker
+                final int status = backendRequests.incrementAndGet() == 1
+                    ? HttpResponseStatus.INTERNAL_SERVER_ERROR.code()
+                    : HttpResponseStatus.OK.code();
+                ctx.response().setStatusCode(status).end();
+            })
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", opening -> {
+            gateway.incomingRequest(HttpMethod.GET, "/", timedOut -> {
+                VertxAssertions.assertEquals(testCtx, HttpResponseStatus.GATEWAY_TIMEOUT.code(), timedOut.statusCode());
+                // after the late hand over
+                vertx.setTimer(500, id -> gateway.incomingRequest(HttpMethod.GET, "/", probe -> {
+                    // then
+                    VertxAssertions.assertEquals(testCtx, HttpResponseStatus.INTERNAL_SERVER_ERROR.code(),
+                        opening.statusCode());
+                    VertxAssertions.assertEquals(testCtx, HttpResponseStatus.OK.code(), probe.statusCode());
+                    VertxAssertions.assertEquals(testCtx, 2, backendRequests.get());
+                    testCtx.completeNow();
+                }));
+            });
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package ch.uniport.gateway.proxy.router;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the compiled {@link RoutingTable} with a linear scan over all
+ * routers, which is what mounting one sub router per router amounts to. The
+ * lookup time of the routing table should stay flat with growing router count.
+ * The looked up path belongs to the router with the lowest priority, i.e. the
+ * worst case for the linear scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingTableBenchmark {
+
+    private static final String HOST = "portal.example.com";
+
+    @Param({ "10", "100", "300", "1000" })
+    public int routerCount;
+
+    private RoutingTable<Integer> table;
+    private List<BiPredicate<String, String>> linear;
+    private String path;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RoutingTableBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+
+    @Setup
+    public void setup() {
+        final RoutingTable.Builder<Integer> builder = RoutingTable.builder();
+        linear = new ArrayList<>();
+        // a few regex rules, as they are typical for real configurations
+        for (int i = 0; i < 3; i++) {
+            final String regex = String.format("/regex-%d/(de|en)/.*", i);
+            builder.pathRegex(regex, -i);
+            linear.add((h, p) -> p.matches(regex));
+        }
+        for (int i = 0; i < routerCount; i++) {
+            final String prefix = String.format("/service-%d/api/", i);
+            builder.pathPrefix(prefix, i);
+            linear.add((h, p) -> p.startsWith(prefix));
+        }
+        table = builder.build();
+        path = String.format("/service-%d/api/v1/resources/42", routerCount - 1);
+    }
+
+    @Benchmark
+    public Integer routingTable() {
+        return table.lookup(HOST, path);
+    }
+
+    @Benchmark
+    public Integer linearScan() {
+        for (int i = 0; i < linear.size(); i++) {
+            if (linear.get(i).test(HOST, path)) {
+                return i;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,144 @@
+package ch.uniport.gateway.proxy.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public class RoutingTableTest {
+
+    static final String HOST = "localhost";
+
+    @Test
+    public void exactPath() {
+        // given
+        final RoutingTable<String> table = RoutingTable.<String>builder()
+            .path("/path", "a")
+            .build();
+
+        // when then
+        assertEquals("a", table.lookup(HOST, "/path"));
+        assertEquals("a", table.lookup(HOST, "/path/"));
+        assertNull(table.lookup(HOST, "/path/long"));
+        assertNull(table.lookup(HOST, "/pat"));
+    }
+
+    @Test
+    public void pathPrefix() {
+        // given
+        final RoutingTable<String> table = RoutingTable.<String>builder()
+            .pathPrefix("/path/", "a")
+            .build();
+
+        // when then
+        assertEquals("a", table.lookup(HOST, "/path"));
+        assertEquals("a", table.lookup(HOST, "/path/"));
+        assertEquals("a", table.lookup(HOST, "/path/long"));
+        assertNull(table.lookup(HOST, "/pa"));
+        assertNull(table.lookup(HOST, "/other"));
+    }
+
+    @Test
+    public void splitEdges() {
+        // given
+        final RoutingTable<String> table = RoutingTable.<String>builder()
+            .path("/organisation/api", "a")
+            .path("/organisation", "b")
+            .pathPrefix("/org", "c")
+            .path("/order", "d")
+            .build();
+
+        // when then
+        assertEquals("a", table.lookup(HOST, "/organisation/api"));
+        assertEquals("b", table.lookup(HOST, "/organisation"));
+        assertEquals("c", table.lookup(HOST, "/organisation/other"));
+        assertEquals("c", table.lookup(HOST, "/org"));
+        assertEquals("d", table.lookup(HOST, "/order"));
+        assertNull(table.lookup(HOST, "/or"));
+    }
+
+    @Test
+    public void firstAddedRuleHasPriority() {
+        // given
+        final RoutingTable<String> table = RoutingTable.<String>builder()
+            .pathPrefix("/api/", "a")
+            .path("/api/users", "b")
+            .pathPrefix("/", "c")
+            .build();
+
+        // when then
+        assertEquals("a", table.lookup(HOST, "/api/users"));
+        assertEquals("c", table.lookup(HOST, "/other"));
+    }
+
+    @Test
+    public void regexRulesKeepPriority() {
+        // given
+        final RoutingTable<String> table = RoutingTable.<String>builder()
+            .pathRegex("/foo/(bar|baz)", "a")
+            .pathPrefix("/foo", "b")
+            .pathPrefixRegex("/foo/(x|y)", "c")
+            .build();
+
+        // when then
+        assertEquals("a", table.lookup(HOST, "/foo/bar"));
+        assertEquals("b", table.lookup(HOST, "/foo/blub"));
+        assertEquals("b", table.lookup(HOST, "/foo/x/y"));
+    }
+
+    @Test
+    public void pathPrefixRegex() {
+        // given
+        final RoutingTable<String> table = RoutingTable.<String>builder()
+            .pathPrefixRegex("/foo/(a|b)/", "a")
+            .build();
+
+        // when then
+        assertEquals("a", table.lookup(HOST, "/foo/a/"));
+        assertEquals("a", table.lookup(HOST, "/foo/a/bar"));
+        assertNull(table.lookup(HOST, "/foo/ab/"));
+    }
+
+    @Test
+    public void host() {
+        // given
+        final RoutingTable<String> table = RoutingTable.<String>builder()
+            .host("foo.example.com", "a")
+            .host("*.example.com", "b")
+            .hostRegex("foo(bar|baz)", "c")
+            .build();
+
+        // when then
+        assertEquals("a", table.lookup("foo.example.com", "/"));
+        assertEquals("a", table.lookup("FOO.example.com", "/"));
+        assertEquals("b", table.lookup("bar.example.com", "/"));
+        assertEquals("c", table.lookup("foobar", "/"));
+        assertNull(table.lookup("fooblub", "/"));
+        assertNull(table.lookup(null, "/"));
+    }
+
+    @Test
+    public void hostAndPathRules() {
+        // given
+        final RoutingTable<String> table = RoutingTable.<String>builder()
+            .path("/some/long/path", "a")
+            .host("foo", "b")
+            .pathPrefix("/", "c")
+            .build();
+
+        // when then
+        assertEquals("a", table.lookup("foo", "/some/long/path"));
+        assertEquals("b", table.lookup("foo", "/other"));
+        assertEquals("c", table.lookup("bar", "/other"));
+    }
+
+    @Test
+    public void empty() {
+        // given
+        final RoutingTable<String> table = RoutingTable.<String>builder().build();
+
+        // when then
+        assertEquals(0, table.size());
+        assertNull(table.lookup(HOST, "/"));
+    }
+}
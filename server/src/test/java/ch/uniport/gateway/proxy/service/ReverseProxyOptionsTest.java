@@ -2,11 +2,17 @@ package ch.uniport.gateway.proxy.service;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import ch.uniport.gateway.proxy.config.DynamicConfiguration;
+import ch.uniport.gateway.proxy.config.model.AbstractServiceModel;
 import ch.uniport.gateway.proxy.config.model.ServiceModel;
+import ch.uniport.gateway.proxy.service.loadBalancer.LoadBalancingStrategy;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.core.json.JsonObject;
 import java.util.List;
 import java.util.Map;
@@ -64,4 +70,351 @@ public class ReverseProxyOptionsTest {
 
         assertEquals(verbose, options.isVerbose());
     }
+
+    @Test
+    public void shouldParseLoadBalancer() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234,
+                    DynamicConfiguration.SERVICE_SERVER_WEIGHT, 3),
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "anotherServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)),
+            DynamicConfiguration.SERVICE_LOAD_BALANCER, Map.of(
+                DynamicConfiguration.SERVICE_LOAD_BALANCER_STRATEGY,
+                DynamicConfiguration.SERVICE_LOAD_BALANCER_STRATEGY_WEIGHTED_ROUND_ROBIN));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertNotNull(options);
+
+        assertEquals(2, options.getServers().size());
+        assertEquals(3, options.getServers().get(0).getWeight());
+        assertEquals(AbstractServiceModel.DEFAULT_SERVICE_SERVER_WEIGHT, options.getServers().get(1).getWeight());
+        assertEquals(LoadBalancingStrategy.WEIGHTED_ROUND_ROBIN, options.getLoadBalancer().getStrategy());
+    }
+
+    @Test
+    public void shouldUseDefaultLoadBalancer() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertNotNull(options.getLoadBalancer());
+        assertEquals(AbstractServiceModel.DEFAULT_SERVICE_LOAD_BALANCER_STRATEGY, options.getLoadBalancer().getStrategy());
+    }
+
+    @Test
+    public void shouldParseConnectionPoolAndTransport() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)),
+            DynamicConfiguration.SERVICE_CONNECTION_POOL, Map.of(
+                DynamicConfiguration.SERVICE_CONNECTION_POOL_MAX_SIZE, 20,
+                DynamicConfiguration.SERVICE_CONNECTION_POOL_HTTP2_MULTIPLEXING_LIMIT, 100,
+                DynamicConfiguration.SERVICE_CONNECTION_POOL_KEEP_ALIVE_TIMEOUT_SECONDS, 30,
+                DynamicConfiguration.SERVICE_CONNECTION_POOL_WARM_UP_CONNECTIONS, 2),
+            DynamicConfiguration.SERVICE_TRANSPORT, Map.of(
+                DynamicConfiguration.SERVICE_TRANSPORT_PROTOCOL_VERSION,
+                DynamicConfiguration.SERVICE_TRANSPORT_PROTOCOL_VERSION_HTTP_2,
+                DynamicConfiguration.SERVICE_TRANSPORT_CONNECT_TIMEOUT_MS, 500,
+                DynamicConfiguration.SERVICE_TRANSPORT_TCP_NO_DELAY, false));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertEquals(20, options.getConnectionPool().getMaxSize());
+        assertEquals(100, options.getConnectionPool().getHttp2MultiplexingLimit());
+        assertEquals(30, options.getConnectionPool().getKeepAliveTimeoutSeconds());
+        assertEquals(2, options.getConnectionPool().getWarmUpConnections());
+        assertEquals(AbstractServiceModel.DEFAULT_SERVICE_CONNECTION_POOL_HTTP2_MAX_SIZE,
+            options.getConnectionPool().getHttp2MaxSize());
+        assertEquals(HttpVersion.HTTP_2, options.getTransport().getProtocolVersion());
+        assertEquals(500, options.getTransport().getConnectTimeoutMs());
+        assertFalse(options.getTransport().isTcpNoDelay());
+        assertEquals(AbstractServiceModel.DEFAULT_SERVICE_TRANSPORT_TCP_FAST_OPEN,
+            options.getTransport().isTcpFastOpen());
+    }
+
+    @Test
+    public void shouldRejectHttp10() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)),
+            DynamicConfiguration.SERVICE_TRANSPORT, Map.of(
+                DynamicConfiguration.SERVICE_TRANSPORT_PROTOCOL_VERSION, "HTTP_1_0"));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        assertThrows(Exception.class, parse::get);
+    }
+
+    @Test
+    public void shouldParseHealthCheck() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)),
+            DynamicConfiguration.SERVICE_HEALTH_CHECK, Map.of(
+                DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE, Map.of(
+                    DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_ENABLED, true,
+                    DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_PATH, "/health",
+                    DynamicConfiguration.SERVICE_HEALTH_CHECK_ACTIVE_EXPECTED_STATUS, 204),
+                DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE, Map.of(
+                    DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_ENABLED, true,
+                    DynamicConfiguration.SERVICE_HEALTH_CHECK_PASSIVE_LATENCY_THRESHOLD_MS, 800)));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertTrue(options.getHealthCheck().getActive().isEnabled());
+        assertEquals("/health", options.getHealthCheck().getActive().getPath());
+        assertEquals(204, options.getHealthCheck().getActive().getExpectedStatus());
+        assertEquals(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_INTERVAL_MS,
+            options.getHealthCheck().getActive().getIntervalMs());
+        assertTrue(options.getHealthCheck().getPassive().isEnabled());
+        assertEquals(800, options.getHealthCheck().getPassive().getLatencyThresholdMs());
+        assertEquals(AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_PASSIVE_CONSECUTIVE_FAILURES,
+            options.getHealthCheck().getPassive().getConsecutiveFailures());
+    }
+
+    @Test
+    public void shouldDisableHealthCheckByDefault() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertFalse(options.getHealthCheck().getActive().isEnabled());
+        assertFalse(options.getHealthCheck().getPassive().isEnabled());
+    }
+
+    @Test
+    public void shouldParseCache() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)),
+            DynamicConfiguration.SERVICE_CACHE, Map.of(
+                DynamicConfiguration.SERVICE_CACHE_ENABLED, true,
+                DynamicConfiguration.SERVICE_CACHE_MAX_ENTRIES, 100,
+                DynamicConfiguration.SERVICE_CACHE_OFF_HEAP, true));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertTrue(options.getCache().isEnabled());
+        assertEquals(100, options.getCache().getMaxEntries());
+        assertTrue(options.getCache().isOffHeap());
+        assertEquals(AbstractServiceModel.DEFAULT_SERVICE_CACHE_MAX_SIZE_BYTES, options.getCache().getMaxSizeBytes());
+    }
+
+    @Test
+    public void shouldDisableCacheByDefault() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertFalse(options.getCache().isEnabled());
+    }
+
+    @Test
+    public void shouldParseTimeout() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)),
+            DynamicConfiguration.SERVICE_TIMEOUT, Map.of(
+                DynamicConfiguration.SERVICE_TIMEOUT_FIRST_BYTE_MS, 500,
+                DynamicConfiguration.SERVICE_TIMEOUT_TOTAL_MS, 3000,
+                DynamicConfiguration.SERVICE_TIMEOUT_DEADLINE_HEADER, "X-Deadline"));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertEquals(500, options.getTimeout().getFirstByteMs());
+        assertEquals(3000, options.getTimeout().getTotalMs());
+        assertEquals("X-Deadline", options.getTimeout().getDeadlineHeader());
+    }
+
+    @Test
+    public void shouldDisableTimeoutByDefault() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertEquals(0, options.getTimeout().getFirstByteMs());
+        assertEquals(0, options.getTimeout().getTotalMs());
+        assertEquals(AbstractServiceModel.DEFAULT_SERVICE_TIMEOUT_DEADLINE_HEADER,
+            options.getTimeout().getDeadlineHeader());
+    }
+
+    @Test
+    public void shouldParseCircuitBreakerAndBulkhead() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)),
+            DynamicConfiguration.SERVICE_CIRCUIT_BREAKER, Map.of(
+                DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_ENABLED, true,
+                DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS, 2000,
+                DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_STATUS_CODE, 502),
+            DynamicConfiguration.SERVICE_BULKHEAD, Map.of(
+                DynamicConfiguration.SERVICE_BULKHEAD_ENABLED, true,
+                DynamicConfiguration.SERVICE_BULKHEAD_MAX_CONCURRENT_REQUESTS, 10));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertTrue(options.getCircuitBreaker().isEnabled());
+        assertEquals(2000, options.getCircuitBreaker().getSlowCallDurationMs());
+        assertEquals(502, options.getCircuitBreaker().getStatusCode());
+        assertEquals(AbstractServiceModel.DEFAULT_SERVICE_CIRCUIT_BREAKER_WINDOW_SIZE,
+            options.getCircuitBreaker().getWindowSize());
+        assertTrue(options.getBulkhead().isEnabled());
+        assertEquals(10, options.getBulkhead().getMaxConcurrentRequests());
+    }
+
+    @Test
+    public void shouldRejectMinimumCallsGreaterThanWindowSize() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)),
+            DynamicConfiguration.SERVICE_CIRCUIT_BREAKER, Map.of(
+                DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_WINDOW_SIZE, 10,
+                DynamicConfiguration.SERVICE_CIRCUIT_BREAKER_MINIMUM_CALLS, 20));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        assertThrows(Exception.class, parse::get);
+    }
+
+    @Test
+    public void shouldParseRetry() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)),
+            DynamicConfiguration.SERVICE_RETRY, Map.of(
+                DynamicConfiguration.SERVICE_RETRY_ENABLED, true,
+                DynamicConfiguration.SERVICE_RETRY_METHODS, List.of("GET"),
+                DynamicConfiguration.SERVICE_RETRY_STATUS_CODES, List.of(502, 503),
+                DynamicConfiguration.SERVICE_RETRY_HEDGE, Map.of(
+                    DynamicConfiguration.SERVICE_RETRY_HEDGE_ENABLED, true,
+                    DynamicConfiguration.SERVICE_RETRY_HEDGE_PERCENTILE, 90)));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        final ServiceModel options = assertDoesNotThrow(parse);
+        assertTrue(options.getRetry().isEnabled());
+        assertEquals(List.of("GET"), options.getRetry().getMethods());
+        assertEquals(List.of(502, 503), options.getRetry().getStatusCodes());
+        assertEquals(AbstractServiceModel.DEFAULT_SERVICE_RETRY_BUDGET_PERCENT, options.getRetry().getBudgetPercent());
+        assertTrue(options.getRetry().getHedge().isEnabled());
+        assertEquals(90, options.getRetry().getHedge().getPercentile());
+    }
+
+    @Test
+    public void shouldRejectRetryOfNonIdempotentMethods() {
+        // given
+        final JsonObject json = JsonObject.of(
+            DynamicConfiguration.SERVICE_NAME, "aName",
+            DynamicConfiguration.SERVICE_SERVERS, List.of(
+                Map.of(
+                    DynamicConfiguration.SERVICE_SERVER_HOST, "aServerHost",
+                    DynamicConfiguration.SERVICE_SERVER_PORT, 1234)),
+            DynamicConfiguration.SERVICE_RETRY, Map.of(
+                DynamicConfiguration.SERVICE_RETRY_METHODS, List.of("POST")));
+
+        // when
+        final ThrowingSupplier<ServiceModel> parse = () -> new ObjectMapper().readValue(json.encode(), ServiceModel.class);
+
+        // then
+        assertThrows(Exception.class, parse::get);
+    }
 }
@@ -8,8 +8,17 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import ch.uniport.gateway.TestUtils;
+import ch.uniport.gateway.proxy.config.model.AbstractServiceModel;
+import ch.uniport.gateway.proxy.config.model.CircuitBreakerOptions;
+import ch.uniport.gateway.proxy.config.model.HedgeOptions;
+import ch.uniport.gateway.proxy.config.model.LoadBalancerOptions;
+import ch.uniport.gateway.proxy.config.model.RetryOptions;
+import ch.uniport.gateway.proxy.config.model.ServerOptions;
+import ch.uniport.gateway.proxy.config.model.ServiceModel;
+import ch.uniport.gateway.proxy.config.model.TimeoutOptions;
 import ch.uniport.gateway.proxy.middleware.MiddlewareServer;
 import ch.uniport.gateway.proxy.middleware.VertxAssertions;
+import ch.uniport.gateway.proxy.service.loadBalancer.LoadBalancingStrategy;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Future;
@@ -18,6 +27,7 @@ import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.RequestOptions;
@@ -34,7 +44,9 @@ import io.vertx.junit5.Checkpoint;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import java.io.File;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -73,6 +85,356 @@ public class ReverseProxyTest {
         });
     }
 
+    @Test
+    void loadBalancesAcrossServers(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final String host = "127.0.0.1";
+        final int backendPortA = TestUtils.findFreePort();
+        final int backendPortB = TestUtils.findFreePort();
+        final String backendHeader = "X-Backend";
+
+        final ReverseProxy proxy = new ReverseProxy(vertx, "proxy", ServiceModel.builder()
+            .withName("proxy")
+            .withServers(List.of(
+                ServerOptions.builder().withHost(host).withPort(backendPortA).build(),
+                ServerOptions.builder().withHost(host).withPort(backendPortB).build()))
+            .withLoadBalancer(LoadBalancerOptions.builder()
+                .withStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+                .build())
+            .build());
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(proxy)
+            .withBackend(vertx, backendPortA, ctx -> ctx.response().putHeader(backendHeader, "a").end())
+            .withBackend(vertx, backendPortB, ctx -> ctx.response().putHeader(backendHeader, "b").end())
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", first -> {
+            gateway.incomingRequest(HttpMethod.GET, "/", second -> {
+                // then
+                VertxAssertions.assertEquals(testCtx, HttpResponseStatus.OK.code(), first.statusCode());
+                VertxAssertions.assertEquals(testCtx, HttpResponseStatus.OK.code(), second.statusCode());
+                VertxAssertions.assertEquals(testCtx, "a", first.getHeader(backendHeader));
+                VertxAssertions.assertEquals(testCtx, "b", second.getHeader(backendHeader));
+                testCtx.completeNow();
+            });
+        });
+    }
+
+    @Test
+    void retriesWhenConnectionIsReset(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final int backendPortA = TestUtils.findFreePort();
+        final int backendPortB = TestUtils.findFreePort();
+        final String backendHeader = "X-Backend";
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(proxyWithTwoServers(vertx, backendPortA, backendPortB, RetryOptions.builder()
+                .withEnabled(true)
+                .build()))
+            .withBackend(vertx, backendPortA, ctx -> ctx.request().connection().close())
+            .withBackend(vertx, backendPortB, ctx -> ctx.response().putHeader(backendHeader, "b").end())
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+            // then
+            VertxAssertions.assertEquals(testCtx, HttpResponseStatus.OK.code(), response.statusCode());
+            VertxAssertions.assertEquals(testCtx, "b", response.getHeader(backendHeader));
+            testCtx.completeNow();
+        });
+    }
+
+    @Test
+    void retriesCopyOfRequestOnServerError(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final int backendPortA = TestUtils.findFreePort();
+        final int backendPortB = TestUtils.findFreePort();
+        final String clientHeader = "X-Client";
+
+        final Checkpoint retried = testCtx.checkpoint();
+        final Handler<RoutingContext> backendHandlerB = ctx -> {
+            // then
+            VertxAssertions.assertEquals(testCtx, "/resource?q=1", ctx.request().uri());
+            VertxAssertions.assertEquals(testCtx, "value", ctx.request().getHeader(clientHeader));
+            VertxAssertions.assertEquals(testCtx, "http", ctx.request().getHeader(X_FORWARDED_PROTO));
+            VertxAssertions.assertEquals(testCtx, 1, ctx.request().headers().getAll(X_FORWARDED_FOR).size());
+            retried.flag();
+            ctx.response().end();
+        };
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(proxyWithTwoServers(vertx, backendPortA, backendPortB, RetryOptions.builder()
+                .withEnabled(true)
+                .withStatusCodes(List.of(HttpResponseStatus.SERVICE_UNAVAILABLE.code()))
+                .build()))
+            .withBackend(vertx, backendPortA,
+                ctx -> ctx.response().setStatusCode(HttpResponseStatus.SERVICE_UNAVAILABLE.code()).end())
+            .withBackend(vertx, backendPortB, backendHandlerB)
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/resource?q=1", new RequestOptions().putHeader(clientHeader, "value"),
+            response -> {
+                // then
+                VertxAssertions.assertEquals(testCtx, HttpResponseStatus.OK.code(), response.statusCode());
+                testCtx.completeNow();
+            });
+    }
+
+    @Test
+    void hedgedRequestAnswersAndSlowRequestIsReset(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final int backendPortA = TestUtils.findFreePort();
+        final int backendPortB = TestUtils.findFreePort();
+        final String backendHeader = "X-Backend";
+        // hedging starts once enough latencies were measured
+        final int warmUpRequests = 100;
+        final AtomicInteger requests = new AtomicInteger();
+
+        final Checkpoint answered = testCtx.checkpoint();
+        final Checkpoint slowRequestReset = testCtx.checkpoint();
+        final Handler<RoutingContext> backendHandlerA = ctx -> {
+            if (requests.incrementAndGet() <= warmUpRequests) {
+                ctx.response().putHeader(backendHeader, "a").end();
+                return;
+            }
+            // never answers
+            ctx.response().closeHandler(v -> slowRequestReset.flag());
+        };
+        final Handler<RoutingContext> backendHandlerB = ctx -> {
+            requests.incrementAndGet();
+            ctx.response().putHeader(backendHeader, "b").end();
+        };
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(proxyWithTwoServers(vertx, backendPortA, backendPortB, RetryOptions.builder()
+                .withHedge(HedgeOptions.builder()
+                    .withEnabled(true)
+                    .withMinDelayMs(50)
+                    .build())
+                .build()))
+            .withBackend(vertx, backendPortA, backendHandlerA)
+            .withBackend(vertx, backendPortB, backendHandlerB)
+            .build().start();
+
+        // when
+        sendSequentially(gateway, warmUpRequests, warmedUp -> {
+            gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+                // then
+                VertxAssertions.assertEquals(testCtx, HttpResponseStatus.OK.code(), response.statusCode());
+                VertxAssertions.assertEquals(testCtx, "b", response.getHeader(backendHeader));
+                answered.flag();
+            });
+        });
+    }
+
+    @Test
+    void stopsRetryingWhenBudgetIsExhausted(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final String host = "127.0.0.1";
+        final int backendPort = TestUtils.findFreePort();
+        final int requests = 12;
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final ReverseProxy proxy = new ReverseProxy(vertx, "proxy", ServiceModel.builder()
+            .withName("proxy")
+            .withServers(List.of(ServerOptions.builder().withHost(host).withPort(backendPort).build()))
+            .withRetry(RetryOptions.builder()
+                .withEnabled(true)
+                .withStatusCodes(List.of(HttpResponseStatus.SERVICE_UNAVAILABLE.code()))
+                .withBudgetPercent(0)
+                .withMinRetriesPerSecond(0)
+                .build())
+            .build());
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(proxy)
+            .withBackend(vertx, backendPort, ctx -> {
+                attempts.incrementAndGet();
+                ctx.response().setStatusCode(HttpResponseStatus.SERVICE_UNAVAILABLE.code()).end();
+            })
+            .build().start();
+
+        // when
+        sendSequentially(gateway, requests, response -> {
+            // then
+            VertxAssertions.assertEquals(testCtx, HttpResponseStatus.SERVICE_UNAVAILABLE.code(), response.statusCode());
+            // the budget starts with 10 tokens and is never refilled
+            VertxAssertions.assertEquals(testCtx, requests + 10, attempts.get());
+            testCtx.completeNow();
+        });
+    }
+
+    @Test
+    void feedsEveryAttemptIntoCircuitBreaker(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final String host = "127.0.0.1";
+        final int backendPort = TestUtils.findFreePort();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final ReverseProxy proxy = new ReverseProxy(vertx, "proxy", ServiceModel.builder()
+            .withName("proxy")
+            .withServers(List.of(ServerOptions.builder().withHost(host).withPort(backendPort).build()))
+            .withRetry(RetryOptions.builder()
+                .withEnabled(true)
+                .withStatusCodes(List.of(HttpResponseStatus.SERVICE_UNAVAILABLE.code()))
+                .build())
+            .withCircuitBreaker(CircuitBreakerOptions.builder()
+                .withEnabled(true)
+                .withWindowSize(2)
+                .withMinimumCalls(2)
+                .withFailureRatePercent(100)
+                .withStatusCode(HttpResponseStatus.TOO_MANY_REQUESTS.code())
+                .build())
+            .build());
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(proxy)
+            .withBackend(vertx, backendPort, ctx -> {
+                attempts.incrementAndGet();
+                ctx.response().setStatusCode(HttpResponseStatus.SERVICE_UNAVAILABLE.code()).end();
+            })
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", first -> {
+            gateway.incomingRequest(HttpMethod.GET, "/", second -> {
+                // then
+                VertxAssertions.assertEquals(testCtx, HttpResponseStatus.SERVICE_UNAVAILABLE.code(), first.statusCode());
+                VertxAssertions.assertEquals(testCtx, HttpResponseStatus.TOO_MANY_REQUESTS.code(), second.statusCode());
+                VertxAssertions.assertEquals(testCtx, 2, attempts.get());
+                testCtx.completeNow();
+            });
+        });
+    }
+
+    @Test
+    void respondsWithGatewayTimeoutOnFirstByteTimeout(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final int backendPort = TestUtils.findFreePort();
+        final Checkpoint responded = testCtx.checkpoint();
+        final Checkpoint serverRequestReset = testCtx.checkpoint();
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(proxyWithTimeout(vertx, backendPort, TimeoutOptions.builder()
+                .withFirstByteMs(100)
+                .build()))
+            // never answers
+            .withBackend(vertx, backendPort, ctx -> ctx.response().closeHandler(v -> serverRequestReset.flag()))
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+            // then
+            VertxAssertions.assertEquals(testCtx, HttpResponseStatus.GATEWAY_TIMEOUT.code(), response.statusCode());
+            responded.flag();
+        });
+    }
+
+    @Test
+    void respondsWithGatewayTimeoutOnTotalTimeout(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final int backendPort = TestUtils.findFreePort();
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(proxyWithTimeout(vertx, backendPort, TimeoutOptions.builder()
+                .withTotalMs(100)
+                .build()))
+            // never answers
+            .withBackend(vertx, backendPort, ctx -> {
+            })
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+            // then
+            VertxAssertions.assertEquals(testCtx, HttpResponseStatus.GATEWAY_TIMEOUT.code(), response.statusCode());
+            testCtx.completeNow();
+        });
+    }
+
+    @Test
+    void resetsResponseWhenDeadlineExpiresAfterHeadersWereSent(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final int backendPort = TestUtils.findFreePort();
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(proxyWithTimeout(vertx, backendPort, TimeoutOptions.builder()
+                .withTotalMs(200)
+                .build()))
+            // sends the headers and part of the body, but never ends the response
+            .withBackend(vertx, backendPort, ctx -> ctx.response().setChunked(true).write("partial"))
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+            // then
+            VertxAssertions.assertEquals(testCtx, HttpResponseStatus.OK.code(), response.statusCode());
+            response.body().onComplete(testCtx.failing(err -> testCtx.completeNow()));
+        });
+    }
+
+    @Test
+    void rejectsRequestWhoseDeadlineExpired(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final int backendPort = TestUtils.findFreePort();
+        final AtomicInteger backendRequests = new AtomicInteger();
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            // a slow middleware using up the deadline of the request
+            .withMiddleware(ctx -> {
+                RequestDeadline.restrict(ctx, 10);
+                vertx.setTimer(50, id -> ctx.next());
+            })
+            .withMiddleware(proxyWithTimeout(vertx, backendPort, TimeoutOptions.builder().build()))
+            .withBackend(vertx, backendPort, ctx -> {
+                backendRequests.incrementAndGet();
+                ctx.response().end();
+            })
+            .build().start();
+
+        // when
+        gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+            // then
+            VertxAssertions.assertEquals(testCtx, HttpResponseStatus.GATEWAY_TIMEOUT.code(), response.statusCode());
+            VertxAssertions.assertEquals(testCtx, 0, backendRequests.get());
+            testCtx.completeNow();
+        });
+    }
+
+    @Test
+    void propagatesDeadlineToServer(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
+        // given
+        final int backendPort = TestUtils.findFreePort();
+        final String deadlineHeader = AbstractServiceModel.DEFAULT_SERVICE_TIMEOUT_DEADLINE_HEADER;
+
+        final Checkpoint propagated = testCtx.checkpoint();
+        final Handler<RoutingContext> backendHandler = ctx -> {
+            // then
+            final long remainingMs = Long.parseLong(ctx.request().getHeader(deadlineHeader));
+            VertxAssertions.assertTrue(testCtx, remainingMs > 0 && remainingMs <= 1_000, "remaining " + remainingMs);
+            propagated.flag();
+            ctx.response().end();
+        };
+
+        final MiddlewareServer gateway = uniportGateway(vertx, testCtx)
+            .withMiddleware(proxyWithTimeout(vertx, backendPort, TimeoutOptions.builder()
+                .withTotalMs(5_000)
+                .build()))
+            .withBackend(vertx, backendPort, backendHandler)
+            .build().start();
+
+        // when
+        // the deadline announced by the client is shorter than the total timeout
+        gateway.incomingRequest(HttpMethod.GET, "/", new RequestOptions().putHeader(deadlineHeader, "1000"),
+            response -> {
+                VertxAssertions.assertEquals(testCtx, HttpResponseStatus.OK.code(), response.statusCode());
+                testCtx.completeNow();
+            });
+    }
+
     @Test
     void proxyTest(Vertx vertx, VertxTestContext testCtx) throws InterruptedException {
         // given
@@ -424,6 +786,40 @@ public class ReverseProxyTest {
         }));
     }
 
+    private static ReverseProxy proxyWithTwoServers(Vertx vertx, int portA, int portB, RetryOptions retry) {
+        final String host = "127.0.0.1";
+        return new ReverseProxy(vertx, "proxy", ServiceModel.builder()
+            .withName("proxy")
+            .withServers(List.of(
+                ServerOptions.builder().withHost(host).withPort(portA).build(),
+                ServerOptions.builder().withHost(host).withPort(portB).build()))
+            .withLoadBalancer(LoadBalancerOptions.builder()
+                .withStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+                .build())
+            .withRetry(retry)
+            .build());
+    }
+
+    private static ReverseProxy proxyWithTimeout(Vertx vertx, int port, TimeoutOptions timeout) {
+        return new ReverseProxy(vertx, "proxy", ServiceModel.builder()
+            .withName("proxy")
+            .withServers(List.of(ServerOptions.builder().withHost("127.0.0.1").withPort(port).build()))
+            .withTimeout(timeout)
+            .build());
+    }
+
+    private static void sendSequentially(
+        MiddlewareServer gateway, int requests, Handler<HttpClientResponse> lastResponseHandler
+    ) {
+        gateway.incomingRequest(HttpMethod.GET, "/", response -> {
+            if (requests <= 1) {
+                lastResponseHandler.handle(response);
+                return;
+            }
+            sendSequentially(gateway, requests - 1, lastResponseHandler);
+        });
+    }
+
     protected void startNetBackend(Vertx vertx, int port, Handler<NetSocket> handler) throws InterruptedException {
         final VertxTestContext testContext = new VertxTestContext();
 
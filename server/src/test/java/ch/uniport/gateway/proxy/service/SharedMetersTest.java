@@ -0,0 +1,94 @@
+package ch.uniport.gateway.proxy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class SharedMetersTest {
+
+    private static final String NAME = "test.shared";
+    private static final Tags TAGS = Tags.of("service", "test");
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void gaugeSumsOverOwners() {
+        // given
+        final SharedMeters.Handle first = SharedMeters.gauge(registry, NAME, TAGS, "test", null, () -> 2);
+        final SharedMeters.Handle second = SharedMeters.gauge(registry, NAME, TAGS, "test", null, () -> 3);
+
+        // when
+        final double both = registry.get(NAME).tags(TAGS).gauge().value();
+        first.release();
+        final double afterRelease = registry.get(NAME).tags(TAGS).gauge().value();
+
+        // then
+        assertEquals(5, both);
+        assertEquals(3, afterRelease);
+        second.release();
+    }
+
+    @Test
+    public void functionCounterKeepsCountsOfReleasedOwners() {
+        // given
+        final AtomicLong retired = new AtomicLong(4);
+        final AtomicLong live = new AtomicLong(1);
+        final SharedMeters.Handle first = SharedMeters.functionCounter(registry, NAME, TAGS, "test", retired::get);
+        final SharedMeters.Handle second = SharedMeters.functionCounter(registry, NAME, TAGS, "test", live::get);
+
+        // when
+        first.release();
+        live.incrementAndGet();
+
+        // then
+        assertEquals(6, registry.get(NAME).tags(TAGS).functionCounter().count());
+        second.release();
+    }
+
+    @Test
+    public void counterSumsIncrementsOfOwners() {
+        // given
+        final SharedMeters.Handle first = SharedMeters.counter(registry, NAME, TAGS, "test");
+        final SharedMeters.Handle second = SharedMeters.counter(registry, NAME, TAGS, "test");
+
+        // when
+        first.increment();
+        first.increment();
+        first.release();
+        second.increment();
+
+        // then
+        assertEquals(3, registry.get(NAME).tags(TAGS).functionCounter().count());
+        second.release();
+        assertNull(registry.find(NAME).tags(TAGS).functionCounter());
+    }
+
+    @Test
+    public void removesMeterWhenLastOwnerReleases() {
+        // given
+        final SharedMeters.Handle first = SharedMeters.timer(registry, NAME, TAGS, "test");
+        final SharedMeters.Handle second = SharedMeters.timer(registry, NAME, TAGS, "test");
+
+        // when
+        first.release();
+        first.release();
+        ((Timer) second.meter()).record(1, TimeUnit.MILLISECONDS);
+        final Timer afterFirstRelease = registry.find(NAME).tags(TAGS).timer();
+        second.release();
+
+        // then
+        assertSame(first.meter(), second.meter());
+        assertNotNull(afterFirstRelease);
+        assertEquals(1, afterFirstRelease.count());
+        assertNull(registry.find(NAME).tags(TAGS).timer());
+    }
+}
@@ -0,0 +1,202 @@
+package ch.uniport.gateway.proxy.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.uniport.gateway.proxy.config.model.ResponseCacheOptions;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class ResponseCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void evictsLeastRecentlyUsedByEntries() {
+        // given
+        final ResponseCache cache = cache(2, 1024);
+        cache.put("a", List.of(), headers(), response(10, "max-age=60"));
+        cache.put("b", List.of(), headers(), response(10, "max-age=60"));
+
+        // when
+        cache.get("a", headers());
+        cache.put("c", List.of(), headers(), response(10, "max-age=60"));
+
+        // then
+        assertNotNull(cache.get("a", headers()));
+        assertNull(cache.get("b", headers()));
+        assertNotNull(cache.get("c", headers()));
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedByBytes() {
+        // given
+        final ResponseCache cache = cache(100, 25);
+        cache.put("a", List.of(), headers(), response(10, "max-age=60"));
+        cache.put("b", List.of(), headers(), response(10, "max-age=60"));
+
+        // when
+        cache.put("c", List.of(), headers(), response(10, "max-age=60"));
+
+        // then
+        assertNull(cache.get("a", headers()));
+        assertNotNull(cache.get("b", headers()));
+        assertNotNull(cache.get("c", headers()));
+        assertEquals(20, cache.bytes());
+    }
+
+    @Test
+    public void skipsEntriesLargerThanTheCache() {
+        // given
+        final ResponseCache cache = cache(100, 25);
+
+        // when
+        cache.put("a", List.of(), headers(), response(30, "max-age=60"));
+
+        // then
+        assertNull(cache.get("a", headers()));
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    public void storesVariants() {
+        // given
+        final ResponseCache cache = cache(100, 1024);
+        final List<String> vary = List.of("accept-language");
+
+        // when
+        cache.put("a", vary, headers("accept-language", "de"), response(2, "max-age=60"));
+        cache.put("a", vary, headers("accept-language", "en"), response(3, "max-age=60"));
+
+        // then
+        assertEquals(2, cache.get("a", headers("accept-language", "de")).size());
+        assertEquals(3, cache.get("a", headers("Accept-Language", "en")).size());
+        assertNull(cache.get("a", headers("accept-language", "fr")));
+        assertNull(cache.get("a", headers()));
+    }
+
+    @Test
+    public void invalidatesAllVariants() {
+        // given
+        final ResponseCache cache = cache(100, 1024);
+        final List<String> vary = List.of("accept-language");
+        cache.put("a", vary, headers("accept-language", "de"), response(2, "max-age=60"));
+        cache.put("a", vary, headers("accept-language", "en"), response(3, "max-age=60"));
+
+        // when
+        cache.invalidate("a");
+
+        // then
+        assertNull(cache.get("a", headers("accept-language", "de")));
+        assertNull(cache.get("a", headers("accept-language", "en")));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    public void expiresAfterMaxAge() {
+        // given
+        final CachedResponse response = response(1, "max-age=60");
+
+        // when
+        clock.addAndGet(59_999);
+        final boolean freshBeforeMaxAge = response.isFresh(clock.get());
+        clock.addAndGet(1);
+
+        // then
+        assertTrue(freshBeforeMaxAge);
+        assertFalse(response.isFresh(clock.get()));
+        assertEquals(60, response.ageSeconds(clock.get()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "s-maxage=60, max-age=0", "public, max-age=60", "MAX-AGE=\"60\"" })
+    public void isFreshWithinLifetime(String cacheControl) {
+        // given
+        final CachedResponse response = response(1, cacheControl);
+
+        // when
+        clock.addAndGet(30_000);
+
+        // then
+        assertTrue(response.isFresh(clock.get()));
+    }
+
+    @Test
+    public void noCacheIsStale() {
+        // given
+        final CachedResponse response = response(1, "no-cache, max-age=60");
+
+        // when
+        final boolean fresh = response.isFresh(clock.get());
+
+        // then
+        assertFalse(fresh);
+    }
+
+    @Test
+    public void revalidationFreshensTheResponse() {
+        // given
+        final CachedResponse response = response(1, "max-age=60");
+        clock.addAndGet(120_000);
+
+        // when
+        final CachedResponse revalidated = response.revalidated(
+            headers(HttpHeaders.CACHE_CONTROL.toString(), "max-age=10"), clock.get());
+
+        // then
+        assertFalse(response.isFresh(clock.get()));
+        assertTrue(revalidated.isFresh(clock.get()));
+        assertEquals("max-age=10", revalidated.headers().get(HttpHeaders.CACHE_CONTROL));
+        assertEquals(1, revalidated.size());
+    }
+
+    @Test
+    public void storesBodiesOffHeap() {
+        // given
+        final Buffer body = Buffer.buffer("hello");
+
+        // when
+        final CachedResponse response = CachedResponse.of(200, "OK", headers(), body, clock.get(), true);
+
+        // then
+        assertEquals(5, response.size());
+        assertEquals("hello", response.body().toString());
+        assertEquals("hello", response.body().toString());
+    }
+
+    private ResponseCache cache(int maxEntries, int maxSizeBytes) {
+        return new ResponseCache(ResponseCacheOptions.builder()
+            .withEnabled(true)
+            .withMaxEntries(maxEntries)
+            .withMaxSizeBytes(maxSizeBytes)
+            .withMaxEntrySizeBytes(maxSizeBytes)
+            .build(),
+            clock::get);
+    }
+
+    private CachedResponse response(int size, String cacheControl) {
+        final MultiMap headers = headers(HttpHeaders.CACHE_CONTROL.toString(), cacheControl);
+        headers.add(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        return CachedResponse.of(200, "OK", headers, Buffer.buffer(new byte[size]), clock.get(), false);
+    }
+
+    private static MultiMap headers(String... nameValues) {
+        final MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+        for (int i = 0; i < nameValues.length; i += 2) {
+            headers.add(nameValues[i], nameValues[i + 1]);
+        }
+        return headers;
+    }
+}
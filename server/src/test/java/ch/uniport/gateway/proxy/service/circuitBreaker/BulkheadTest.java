@@ -0,0 +1,46 @@
+package ch.uniport.gateway.proxy.service.circuitBreaker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class BulkheadTest {
+
+    @Test
+    public void rejectsWhenFull() {
+        // given
+        final Bulkhead bulkhead = new Bulkhead(2);
+
+        // when
+        final boolean first = bulkhead.tryAcquire();
+        final boolean second = bulkhead.tryAcquire();
+        final boolean third = bulkhead.tryAcquire();
+
+        // then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(2, bulkhead.inFlight());
+    }
+
+    @Test
+    public void admitsAfterRelease() {
+        // given
+        final Bulkhead bulkhead = new Bulkhead(1);
+        bulkhead.tryAcquire();
+
+        // when
+        bulkhead.release();
+
+        // then
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    public void rejectsInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new Bulkhead(0));
+    }
+}
@@ -0,0 +1,213 @@
+package ch.uniport.gateway.proxy.service.circuitBreaker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import ch.uniport.gateway.proxy.config.model.CircuitBreakerOptions;
+import ch.uniport.gateway.proxy.service.circuitBreaker.CircuitBreaker.Permit;
+import ch.uniport.gateway.proxy.service.circuitBreaker.CircuitBreaker.State;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void opensWhenFailureRateIsReached() {
+        // given
+        final CircuitBreaker breaker = breaker(0);
+
+        // when
+        call(breaker, false, 1);
+        call(breaker, true, 1);
+        call(breaker, false, 1);
+        final State before = breaker.state();
+        call(breaker, true, 1);
+
+        // then
+        assertEquals(State.CLOSED, before);
+        assertEquals(State.OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+        assertEquals(1_000, breaker.remainingOpenMs());
+    }
+
+    @Test
+    public void staysClosedBelowMinimumCalls() {
+        // given
+        final CircuitBreaker breaker = breaker(0);
+
+        // when
+        call(breaker, true, 1);
+        call(breaker, true, 1);
+        call(breaker, true, 1);
+
+        // then
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    public void forgetsOutcomesOutsideOfWindow() {
+        // given
+        final CircuitBreaker breaker = breaker(0);
+
+        // when
+        call(breaker, true, 1);
+        for (int i = 0; i < 10; i++) {
+            call(breaker, false, 1);
+        }
+        call(breaker, true, 1);
+
+        // then
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    public void opensWhenSlowCallRateIsReached() {
+        // given
+        final CircuitBreaker breaker = breaker(100);
+
+        // when
+        call(breaker, false, 101);
+        call(breaker, false, 101);
+        call(breaker, false, 101);
+        call(breaker, false, 101);
+
+        // then
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    public void closesWhenProbesSucceed() {
+        // given
+        final CircuitBreaker breaker = open(breaker(0));
+
+        // when
+        clock.addAndGet(1_000);
+        final Permit firstProbe = breaker.tryAcquire();
+        final Permit secondProbe = breaker.tryAcquire();
+        final Permit thirdProbe = breaker.tryAcquire();
+        breaker.onResult(firstProbe, false, 1);
+        final State afterFirstProbe = breaker.state();
+        breaker.onResult(secondProbe, false, 1);
+
+        // then
+        assertNull(thirdProbe);
+        assertEquals(State.HALF_OPEN, afterFirstProbe);
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    public void reopensWhenProbeFails() {
+        // given
+        final CircuitBreaker breaker = open(breaker(0));
+
+        // when
+        clock.addAndGet(1_000);
+        breaker.onResult(breaker.tryAcquire(), true, 1);
+
+        // then
+        assertEquals(State.OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    public void releasedProbesCanBeReused() {
+        // given
+        final CircuitBreaker breaker = open(breaker(0));
+
+        // when
+        clock.addAndGet(1_000);
+        assertNotNull(breaker.tryAcquire());
+        breaker.release(breaker.tryAcquire());
+
+        // then
+        assertNotNull(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.state());
+    }
+
+    @Test
+    public void ignoresOutcomesPermittedBeforeTransition() {
+        // given
+        final CircuitBreaker breaker = breaker(0);
+        final Permit permittedWhileClosed = breaker.tryAcquire();
+        open(breaker);
+        clock.addAndGet(1_000);
+        final Permit probe = breaker.tryAcquire();
+
+        // when
+        breaker.onResult(permittedWhileClosed, true, 1);
+        final State afterStaleFailure = breaker.state();
+        breaker.onResult(probe, false, 1);
+
+        // then
+        assertEquals(State.HALF_OPEN, afterStaleFailure);
+        assertEquals(State.HALF_OPEN, breaker.state());
+        assertNotNull(breaker.tryAcquire());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    public void ignoresReleasesPermittedBeforeTransition() {
+        // given
+        final CircuitBreaker breaker = breaker(0);
+        final Permit permittedWhileClosed = breaker.tryAcquire();
+        open(breaker);
+        clock.addAndGet(1_000);
+        assertNotNull(breaker.tryAcquire());
+        assertNotNull(breaker.tryAcquire());
+
+        // when
+        breaker.release(permittedWhileClosed);
+
+        // then
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    public void usesPermitOnlyOnce() {
+        // given
+        final CircuitBreaker breaker = open(breaker(0));
+        clock.addAndGet(1_000);
+        final Permit probe = breaker.tryAcquire();
+        assertNotNull(breaker.tryAcquire());
+
+        // when
+        breaker.release(probe);
+        breaker.release(probe);
+        breaker.onResult(probe, true, 1);
+
+        // then
+        assertEquals(State.HALF_OPEN, breaker.state());
+        assertNotNull(breaker.tryAcquire());
+        assertNull(breaker.tryAcquire());
+    }
+
+    private CircuitBreaker open(CircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, 1);
+        }
+        assertEquals(State.OPEN, breaker.state());
+        return breaker;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean failure, long latencyMs) {
+        final Permit permit = breaker.tryAcquire();
+        assertNotNull(permit);
+        breaker.onResult(permit, failure, latencyMs);
+    }
+
+    private CircuitBreaker breaker(int slowCallDurationMs) {
+        return new CircuitBreaker("test", CircuitBreakerOptions.builder()
+            .withEnabled(true)
+            .withWindowSize(10)
+            .withMinimumCalls(4)
+            .withFailureRatePercent(50)
+            .withSlowCallDurationMs(slowCallDurationMs)
+            .withSlowCallRatePercent(100)
+            .withOpenDurationMs(1_000)
+            .withHalfOpenCalls(2)
+            .build(), clock::get);
+    }
+}
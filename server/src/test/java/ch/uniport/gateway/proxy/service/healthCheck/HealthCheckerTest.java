@@ -0,0 +1,65 @@
+package ch.uniport.gateway.proxy.service.healthCheck;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import ch.uniport.gateway.proxy.config.model.HealthCheckOptions;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class HealthCheckerTest {
+
+    private static final HealthCheckOptions OPTIONS = HealthCheckOptions.builder().build();
+
+    @Test
+    public void sharesCheckerOfService(Vertx vertx) {
+        // given
+        final HealthChecker first = HealthChecker.acquire(vertx, "service", List.of("a:80", "b:80"), OPTIONS);
+
+        // when
+        final HealthChecker second = HealthChecker.acquire(vertx, "service", List.of("a:80", "b:80"), OPTIONS);
+
+        // then
+        assertSame(first, second);
+        assertSame(first.upstreamHealth("a:80"), second.upstreamHealth("a:80"));
+        assertNotSame(first.upstreamHealth("a:80"), second.upstreamHealth("b:80"));
+        first.release(List.of());
+        second.release(List.of());
+    }
+
+    @Test
+    public void replacesCheckerIfUpstreamsChange(Vertx vertx) {
+        // given
+        final HealthChecker first = HealthChecker.acquire(vertx, "service", List.of("a:80"), OPTIONS);
+
+        // when
+        final HealthChecker second = HealthChecker.acquire(vertx, "service", List.of("a:80", "b:80"), OPTIONS);
+
+        // then
+        assertNotSame(first, second);
+        first.release(List.of());
+        assertSame(second, HealthChecker.acquire(vertx, "service", List.of("a:80", "b:80"), OPTIONS));
+        second.release(List.of());
+        second.release(List.of());
+    }
+
+    @Test
+    public void createsNewCheckerOnceReleasedByAllProxies(Vertx vertx) {
+        // given
+        final HealthChecker first = HealthChecker.acquire(vertx, "service", List.of("a:80"), OPTIONS);
+        final HealthChecker second = HealthChecker.acquire(vertx, "service", List.of("a:80"), OPTIONS);
+
+        // when
+        first.release(List.of());
+        second.release(List.of());
+        final HealthChecker third = HealthChecker.acquire(vertx, "service", List.of("a:80"), OPTIONS);
+
+        // then
+        assertNotSame(first, third);
+        third.release(List.of());
+    }
+}
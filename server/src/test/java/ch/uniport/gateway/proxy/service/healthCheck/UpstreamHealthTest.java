@@ -0,0 +1,183 @@
+package ch.uniport.gateway.proxy.service.healthCheck;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.uniport.gateway.proxy.config.model.ActiveHealthCheckOptions;
+import ch.uniport.gateway.proxy.config.model.HealthCheckOptions;
+import ch.uniport.gateway.proxy.config.model.PassiveHealthCheckOptions;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class UpstreamHealthTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void ejectsAfterConsecutiveFailures(Vertx vertx) {
+        // given
+        final HealthChecker checker = checker(vertx, 100);
+        final UpstreamHealth health = checker.upstreamHealth("a");
+        checker.upstreamHealth("b");
+
+        // when
+        health.onResponse(500, 1);
+        health.onResponse(502, 1);
+        final boolean availableBefore = health.isAvailable();
+        health.onFailure();
+
+        // then
+        assertTrue(availableBefore);
+        assertFalse(health.isAvailable());
+        clock.addAndGet(1_000);
+        assertTrue(health.isAvailable());
+    }
+
+    @Test
+    public void successResetsFailures(Vertx vertx) {
+        // given
+        final HealthChecker checker = checker(vertx, 100);
+        final UpstreamHealth health = checker.upstreamHealth("a");
+
+        // when
+        health.onResponse(500, 1);
+        health.onResponse(500, 1);
+        health.onResponse(200, 1);
+        health.onResponse(500, 1);
+
+        // then
+        assertTrue(health.isAvailable());
+    }
+
+    @Test
+    public void slowResponsesAreFailures(Vertx vertx) {
+        // given
+        final HealthChecker checker = checker(vertx, 100);
+        final UpstreamHealth health = checker.upstreamHealth("a");
+
+        // when
+        health.onResponse(200, 600);
+        health.onResponse(200, 600);
+        health.onResponse(200, 600);
+
+        // then
+        assertFalse(health.isAvailable());
+    }
+
+    @Test
+    public void ejectionBacksOffExponentially(Vertx vertx) {
+        // given
+        final HealthChecker checker = checker(vertx, 100);
+        final UpstreamHealth health = checker.upstreamHealth("a");
+
+        // when
+        fail(health);
+        clock.addAndGet(1_000);
+        fail(health);
+        clock.addAndGet(1_000);
+        final boolean availableAfterBase = health.isAvailable();
+        clock.addAndGet(1_000);
+
+        // then
+        assertFalse(availableAfterBase);
+        assertTrue(health.isAvailable());
+    }
+
+    @Test
+    public void ejectionIsCapped(Vertx vertx) {
+        // given
+        final HealthChecker checker = checker(vertx, 100);
+        final UpstreamHealth health = checker.upstreamHealth("a");
+
+        // when
+        fail(health);
+        clock.addAndGet(1_000);
+        fail(health);
+        clock.addAndGet(2_000);
+        fail(health);
+        clock.addAndGet(2_999);
+        final boolean availableBeforeMax = health.isAvailable();
+        clock.addAndGet(1);
+
+        // then
+        assertFalse(availableBeforeMax);
+        assertTrue(health.isAvailable());
+    }
+
+    @Test
+    public void respectsMaxEjectionPercent(Vertx vertx) {
+        // given
+        final HealthChecker checker = checker(vertx, 50);
+        final UpstreamHealth a = checker.upstreamHealth("a");
+        final UpstreamHealth b = checker.upstreamHealth("b");
+
+        // when
+        fail(a);
+        fail(b);
+
+        // then
+        assertFalse(a.isAvailable());
+        assertTrue(b.isAvailable());
+    }
+
+    @Test
+    public void activeProbes(Vertx vertx) {
+        // given
+        final HealthChecker checker = checker(vertx, 100);
+        final UpstreamHealth health = checker.upstreamHealth("a");
+
+        // when
+        health.onProbe(false);
+        final boolean availableAfterOneFailure = health.isAvailable();
+        health.onProbe(false);
+        final boolean availableAfterTwoFailures = health.isAvailable();
+        health.onProbe(true);
+
+        // then
+        assertTrue(availableAfterOneFailure);
+        assertFalse(availableAfterTwoFailures);
+        assertTrue(health.isAvailable());
+    }
+
+    @Test
+    public void alwaysHealthy() {
+        // given
+        final UpstreamHealth health = UpstreamHealth.alwaysHealthy();
+
+        // when
+        fail(health);
+        health.onProbe(false);
+        health.onProbe(false);
+
+        // then
+        assertTrue(health.isAvailable());
+    }
+
+    private HealthChecker checker(Vertx vertx, int maxEjectionPercent) {
+        return new HealthChecker(vertx, "service", HealthCheckOptions.builder()
+            .withActive(ActiveHealthCheckOptions.builder()
+                .withUnhealthyThreshold(2)
+                .withHealthyThreshold(1)
+                .build())
+            .withPassive(PassiveHealthCheckOptions.builder()
+                .withEnabled(true)
+                .withConsecutiveFailures(3)
+                .withLatencyThresholdMs(500)
+                .withBaseEjectionMs(1_000)
+                .withMaxEjectionMs(3_000)
+                .withMaxEjectionPercent(maxEjectionPercent)
+                .build())
+            .build(),
+            clock::get);
+    }
+
+    private static void fail(UpstreamHealth health) {
+        for (int i = 0; i < 3; i++) {
+            health.onFailure();
+        }
+    }
+}
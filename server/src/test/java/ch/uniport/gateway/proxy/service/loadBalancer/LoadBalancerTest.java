@@ -0,0 +1,232 @@
+package ch.uniport.gateway.proxy.service.loadBalancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ch.uniport.gateway.proxy.config.model.AbstractServiceModel;
+import ch.uniport.gateway.proxy.config.model.HealthCheckOptions;
+import ch.uniport.gateway.proxy.service.healthCheck.HealthChecker;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+@ExtendWith(VertxExtension.class)
+public class LoadBalancerTest {
+
+    @Test
+    public void roundRobin(Vertx vertx) {
+        // given
+        final List<Upstream> upstreams = upstreams(vertx, 1, 1, 1);
+        final LoadBalancer lb = LoadBalancer.of(LoadBalancingStrategy.ROUND_ROBIN, upstreams);
+
+        // when
+        final List<Upstream> selected = select(lb, 6);
+
+        // then
+        assertEquals(List.of(
+            upstreams.get(0), upstreams.get(1), upstreams.get(2),
+            upstreams.get(0), upstreams.get(1), upstreams.get(2)), selected);
+    }
+
+    @Test
+    public void weightedRoundRobin(Vertx vertx) {
+        // given
+        final List<Upstream> upstreams = upstreams(vertx, 5, 1, 1);
+        final LoadBalancer lb = LoadBalancer.of(LoadBalancingStrategy.WEIGHTED_ROUND_ROBIN, upstreams);
+
+        // when
+        final List<Upstream> selected = select(lb, 7);
+
+        // then
+        final Upstream a = upstreams.get(0);
+        final Upstream b = upstreams.get(1);
+        final Upstream c = upstreams.get(2);
+        assertEquals(List.of(a, a, b, a, c, a, a), selected);
+    }
+
+    @Test
+    public void weightedRoundRobinIsProportional(Vertx vertx) {
+        // given
+        final List<Upstream> upstreams = upstreams(vertx, 3, 2, 1);
+        final LoadBalancer lb = LoadBalancer.of(LoadBalancingStrategy.WEIGHTED_ROUND_ROBIN, upstreams);
+
+        // when
+        final Map<Upstream, Integer> counts = count(select(lb, 600));
+
+        // then
+        assertEquals(300, counts.get(upstreams.get(0)));
+        assertEquals(200, counts.get(upstreams.get(1)));
+        assertEquals(100, counts.get(upstreams.get(2)));
+    }
+
+    @Test
+    public void leastRequests(Vertx vertx) {
+        // given
+        final List<Upstream> upstreams = upstreams(vertx, 1, 1, 1);
+        final LoadBalancer lb = LoadBalancer.of(LoadBalancingStrategy.LEAST_REQUESTS, upstreams);
+        upstreams.get(0).acquire();
+        upstreams.get(0).acquire();
+        upstreams.get(1).acquire();
+
+        // when
+        final Upstream selected = lb.next();
+
+        // then
+        assertSame(upstreams.get(2), selected);
+    }
+
+    @Test
+    public void leastRequestsSpreadsIdleUpstreams(Vertx vertx) {
+        // given
+        final List<Upstream> upstreams = upstreams(vertx, 1, 1, 1);
+        final LoadBalancer lb = LoadBalancer.of(LoadBalancingStrategy.LEAST_REQUESTS, upstreams);
+
+        // when
+        final Map<Upstream, Integer> counts = count(select(lb, 30));
+
+        // then
+        for (Upstream upstream : upstreams) {
+            assertEquals(10, counts.get(upstream));
+        }
+    }
+
+    @Test
+    public void powerOfTwoChoicesAvoidsBusiestUpstream(Vertx vertx) {
+        // given
+        final List<Upstream> upstreams = upstreams(vertx, 1, 1, 1);
+        final LoadBalancer lb = LoadBalancer.of(LoadBalancingStrategy.POWER_OF_TWO_CHOICES, upstreams);
+        upstreams.get(0).acquire();
+
+        // when
+        final List<Upstream> selected = select(lb, 100);
+
+        // then
+        for (Upstream upstream : selected) {
+            assertNotEquals(upstreams.get(0), upstream);
+        }
+    }
+
+    @Test
+    public void powerOfTwoChoicesWithTwoUpstreams(Vertx vertx) {
+        // given
+        final List<Upstream> upstreams = upstreams(vertx, 1, 1);
+        final LoadBalancer lb = LoadBalancer.of(LoadBalancingStrategy.POWER_OF_TWO_CHOICES, upstreams);
+        upstreams.get(1).acquire();
+
+        // when
+        final List<Upstream> selected = select(lb, 20);
+
+        // then
+        for (Upstream upstream : selected) {
+            assertSame(upstreams.get(0), upstream);
+        }
+    }
+
+    @Test
+    public void singleUpstream(Vertx vertx) {
+        // given
+        final List<Upstream> upstreams = upstreams(vertx, 1);
+
+        for (LoadBalancingStrategy strategy : LoadBalancingStrategy.values()) {
+            // when
+            final LoadBalancer lb = LoadBalancer.of(strategy, upstreams);
+
+            // then
+            assertSame(upstreams.get(0), lb.next());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(LoadBalancingStrategy.class)
+    public void skipsUnavailableUpstreams(LoadBalancingStrategy strategy, Vertx vertx) {
+        // given
+        final HealthChecker checker = new HealthChecker(vertx, "service", HealthCheckOptions.builder().build());
+        final List<Upstream> upstreams = upstreams(vertx, checker, 1, 1, 1);
+        markUnhealthy(upstreams.get(1));
+        final LoadBalancer lb = LoadBalancer.of(strategy, upstreams);
+
+        // when
+        final Map<Upstream, Integer> counts = count(select(lb, 60));
+
+        // then
+        assertFalse(counts.containsKey(upstreams.get(1)));
+        assertEquals(60, counts.getOrDefault(upstreams.get(0), 0) + counts.getOrDefault(upstreams.get(2), 0));
+    }
+
+    @ParameterizedTest
+    @EnumSource(LoadBalancingStrategy.class)
+    public void fallsBackIfNoUpstreamIsAvailable(LoadBalancingStrategy strategy, Vertx vertx) {
+        // given
+        final HealthChecker checker = new HealthChecker(vertx, "service", HealthCheckOptions.builder().build());
+        final List<Upstream> upstreams = upstreams(vertx, checker, 1, 1);
+        upstreams.forEach(LoadBalancerTest::markUnhealthy);
+        final LoadBalancer lb = LoadBalancer.of(strategy, upstreams);
+
+        // when
+        final List<Upstream> selected = select(lb, 10);
+
+        // then
+        assertEquals(10, selected.size());
+        selected.forEach(Assertions::assertNotNull);
+    }
+
+    @Test
+    public void noUpstreams() {
+        // given
+        final List<Upstream> upstreams = List.of();
+
+        // when then
+        assertThrows(IllegalArgumentException.class, () -> LoadBalancer.of(LoadBalancingStrategy.ROUND_ROBIN, upstreams));
+    }
+
+    private static List<Upstream> upstreams(Vertx vertx, int... weights) {
+        final List<Upstream> upstreams = new ArrayList<>();
+        for (int i = 0; i < weights.length; i++) {
+            upstreams.add(new Upstream("http", "host-" + i, 8080, weights[i], vertx.createHttpClient()));
+        }
+        return upstreams;
+    }
+
+    private static List<Upstream> upstreams(Vertx vertx, HealthChecker checker, int... weights) {
+        final List<Upstream> upstreams = new ArrayList<>();
+        for (int i = 0; i < weights.length; i++) {
+            upstreams.add(new Upstream("http", "host-" + i, 8080, weights[i], vertx.createHttpClient(),
+                new AtomicInteger(), checker.upstreamHealth("host-" + i)));
+        }
+        return upstreams;
+    }
+
+    private static void markUnhealthy(Upstream upstream) {
+        for (int i = 0; i < AbstractServiceModel.DEFAULT_SERVICE_HEALTH_CHECK_ACTIVE_UNHEALTHY_THRESHOLD; i++) {
+            upstream.health().onProbe(false);
+        }
+    }
+
+    private static List<Upstream> select(LoadBalancer lb, int n) {
+        final List<Upstream> selected = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            selected.add(lb.next());
+        }
+        return selected;
+    }
+
+    private static Map<Upstream, Integer> count(List<Upstream> selected) {
+        final Map<Upstream, Integer> counts = new HashMap<>();
+        for (Upstream upstream : selected) {
+            counts.merge(upstream, 1, Integer::sum);
+        }
+        return counts;
+    }
+}
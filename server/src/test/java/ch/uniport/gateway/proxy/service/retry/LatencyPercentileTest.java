@@ -0,0 +1,59 @@
+package ch.uniport.gateway.proxy.service.retry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyPercentileTest {
+
+    @Test
+    public void isUnknownWithoutEnoughSamples() {
+        // given
+        final LatencyPercentile percentile = new LatencyPercentile(95);
+
+        // when
+        for (int i = 1; i < LatencyPercentile.MIN_SAMPLES; i++) {
+            percentile.record(i);
+        }
+
+        // then
+        assertEquals(-1, percentile.value());
+    }
+
+    @Test
+    public void estimatesPercentile() {
+        // given
+        final LatencyPercentile percentile = new LatencyPercentile(95);
+
+        // when
+        for (int i = 100; i >= 1; i--) {
+            percentile.record(i);
+        }
+
+        // then
+        assertEquals(95, percentile.value());
+    }
+
+    @Test
+    public void followsRecentLatencies() {
+        // given
+        final LatencyPercentile percentile = new LatencyPercentile(50);
+
+        // when
+        for (int i = 0; i < LatencyPercentile.WINDOW_SIZE; i++) {
+            percentile.record(10);
+        }
+        for (int i = 0; i < LatencyPercentile.WINDOW_SIZE; i++) {
+            percentile.record(200);
+        }
+
+        // then
+        assertEquals(200, percentile.value());
+    }
+
+    @Test
+    public void rejectsInvalidPercentile() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyPercentile(100));
+    }
+}
@@ -0,0 +1,64 @@
+package ch.uniport.gateway.proxy.service.retry;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class RetryBudgetTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void startsWithFullBucket() {
+        // given
+        final RetryBudget budget = new RetryBudget(0, 0, clock::get);
+
+        // when
+        for (int i = 0; i < RetryBudget.MIN_CAPACITY; i++) {
+            assertTrue(budget.tryWithdraw());
+        }
+
+        // then
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void requestsDepositTokens() {
+        // given
+        final RetryBudget budget = drained(new RetryBudget(20, 0, clock::get));
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            budget.deposit();
+        }
+        final boolean afterFourRequests = budget.tryWithdraw();
+        budget.deposit();
+
+        // then
+        assertFalse(afterFourRequests);
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void refillsWithMinimumRate() {
+        // given
+        final RetryBudget budget = drained(new RetryBudget(0, 10, clock::get));
+
+        // when
+        clock.addAndGet(100);
+
+        // then
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    private static RetryBudget drained(RetryBudget budget) {
+        while (budget.tryWithdraw()) {
+            // withdraw all tokens
+        }
+        return budget;
+    }
+}